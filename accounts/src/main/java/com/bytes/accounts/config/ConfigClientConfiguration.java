@@ -0,0 +1,29 @@
+package com.bytes.accounts.config;
+
+import com.bytes.common.config.ConfigSnapshotReconciler;
+import com.bytes.common.config.TargetedRefreshConfiguration;
+import com.bytes.common.controller.InfoResponseCache;
+import com.bytes.accounts.dto.AccountsContactInfoDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * Wires the config client support shared by the services: the targeted refresh, the config snapshot and the
+ * pre-rendered info responses of the {@code accounts} contact properties.
+ */
+@Configuration(proxyBeanMethods = false)
+@Import({ TargetedRefreshConfiguration.class, ConfigSnapshotReconciler.class })
+public class ConfigClientConfiguration {
+
+    @Bean
+    public InfoResponseCache infoResponseCache(Environment environment, ObjectMapper objectMapper,
+                                               @Value("${info-cache.max-age:60s}") Duration maxAge) {
+        return new InfoResponseCache( environment, objectMapper, maxAge, "accounts", AccountsContactInfoDto.class );
+    }
+}
@@ -6,6 +6,7 @@ import com.bytes.accounts.dto.CustomerDto;
 import com.bytes.accounts.dto.ErrorResponseDto;
 import com.bytes.accounts.dto.ResponseDto;
 import com.bytes.accounts.service.AccountsService;
+import com.bytes.common.controller.InfoResponseCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -15,9 +16,8 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Pattern;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.env.Environment;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -34,12 +34,7 @@ public class AccountsController {
 
     private final AccountsService accountsService;
 
-    @Value("${build.version}")
-    private String buildVersion;
-
-    private final Environment environment;
-
-    private final  AccountsContactInfoDto accountsContactInfoDto;
+    private final InfoResponseCache infoResponseCache;
 
     @Operation(
             summary = "Create Account REST API",
@@ -170,7 +165,11 @@ public class AccountsController {
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
-                    description = "HTTP Status OK"
+                    description = "HTTP Status OK",
+                    content = @Content(
+                            mediaType = MediaType.TEXT_PLAIN_VALUE,
+                            schema = @Schema(implementation = String.class)
+                    )
             ),
             @ApiResponse(
                     responseCode = "500",
@@ -178,10 +177,8 @@ public class AccountsController {
             )
     })
     @GetMapping("/build-info")
-    public ResponseEntity<String> getBuildVersion() {
-        return ResponseEntity
-                .status(HttpStatus.OK)
-                .body(buildVersion);
+    public ResponseEntity<byte[]> getBuildVersion() {
+        return infoResponseCache.buildInfo();
     }
 
     @Operation(
@@ -191,7 +188,11 @@ public class AccountsController {
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
-                    description = "HTTP Status OK"
+                    description = "HTTP Status OK",
+                    content = @Content(
+                            mediaType = MediaType.TEXT_PLAIN_VALUE,
+                            schema = @Schema(implementation = String.class)
+                    )
             ),
             @ApiResponse(
                     responseCode = "500",
@@ -199,10 +200,8 @@ public class AccountsController {
             )
     })
     @GetMapping("/java-version")
-    public ResponseEntity<String> getJavaVersion() {
-        return ResponseEntity
-                .status(HttpStatus.OK)
-                .body(environment.getProperty("JAVA_HOME"));
+    public ResponseEntity<byte[]> getJavaVersion() {
+        return infoResponseCache.javaVersion();
     }
 
 
@@ -213,7 +212,11 @@ public class AccountsController {
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
-                    description = "HTTP Status OK"
+                    description = "HTTP Status OK",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = AccountsContactInfoDto.class)
+                    )
             ),
             @ApiResponse(
                     responseCode = "500",
@@ -221,9 +224,7 @@ public class AccountsController {
             )
     })
     @GetMapping("/contact-info")
-    public ResponseEntity<AccountsContactInfoDto> getContactInfo() {
-        return ResponseEntity
-                .status(HttpStatus.OK)
-                .body(accountsContactInfoDto);
+    public ResponseEntity<byte[]> getContactInfo() {
+        return infoResponseCache.contactInfo();
     }
 }
@@ -0,0 +1,51 @@
+package com.bytes.accounts.openapi;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpenApiSpecGeneratorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void withoutServers_ShouldDropTheGeneratedServerUrlAndKeepThePaths() throws IOException {
+        // Arrange
+        byte[] document = """
+                {"openapi":"3.0.1","servers":[{"url":"http://localhost:41234","description":"Generated server url"}],
+                 "paths":{"/api/v1/accounts/fetch":{"get":{"operationId":"fetchAccountDetails"}}}}
+                """.getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        JsonNode result = objectMapper.readTree(OpenApiSpecGenerator.withoutServers(objectMapper, document));
+
+        // Assert
+        assertFalse(result.has("servers"));
+        assertEquals("fetchAccountDetails", result.at("/paths/~1api~1v1~1accounts~1fetch/get/operationId").asText());
+    }
+
+    @Test
+    void write_ShouldWriteThePlainAndTheGzippedDocument(@TempDir Path directory) throws IOException {
+        // Arrange
+        byte[] document = "{\"openapi\":\"3.0.1\"}".getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        OpenApiSpecGenerator.write(document, directory.resolve("openapi"));
+
+        // Assert
+        assertArrayEquals(document, Files.readAllBytes(directory.resolve("openapi/accounts.json")));
+        try (InputStream gzip = new GZIPInputStream(Files.newInputStream(directory.resolve("openapi/accounts.json.gz")))) {
+            assertArrayEquals(document, gzip.readAllBytes());
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.bytes.cards;
 
 import com.bytes.cards.dto.CardsContactInfoDto;
+import com.bytes.cards.dto.VelocityLimitsDto;
 import io.swagger.v3.oas.annotations.ExternalDocumentation;
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.info.Contact;
@@ -10,10 +11,12 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableJpaAuditing(auditorAwareRef = "auditAwareImpl")
-@EnableConfigurationProperties(value = {CardsContactInfoDto.class})
+@EnableScheduling
+@EnableConfigurationProperties(value = {CardsContactInfoDto.class, VelocityLimitsDto.class})
 @OpenAPIDefinition(
         info = @Info(
                 title = "Cards Microservice REST API Documentations",
@@ -1,5 +1,6 @@
 package com.bytes.cards.config;
 
+import com.bytes.cards.constants.CardsConstants;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.stereotype.Component;
 
@@ -10,7 +11,7 @@ public class AuditAwareImpl implements AuditorAware<String> {
 
     @Override
     public Optional<String> getCurrentAuditor() {
-        return Optional.of( "CARDS_MS" );
+        return Optional.of( CardsConstants.CARDS_MS );
     }
 
 }
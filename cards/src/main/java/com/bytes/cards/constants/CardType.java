@@ -0,0 +1,28 @@
+package com.bytes.cards.constants;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Card types that can be issued, stored in the card_type column by their label.
+ */
+public enum CardType {
+
+    DEBIT_CARD( "Debit Card" ),
+    CREDIT_CARD( CardsConstants.CREDIT_CARD ),
+    PREPAID_CARD( "Prepaid Card" );
+
+    private final String label;
+
+    CardType(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public static Optional<CardType> fromLabel(String label) {
+        return Arrays.stream( values() ).filter( type -> type.label.equals( label ) ).findFirst();
+    }
+}
@@ -6,12 +6,19 @@ public final class CardsConstants {
         // restrict instantiation
     }
 
+    public static final String  CARDS_MS = "CARDS_MS";
     public static final String  CREDIT_CARD = "Credit Card";
     public static final int  NEW_CARD_LIMIT = 1_00_000;
+    public static final int  MAX_CARDS_PER_CUSTOMER = 5;
+    public static final int  MAX_BATCH_FETCH_SIZE = 500;
+    public static final int  MAX_CREATE_CARD_ATTEMPTS = 5;
     public static final String  STATUS_201 = "201";
     public static final String  MESSAGE_201 = "Card created successfully";
     public static final String  STATUS_200 = "200";
     public static final String  MESSAGE_200 = "Request processed successfully";
+    public static final String  MESSAGE_200_CHARGE = "Charge authorized successfully";
+    public static final String  VELOCITY_LIMIT_EXCEEDED = "VELOCITY_LIMIT_EXCEEDED";
+    public static final String  INSUFFICIENT_LIMIT = "INSUFFICIENT_LIMIT";
     public static final String  STATUS_417 = "417";
     public static final String  MESSAGE_417_UPDATE= "Update operation failed. Please try again or contact Dev team";
     public static final String  MESSAGE_417_DELETE= "Delete operation failed. Please try again or contact Dev team";
@@ -0,0 +1,97 @@
+package com.bytes.cards.controller;
+
+import com.bytes.cards.dto.BulkIssuanceResultDto;
+import com.bytes.cards.dto.ErrorResponseDto;
+import com.bytes.cards.dto.StatementRunResultDto;
+import com.bytes.cards.service.BulkCardIssuanceService;
+import com.bytes.cards.service.StatementService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+
+@Tag(
+        name = "Batch REST APIs for Cards in EazyBank",
+        description = "Batch REST APIs in EazyBank to run bulk card jobs"
+)
+@RestController
+@RequestMapping(path = "/api/v1/cards/batch", produces = {MediaType.APPLICATION_JSON_VALUE})
+@RequiredArgsConstructor
+@Validated
+public class CardsBatchController {
+
+    private final BulkCardIssuanceService bulkCardIssuanceService;
+    private final StatementService statementService;
+
+    @Operation(
+            summary = "Bulk Card Issuance REST API",
+            description = "REST API to issue cards to every mobile number listed in a CSV file of the import directory, "
+                    + "from its start or from the startOffset reported by a failed run"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "HTTP Status Not Found",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/issue")
+    public ResponseEntity<BulkIssuanceResultDto> issueCards(@RequestParam String fileName,
+                                                            @RequestParam(defaultValue = "0")
+                                                            @PositiveOrZero(message = "Start offset should be equal or greater than zero")
+                                                            long startOffset) {
+        BulkIssuanceResultDto result = bulkCardIssuanceService.issueCards(fileName, startOffset);
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(result);
+    }
+
+    @Operation(
+            summary = "Monthly Statement Generation REST API",
+            description = "REST API to generate the statement of every card for a billing cycle given as yyyy-MM"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/statements")
+    public ResponseEntity<StatementRunResultDto> generateStatements(@RequestParam YearMonth cycle) {
+        StatementRunResultDto result = statementService.generateStatements(cycle);
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(result);
+    }
+}
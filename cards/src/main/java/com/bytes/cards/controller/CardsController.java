@@ -5,7 +5,11 @@ import com.bytes.cards.dto.CardsContactInfoDto;
 import com.bytes.cards.dto.CardsDto;
 import com.bytes.cards.dto.ErrorResponseDto;
 import com.bytes.cards.dto.ResponseDto;
+import com.bytes.cards.dto.RewardsBalanceDto;
 import com.bytes.cards.service.CardsService;
+import com.bytes.cards.service.RewardsService;
+import com.bytes.cards.validation.ValidCardType;
+import com.bytes.common.controller.InfoResponseCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -13,17 +17,21 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.env.Environment;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
+
 
 @Tag(
         name = "CRUD REST APIs for Cards in EazyBank",
@@ -37,12 +45,9 @@ public class CardsController {
 
     private final CardsService cardsService;
 
-    @Value( "${build.version}" )
-    private String buildVersion;
-
-    private final Environment environment;
+    private final RewardsService rewardsService;
 
-    private final CardsContactInfoDto cardsContactInfoDto;
+    private final InfoResponseCache infoResponseCache;
 
     @Operation(
             summary = "Create Card REST API",
@@ -65,8 +70,12 @@ public class CardsController {
     @PostMapping("/create")
     public ResponseEntity<ResponseDto> createCard(@Valid @RequestParam
                                                   @Pattern(regexp="(^$|[0-9]{10})",message = "Mobile number must be 10 digits")
-                                                  String mobileNumber) {
-        cardsService.createCard(mobileNumber);
+                                                  String mobileNumber,
+                                                  @RequestParam(defaultValue = CardsConstants.CREDIT_CARD)
+                                                  @NotEmpty(message = "CardType can not be a null or empty")
+                                                  @ValidCardType
+                                                  String cardType) {
+        cardsService.createCard(mobileNumber, cardType);
         return ResponseEntity
                 .status(HttpStatus.CREATED)
                 .body(new ResponseDto( CardsConstants.STATUS_201, CardsConstants.MESSAGE_201));
@@ -74,7 +83,7 @@ public class CardsController {
 
     @Operation(
             summary = "Fetch Card Details REST API",
-            description = "REST API to fetch card details based on a mobile number"
+            description = "REST API to fetch all the cards of a customer based on a mobile number"
     )
     @ApiResponses({
             @ApiResponse(
@@ -90,13 +99,48 @@ public class CardsController {
             )
     })
     @GetMapping("/fetch")
-    public ResponseEntity<CardsDto> fetchCardDetails(@RequestParam
-                                                     @Pattern(regexp="(^$|[0-9]{10})",message = "Mobile number must be 10 digits")
-                                                     String mobileNumber) {
-        CardsDto cardsDto = cardsService.fetchCard(mobileNumber);
+    public ResponseEntity<List<CardsDto>> fetchCardDetails(@RequestParam
+                                                           @Pattern(regexp="(^$|[0-9]{10})",message = "Mobile number must be 10 digits")
+                                                           String mobileNumber) {
+        List<CardsDto> cardsDtos = cardsService.fetchCards(mobileNumber);
         return ResponseEntity
                 .status(HttpStatus.OK)
-                .body(cardsDto);
+                .body(cardsDtos);
+    }
+
+    @Operation(
+            summary = "Fetch Cards of many Customers REST API",
+            description = "REST API to fetch the cards of a batch of customers in one call, keyed by mobile number"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "HTTP Status Bad Request",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/fetch-batch")
+    public ResponseEntity<Map<String, List<CardsDto>>> fetchCardsForCustomers(
+            @RequestBody
+            @Size(max = CardsConstants.MAX_BATCH_FETCH_SIZE, message = "At most 500 mobile numbers can be fetched at once")
+            List<@Pattern(regexp="(^$|[0-9]{10})",message = "Mobile number must be 10 digits") String> mobileNumbers) {
+        Map<String, List<CardsDto>> cardsByMobileNumber = cardsService.fetchCardsForCustomers(mobileNumbers);
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(cardsByMobileNumber);
     }
 
     @Operation(
@@ -134,9 +178,73 @@ public class CardsController {
         }
     }
 
+    @Operation(
+            summary = "Charge Card REST API",
+            description = "REST API to authorize a charge on a card, subject to velocity limits and the available amount"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "HTTP Status Not Found",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "422",
+                    description = "HTTP Status Unprocessable Entity, the charge was declined",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/charge")
+    public ResponseEntity<ResponseDto> chargeCard(@RequestParam
+                                                  @Pattern(regexp="[0-9]{12}",message = "CardNumber must be 12 digits")
+                                                  String cardNumber,
+                                                  @RequestParam
+                                                  @Positive(message = "Charge amount should be greater than zero")
+                                                  int amount) {
+        cardsService.chargeCard(cardNumber, amount);
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(new ResponseDto(CardsConstants.STATUS_200, CardsConstants.MESSAGE_200_CHARGE));
+    }
+
+    @Operation(
+            summary = "Fetch Rewards Balance REST API",
+            description = "REST API to fetch the rewards points earned on a card"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @GetMapping("/rewards")
+    public ResponseEntity<RewardsBalanceDto> fetchRewardsBalance(@RequestParam
+                                                                 @Pattern(regexp="[0-9]{12}",message = "CardNumber must be 12 digits")
+                                                                 String cardNumber) {
+        RewardsBalanceDto rewardsBalanceDto = rewardsService.getBalance(cardNumber);
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(rewardsBalanceDto);
+    }
+
     @Operation(
             summary = "Delete Card Details REST API",
-            description = "REST API to delete Card details based on a mobile number"
+            description = "REST API to delete all the cards of a customer based on a mobile number"
     )
     @ApiResponses({
             @ApiResponse(
@@ -178,7 +286,11 @@ public class CardsController {
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
-                    description = "HTTP Status OK"
+                    description = "HTTP Status OK",
+                    content = @Content(
+                            mediaType = MediaType.TEXT_PLAIN_VALUE,
+                            schema = @Schema(implementation = String.class)
+                    )
             ),
             @ApiResponse(
                     responseCode = "500",
@@ -189,11 +301,8 @@ public class CardsController {
             )
     })
     @GetMapping("/build-info")
-    public ResponseEntity<String> getBuildInfo(){
-        return ResponseEntity
-                .status( HttpStatus.OK )
-                .body(this.buildVersion  );
-
+    public ResponseEntity<byte[]> getBuildInfo() {
+        return infoResponseCache.buildInfo();
     }
 
     @Operation(
@@ -203,7 +312,11 @@ public class CardsController {
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
-                    description = "HTTP Status OK"
+                    description = "HTTP Status OK",
+                    content = @Content(
+                            mediaType = MediaType.TEXT_PLAIN_VALUE,
+                            schema = @Schema(implementation = String.class)
+                    )
             ),
             @ApiResponse(
                     responseCode = "500",
@@ -214,10 +327,8 @@ public class CardsController {
             )
     })
     @GetMapping("/java-version")
-    public ResponseEntity<String> getJavaVersion(){
-        return ResponseEntity
-                .status( HttpStatus.OK )
-                .body(environment.getProperty( "JAVA_HOME" ) );
+    public ResponseEntity<byte[]> getJavaVersion() {
+        return infoResponseCache.javaVersion();
     }
 
 
@@ -228,7 +339,11 @@ public class CardsController {
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
-                    description = "HTTP Status OK"
+                    description = "HTTP Status OK",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = CardsContactInfoDto.class)
+                    )
             ),
             @ApiResponse(
                     responseCode = "500",
@@ -236,9 +351,7 @@ public class CardsController {
             )
     })
     @GetMapping("/contact-info")
-    public ResponseEntity<CardsContactInfoDto> getContactInfo() {
-        return ResponseEntity
-                .status(HttpStatus.OK)
-                .body(cardsContactInfoDto);
+    public ResponseEntity<byte[]> getContactInfo() {
+        return infoResponseCache.contactInfo();
     }
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package com.bytes.cards.controller;
 
 import com.bytes.cards.dto.ErrorResponseDto;
+import com.bytes.cards.exception.BulkIssuanceFailedException;
 import com.bytes.cards.exception.CardAlreadyExistException;
+import com.bytes.cards.exception.ChargeDeclinedException;
 import com.bytes.cards.exception.ResourceNotFoundException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
@@ -68,6 +70,34 @@ public class GlobalExceptionController extends ResponseEntityExceptionHandler {
                 .body( errorResponse );
     }
 
+    @ExceptionHandler(ChargeDeclinedException.class)
+    public ResponseEntity<ErrorResponseDto> handleChargeDeclinedException(ChargeDeclinedException exception, WebRequest request) {
+        log.warn("ChargeDeclinedException: {}", exception.getMessage());
+        ErrorResponseDto errorResponse = ErrorResponseDto.builder()
+                .apiPath(request.getDescription(false))
+                .errorCode(exception.getReason())
+                .errorMessage(exception.getMessage())
+                .errorTime( LocalDateTime.now() )
+                .build();
+        return ResponseEntity
+                .status( HttpStatus.UNPROCESSABLE_ENTITY )
+                .body( errorResponse );
+    }
+
+    @ExceptionHandler(BulkIssuanceFailedException.class)
+    public ResponseEntity<ErrorResponseDto> handleBulkIssuanceFailedException(Exception exception, WebRequest request) {
+        log.error("BulkIssuanceFailedException: {}", exception.getMessage());
+        ErrorResponseDto errorResponse = ErrorResponseDto.builder()
+                .apiPath(request.getDescription(false))
+                .errorCode("BULK_ISSUANCE_FAILED")
+                .errorMessage(exception.getMessage())
+                .errorTime( LocalDateTime.now() )
+                .build();
+        return ResponseEntity
+                .status( HttpStatus.INTERNAL_SERVER_ERROR )
+                .body( errorResponse );
+    }
+
     public ResponseEntity<ErrorResponseDto> handleGenericException(Exception exception, WebRequest request) {
         log.error("Generic Exception: ", exception);
         ErrorResponseDto errorResponse = ErrorResponseDto.builder()
@@ -0,0 +1,45 @@
+package com.bytes.cards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(
+        name = "BulkIssuanceResult",
+        description = "Schema to hold the outcome of a bulk card issuance run"
+)
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkIssuanceResultDto {
+
+    @Schema(description = "Byte offset in the file the run started from", example = "0")
+    private long startOffset;
+
+    @Schema(description = "Byte offset after the last line read, use it as startOffset to resume", example = "2750000")
+    private long nextOffset;
+
+    @Schema(description = "Number of chunks processed by the run", example = "250")
+    private long chunks;
+
+    @Schema(description = "Number of lines read from the file by the run", example = "250000")
+    private long linesRead;
+
+    @Schema(description = "Number of new cards inserted", example = "248000")
+    private long cardsIssued;
+
+    @Schema(description = "Number of mobile numbers skipped because a card already exists", example = "1900")
+    private long alreadyIssued;
+
+    @Schema(description = "Number of lines rejected because they are not valid mobile numbers", example = "100")
+    private long rejected;
+
+    @Schema(description = "Total run time in milliseconds", example = "41250")
+    private long elapsedMillis;
+
+    @Schema(description = "Lines processed per second", example = "6060.6")
+    private double rowsPerSecond;
+}
@@ -1,5 +1,6 @@
 package com.bytes.cards.dto;
 
+import com.bytes.cards.validation.ValidCardType;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Pattern;
@@ -29,8 +30,10 @@ public class CardsDto {
     private String cardNumber;
 
     @NotEmpty(message = "CardType can not be a null or empty")
+    @ValidCardType
     @Schema(
-            description = "Type of the card", example = "Credit Card"
+            description = "Type of the card", example = "Credit Card",
+            allowableValues = {"Debit Card", "Credit Card", "Prepaid Card"}
     )
     private String cardType;
 
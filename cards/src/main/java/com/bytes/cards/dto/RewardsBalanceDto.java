@@ -0,0 +1,24 @@
+package com.bytes.cards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(
+        name = "RewardsBalance",
+        description = "Schema to hold the rewards points balance of a card"
+)
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RewardsBalanceDto {
+
+    @Schema(description = "Card Number of the customer", example = "100646930341")
+    private String cardNumber;
+
+    @Schema(description = "Rewards points earned on the card", example = "1250")
+    private long points;
+}
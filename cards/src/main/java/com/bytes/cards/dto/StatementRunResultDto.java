@@ -0,0 +1,38 @@
+package com.bytes.cards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Schema(
+        name = "StatementRunResult",
+        description = "Schema to hold the outcome of a statement generation run"
+)
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StatementRunResultDto {
+
+    @Schema(description = "Statement cycle", example = "2026-09")
+    private String cycle;
+
+    @Schema(description = "Number of card statements written", example = "1000000")
+    private long statements;
+
+    @Schema(description = "Number of charges included in the statements", example = "5400000")
+    private long charges;
+
+    @Schema(description = "Statement files written, one per worker")
+    private List<String> files;
+
+    @Schema(description = "Total run time in milliseconds", example = "95000")
+    private long elapsedMillis;
+
+    @Schema(description = "Statements written per second", example = "10526.3")
+    private double statementsPerSecond;
+}
@@ -0,0 +1,23 @@
+package com.bytes.cards.dto;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "cards.velocity")
+public record VelocityLimitsDto(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("32") int memoryBudgetMb,
+        WindowLimit perMinute,
+        WindowLimit perHour,
+        WindowLimit perDay
+) {
+
+    public VelocityLimitsDto {
+        perMinute = perMinute != null ? perMinute : new WindowLimit(5, 20_000);
+        perHour = perHour != null ? perHour : new WindowLimit(30, 1_00_000);
+        perDay = perDay != null ? perDay : new WindowLimit(100, 2_00_000);
+    }
+
+    public record WindowLimit(int maxCount, long maxAmount) {
+    }
+}
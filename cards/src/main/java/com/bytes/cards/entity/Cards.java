@@ -21,6 +21,8 @@ public class Cards extends BaseEntity {
     private String mobileNumber;
     private String cardNumber;
     private String cardType;
+    // 1 to MAX_CARDS_PER_CUSTOMER, unique per customer so concurrent issues cannot exceed the cap
+    private int cardSlot;
     private int totalLimit;
     private int amountUsed;
     private int availableAmount;
@@ -0,0 +1,10 @@
+package com.bytes.cards.event;
+
+/**
+ * Published once a charge has been applied to a card.
+ *
+ * @param cardNumber - Card Number of the charged card
+ * @param amount - Charged amount
+ */
+public record CardChargedEvent(String cardNumber, int amount) {
+}
@@ -0,0 +1,8 @@
+package com.bytes.cards.exception;
+
+public class BulkIssuanceFailedException extends RuntimeException{
+
+    public BulkIssuanceFailedException(long chunk, long offset, Throwable cause) {
+        super( String.format("Bulk issuance failed at chunk %d, restart with startOffset=%d", chunk, offset), cause);
+    }
+}
@@ -0,0 +1,14 @@
+package com.bytes.cards.exception;
+
+import lombok.Getter;
+
+@Getter
+public class ChargeDeclinedException extends RuntimeException{
+
+    private final String reason;
+
+    public ChargeDeclinedException(String reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+}
@@ -0,0 +1,91 @@
+package com.bytes.cards.openapi;
+
+import com.bytes.cards.CardsApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationListener;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the OpenAPI document of the service to {@code <directory>/cards.json}, and gzipped next to it, for the
+ * prod profile to serve as a static resource instead of scanning the controllers at runtime.
+ * <p>
+ * Run by the build in the prepare-package phase, see the pom. The application is started on a random port
+ * without the config server, the database or the broker, and the document is fetched from springdoc once the web
+ * server is up, after which the application exits without ever becoming ready.
+ */
+public class OpenApiSpecGenerator {
+
+    static final String DOCUMENT_NAME = "cards.json";
+
+    public static void main(String[] args) {
+        Path directory = Path.of( args[0] );
+        System.setProperty( "spring.devtools.restart.enabled", "false" );
+        SpringApplication application = new SpringApplication( CardsApplication.class );
+        application.addListeners( (ApplicationListener<ApplicationStartedEvent>) event -> {
+            int exitCode = 0;
+            try {
+                write( fetch( event ), directory );
+            } catch (IOException e) {
+                e.printStackTrace();
+                exitCode = 1;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                e.printStackTrace();
+                exitCode = 1;
+            }
+            SpringApplication.exit( event.getApplicationContext() );
+            System.exit( exitCode );
+        } );
+        application.run(
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--spring.cloud.config.enabled=false",
+                "--config-snapshot.enabled=false",
+                "--spring.sql.init.mode=never",
+                "--spring.jpa.database-platform=org.hibernate.dialect.MySQLDialect",
+                "--spring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=false",
+                "--springdoc.api-docs.enabled=true" );
+    }
+
+    private static byte[] fetch(ApplicationStartedEvent event) throws IOException, InterruptedException {
+        int port = ((WebServerApplicationContext) event.getApplicationContext()).getWebServer().getPort();
+        HttpResponse<byte[]> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder( URI.create( "http://localhost:" + port + "/v3/api-docs" ) ).build(),
+                HttpResponse.BodyHandlers.ofByteArray() );
+        if (response.statusCode() != 200) {
+            throw new IOException( "springdoc answered " + response.statusCode() );
+        }
+        return withoutServers( new ObjectMapper(), response.body() );
+    }
+
+    /**
+     * Drops the server url springdoc derives from the request, {@code http://localhost:<random port>} here, so
+     * clients resolve the operations relative to wherever the document was served from.
+     */
+    static byte[] withoutServers(ObjectMapper objectMapper, byte[] document) throws IOException {
+        ObjectNode tree = (ObjectNode) objectMapper.readTree( document );
+        tree.remove( "servers" );
+        return objectMapper.writeValueAsBytes( tree );
+    }
+
+    static void write(byte[] document, Path directory) throws IOException {
+        Files.createDirectories( directory );
+        Files.write( directory.resolve( DOCUMENT_NAME ), document );
+        try (OutputStream gzip = new GZIPOutputStream( Files.newOutputStream( directory.resolve( DOCUMENT_NAME + ".gz" ) ) )) {
+            gzip.write( document );
+        }
+    }
+}
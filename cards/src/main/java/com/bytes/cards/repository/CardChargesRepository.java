@@ -0,0 +1,8 @@
+package com.bytes.cards.repository;
+
+import com.bytes.cards.entity.CardCharges;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface CardChargesRepository extends JpaRepository<CardCharges,Long> {
+
+}
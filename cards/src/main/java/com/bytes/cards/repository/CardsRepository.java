@@ -2,12 +2,52 @@ package com.bytes.cards.repository;
 
 import com.bytes.cards.entity.Cards;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface CardsRepository extends JpaRepository<Cards,Long> {
 
-    Optional<Cards> findByMobileNumber(String mobileNumber);
+    List<Cards> findByMobileNumber(String mobileNumber);
+
+    /**
+     * Loads the cards of many customers with a single IN query on the indexed mobile_number column.
+     *
+     * @param mobileNumbers - Mobile Numbers of the Customers
+     * @return the cards held by any of the given customers
+     */
+    List<Cards> findByMobileNumberIn(Collection<String> mobileNumbers);
+
+    @Query("SELECT c.cardSlot FROM Cards c WHERE c.mobileNumber = :mobileNumber")
+    List<Integer> findCardSlotsByMobileNumber(@Param("mobileNumber") String mobileNumber);
 
     Optional<Cards> findByCardNumber(String cardNumber);
+
+    /**
+     * Set based lookup used by bulk jobs to find which of the given customers already hold a card.
+     *
+     * @param mobileNumbers - Mobile Numbers of the Customers
+     * @return the subset of mobile numbers that already have a card
+     */
+    @Query("SELECT DISTINCT c.mobileNumber FROM Cards c WHERE c.mobileNumber IN :mobileNumbers")
+    Set<String> findMobileNumbersWithCards(@Param("mobileNumbers") Collection<String> mobileNumbers);
+
+    /**
+     * Applies a charge in one statement, only when the card has enough available amount left.
+     *
+     * @return 1 when the charge was applied, 0 when the card does not exist or the limit is insufficient
+     */
+    @Modifying
+    @Query("UPDATE Cards c SET c.amountUsed = c.amountUsed + :amount, c.availableAmount = c.availableAmount - :amount "
+            + "WHERE c.cardNumber = :cardNumber AND c.availableAmount >= :amount")
+    int chargeCard(@Param("cardNumber") String cardNumber, @Param("amount") int amount);
+
+    @Modifying
+    @Query("DELETE FROM Cards c WHERE c.mobileNumber = :mobileNumber")
+    int deleteAllByMobileNumber(@Param("mobileNumber") String mobileNumber);
 }
@@ -0,0 +1,9 @@
+package com.bytes.cards.service;
+
+import com.bytes.cards.dto.BulkIssuanceResultDto;
+
+public interface BulkCardIssuanceService {
+
+    BulkIssuanceResultDto issueCards(String fileName, long startOffset);
+
+}
@@ -2,11 +2,17 @@ package com.bytes.cards.service;
 
 import com.bytes.cards.dto.CardsDto;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 public interface CardsService {
 
-    void createCard(String mobileNumber);
-    CardsDto fetchCard(String mobileNumber);
+    void createCard(String mobileNumber, String cardType);
+    List<CardsDto> fetchCards(String mobileNumber);
+    Map<String, List<CardsDto>> fetchCardsForCustomers(Collection<String> mobileNumbers);
     boolean updateCard(CardsDto cardsDto);
+    void chargeCard(String cardNumber, int amount);
     boolean deleteCard(String mobileNumber);
 
 }
@@ -0,0 +1,25 @@
+package com.bytes.cards.service;
+
+import com.bytes.cards.dto.RewardsBalanceDto;
+
+public interface RewardsService {
+
+    /**
+     * @param cardNumber - Card Number of the charged card
+     * @param amount - Charged amount
+     */
+    void accrue(String cardNumber, int amount);
+
+    /**
+     * @param cardNumber - Card Number
+     * @return the rewards points balance of the card
+     */
+    RewardsBalanceDto getBalance(String cardNumber);
+
+    /**
+     * Persists the points accrued since the previous flush.
+     *
+     * @return number of cards whose balance was written
+     */
+    int flush();
+}
@@ -0,0 +1,11 @@
+package com.bytes.cards.service;
+
+import com.bytes.cards.dto.StatementRunResultDto;
+
+import java.time.YearMonth;
+
+public interface StatementService {
+
+    StatementRunResultDto generateStatements(YearMonth cycle);
+
+}
@@ -0,0 +1,19 @@
+package com.bytes.cards.service;
+
+public interface VelocityService {
+
+    /**
+     * Checks a charge against the velocity limits of the card and counts it towards them.
+     *
+     * @return the epoch second the charge was counted at, or -1 when it was not counted
+     */
+    long authorize(String cardNumber, int amount);
+
+    /**
+     * Takes back a charge counted by {@link #authorize(String, int)} that was not applied after all.
+     *
+     * @param authorizedAt - Epoch second returned by the authorization
+     */
+    void revoke(String cardNumber, int amount, long authorizedAt);
+
+}
@@ -0,0 +1,264 @@
+package com.bytes.cards.service.impl;
+
+import com.bytes.cards.constants.CardsConstants;
+import com.bytes.cards.dto.BulkIssuanceResultDto;
+import com.bytes.cards.exception.BulkIssuanceFailedException;
+import com.bytes.cards.exception.ResourceNotFoundException;
+import com.bytes.cards.repository.CardsRepository;
+import com.bytes.cards.service.BulkCardIssuanceService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Issues cards to a large list of existing customers. The CSV is streamed line by line and handled in
+ * fixed size chunks: one IN query per chunk filters customers that already hold a card and the remaining
+ * rows are written with a single JDBC batch inside the chunk transaction. A failed run is resumed by
+ * passing the reported byte offset of the failed chunk as {@code startOffset}, which is seeked to directly
+ * instead of reading the committed chunks again. Card numbers are random and unique in the table, a chunk
+ * that draws a number already issued, or races a card created for one of its customers, is rolled back and
+ * retried with fresh numbers. Only customers without a card are issued one, in their first card slot.
+ * Files are only read from the configured import directory.
+ */
+@Service
+@Slf4j
+public class BulkCardIssuanceServiceImpl implements BulkCardIssuanceService {
+
+    private static final Pattern MOBILE_NUMBER = Pattern.compile("[0-9]{10}");
+    private static final int MAX_CHUNK_ATTEMPTS = 3;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private static final String INSERT_CARD_SQL = "INSERT INTO cards (mobile_number, card_number, card_type, card_slot, "
+            + "total_limit, amount_used, available_amount, created_at, created_by) VALUES (?, ?, ?, 1, ?, ?, ?, ?, ?)";
+
+    private final CardsRepository cardsRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Path importDirectory;
+    private final int chunkSize;
+
+    public BulkCardIssuanceServiceImpl(CardsRepository cardsRepository, JdbcTemplate jdbcTemplate,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${cards.bulk-issuance.directory:${java.io.tmpdir}}") String importDirectory,
+                                       @Value("${cards.bulk-issuance.chunk-size:1000}") int chunkSize) {
+        this.cardsRepository = cardsRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate( transactionManager );
+        this.importDirectory = Path.of( importDirectory ).toAbsolutePath().normalize();
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public BulkIssuanceResultDto issueCards(String fileName, long startOffset) {
+        Path csvFile = importDirectory.resolve( fileName ).normalize();
+        if (!csvFile.startsWith( importDirectory ) || !Files.isRegularFile( csvFile )) {
+            throw new ResourceNotFoundException( "Bulk issuance file", "fileName", fileName );
+        }
+        log.info( "Starting bulk card issuance from {} at offset {} with chunk size {}", csvFile, startOffset, chunkSize );
+        long startNanos = System.nanoTime();
+        long chunk = 0;
+        long linesRead = 0;
+        long cardsIssued = 0;
+        long alreadyIssued = 0;
+        long rejected = 0;
+        long offset = startOffset;
+
+        try (OffsetLineReader reader = new OffsetLineReader( csvFile, startOffset )) {
+            if (!reader.isAtLineStart()) {
+                throw new ResourceNotFoundException( "Bulk issuance line", "startOffset", Long.toString( startOffset ) );
+            }
+            Set<String> mobileNumbers = new LinkedHashSet<>( chunkSize * 2 );
+            while (true) {
+                mobileNumbers.clear();
+                long chunkOffset = reader.offset();
+                int linesInChunk = 0;
+                String line;
+                while (linesInChunk < chunkSize && (line = reader.readLine()) != null) {
+                    linesInChunk++;
+                    String mobileNumber = firstColumn( line );
+                    if (MOBILE_NUMBER.matcher( mobileNumber ).matches()) {
+                        mobileNumbers.add( mobileNumber );
+                    } else {
+                        rejected++;
+                    }
+                }
+                if (linesInChunk == 0) {
+                    break;
+                }
+                linesRead += linesInChunk;
+                int requested = mobileNumbers.size();
+                int issued = issueChunk( chunk, chunkOffset, mobileNumbers );
+                cardsIssued += issued;
+                alreadyIssued += requested - issued;
+                chunk++;
+                offset = reader.offset();
+                if (chunk % 100 == 0) {
+                    log.info( "Bulk card issuance reached chunk {}: {} lines, {} cards issued, {} rows/sec",
+                            chunk, linesRead, cardsIssued, rowsPerSecond( linesRead, startNanos ) );
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException( "Unable to read bulk issuance file " + csvFile, e );
+        }
+
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        BulkIssuanceResultDto result = BulkIssuanceResultDto.builder()
+                .startOffset( startOffset )
+                .nextOffset( offset )
+                .chunks( chunk )
+                .linesRead( linesRead )
+                .cardsIssued( cardsIssued )
+                .alreadyIssued( alreadyIssued )
+                .rejected( rejected )
+                .elapsedMillis( elapsedMillis )
+                .rowsPerSecond( rowsPerSecond( linesRead, startNanos ) )
+                .build();
+        log.info( "Finished bulk card issuance from {}: {}", csvFile, result );
+        return result;
+    }
+
+    /**
+     * Filters out customers that already hold a card and inserts the rest in one JDBC batch. A duplicate key
+     * rolls the whole chunk back; it is retried with new card numbers and a fresh filter, as the conflicting
+     * row may as well be a card issued to one of the customers in the meantime.
+     *
+     * @return number of cards inserted for the chunk
+     */
+    private int issueChunk(long chunk, long chunkOffset, Set<String> mobileNumbers) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return insertChunk( mobileNumbers );
+            } catch (DuplicateKeyException e) {
+                if (attempt == MAX_CHUNK_ATTEMPTS) {
+                    log.error( "Bulk card issuance failed at chunk {} after {} duplicate keys", chunk, attempt, e );
+                    throw new BulkIssuanceFailedException( chunk, chunkOffset, e );
+                }
+                log.warn( "Duplicate key in chunk {}, retrying it with new card numbers: {}", chunk, e.getMessage() );
+            } catch (RuntimeException e) {
+                log.error( "Bulk card issuance failed at chunk {}", chunk, e );
+                throw new BulkIssuanceFailedException( chunk, chunkOffset, e );
+            }
+        }
+    }
+
+    private int insertChunk(Set<String> mobileNumbers) {
+        if (mobileNumbers.isEmpty()) {
+            return 0;
+        }
+        Integer issued = transactionTemplate.execute( status -> {
+            Set<String> pending = new LinkedHashSet<>( mobileNumbers );
+            pending.removeAll( cardsRepository.findMobileNumbersWithCards( pending ) );
+            if (pending.isEmpty()) {
+                return 0;
+            }
+            Timestamp createdAt = Timestamp.valueOf( LocalDateTime.now() );
+            List<Object[]> rows = new ArrayList<>( pending.size() );
+            for (String mobileNumber : pending) {
+                rows.add( new Object[]{mobileNumber, newCardNumber(), CardsConstants.CREDIT_CARD,
+                        CardsConstants.NEW_CARD_LIMIT, 0, CardsConstants.NEW_CARD_LIMIT, createdAt, CardsConstants.CARDS_MS} );
+            }
+            jdbcTemplate.batchUpdate( INSERT_CARD_SQL, rows );
+            return rows.size();
+        } );
+        return issued == null ? 0 : issued;
+    }
+
+    private static String firstColumn(String line) {
+        int comma = line.indexOf( ',' );
+        return (comma < 0 ? line : line.substring( 0, comma )).trim();
+    }
+
+    private static String newCardNumber() {
+        return Long.toString( 100000000000L + ThreadLocalRandom.current().nextInt( 900000000 ) );
+    }
+
+    /**
+     * Reads UTF-8 lines from a byte offset and keeps track of the offset the next line starts at.
+     */
+    static final class OffsetLineReader implements Closeable {
+
+        private final FileChannel channel;
+        private final InputStream input;
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream( 64 );
+        private final boolean atLineStart;
+        private long offset;
+
+        OffsetLineReader(Path file, long offset) throws IOException {
+            this.channel = FileChannel.open( file, StandardOpenOption.READ );
+            this.offset = offset;
+            this.atLineStart = offset == 0 || (offset <= channel.size() && precededByNewline( channel, offset ));
+            channel.position( offset );
+            this.input = new BufferedInputStream( Channels.newInputStream( channel ), READ_BUFFER_SIZE );
+        }
+
+        boolean isAtLineStart() {
+            return atLineStart;
+        }
+
+        long offset() {
+            return offset;
+        }
+
+        /**
+         * @return the next line without its terminator, or null at the end of the file
+         */
+        String readLine() throws IOException {
+            line.reset();
+            int b = input.read();
+            if (b == -1) {
+                return null;
+            }
+            while (b != -1) {
+                offset++;
+                if (b == '\n') {
+                    break;
+                }
+                line.write( b );
+                b = input.read();
+            }
+            String text = line.toString( StandardCharsets.UTF_8 );
+            return text.endsWith( "\r" ) ? text.substring( 0, text.length() - 1 ) : text;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        private static boolean precededByNewline(FileChannel channel, long offset) throws IOException {
+            ByteBuffer previous = ByteBuffer.allocate( 1 );
+            return channel.read( previous, offset - 1 ) == 1 && previous.get( 0 ) == '\n';
+        }
+    }
+
+    private static double rowsPerSecond(long rows, long startNanos) {
+        long elapsedNanos = Math.max( 1, System.nanoTime() - startNanos );
+        return rows * 1_000_000_000d / elapsedNanos;
+    }
+}
@@ -2,17 +2,31 @@ package com.bytes.cards.service.impl;
 
 import com.bytes.cards.constants.CardsConstants;
 import com.bytes.cards.dto.CardsDto;
+import com.bytes.cards.entity.CardCharges;
 import com.bytes.cards.entity.Cards;
+import com.bytes.cards.event.CardChargedEvent;
 import com.bytes.cards.exception.CardAlreadyExistException;
+import com.bytes.cards.exception.ChargeDeclinedException;
 import com.bytes.cards.exception.ResourceNotFoundException;
 import com.bytes.cards.mapper.CardMapper;
+import com.bytes.cards.repository.CardChargesRepository;
 import com.bytes.cards.repository.CardsRepository;
 import com.bytes.cards.service.CardsService;
+import com.bytes.cards.service.VelocityService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
 @Service
@@ -21,26 +35,63 @@ import java.util.Random;
 public class CardsServiceImpl implements CardsService {
 
     private final CardsRepository cardsRepository;
+    private final CardChargesRepository cardChargesRepository;
+    private final VelocityService velocityService;
+    private final ApplicationEventPublisher eventPublisher;
 
+    /**
+     * Issues the card in the lowest free card slot of the customer. Slots are unique per customer, so of two
+     * concurrent issues into the same slot one fails on the unique key and looks for a free slot again, and no
+     * customer ends up with more than {@link CardsConstants#MAX_CARDS_PER_CUSTOMER} cards. Card numbers are
+     * random and unique in the table, a number that is already issued is drawn again.
+     */
     @Override
-    public void createCard(String mobileNumber) {
-        Optional<Cards> optionalCards= cardsRepository.findByMobileNumber(mobileNumber);
-        if(optionalCards.isPresent()){
-            throw new CardAlreadyExistException("Card already registered with given mobileNumber "+mobileNumber);
+    public void createCard(String mobileNumber, String cardType) {
+        for (int attempt = 1; ; attempt++) {
+            int cardSlot = freeCardSlot(cardsRepository.findCardSlotsByMobileNumber(mobileNumber));
+            if(cardSlot == 0){
+                throw new CardAlreadyExistException("Maximum of " + CardsConstants.MAX_CARDS_PER_CUSTOMER
+                        + " cards already registered with given mobileNumber " + mobileNumber);
+            }
+            Cards newCard = createNewCard(mobileNumber, cardType, cardSlot);
+            try {
+                cardsRepository.save(newCard);
+                return;
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == CardsConstants.MAX_CREATE_CARD_ATTEMPTS) {
+                    throw e;
+                }
+                log.warn( "Card number {} or slot {} of {} was taken concurrently, retrying",
+                        newCard.getCardNumber(), cardSlot, mobileNumber );
+            }
+        }
+    }
+
+    /**
+     * @return the lowest slot not in use, or 0 when the customer holds the maximum number of cards
+     */
+    private static int freeCardSlot(List<Integer> usedSlots) {
+        for (int slot = 1; slot <= CardsConstants.MAX_CARDS_PER_CUSTOMER; slot++) {
+            if (!usedSlots.contains(slot)) {
+                return slot;
+            }
         }
-        cardsRepository.save(createNewCard(mobileNumber));
+        return 0;
     }
 
     /**
      * @param mobileNumber - Mobile Number of the Customer
+     * @param cardType - Type of the card to issue
+     * @param cardSlot - Free card slot of the customer
      * @return the new card details
      */
-    private Cards createNewCard(String mobileNumber) {
+    private Cards createNewCard(String mobileNumber, String cardType, int cardSlot) {
         Cards newCard = new Cards();
+        newCard.setCardSlot(cardSlot);
         long randomCardNumber = 100000000000L + new Random().nextInt(900000000);
         newCard.setCardNumber(Long.toString(randomCardNumber));
         newCard.setMobileNumber(mobileNumber);
-        newCard.setCardType( CardsConstants.CREDIT_CARD);
+        newCard.setCardType(cardType);
         newCard.setTotalLimit(CardsConstants.NEW_CARD_LIMIT);
         newCard.setAmountUsed(0);
         newCard.setAvailableAmount(CardsConstants.NEW_CARD_LIMIT);
@@ -48,32 +99,98 @@ public class CardsServiceImpl implements CardsService {
     }
 
     @Override
-    public CardsDto fetchCard(String mobileNumber) {
-        Cards cards = cardsRepository.findByMobileNumber(mobileNumber).orElseThrow(
-                () -> new ResourceNotFoundException("Card", "mobileNumber", mobileNumber)
-        );
-        return CardMapper.mapToCardsDto( cards );
+    public List<CardsDto> fetchCards(String mobileNumber) {
+        List<Cards> cards = cardsRepository.findByMobileNumber(mobileNumber);
+        if(cards.isEmpty()){
+            throw new ResourceNotFoundException("Card", "mobileNumber", mobileNumber);
+        }
+        return cards.stream().map(CardMapper::mapToCardsDto).toList();
+    }
+
+    /**
+     * @param mobileNumbers - Mobile Numbers of the Customers
+     * @return the cards of every customer that holds at least one card, keyed by mobile number
+     */
+    @Override
+    public Map<String, List<CardsDto>> fetchCardsForCustomers(Collection<String> mobileNumbers) {
+        log.info( "Inside CardsServiceImpl.fetchCardsForCustomers for {} mobile numbers", mobileNumbers.size() );
+        Map<String, List<CardsDto>> cardsByMobileNumber = new HashMap<>();
+        if(mobileNumbers.isEmpty()){
+            return cardsByMobileNumber;
+        }
+        for (Cards cards : cardsRepository.findByMobileNumberIn( mobileNumbers )) {
+            cardsByMobileNumber.computeIfAbsent( cards.getMobileNumber(), key -> new ArrayList<>() )
+                    .add( CardMapper.mapToCardsDto( cards ) );
+        }
+        return cardsByMobileNumber;
     }
 
     @Override
     public boolean updateCard(CardsDto cardsDto) {
-        log.info( "Inside CardsServiceImpl.updateCard for mobile number: {}", cardsDto.getMobileNumber() );
-        Cards cards = cardsRepository.findByMobileNumber( cardsDto.getMobileNumber() ).orElseThrow(
-                () -> new ResourceNotFoundException("Card", "mobileNumber", cardsDto.getMobileNumber()) );
-        cards.setCardNumber(cardsDto.getCardNumber());
+        log.info( "Inside CardsServiceImpl.updateCard for card number: {}", cardsDto.getCardNumber() );
+        Cards cards = cardsRepository.findByCardNumber( cardsDto.getCardNumber() )
+                .filter( card -> card.getMobileNumber().equals( cardsDto.getMobileNumber() ) )
+                .orElseThrow( () -> new ResourceNotFoundException("Card", "cardNumber", cardsDto.getCardNumber()) );
         cards.setCardType(cardsDto.getCardType());
         cards.setTotalLimit(cardsDto.getTotalLimit());
         cards.setAmountUsed(cardsDto.getAmountUsed());
+        // charges are approved against the available amount, which follows the new limit and usage
+        cards.setAvailableAmount(cardsDto.getTotalLimit() - cardsDto.getAmountUsed());
         cardsRepository.save( cards );
         return true;
     }
 
+    /**
+     * Applies a charge with a single conditional UPDATE, then authorizes it against the velocity limits of
+     * the card. Only a card the UPDATE matched reaches the velocity table, so unknown card numbers never claim
+     * a slot there. A velocity decline rolls the UPDATE back. Accepted charges are recorded in the charge ledger
+     * that the monthly statements are generated from and published for rewards accrual.
+     * <p>
+     * The velocity check is exact: the UPDATE holds the row lock of the card until the transaction ends, so the
+     * check and the update of the velocity windows run for one charge of a card at a time. Only charges that
+     * commit count towards the windows. Declined attempts are never counted, and a charge whose ledger insert
+     * or commit fails is revoked once the rollback completes. Until then a concurrent charge may still see it
+     * and is declined rather than let through.
+     */
     @Override
+    @Transactional
+    public void chargeCard(String cardNumber, int amount) {
+        if(cardsRepository.chargeCard( cardNumber, amount ) == 0){
+            cardsRepository.findByCardNumber( cardNumber ).orElseThrow(
+                    () -> new ResourceNotFoundException("Card", "cardNumber", cardNumber) );
+            throw new ChargeDeclinedException( CardsConstants.INSUFFICIENT_LIMIT,
+                    "Charge declined, available amount is lower than " + amount );
+        }
+        long authorizedAt = velocityService.authorize( cardNumber, amount );
+        revokeOnRollback( cardNumber, amount, authorizedAt );
+        cardChargesRepository.save( CardCharges.builder().cardNumber( cardNumber ).amount( amount ).build() );
+        eventPublisher.publishEvent( new CardChargedEvent( cardNumber, amount ) );
+    }
+
+    private void revokeOnRollback(String cardNumber, int amount, long authorizedAt) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization( new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    velocityService.revoke( cardNumber, amount, authorizedAt );
+                }
+            }
+        } );
+    }
+
+    /**
+     * Removes every card held by the customer with one DELETE statement.
+     */
+    @Override
+    @Transactional
     public boolean deleteCard(String mobileNumber) {
         log.info( "Inside CardsServiceImpl.deleteCard for mobile number: {}", mobileNumber );
-        Cards cards = cardsRepository.findByMobileNumber( mobileNumber ).orElseThrow(
-                () -> new CardAlreadyExistException( "Card already exists for mobile number: " + mobileNumber ) );
-        cardsRepository.deleteById( cards.getCardId() );
+        if(cardsRepository.deleteAllByMobileNumber( mobileNumber ) == 0){
+            throw new ResourceNotFoundException("Card", "mobileNumber", mobileNumber);
+        }
         return true;
     }
 }
@@ -0,0 +1,346 @@
+package com.bytes.cards.service.impl;
+
+import com.bytes.cards.dto.RewardsBalanceDto;
+import com.bytes.cards.event.CardChargedEvent;
+import com.bytes.cards.service.RewardsService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Accrues rewards points from charge events into in-memory per-card aggregates.
+ * <p>
+ * A card charged or read since the last flush owns an aggregate holding its {@code card_rewards} row, loaded once
+ * on first touch, and the spend charged on this instance since then. Accruing is a lock-free add on that counter
+ * and never touches the database, and balances are computed from the aggregate without a query. A scheduled flush
+ * drains the counters under a short exclusive section, then adds the spend to {@code card_rewards} with one
+ * batched upsert outside it, which turns it into points there and keeps the spend short of a whole point in
+ * {@code spend_remainder} for the next charges. Spend being written still counts in balances until the flush
+ * folds it into the aggregate's row; if the upsert fails it is put back and retried on the next flush. Aggregates
+ * with nothing to flush are evicted, so memory follows the cards touched per flush interval rather than every card
+ * touched since startup.
+ * <p>
+ * The upsert is additive, so every instance flushes its own spend into the same row without overwriting the
+ * others. After writing, a flush rereads the rows it wrote, so spend flushed by other instances shows up in
+ * balances after the next flush of both, or once an idle aggregate is evicted and loaded again.
+ * <p>
+ * Spend accrued but not yet flushed is lost if the instance dies; a graceful shutdown flushes it.
+ */
+@Service
+@Slf4j
+public class RewardsServiceImpl implements RewardsService {
+
+    /**
+     * Adds the spend of one card to its balance. {@code points} is assigned before {@code spend_remainder}, so it
+     * still sees the remainder left by the previous upsert.
+     */
+    private static final String UPSERT_SQL = "INSERT INTO card_rewards (card_number, points, spend_remainder, updated_at) "
+            + "VALUES (?, ? DIV ?, ? MOD ?, ?) ON DUPLICATE KEY UPDATE "
+            + "points = points + (spend_remainder + ?) DIV ?, "
+            + "spend_remainder = (spend_remainder + ?) MOD ?, "
+            + "updated_at = VALUES(updated_at)";
+    private static final String BALANCE_SQL = "SELECT card_number, points, spend_remainder FROM card_rewards "
+            + "WHERE card_number IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int spendPerPoint;
+    private final int batchSize;
+
+    private final Map<String, RewardsAccount> accounts = new ConcurrentHashMap<>();
+    /**
+     * Held exclusively while a flush moves spend between the pending and the flushing counters of the aggregates
+     * or folds it into their rows, so balance reads never see spend counted twice or missing. Never held across
+     * a database call.
+     */
+    private final ReadWriteLock flushLock = new ReentrantReadWriteLock();
+    /**
+     * Completed flushes. A balance read loading a row retries if a flush completed meanwhile, since the row may
+     * predate spend that flush wrote for an aggregate evicted since.
+     */
+    private volatile long flushGeneration;
+
+    private final Counter events;
+    private final Counter flushed;
+    private final Counter flushFailures;
+    private final Counter evicted;
+
+    public RewardsServiceImpl(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${cards.rewards.spend-per-point:100}") int spendPerPoint,
+                              @Value("${cards.rewards.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate( transactionManager );
+        this.spendPerPoint = spendPerPoint;
+        this.batchSize = batchSize;
+        this.events = Counter.builder( "cards.rewards.events" )
+                .description( "Charge events accrued into rewards points" )
+                .register( meterRegistry );
+        this.flushed = Counter.builder( "cards.rewards.flushed" )
+                .description( "Card balances written by rewards flushes" )
+                .register( meterRegistry );
+        this.flushFailures = Counter.builder( "cards.rewards.flush.failures" )
+                .description( "Rewards flushes rolled back and retried later" )
+                .register( meterRegistry );
+        this.evicted = Counter.builder( "cards.rewards.evicted" )
+                .description( "Rewards aggregates evicted after a flush with nothing to write" )
+                .register( meterRegistry );
+        Gauge.builder( "cards.rewards.accounts", accounts, Map::size )
+                .description( "Cards with an in-memory rewards aggregate" )
+                .register( meterRegistry );
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCardCharged(CardChargedEvent event) {
+        accrue( event.cardNumber(), event.amount() );
+    }
+
+    @Override
+    public void accrue(String cardNumber, int amount) {
+        events.increment();
+        if (amount <= 0) {
+            return;
+        }
+        RewardsAccount account = accounts.get( cardNumber );
+        // an evicted aggregate refuses the spend, the next one created for the card takes it
+        while (account == null || !account.add( amount )) {
+            account = accounts.computeIfAbsent( cardNumber, key -> new RewardsAccount() );
+        }
+    }
+
+    @Override
+    public RewardsBalanceDto getBalance(String cardNumber) {
+        RewardsAccount account = accounts.get( cardNumber );
+        if (account == null || !account.isLoaded()) {
+            Balance balance;
+            long generation;
+            do {
+                generation = flushGeneration;
+                balance = load( List.of( cardNumber ) ).getOrDefault( cardNumber, Balance.NONE );
+            } while (generation != flushGeneration);
+            account = accounts.computeIfAbsent( cardNumber, key -> new RewardsAccount() );
+            account.load( balance );
+        }
+        flushLock.readLock().lock();
+        try {
+            return new RewardsBalanceDto( cardNumber, account.points( spendPerPoint ) );
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${cards.rewards.flush-interval-ms:5000}")
+    public synchronized int flush() {
+        // aggregates only drain once their row is known, so balance reads never load a row racing this flush
+        List<String> unloaded = accounts.entrySet().stream()
+                .filter( entry -> !entry.getValue().isLoaded() )
+                .map( Map.Entry::getKey )
+                .toList();
+        if (!unloaded.isEmpty()) {
+            try {
+                Map<String, Balance> balances = load( unloaded );
+                for (String cardNumber : unloaded) {
+                    RewardsAccount account = accounts.get( cardNumber );
+                    if (account != null) {
+                        account.load( balances.getOrDefault( cardNumber, Balance.NONE ) );
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.warn( "Loading the rewards of {} cards failed, flushing them on a later flush",
+                        unloaded.size(), e );
+            }
+        }
+
+        List<String> cardNumbers = new ArrayList<>();
+        List<RewardsAccount> drained = new ArrayList<>();
+        List<Long> drainedSpend = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf( LocalDateTime.now() );
+        flushLock.writeLock().lock();
+        try {
+            for (Map.Entry<String, RewardsAccount> entry : accounts.entrySet()) {
+                RewardsAccount account = entry.getValue();
+                if (!account.isLoaded()) {
+                    continue;
+                }
+                long spend = account.drain();
+                if (spend != 0) {
+                    cardNumbers.add( entry.getKey() );
+                    drained.add( account );
+                    drainedSpend.add( spend );
+                    rows.add( new Object[]{entry.getKey(), spend, spendPerPoint, spend, spendPerPoint, now,
+                            spend, spendPerPoint, spend, spendPerPoint} );
+                } else if (account.retire()) {
+                    // nothing charged for a whole flush interval
+                    accounts.remove( entry.getKey(), account );
+                    evicted.increment();
+                }
+            }
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult( status -> {
+                for (int from = 0; from < rows.size(); from += batchSize) {
+                    jdbcTemplate.batchUpdate( UPSERT_SQL, rows.subList( from, Math.min( from + batchSize, rows.size() ) ) );
+                }
+            } );
+        } catch (RuntimeException e) {
+            flushLock.writeLock().lock();
+            try {
+                drained.forEach( RewardsAccount::restore );
+            } finally {
+                flushLock.writeLock().unlock();
+            }
+            flushFailures.increment();
+            log.warn( "Rewards flush of {} cards failed, retrying on the next flush", rows.size(), e );
+            return 0;
+        }
+
+        flushLock.writeLock().lock();
+        try {
+            for (int i = 0; i < drained.size(); i++) {
+                drained.get( i ).fold( drainedSpend.get( i ), spendPerPoint );
+            }
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+        flushGeneration++;
+        try {
+            // picks up the spend other instances flushed into the same rows
+            Map<String, Balance> balances = load( cardNumbers );
+            for (int i = 0; i < drained.size(); i++) {
+                Balance balance = balances.get( cardNumbers.get( i ) );
+                if (balance != null) {
+                    drained.get( i ).reload( balance );
+                }
+            }
+        } catch (RuntimeException e) {
+            log.debug( "Rereading the rewards of {} cards failed, keeping the balances this instance wrote",
+                    cardNumbers.size(), e );
+        }
+        flushed.increment( rows.size() );
+        log.debug( "Flushed rewards of {} cards", rows.size() );
+        return rows.size();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info( "Flushing pending rewards before shutdown" );
+        flush();
+    }
+
+    private Map<String, Balance> load(List<String> cardNumbers) {
+        Map<String, Balance> balances = new HashMap<>();
+        for (int from = 0; from < cardNumbers.size(); from += batchSize) {
+            List<String> chunk = cardNumbers.subList( from, Math.min( from + batchSize, cardNumbers.size() ) );
+            String sql = BALANCE_SQL.formatted( String.join( ", ", Collections.nCopies( chunk.size(), "?" ) ) );
+            jdbcTemplate.query( sql, (rs, rowNum) -> Map.entry( rs.getString( "card_number" ),
+                            new long[]{rs.getLong( "points" ), rs.getLong( "spend_remainder" )} ), chunk.toArray() )
+                    .forEach( row -> balances.put( row.getKey(),
+                            new Balance( row.getValue()[0], row.getValue()[1] ) ) );
+        }
+        return balances;
+    }
+
+    /**
+     * A {@code card_rewards} row.
+     */
+    private record Balance(long points, long spendRemainder) {
+
+        private static final Balance NONE = new Balance( 0, 0 );
+    }
+
+    /**
+     * Row and unflushed spend of one card. A retired aggregate has been removed from the map and refuses further
+     * spend, so a charge racing the eviction never adds to an aggregate no flush will see again. Only the flush
+     * drains, restores, folds and retires, under the flush write lock, and it only drains loaded aggregates, so
+     * a row loaded by a balance read never already holds spend still counted as flushing.
+     */
+    private static final class RewardsAccount {
+
+        private static final long RETIRED = -1;
+
+        private final AtomicLong pendingSpend = new AtomicLong();
+        private final AtomicReference<Balance> balance = new AtomicReference<>();
+        private volatile long flushingSpend;
+
+        private boolean add(long spend) {
+            long current;
+            do {
+                current = pendingSpend.get();
+                if (current == RETIRED) {
+                    return false;
+                }
+            } while (!pendingSpend.compareAndSet( current, current + spend ));
+            return true;
+        }
+
+        private long drain() {
+            flushingSpend = pendingSpend.getAndSet( 0 );
+            return flushingSpend;
+        }
+
+        private void restore() {
+            pendingSpend.addAndGet( flushingSpend );
+            flushingSpend = 0;
+        }
+
+        private void fold(long spend, int spendPerPoint) {
+            Balance persisted = balance.get();
+            long unpointedSpend = persisted.spendRemainder() + spend;
+            balance.set( new Balance( persisted.points() + unpointedSpend / spendPerPoint,
+                    unpointedSpend % spendPerPoint ) );
+            flushingSpend = 0;
+        }
+
+        private boolean retire() {
+            return pendingSpend.compareAndSet( 0, RETIRED );
+        }
+
+        private boolean isLoaded() {
+            return balance.get() != null;
+        }
+
+        private void load(Balance loaded) {
+            balance.compareAndSet( null, loaded );
+        }
+
+        private void reload(Balance reloaded) {
+            balance.set( reloaded );
+        }
+
+        private long points(int spendPerPoint) {
+            Balance persisted = balance.get();
+            long unpointedSpend = persisted.spendRemainder() + Math.max( pendingSpend.get(), 0 ) + flushingSpend;
+            return persisted.points() + unpointedSpend / spendPerPoint;
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package com.bytes.cards.service.impl;
+
+import com.bytes.cards.dto.StatementRunResultDto;
+import com.bytes.cards.service.StatementService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates the statement of every card for a cycle.
+ * <p>
+ * A single forward-only cursor streams the card book joined with the charges of the cycle, ordered by card
+ * only: MySQL walks the cards in primary key order and looks their charges up through
+ * {@code idx_card_charges_card_created}, so rows stream without sorting the month's join. Consecutive rows are
+ * grouped into one statement, and its few charges are put in time order by the writer. Statements are handed to a fixed pool of writer threads
+ * through a bounded queue, so a slow disk throttles the cursor instead of filling the heap. Each writer
+ * renders into one reusable direct buffer and appends to its own part file through a {@link FileChannel};
+ * part files are written under a temporary name and only moved into place once the whole run succeeded,
+ * a failed run deletes them.
+ */
+@Service
+@Slf4j
+public class StatementServiceImpl implements StatementService {
+
+    private static final String STATEMENT_SQL = "SELECT c.card_id, c.card_number, c.mobile_number, c.card_type, "
+            + "c.total_limit, c.amount_used, c.available_amount, ch.amount, ch.created_at "
+            + "FROM cards c LEFT JOIN card_charges ch ON ch.card_number = c.card_number "
+            + "AND ch.created_at >= ? AND ch.created_at < ? "
+            + "ORDER BY c.card_id";
+
+    private static final CardStatement END_OF_STREAM = new CardStatement();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Path outputDirectory;
+    private final int workers;
+    private final int queueCapacity;
+    private final int bufferSize;
+
+    public StatementServiceImpl(JdbcTemplate jdbcTemplate,
+                                @Value("${cards.statements.directory:${java.io.tmpdir}}") String outputDirectory,
+                                @Value("${cards.statements.workers:0}") int workers,
+                                @Value("${cards.statements.queue-capacity:1024}") int queueCapacity,
+                                @Value("${cards.statements.buffer-size:262144}") int bufferSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.outputDirectory = Path.of( outputDirectory ).toAbsolutePath().normalize();
+        this.workers = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        this.queueCapacity = queueCapacity;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public StatementRunResultDto generateStatements(YearMonth cycle) {
+        log.info( "Generating {} statements into {} with {} writers", cycle, outputDirectory, workers );
+        long startNanos = System.nanoTime();
+        try {
+            Files.createDirectories( outputDirectory );
+        } catch (IOException e) {
+            throw new UncheckedIOException( "Unable to create statement directory " + outputDirectory, e );
+        }
+
+        BlockingQueue<CardStatement> queue = new ArrayBlockingQueue<>( queueCapacity );
+        ExecutorService executor = Executors.newFixedThreadPool( workers, new CustomizableThreadFactory( "statement-writer-" ) );
+        List<Future<Long>> writers = new ArrayList<>( workers );
+        List<Path> parts = new ArrayList<>( workers );
+        boolean published = false;
+        try {
+            for (int i = 0; i < workers; i++) {
+                Path part = outputDirectory.resolve( String.format( "statements-%s-part-%03d.txt", cycle, i ) );
+                parts.add( part );
+                writers.add( executor.submit( new StatementWriter( queue, cycle, temporaryFile( part ) ) ) );
+            }
+
+            StatementCursor cursor = new StatementCursor( queue, writers );
+            jdbcTemplate.query( connection -> {
+                PreparedStatement statement = connection.prepareStatement( STATEMENT_SQL,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY );
+                // MySQL Connector/J streams the result row by row instead of buffering it
+                statement.setFetchSize( Integer.MIN_VALUE );
+                statement.setTimestamp( 1, Timestamp.valueOf( cycle.atDay( 1 ).atStartOfDay() ) );
+                statement.setTimestamp( 2, Timestamp.valueOf( cycle.plusMonths( 1 ).atDay( 1 ).atStartOfDay() ) );
+                return statement;
+            }, cursor );
+            cursor.finish();
+
+            long statements = 0;
+            for (Future<Long> writer : writers) {
+                statements += writer.get();
+            }
+            for (Path part : parts) {
+                Files.move( temporaryFile( part ), part, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+            }
+            published = true;
+
+            long elapsedNanos = Math.max( 1, System.nanoTime() - startNanos );
+            StatementRunResultDto result = StatementRunResultDto.builder()
+                    .cycle( cycle.toString() )
+                    .statements( statements )
+                    .charges( cursor.charges )
+                    .files( parts.stream().map( Path::toString ).toList() )
+                    .elapsedMillis( elapsedNanos / 1_000_000 )
+                    .statementsPerSecond( statements * 1_000_000_000d / elapsedNanos )
+                    .build();
+            log.info( "Finished {} statements: {}", cycle, result );
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException( "Statement generation for " + cycle + " was interrupted", e );
+        } catch (ExecutionException e) {
+            throw new IllegalStateException( "Statement writer failed for " + cycle, e.getCause() );
+        } catch (IOException e) {
+            throw new UncheckedIOException( "Unable to publish statement files for " + cycle, e );
+        } finally {
+            executor.shutdownNow();
+            if (!published) {
+                deleteTemporaryFiles( executor, parts );
+            }
+        }
+    }
+
+    private static Path temporaryFile(Path part) {
+        return part.resolveSibling( part.getFileName() + ".tmp" );
+    }
+
+    /**
+     * Deletes the part files of a failed run once the interrupted writers have closed them.
+     */
+    private static void deleteTemporaryFiles(ExecutorService executor, List<Path> parts) {
+        try {
+            if (!executor.awaitTermination( 10, TimeUnit.SECONDS )) {
+                log.warn( "Statement writers did not stop, their part files may be left behind" );
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Path part : parts) {
+            try {
+                Files.deleteIfExists( temporaryFile( part ) );
+            } catch (IOException e) {
+                log.warn( "Unable to delete the temporary statement file {}", temporaryFile( part ), e );
+            }
+        }
+    }
+
+    /**
+     * Groups the ordered cursor rows into one statement per card and feeds them to the writers.
+     */
+    private final class StatementCursor implements RowCallbackHandler {
+
+        private final BlockingQueue<CardStatement> queue;
+        private final List<Future<Long>> writers;
+        private CardStatement current;
+        private long charges;
+
+        private StatementCursor(BlockingQueue<CardStatement> queue, List<Future<Long>> writers) {
+            this.queue = queue;
+            this.writers = writers;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long cardId = rs.getLong( 1 );
+            if (current == null || current.cardId != cardId) {
+                if (current != null) {
+                    enqueue( current );
+                }
+                current = new CardStatement();
+                current.cardId = cardId;
+                current.cardNumber = rs.getString( 2 );
+                current.mobileNumber = rs.getString( 3 );
+                current.cardType = rs.getString( 4 );
+                current.totalLimit = rs.getInt( 5 );
+                current.amountUsed = rs.getInt( 6 );
+                current.availableAmount = rs.getInt( 7 );
+            }
+            int amount = rs.getInt( 8 );
+            if (!rs.wasNull()) {
+                current.addCharge( amount, rs.getTimestamp( 9 ).toLocalDateTime() );
+                charges++;
+            }
+        }
+
+        private void finish() throws InterruptedException, ExecutionException {
+            if (current != null) {
+                enqueue( current );
+            }
+            for (int i = 0; i < writers.size(); i++) {
+                while (!queue.offer( END_OF_STREAM, 1, TimeUnit.SECONDS )) {
+                    checkWriters();
+                }
+            }
+        }
+
+        private void enqueue(CardStatement statement) {
+            try {
+                while (!queue.offer( statement, 1, TimeUnit.SECONDS )) {
+                    checkWriters();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException( "Statement generation was interrupted", e );
+            } catch (ExecutionException e) {
+                throw new IllegalStateException( "Statement writer failed", e.getCause() );
+            }
+        }
+
+        /**
+         * Stops the cursor with the failure of a writer that died, otherwise it would block forever on the full
+         * queue. Writers that already took their end of stream marker have completed normally.
+         */
+        private void checkWriters() throws InterruptedException, ExecutionException {
+            for (Future<Long> writer : writers) {
+                if (writer.isDone()) {
+                    writer.get();
+                }
+            }
+        }
+    }
+
+    /**
+     * Renders statements taken from the queue into a reusable buffer and appends them to one part file.
+     */
+    private final class StatementWriter implements Callable<Long> {
+
+        private final BlockingQueue<CardStatement> queue;
+        private final YearMonth cycle;
+        private final Path file;
+
+        private StatementWriter(BlockingQueue<CardStatement> queue, YearMonth cycle, Path file) {
+            this.queue = queue;
+            this.cycle = cycle;
+            this.file = file;
+        }
+
+        @Override
+        public Long call() throws IOException, InterruptedException {
+            ByteBuffer buffer = ByteBuffer.allocateDirect( bufferSize );
+            CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+            StringBuilder text = new StringBuilder( 1024 );
+            long written = 0;
+            try (FileChannel channel = FileChannel.open( file, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE )) {
+                CardStatement statement;
+                while ((statement = queue.take()) != END_OF_STREAM) {
+                    text.setLength( 0 );
+                    render( statement, text );
+                    CharBuffer chars = CharBuffer.wrap( text );
+                    encoder.reset();
+                    while (encoder.encode( chars, buffer, true ).isOverflow()) {
+                        flush( channel, buffer );
+                    }
+                    written++;
+                }
+                flush( channel, buffer );
+            }
+            return written;
+        }
+
+        private void render(CardStatement statement, StringBuilder text) {
+            statement.sortCharges();
+            long total = 0;
+            text.append( "STATEMENT " ).append( cycle )
+                    .append( " CARD " ).append( statement.cardNumber )
+                    .append( " MOBILE " ).append( statement.mobileNumber )
+                    .append( " TYPE " ).append( statement.cardType ).append( '\n' );
+            for (int i = 0; i < statement.chargeCount; i++) {
+                text.append( "  " ).append( statement.chargedAt[i] ).append( ' ' ).append( statement.amounts[i] ).append( '\n' );
+                total += statement.amounts[i];
+            }
+            text.append( "TOTAL CHARGES " ).append( statement.chargeCount )
+                    .append( " AMOUNT " ).append( total )
+                    .append( " LIMIT " ).append( statement.totalLimit )
+                    .append( " USED " ).append( statement.amountUsed )
+                    .append( " AVAILABLE " ).append( statement.availableAmount ).append( "\n\n" );
+        }
+
+        private void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write( buffer );
+            }
+            buffer.clear();
+        }
+    }
+
+    private static final class CardStatement {
+
+        private long cardId;
+        private String cardNumber;
+        private String mobileNumber;
+        private String cardType;
+        private int totalLimit;
+        private int amountUsed;
+        private int availableAmount;
+        private int chargeCount;
+        private int[] amounts = new int[4];
+        private LocalDateTime[] chargedAt = new LocalDateTime[4];
+
+        private void addCharge(int amount, LocalDateTime at) {
+            if (chargeCount == amounts.length) {
+                amounts = Arrays.copyOf( amounts, chargeCount * 2 );
+                chargedAt = Arrays.copyOf( chargedAt, chargeCount * 2 );
+            }
+            amounts[chargeCount] = amount;
+            chargedAt[chargeCount] = at;
+            chargeCount++;
+        }
+
+        /**
+         * Puts the charges in time order, ties by amount; a card has few charges in a cycle.
+         */
+        private void sortCharges() {
+            for (int i = 1; i < chargeCount; i++) {
+                int amount = amounts[i];
+                LocalDateTime at = chargedAt[i];
+                int j = i - 1;
+                while (j >= 0 && (chargedAt[j].isAfter( at ) || chargedAt[j].equals( at ) && amounts[j] > amount)) {
+                    amounts[j + 1] = amounts[j];
+                    chargedAt[j + 1] = chargedAt[j];
+                    j--;
+                }
+                amounts[j + 1] = amount;
+                chargedAt[j + 1] = at;
+            }
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.bytes.cards.service.impl;
+
+import com.bytes.cards.constants.CardsConstants;
+import com.bytes.cards.dto.VelocityLimitsDto;
+import com.bytes.cards.exception.ChargeDeclinedException;
+import com.bytes.cards.service.VelocityService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Clock;
+
+/**
+ * In-memory velocity checks over the last minute, hour and day of authorizations of a card.
+ * <p>
+ * Every tracked card owns a fixed block of ring buffer buckets (12 x 5s, 12 x 5min, 24 x 1h) in two flat
+ * {@code long[]} arrays, one for counts and one for amounts. A bucket packs the epoch it belongs to in the
+ * upper 24 bits and its value in the lower 40 bits, so an expired bucket is recognised by its stamp and
+ * reset with the same CAS that adds to it. Cards are mapped to blocks with an open addressing table whose
+ * slots are reclaimed once a card has been idle for a day. All state is preallocated from
+ * {@code cards.velocity.memory-budget-mb}; when the table is saturated the charge is let through and
+ * counted as untracked rather than growing memory.
+ * <p>
+ * The check and the update of a card are not one atomic step; callers serialize the authorizations of a card,
+ * see {@code CardsServiceImpl.chargeCard}.
+ */
+@Service
+@Slf4j
+public class VelocityServiceImpl implements VelocityService {
+
+    private static final VarHandle CELLS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private static final String[] WINDOW_NAMES = {"1m", "1h", "24h"};
+    private static final int[] BUCKET_SECONDS = {5, 300, 3600};
+    private static final int[] BUCKET_COUNT = {12, 12, 24};
+    private static final int[] BUCKET_OFFSET = {0, 12, 24};
+    static final int BUCKETS_PER_CARD = 48;
+    static final long BYTES_PER_CARD = BUCKETS_PER_CARD * 2L * Long.BYTES + 2L * Long.BYTES;
+
+    private static final int VALUE_BITS = 40;
+    private static final long VALUE_MASK = (1L << VALUE_BITS) - 1;
+    private static final long STAMP_MASK = (1L << (Long.SIZE - VALUE_BITS)) - 1;
+    private static final long EMPTY = 0L;
+    private static final int MAX_PROBES = 16;
+    private static final int MAX_CAPACITY = 1 << 22;
+    private static final long RECLAIM_AFTER_SECONDS = 24 * 3600L;
+
+    private final boolean enabled;
+    private final int[] maxCount;
+    private final long[] maxAmount;
+    private final Clock clock;
+
+    private final int mask;
+    private final long[] keys;
+    private final long[] lastSeen;
+    private final long[] counts;
+    private final long[] amounts;
+    private final long memoryBytes;
+
+    private final Counter[] countRejections;
+    private final Counter[] amountRejections;
+    private final Counter untracked;
+
+    @Autowired
+    public VelocityServiceImpl(VelocityLimitsDto limits, MeterRegistry meterRegistry) {
+        this( limits, meterRegistry, Clock.systemUTC() );
+    }
+
+    public VelocityServiceImpl(VelocityLimitsDto limits, MeterRegistry meterRegistry, Clock clock) {
+        this.enabled = limits.enabled();
+        this.maxCount = new int[]{limits.perMinute().maxCount(), limits.perHour().maxCount(), limits.perDay().maxCount()};
+        this.maxAmount = new long[]{limits.perMinute().maxAmount(), limits.perHour().maxAmount(), limits.perDay().maxAmount()};
+        this.clock = clock;
+
+        long budgetBytes = limits.memoryBudgetMb() * 1024L * 1024L;
+        int capacity = Integer.highestOneBit( (int) Math.max( 64, Math.min( budgetBytes / BYTES_PER_CARD, MAX_CAPACITY ) ) );
+        this.mask = capacity - 1;
+        this.keys = new long[capacity];
+        this.lastSeen = new long[capacity];
+        this.counts = new long[capacity * BUCKETS_PER_CARD];
+        this.amounts = new long[capacity * BUCKETS_PER_CARD];
+        this.memoryBytes = capacity * BYTES_PER_CARD;
+
+        this.countRejections = new Counter[WINDOW_NAMES.length];
+        this.amountRejections = new Counter[WINDOW_NAMES.length];
+        for (int w = 0; w < WINDOW_NAMES.length; w++) {
+            countRejections[w] = rejectionCounter( meterRegistry, WINDOW_NAMES[w], "count" );
+            amountRejections[w] = rejectionCounter( meterRegistry, WINDOW_NAMES[w], "amount" );
+        }
+        this.untracked = Counter.builder( "cards.velocity.untracked" )
+                .description( "Charges let through because the velocity table had no free slot" )
+                .register( meterRegistry );
+        Gauge.builder( "cards.velocity.memory", this, service -> service.memoryBytes )
+                .baseUnit( "bytes" )
+                .register( meterRegistry );
+        log.info( "Velocity checks {} for up to {} active cards using {} bytes", enabled ? "enabled" : "disabled",
+                capacity, memoryBytes );
+    }
+
+    @Override
+    public long authorize(String cardNumber, int amount) {
+        if (!enabled) {
+            return -1;
+        }
+        long now = clock.millis() / 1000;
+        int slot = slotFor( Long.parseLong( cardNumber ), now );
+        if (slot < 0) {
+            untracked.increment();
+            return -1;
+        }
+        int base = slot * BUCKETS_PER_CARD;
+        for (int w = 0; w < WINDOW_NAMES.length; w++) {
+            long epoch = now / BUCKET_SECONDS[w];
+            int offset = base + BUCKET_OFFSET[w];
+            if (windowTotal( counts, offset, BUCKET_COUNT[w], epoch ) + 1 > maxCount[w]) {
+                countRejections[w].increment();
+                throw declined( w );
+            }
+            if (windowTotal( amounts, offset, BUCKET_COUNT[w], epoch ) + amount > maxAmount[w]) {
+                amountRejections[w].increment();
+                throw declined( w );
+            }
+        }
+        for (int w = 0; w < WINDOW_NAMES.length; w++) {
+            long epoch = now / BUCKET_SECONDS[w];
+            int offset = base + BUCKET_OFFSET[w];
+            add( counts, offset, BUCKET_COUNT[w], epoch, 1 );
+            add( amounts, offset, BUCKET_COUNT[w], epoch, amount );
+        }
+        CELLS.setOpaque( lastSeen, slot, now );
+        return now;
+    }
+
+    /**
+     * Subtracts the charge from the buckets it was added to. Buckets that have since moved on to a later epoch
+     * no longer count it and are left alone, as is a card whose slot was reclaimed in the meantime.
+     */
+    @Override
+    public void revoke(String cardNumber, int amount, long authorizedAt) {
+        if (!enabled || authorizedAt < 0) {
+            return;
+        }
+        int slot = existingSlot( Long.parseLong( cardNumber ) );
+        if (slot < 0) {
+            return;
+        }
+        int base = slot * BUCKETS_PER_CARD;
+        for (int w = 0; w < WINDOW_NAMES.length; w++) {
+            long epoch = authorizedAt / BUCKET_SECONDS[w];
+            int offset = base + BUCKET_OFFSET[w];
+            subtract( counts, offset, BUCKET_COUNT[w], epoch, 1 );
+            subtract( amounts, offset, BUCKET_COUNT[w], epoch, amount );
+        }
+    }
+
+    /**
+     * @return the slot of a card that is already tracked, or -1
+     */
+    private int existingSlot(long key) {
+        int home = (int) mix( key ) & mask;
+        for (int i = 0; i < MAX_PROBES; i++) {
+            int slot = (home + i) & mask;
+            if ((long) CELLS.getVolatile( keys, slot ) == key) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the slot of a card, claiming an empty slot or one idle for a day when the card is new.
+     *
+     * @return the slot index or -1 when every probed slot belongs to an active card
+     */
+    private int slotFor(long key, long now) {
+        int home = (int) mix( key ) & mask;
+        for (int i = 0; i < MAX_PROBES; i++) {
+            int slot = (home + i) & mask;
+            long current = (long) CELLS.getVolatile( keys, slot );
+            if (current == key) {
+                return slot;
+            }
+            if (current == EMPTY && (CELLS.compareAndSet( keys, slot, EMPTY, key )
+                    || (long) CELLS.getVolatile( keys, slot ) == key)) {
+                CELLS.setOpaque( lastSeen, slot, now );
+                return slot;
+            }
+        }
+        for (int i = 0; i < MAX_PROBES; i++) {
+            int slot = (home + i) & mask;
+            long current = (long) CELLS.getVolatile( keys, slot );
+            if (now - (long) CELLS.getOpaque( lastSeen, slot ) >= RECLAIM_AFTER_SECONDS
+                    && CELLS.compareAndSet( keys, slot, current, key )) {
+                // buckets of the previous card carry stamps older than every window and are ignored
+                CELLS.setOpaque( lastSeen, slot, now );
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private static long windowTotal(long[] cells, int offset, int buckets, long epoch) {
+        long stamp = epoch & STAMP_MASK;
+        long total = 0;
+        for (int i = 0; i < buckets; i++) {
+            long cell = (long) CELLS.getVolatile( cells, offset + i );
+            if (((stamp - (cell >>> VALUE_BITS)) & STAMP_MASK) < buckets) {
+                total += cell & VALUE_MASK;
+            }
+        }
+        return total;
+    }
+
+    private static void add(long[] cells, int offset, int buckets, long epoch, long delta) {
+        int index = offset + (int) (epoch % buckets);
+        long stamp = epoch & STAMP_MASK;
+        while (true) {
+            long cell = (long) CELLS.getVolatile( cells, index );
+            long value = (cell >>> VALUE_BITS) == stamp ? Math.min( (cell & VALUE_MASK) + delta, VALUE_MASK ) : delta;
+            if (CELLS.compareAndSet( cells, index, cell, (stamp << VALUE_BITS) | value )) {
+                return;
+            }
+        }
+    }
+
+    private static void subtract(long[] cells, int offset, int buckets, long epoch, long delta) {
+        int index = offset + (int) (epoch % buckets);
+        long stamp = epoch & STAMP_MASK;
+        while (true) {
+            long cell = (long) CELLS.getVolatile( cells, index );
+            if ((cell >>> VALUE_BITS) != stamp) {
+                return;
+            }
+            long value = Math.max( (cell & VALUE_MASK) - delta, 0 );
+            if (CELLS.compareAndSet( cells, index, cell, (stamp << VALUE_BITS) | value )) {
+                return;
+            }
+        }
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        return key ^ (key >>> 33);
+    }
+
+    private static ChargeDeclinedException declined(int window) {
+        return new ChargeDeclinedException( CardsConstants.VELOCITY_LIMIT_EXCEEDED,
+                "Charge declined, card usage limit exceeded for the last " + WINDOW_NAMES[window] );
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String window, String limit) {
+        return Counter.builder( "cards.velocity.rejections" )
+                .description( "Charges rejected by velocity limits" )
+                .tag( "window", window )
+                .tag( "limit", limit )
+                .register( meterRegistry );
+    }
+}
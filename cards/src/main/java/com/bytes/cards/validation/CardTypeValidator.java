@@ -0,0 +1,13 @@
+package com.bytes.cards.validation;
+
+import com.bytes.cards.constants.CardType;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class CardTypeValidator implements ConstraintValidator<ValidCardType, String> {
+
+    @Override
+    public boolean isValid(String value, ConstraintValidatorContext context) {
+        return value == null || CardType.fromLabel( value ).isPresent();
+    }
+}
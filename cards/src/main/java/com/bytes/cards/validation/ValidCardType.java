@@ -0,0 +1,27 @@
+package com.bytes.cards.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The annotated string must be the label of a {@link com.bytes.cards.constants.CardType}. Null is valid, pair it
+ * with {@code @NotEmpty} where the card type is required.
+ */
+@Documented
+@Constraint(validatedBy = CardTypeValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ValidCardType {
+
+    String message() default "CardType must be one of Debit Card, Credit Card or Prepaid Card";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
@@ -3,6 +3,7 @@ CREATE TABLE IF NOT EXISTS `cards` (
                                        `mobile_number` varchar(15) NOT NULL,
     `card_number` varchar(100) NOT NULL,
     `card_type` varchar(100) NOT NULL,
+    `card_slot` tinyint NOT NULL,
     `total_limit` int NOT NULL,
     `amount_used` int NOT NULL,
     `available_amount` int NOT NULL,
@@ -10,5 +11,27 @@ CREATE TABLE IF NOT EXISTS `cards` (
     `created_by` varchar(20) NOT NULL,
     `updated_at` date DEFAULT NULL,
     `updated_by` varchar(20) DEFAULT NULL,
-    PRIMARY KEY (`card_id`)
+    PRIMARY KEY (`card_id`),
+    UNIQUE KEY `uk_cards_mobile_number_slot` (`mobile_number`, `card_slot`),
+    UNIQUE KEY `uk_cards_card_number` (`card_number`)
+    );
+
+CREATE TABLE IF NOT EXISTS `card_charges` (
+                                       `charge_id` bigint NOT NULL AUTO_INCREMENT,
+                                       `card_number` varchar(100) NOT NULL,
+    `amount` int NOT NULL,
+    `created_at` datetime NOT NULL,
+    `created_by` varchar(20) NOT NULL,
+    `updated_at` datetime DEFAULT NULL,
+    `updated_by` varchar(20) DEFAULT NULL,
+    PRIMARY KEY (`charge_id`),
+    KEY `idx_card_charges_card_created` (`card_number`, `created_at`)
+    );
+
+CREATE TABLE IF NOT EXISTS `card_rewards` (
+                                       `card_number` varchar(100) NOT NULL,
+    `points` bigint NOT NULL,
+    `spend_remainder` int NOT NULL DEFAULT 0,
+    `updated_at` datetime NOT NULL,
+    PRIMARY KEY (`card_number`)
     );
\ No newline at end of file
@@ -0,0 +1,86 @@
+package com.bytes.cards.benchmark;
+
+import com.bytes.cards.service.impl.RewardsServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of rewards accrual as seen by the charge path.
+ * <p>
+ * The card book and the traffic shape mimic production: one million issued cards, 20% of which take 80% of
+ * the charges, amounts between 1 and 20000, and eight request threads charging concurrently. Peak charge
+ * traffic is in the low thousands per second per instance, so accrual should sustain several orders of
+ * magnitude more to stay invisible next to the charge UPDATE.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.bytes.cards.benchmark.RewardsAccrualBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class RewardsAccrualBenchmark {
+
+    @Param({"1000000"})
+    int issuedCards;
+
+    private String[] cardNumbers;
+    private RewardsServiceImpl rewardsService;
+
+    @Setup
+    public void setUp() {
+        cardNumbers = new String[issuedCards];
+        for (int i = 0; i < issuedCards; i++) {
+            cardNumbers[i] = Long.toString( 100000000000L + i );
+        }
+        // flushes are not scheduled here, the benchmark measures the in-memory accrual only
+        rewardsService = new RewardsServiceImpl( new JdbcTemplate(), new DataSourceTransactionManager(),
+                new SimpleMeterRegistry(), 100, 1000 );
+    }
+
+    @State(Scope.Thread)
+    public static class Traffic {
+
+        private final SplittableRandom random = new SplittableRandom();
+
+        int nextCard(int issuedCards) {
+            int hotCards = issuedCards / 5;
+            return random.nextInt( 10 ) < 8 ? random.nextInt( hotCards ) : hotCards + random.nextInt( issuedCards - hotCards );
+        }
+
+        int nextAmount() {
+            return 1 + random.nextInt( 20000 );
+        }
+    }
+
+    @Benchmark
+    public void accrue(Traffic traffic) {
+        rewardsService.accrue( cardNumbers[traffic.nextCard( issuedCards )], traffic.nextAmount() );
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner( new OptionsBuilder().include( RewardsAccrualBenchmark.class.getSimpleName() ).build() ).run();
+    }
+}
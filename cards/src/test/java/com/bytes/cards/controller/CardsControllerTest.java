@@ -3,7 +3,9 @@ package com.bytes.cards.controller;
 import com.bytes.cards.constants.CardsConstants;
 import com.bytes.cards.dto.CardsDto;
 import com.bytes.cards.dto.ResponseDto;
+import com.bytes.cards.dto.RewardsBalanceDto;
 import com.bytes.cards.service.CardsService;
+import com.bytes.cards.service.RewardsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,9 +15,13 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,6 +30,9 @@ class CardsControllerTest {
     @Mock
     private CardsService cardsService;
 
+    @Mock
+    private RewardsService rewardsService;
+
     @InjectMocks
     private CardsController cardsController;
 
@@ -46,10 +55,10 @@ class CardsControllerTest {
     @Test
     void createCard_shouldReturnCreatedStatus() {
         // Arrange
-        doNothing().when(cardsService).createCard(anyString());
+        doNothing().when(cardsService).createCard(anyString(), anyString());
 
         // Act
-        ResponseEntity<ResponseDto> response = cardsController.createCard(MOBILE_NUMBER);
+        ResponseEntity<ResponseDto> response = cardsController.createCard(MOBILE_NUMBER, CardsConstants.CREDIT_CARD);
 
         // Assert
         assertNotNull(response);
@@ -58,24 +67,42 @@ class CardsControllerTest {
         assertEquals(CardsConstants.MESSAGE_201, response.getBody().getStatusMessage());
 
         // Verify
-        verify(cardsService, times(1)).createCard(MOBILE_NUMBER);
+        verify(cardsService, times(1)).createCard(MOBILE_NUMBER, CardsConstants.CREDIT_CARD);
     }
 
     @Test
     void fetchCardDetails_shouldReturnCardDetails() {
         // Arrange
-        when(cardsService.fetchCard(anyString())).thenReturn(cardsDto);
+        when(cardsService.fetchCards(anyString())).thenReturn(List.of(cardsDto));
+
+        // Act
+        ResponseEntity<List<CardsDto>> response = cardsController.fetchCardDetails(MOBILE_NUMBER);
+
+        // Assert
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(cardsDto), response.getBody());
+
+        // Verify
+        verify(cardsService, times(1)).fetchCards(MOBILE_NUMBER);
+    }
+
+    @Test
+    void fetchCardsForCustomers_shouldReturnCardsKeyedByMobileNumber() {
+        // Arrange
+        List<String> mobileNumbers = List.of(MOBILE_NUMBER);
+        when(cardsService.fetchCardsForCustomers(mobileNumbers)).thenReturn(Map.of(MOBILE_NUMBER, List.of(cardsDto)));
 
         // Act
-        ResponseEntity<CardsDto> response = cardsController.fetchCardDetails(MOBILE_NUMBER);
+        ResponseEntity<Map<String, List<CardsDto>>> response = cardsController.fetchCardsForCustomers(mobileNumbers);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(cardsDto, response.getBody());
+        assertEquals(List.of(cardsDto), response.getBody().get(MOBILE_NUMBER));
 
         // Verify
-        verify(cardsService, times(1)).fetchCard(MOBILE_NUMBER);
+        verify(cardsService, times(1)).fetchCardsForCustomers(mobileNumbers);
     }
 
     @Test
@@ -114,6 +141,42 @@ class CardsControllerTest {
         verify(cardsService, times(1)).updateCard(cardsDto);
     }
 
+    @Test
+    void chargeCard_shouldReturnSuccessResponse() {
+        // Arrange
+        doNothing().when(cardsService).chargeCard(anyString(), anyInt());
+
+        // Act
+        ResponseEntity<ResponseDto> response = cardsController.chargeCard("123456789012", 500);
+
+        // Assert
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(CardsConstants.STATUS_200, response.getBody().getStatusCode());
+        assertEquals(CardsConstants.MESSAGE_200_CHARGE, response.getBody().getStatusMessage());
+
+        // Verify
+        verify(cardsService, times(1)).chargeCard("123456789012", 500);
+    }
+
+    @Test
+    void fetchRewardsBalance_shouldReturnBalance() {
+        // Arrange
+        RewardsBalanceDto balance = new RewardsBalanceDto("123456789012", 1250);
+        when(rewardsService.getBalance(anyString())).thenReturn(balance);
+
+        // Act
+        ResponseEntity<RewardsBalanceDto> response = cardsController.fetchRewardsBalance("123456789012");
+
+        // Assert
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(balance, response.getBody());
+
+        // Verify
+        verify(rewardsService, times(1)).getBalance("123456789012");
+    }
+
     @Test
     void deleteCardDetails_shouldReturnSuccessResponse_whenDeleteIsSuccessful() {
         // Arrange
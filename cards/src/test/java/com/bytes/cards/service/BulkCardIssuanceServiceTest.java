@@ -0,0 +1,154 @@
+package com.bytes.cards.service;
+
+import com.bytes.cards.dto.BulkIssuanceResultDto;
+import com.bytes.cards.exception.BulkIssuanceFailedException;
+import com.bytes.cards.exception.ResourceNotFoundException;
+import com.bytes.cards.repository.CardsRepository;
+import com.bytes.cards.service.impl.BulkCardIssuanceServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkCardIssuanceServiceTest {
+
+    @Mock
+    private CardsRepository cardsRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path importDirectory;
+
+    private BulkCardIssuanceServiceImpl bulkCardIssuanceService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Chunk size of 2 so the five data lines below span three chunks
+        bulkCardIssuanceService = new BulkCardIssuanceServiceImpl(cardsRepository, jdbcTemplate, transactionManager,
+                importDirectory.toString(), 2);
+        Files.write(importDirectory.resolve("campaign.csv"),
+                List.of("1111111111", "2222222222", "not-a-number", "3333333333", "1111111111"));
+    }
+
+    @Test
+    void issueCards_shouldInsertOnlyCustomersWithoutCards() throws IOException {
+        // Arrange
+        when(cardsRepository.findMobileNumbersWithCards(anyCollection())).thenReturn(Set.of("2222222222"));
+
+        // Act
+        BulkIssuanceResultDto result = bulkCardIssuanceService.issueCards("campaign.csv", 0);
+
+        // Assert
+        assertEquals(5, result.getLinesRead());
+        assertEquals(1, result.getRejected());
+        assertEquals(3, result.getChunks());
+        assertEquals(Files.size(importDirectory.resolve("campaign.csv")), result.getNextOffset());
+        assertEquals(3, result.getCardsIssued());
+        assertEquals(1, result.getAlreadyIssued());
+
+        // Verify
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), rows.capture());
+        assertEquals("1111111111", rows.getAllValues().get(0).get(0)[0]);
+        assertEquals("3333333333", rows.getAllValues().get(1).get(0)[0]);
+    }
+
+    @Test
+    void issueCards_shouldSeekToTheOffset_whenRestarted() {
+        // Arrange
+        when(cardsRepository.findMobileNumbersWithCards(anyCollection())).thenReturn(Set.of());
+        long thirdChunk = "1111111111\n2222222222\nnot-a-number\n3333333333\n".length();
+
+        // Act
+        BulkIssuanceResultDto result = bulkCardIssuanceService.issueCards("campaign.csv", thirdChunk);
+
+        // Assert
+        assertEquals(1, result.getLinesRead());
+        assertEquals(1, result.getCardsIssued());
+        assertEquals(1, result.getChunks());
+
+        // Verify
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), rows.capture());
+        assertEquals("1111111111", rows.getValue().get(0)[0]);
+    }
+
+    @Test
+    void issueCards_shouldThrowException_whenTheOffsetIsNotTheStartOfALine() {
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class,
+                () -> bulkCardIssuanceService.issueCards("campaign.csv", 3));
+
+        // Verify
+        verifyNoInteractions(cardsRepository, jdbcTemplate);
+    }
+
+    @Test
+    void issueCards_shouldRetryTheChunkWithNewCardNumbers_whenACardNumberIsAlreadyIssued() {
+        // Arrange
+        when(cardsRepository.findMobileNumbersWithCards(anyCollection())).thenReturn(Set.of());
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DuplicateKeyException("Duplicate entry for key 'uk_cards_card_number'"))
+                .thenReturn(new int[]{1, 1});
+
+        // Act
+        BulkIssuanceResultDto result = bulkCardIssuanceService.issueCards("campaign.csv", 0);
+
+        // Assert
+        assertEquals(4, result.getCardsIssued());
+
+        // Verify
+        verify(jdbcTemplate, times(4)).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void issueCards_shouldReportFailedChunk_whenBatchInsertFails() {
+        // Arrange
+        when(cardsRepository.findMobileNumbersWithCards(anyCollection())).thenReturn(Set.of());
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenReturn(new int[]{1, 1})
+                .thenThrow(new DataAccessResourceFailureException("connection lost"));
+
+        // Act & Assert
+        BulkIssuanceFailedException exception = assertThrows(BulkIssuanceFailedException.class,
+                () -> bulkCardIssuanceService.issueCards("campaign.csv", 0));
+        assertTrue(exception.getMessage().contains("startOffset=22"));
+    }
+
+    @Test
+    void issueCards_shouldThrowException_whenFileIsOutsideImportDirectory() {
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class,
+                () -> bulkCardIssuanceService.issueCards("../campaign.csv", 0));
+
+        // Verify
+        verifyNoInteractions(cardsRepository, jdbcTemplate);
+    }
+}
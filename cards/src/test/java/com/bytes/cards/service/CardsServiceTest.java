@@ -1,21 +1,37 @@
 package com.bytes.cards.service;
 
+import com.bytes.cards.constants.CardsConstants;
 import com.bytes.cards.dto.CardsDto;
+import com.bytes.cards.entity.CardCharges;
 import com.bytes.cards.entity.Cards;
+import com.bytes.cards.event.CardChargedEvent;
 import com.bytes.cards.exception.CardAlreadyExistException;
+import com.bytes.cards.exception.ChargeDeclinedException;
+import com.bytes.cards.exception.ResourceNotFoundException;
+import com.bytes.cards.repository.CardChargesRepository;
 import com.bytes.cards.repository.CardsRepository;
 import com.bytes.cards.service.impl.CardsServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -25,6 +41,15 @@ class CardsServiceTest {
     @Mock
     private CardsRepository cardsRepository;
 
+    @Mock
+    private CardChargesRepository cardChargesRepository;
+
+    @Mock
+    private VelocityService velocityService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private CardsServiceImpl cardsService;
 
@@ -58,42 +83,145 @@ class CardsServiceTest {
 
 
     @Test
-    void fetchCard_shouldReturnCardDetails_whenCardExists() {
+    void createCard_shouldSaveNewCardInTheLowestFreeSlot_whenCustomerIsBelowCardLimit() {
+        // Arrange
+        when(cardsRepository.findCardSlotsByMobileNumber(anyString())).thenReturn(List.of(1, 3));
+        when(cardsRepository.save(any(Cards.class))).thenReturn(cards);
+
+        // Act
+        cardsService.createCard(MOBILE_NUMBER, CardsConstants.CREDIT_CARD);
+
+        // Verify
+        ArgumentCaptor<Cards> saved = ArgumentCaptor.forClass(Cards.class);
+        verify(cardsRepository, times(1)).save(saved.capture());
+        assertEquals(2, saved.getValue().getCardSlot());
+        assertEquals(CardsConstants.CREDIT_CARD, saved.getValue().getCardType());
+    }
+
+    @Test
+    void createCard_shouldLookForAnotherSlot_whenTheSlotWasTakenConcurrently() {
         // Arrange
-        when(cardsRepository.findByMobileNumber(anyString())).thenReturn(Optional.of(cards));
+        when(cardsRepository.findCardSlotsByMobileNumber(anyString())).thenReturn(List.of(1), List.of(1, 2));
+        when(cardsRepository.save(any(Cards.class)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry for key 'uk_cards_mobile_number_slot'"))
+                .thenReturn(cards);
 
         // Act
-        CardsDto result = cardsService.fetchCard(MOBILE_NUMBER);
+        cardsService.createCard(MOBILE_NUMBER, CardsConstants.CREDIT_CARD);
+
+        // Verify
+        ArgumentCaptor<Cards> saved = ArgumentCaptor.forClass(Cards.class);
+        verify(cardsRepository, times(2)).save(saved.capture());
+        assertEquals(2, saved.getAllValues().get(0).getCardSlot());
+        assertEquals(3, saved.getAllValues().get(1).getCardSlot());
+    }
+
+    @Test
+    void createCard_shouldThrowException_whenTheLastSlotWasTakenConcurrently() {
+        // Arrange
+        when(cardsRepository.findCardSlotsByMobileNumber(anyString()))
+                .thenReturn(List.of(1, 2, 3, 4), List.of(1, 2, 3, 4, 5));
+        when(cardsRepository.save(any(Cards.class)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry for key 'uk_cards_mobile_number_slot'"));
+
+        // Act & Assert
+        assertThrows(CardAlreadyExistException.class,
+                () -> cardsService.createCard(MOBILE_NUMBER, CardsConstants.CREDIT_CARD));
+
+        // Verify
+        verify(cardsRepository, times(1)).save(any(Cards.class));
+    }
+
+    @Test
+    void createCard_shouldThrowException_whenCustomerHasMaximumCards() {
+        // Arrange
+        when(cardsRepository.findCardSlotsByMobileNumber(anyString())).thenReturn(List.of(1, 2, 3, 4, 5));
+
+        // Act & Assert
+        assertThrows(CardAlreadyExistException.class,
+                () -> cardsService.createCard(MOBILE_NUMBER, CardsConstants.CREDIT_CARD));
+
+        // Verify
+        verify(cardsRepository, never()).save(any(Cards.class));
+    }
+
+    @Test
+    void fetchCards_shouldReturnAllCards_whenCardsExist() {
+        // Arrange
+        Cards debitCard = Cards.builder()
+                .cardId(2L)
+                .mobileNumber(MOBILE_NUMBER)
+                .cardNumber("210987654321")
+                .cardType("Debit Card")
+                .totalLimit(50000)
+                .amountUsed(0)
+                .availableAmount(50000)
+                .build();
+        when(cardsRepository.findByMobileNumber(anyString())).thenReturn(List.of(cards, debitCard));
+
+        // Act
+        List<CardsDto> result = cardsService.fetchCards(MOBILE_NUMBER);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(MOBILE_NUMBER, result.getMobileNumber());
-        assertEquals(cards.getCardNumber(), result.getCardNumber());
-        assertEquals(cards.getCardType(), result.getCardType());
-        assertEquals(cards.getTotalLimit(), result.getTotalLimit());
-        assertEquals(cards.getAmountUsed(), result.getAmountUsed());
-        assertEquals(cards.getAvailableAmount(), result.getAvailableAmount());
+        assertEquals(2, result.size());
+        CardsDto first = result.get(0);
+        assertEquals(MOBILE_NUMBER, first.getMobileNumber());
+        assertEquals(cards.getCardNumber(), first.getCardNumber());
+        assertEquals(cards.getCardType(), first.getCardType());
+        assertEquals(cards.getTotalLimit(), first.getTotalLimit());
+        assertEquals(cards.getAmountUsed(), first.getAmountUsed());
+        assertEquals(cards.getAvailableAmount(), first.getAvailableAmount());
+        assertEquals(debitCard.getCardNumber(), result.get(1).getCardNumber());
 
         // Verify
         verify(cardsRepository, times(1)).findByMobileNumber(MOBILE_NUMBER);
     }
 
     @Test
-    void fetchCard_shouldThrowException_whenCardDoesNotExist() {
+    void fetchCards_shouldThrowException_whenCardDoesNotExist() {
         // Arrange
-        when(cardsRepository.findByMobileNumber(anyString())).thenReturn(Optional.empty());
+        when(cardsRepository.findByMobileNumber(anyString())).thenReturn(List.of());
 
         // Act & Assert
-        assertThrows(CardAlreadyExistException.class, () -> cardsService.fetchCard(MOBILE_NUMBER));
+        assertThrows(ResourceNotFoundException.class, () -> cardsService.fetchCards(MOBILE_NUMBER));
 
         // Verify
         verify(cardsRepository, times(1)).findByMobileNumber(MOBILE_NUMBER);
     }
 
+    @Test
+    void fetchCardsForCustomers_shouldGroupCardsByMobileNumber_usingSingleQuery() {
+        // Arrange
+        Cards otherCustomerCard = Cards.builder()
+                .cardId(3L)
+                .mobileNumber("9876543210")
+                .cardNumber("300000000001")
+                .cardType("Credit Card")
+                .totalLimit(100000)
+                .amountUsed(0)
+                .availableAmount(100000)
+                .build();
+        List<String> mobileNumbers = List.of(MOBILE_NUMBER, "9876543210", "5555555555");
+        when(cardsRepository.findByMobileNumberIn(mobileNumbers)).thenReturn(List.of(cards, otherCustomerCard));
+
+        // Act
+        Map<String, List<CardsDto>> result = cardsService.fetchCardsForCustomers(mobileNumbers);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals(1, result.get(MOBILE_NUMBER).size());
+        assertEquals("300000000001", result.get("9876543210").get(0).getCardNumber());
+        assertFalse(result.containsKey("5555555555"));
+
+        // Verify
+        verify(cardsRepository, times(1)).findByMobileNumberIn(mobileNumbers);
+        verifyNoMoreInteractions(cardsRepository);
+    }
+
     @Test
     void updateCard_shouldUpdateAndReturnTrue_whenCardExists() {
         // Arrange
-        when(cardsRepository.findByMobileNumber(anyString())).thenReturn(Optional.of(cards));
+        when(cardsRepository.findByCardNumber(anyString())).thenReturn(Optional.of(cards));
         when(cardsRepository.save(any(Cards.class))).thenReturn(cards);
 
         // Act
@@ -103,28 +231,151 @@ class CardsServiceTest {
         assertTrue(result);
 
         // Verify
-        verify(cardsRepository, times(1)).findByMobileNumber(MOBILE_NUMBER);
+        verify(cardsRepository, times(1)).findByCardNumber(cardsDto.getCardNumber());
         verify(cardsRepository, times(1)).save(any(Cards.class));
     }
 
+    @Test
+    void updateCard_shouldRecomputeTheAvailableAmount_whenTheLimitChanges() {
+        // Arrange
+        cardsDto.setTotalLimit(5000);
+        cardsDto.setAmountUsed(1200);
+        when(cardsRepository.findByCardNumber(anyString())).thenReturn(Optional.of(cards));
+
+        // Act
+        cardsService.updateCard(cardsDto);
+
+        // Assert
+        ArgumentCaptor<Cards> saved = ArgumentCaptor.forClass(Cards.class);
+        verify(cardsRepository).save(saved.capture());
+        assertEquals(5000, saved.getValue().getTotalLimit());
+        assertEquals(3800, saved.getValue().getAvailableAmount());
+    }
+
     @Test
     void updateCard_shouldThrowException_whenCardDoesNotExist() {
         // Arrange
-        when(cardsRepository.findByMobileNumber(anyString())).thenReturn(Optional.empty());
+        when(cardsRepository.findByCardNumber(anyString())).thenReturn(Optional.empty());
 
         // Act & Assert
-        assertThrows(CardAlreadyExistException.class, () -> cardsService.updateCard(cardsDto));
+        assertThrows(ResourceNotFoundException.class, () -> cardsService.updateCard(cardsDto));
+
+        // Verify
+        verify(cardsRepository, times(1)).findByCardNumber(cardsDto.getCardNumber());
+        verify(cardsRepository, never()).save(any(Cards.class));
+    }
+
+    @Test
+    void updateCard_shouldThrowException_whenCardBelongsToAnotherCustomer() {
+        // Arrange
+        cards.setMobileNumber("9876543210");
+        when(cardsRepository.findByCardNumber(anyString())).thenReturn(Optional.of(cards));
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> cardsService.updateCard(cardsDto));
 
         // Verify
-        verify(cardsRepository, times(1)).findByMobileNumber(MOBILE_NUMBER);
         verify(cardsRepository, never()).save(any(Cards.class));
     }
 
+    @Test
+    void chargeCard_shouldApplyCharge_whenVelocityAndLimitAllowIt() {
+        // Arrange
+        when(cardsRepository.chargeCard(anyString(), anyInt())).thenReturn(1);
+
+        // Act
+        cardsService.chargeCard(cards.getCardNumber(), 500);
+
+        // Verify
+        verify(velocityService, times(1)).authorize(cards.getCardNumber(), 500);
+        verify(cardsRepository, times(1)).chargeCard(cards.getCardNumber(), 500);
+        verify(cardsRepository, never()).findByCardNumber(anyString());
+        verify(cardChargesRepository, times(1)).save(any(CardCharges.class));
+        verify(eventPublisher, times(1)).publishEvent(new CardChargedEvent(cards.getCardNumber(), 500));
+    }
+
+    @Test
+    void chargeCard_shouldNotRecordTheCharge_whenVelocityLimitIsExceeded() {
+        // Arrange
+        when(cardsRepository.chargeCard(anyString(), anyInt())).thenReturn(1);
+        doThrow(new ChargeDeclinedException(CardsConstants.VELOCITY_LIMIT_EXCEEDED, "declined"))
+                .when(velocityService).authorize(anyString(), anyInt());
+
+        // Act & Assert
+        assertThrows(ChargeDeclinedException.class, () -> cardsService.chargeCard(cards.getCardNumber(), 500));
+
+        // Verify
+        verifyNoInteractions(cardChargesRepository, eventPublisher);
+    }
+
+    @Test
+    void chargeCard_shouldRevokeTheVelocityUsage_whenTheTransactionRollsBack() {
+        // Arrange
+        when(cardsRepository.chargeCard(anyString(), anyInt())).thenReturn(1);
+        when(velocityService.authorize(anyString(), anyInt())).thenReturn(1_700_000_000L);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            cardsService.chargeCard(cards.getCardNumber(), 500);
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Verify
+        verify(velocityService, times(1)).revoke(cards.getCardNumber(), 500, 1_700_000_000L);
+    }
+
+    @Test
+    void chargeCard_shouldKeepTheVelocityUsage_whenTheTransactionCommits() {
+        // Arrange
+        when(cardsRepository.chargeCard(anyString(), anyInt())).thenReturn(1);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            cardsService.chargeCard(cards.getCardNumber(), 500);
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Verify
+        verify(velocityService, never()).revoke(anyString(), anyInt(), anyLong());
+    }
+
+    @Test
+    void chargeCard_shouldDecline_whenAvailableAmountIsInsufficient() {
+        // Arrange
+        when(cardsRepository.chargeCard(anyString(), anyInt())).thenReturn(0);
+        when(cardsRepository.findByCardNumber(anyString())).thenReturn(Optional.of(cards));
+
+        // Act & Assert
+        ChargeDeclinedException exception = assertThrows(ChargeDeclinedException.class,
+                () -> cardsService.chargeCard(cards.getCardNumber(), 200000));
+        assertEquals(CardsConstants.INSUFFICIENT_LIMIT, exception.getReason());
+
+        // Verify
+        verify(cardChargesRepository, never()).save(any(CardCharges.class));
+        verifyNoInteractions(velocityService, eventPublisher);
+    }
+
+    @Test
+    void chargeCard_shouldThrowException_whenCardDoesNotExist() {
+        // Arrange
+        when(cardsRepository.chargeCard(anyString(), anyInt())).thenReturn(0);
+        when(cardsRepository.findByCardNumber(anyString())).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> cardsService.chargeCard(cards.getCardNumber(), 500));
+
+        // Verify
+        verifyNoInteractions(velocityService);
+    }
+
     @Test
     void deleteCard_shouldDeleteAndReturnTrue_whenCardExists() {
         // Arrange
-        when(cardsRepository.findByMobileNumber(anyString())).thenReturn(Optional.of(cards));
-        doNothing().when(cardsRepository).deleteById(anyLong());
+        when(cardsRepository.deleteAllByMobileNumber(anyString())).thenReturn(2);
 
         // Act
         boolean result = cardsService.deleteCard(MOBILE_NUMBER);
@@ -133,20 +384,18 @@ class CardsServiceTest {
         assertTrue(result);
 
         // Verify
-        verify(cardsRepository, times(1)).findByMobileNumber(MOBILE_NUMBER);
-        verify(cardsRepository, times(1)).deleteById(cards.getCardId());
+        verify(cardsRepository, times(1)).deleteAllByMobileNumber(MOBILE_NUMBER);
     }
 
     @Test
     void deleteCard_shouldThrowException_whenCardDoesNotExist() {
         // Arrange
-        when(cardsRepository.findByMobileNumber(anyString())).thenReturn(Optional.empty());
+        when(cardsRepository.deleteAllByMobileNumber(anyString())).thenReturn(0);
 
         // Act & Assert
-        assertThrows(CardAlreadyExistException.class, () -> cardsService.deleteCard(MOBILE_NUMBER));
+        assertThrows(ResourceNotFoundException.class, () -> cardsService.deleteCard(MOBILE_NUMBER));
 
         // Verify
-        verify(cardsRepository, times(1)).findByMobileNumber(MOBILE_NUMBER);
-        verify(cardsRepository, never()).deleteById(anyLong());
+        verify(cardsRepository, times(1)).deleteAllByMobileNumber(MOBILE_NUMBER);
     }
 }
@@ -0,0 +1,225 @@
+package com.bytes.cards.service;
+
+import com.bytes.cards.dto.RewardsBalanceDto;
+import com.bytes.cards.service.impl.RewardsServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RewardsServiceTest {
+
+    private static final String CARD_NUMBER = "123456789012";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private RewardsServiceImpl rewardsService;
+
+    @BeforeEach
+    void setUp() {
+        // One point per 100 of spend, two cards per upsert batch
+        rewardsService = new RewardsServiceImpl(jdbcTemplate, transactionManager, new SimpleMeterRegistry(), 100, 2);
+    }
+
+    @Test
+    void accrue_shouldNotTouchDatabase() {
+        // Act
+        rewardsService.accrue(CARD_NUMBER, 2550);
+        rewardsService.accrue(CARD_NUMBER, 99);
+
+        // Verify
+        verifyNoInteractions(jdbcTemplate, transactionManager);
+    }
+
+    @Test
+    void getBalance_shouldAddPendingSpendToPersistedBalance() {
+        // Arrange
+        persistedBalance(1000, 40);
+        rewardsService.accrue(CARD_NUMBER, 2550);
+
+        // Act
+        RewardsBalanceDto first = rewardsService.getBalance(CARD_NUMBER);
+        rewardsService.accrue(CARD_NUMBER, 510);
+        RewardsBalanceDto second = rewardsService.getBalance(CARD_NUMBER);
+
+        // Assert
+        assertEquals(1025, first.getPoints());
+        assertEquals(1031, second.getPoints());
+
+        // Verify
+        verify(jdbcTemplate, times(1)).query(anyString(), ArgumentMatchers.<RowMapper<Object>>any(), eq(CARD_NUMBER));
+    }
+
+    @Test
+    void getBalance_shouldPickUpSpendOfAnotherInstance_afterTheNextFlush() {
+        // Arrange
+        when(jdbcTemplate.query(anyString(), ArgumentMatchers.<RowMapper<Map.Entry<String, long[]>>>any(), eq(CARD_NUMBER)))
+                .thenReturn(List.of(Map.entry(CARD_NUMBER, new long[]{1000, 0})))
+                .thenReturn(List.of(Map.entry(CARD_NUMBER, new long[]{1201, 0})));
+        RewardsBalanceDto first = rewardsService.getBalance(CARD_NUMBER);
+        rewardsService.accrue(CARD_NUMBER, 100);
+
+        // Act
+        rewardsService.flush();
+        RewardsBalanceDto second = rewardsService.getBalance(CARD_NUMBER);
+
+        // Assert
+        assertEquals(1000, first.getPoints());
+        assertEquals(1201, second.getPoints());
+    }
+
+    @Test
+    void getBalance_shouldCountSpendBeingFlushed_withoutWaitingForTheUpsert() {
+        // Arrange
+        when(jdbcTemplate.query(anyString(), ArgumentMatchers.<RowMapper<Map.Entry<String, long[]>>>any(), eq(CARD_NUMBER)))
+                .thenReturn(List.of(Map.entry(CARD_NUMBER, new long[]{1000, 40})))
+                .thenReturn(List.of(Map.entry(CARD_NUMBER, new long[]{1025, 90})));
+        rewardsService.accrue(CARD_NUMBER, 2550);
+        rewardsService.getBalance(CARD_NUMBER);
+        List<Long> duringUpsert = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            duringUpsert.add(CompletableFuture.supplyAsync(() -> rewardsService.getBalance(CARD_NUMBER).getPoints())
+                    .get(5, TimeUnit.SECONDS));
+            return new int[]{1};
+        });
+
+        // Act
+        rewardsService.flush();
+        RewardsBalanceDto after = rewardsService.getBalance(CARD_NUMBER);
+
+        // Assert
+        assertEquals(List.of(1025L), duringUpsert);
+        assertEquals(1025, after.getPoints());
+    }
+
+    @Test
+    void getBalance_shouldReturnZero_whenCardHasNoRewards() {
+        // Arrange
+        when(jdbcTemplate.query(anyString(), ArgumentMatchers.<RowMapper<long[]>>any(), eq(CARD_NUMBER)))
+                .thenReturn(List.of());
+
+        // Act
+        RewardsBalanceDto result = rewardsService.getBalance(CARD_NUMBER);
+
+        // Assert
+        assertEquals(0, result.getPoints());
+    }
+
+    @Test
+    void flush_shouldUpsertPendingSpendInBatches() {
+        // Arrange
+        rewardsService.accrue(CARD_NUMBER, 2550);
+        rewardsService.accrue("210987654321", 300);
+        rewardsService.accrue("300000000001", 100);
+
+        // Act
+        int flushed = rewardsService.flush();
+
+        // Assert
+        assertEquals(3, flushed);
+        assertEquals(0, rewardsService.flush());
+
+        // Verify
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), rows.capture());
+        assertEquals(2, rows.getAllValues().get(0).size());
+        assertEquals(1, rows.getAllValues().get(1).size());
+        Object[] row = rows.getAllValues().stream().flatMap(List::stream)
+                .filter(r -> CARD_NUMBER.equals(r[0])).findFirst().orElseThrow();
+        assertEquals(2550L, row[1]);
+        assertEquals(100, row[2]);
+    }
+
+    @Test
+    void getBalance_shouldCarryTheSpendShortOfAPoint() {
+        // Arrange
+        persistedBalance(0, 0);
+        rewardsService.accrue(CARD_NUMBER, 60);
+        rewardsService.accrue(CARD_NUMBER, 60);
+
+        // Act
+        RewardsBalanceDto result = rewardsService.getBalance(CARD_NUMBER);
+
+        // Assert
+        assertEquals(1, result.getPoints());
+    }
+
+    @Test
+    void flush_shouldEvictAggregates_whenNothingWasChargedSinceThePreviousFlush() {
+        // Arrange
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        rewardsService = new RewardsServiceImpl(jdbcTemplate, transactionManager, meterRegistry, 100, 2);
+        rewardsService.accrue(CARD_NUMBER, 2550);
+        rewardsService.flush();
+
+        // Act
+        rewardsService.flush();
+        rewardsService.accrue(CARD_NUMBER, 300);
+        int flushed = rewardsService.flush();
+
+        // Assert
+        assertEquals(1, flushed);
+        assertEquals(1.0, meterRegistry.get("cards.rewards.evicted").counter().count());
+        assertEquals(1.0, meterRegistry.get("cards.rewards.accounts").gauge().value());
+
+        // Verify
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), rows.capture());
+        assertEquals(300L, rows.getAllValues().get(1).get(0)[1]);
+    }
+
+    @Test
+    void flush_shouldKeepPendingPoints_whenUpsertFails() {
+        // Arrange
+        rewardsService.accrue(CARD_NUMBER, 2550);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"))
+                .thenReturn(new int[]{1});
+
+        // Act
+        int failed = rewardsService.flush();
+        int retried = rewardsService.flush();
+
+        // Assert
+        assertEquals(0, failed);
+        assertEquals(1, retried);
+
+        // Verify
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), rows.capture());
+        assertEquals(2550L, rows.getAllValues().get(1).get(0)[1]);
+    }
+
+    private void persistedBalance(long points, long spendRemainder) {
+        when(jdbcTemplate.query(anyString(), ArgumentMatchers.<RowMapper<Map.Entry<String, long[]>>>any(), eq(CARD_NUMBER)))
+                .thenReturn(List.of(Map.entry(CARD_NUMBER, new long[]{points, spendRemainder})));
+    }
+}
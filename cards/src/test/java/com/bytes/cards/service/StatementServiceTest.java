@@ -0,0 +1,144 @@
+package com.bytes.cards.service;
+
+import com.bytes.cards.dto.StatementRunResultDto;
+import com.bytes.cards.service.impl.StatementServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StatementServiceTest {
+
+    private static final YearMonth CYCLE = YearMonth.of(2025, 9);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path statementDirectory;
+
+    private StatementServiceImpl statementService;
+
+    @BeforeEach
+    void setUp() {
+        // Two writers and a tiny queue and buffer so the hand-off and buffer flushing are exercised
+        statementService = new StatementServiceImpl(jdbcTemplate, statementDirectory.toString(), 2, 1, 64);
+    }
+
+    @Test
+    void generateStatements_shouldWriteOneStatementPerCard() throws IOException, SQLException {
+        // Arrange
+        ResultSet[] rows = {
+                row(1L, "100000000001", 200, LocalDateTime.of(2025, 9, 20, 18, 0)),
+                row(1L, "100000000001", 500, LocalDateTime.of(2025, 9, 3, 10, 15)),
+                row(2L, "100000000002", null, null),
+                row(3L, "100000000003", 900, LocalDateTime.of(2025, 9, 30, 23, 59))
+        };
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (ResultSet row : rows) {
+                handler.processRow(row);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        // Act
+        StatementRunResultDto result = statementService.generateStatements(CYCLE);
+
+        // Assert
+        assertEquals("2025-09", result.getCycle());
+        assertEquals(3, result.getStatements());
+        assertEquals(3, result.getCharges());
+        assertEquals(2, result.getFiles().size());
+        String statements = readAll(statementDirectory);
+        assertTrue(statements.contains("CARD 100000000001"));
+        assertTrue(statements.contains("TOTAL CHARGES 2 AMOUNT 700"));
+        assertTrue(statements.contains("  2025-09-03T10:15 500\n  2025-09-20T18:00 200\n"));
+        assertTrue(statements.contains("TOTAL CHARGES 0 AMOUNT 0"));
+        assertTrue(statements.contains("TOTAL CHARGES 1 AMOUNT 900"));
+        try (Stream<Path> files = Files.list(statementDirectory)) {
+            assertTrue(files.noneMatch(file -> file.toString().endsWith(".tmp")));
+        }
+    }
+
+    @Test
+    void generateStatements_shouldNotPublishFiles_whenCursorFails() throws IOException {
+        // Arrange
+        doThrow(new DataAccessResourceFailureException("connection lost"))
+                .when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        // Act & Assert
+        assertThrows(DataAccessResourceFailureException.class, () -> statementService.generateStatements(CYCLE));
+        try (Stream<Path> files = Files.list(statementDirectory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void generateStatements_shouldFailWithTheWriterError_whenAWriterFails() throws IOException, SQLException {
+        // Arrange
+        Files.createDirectories(statementDirectory.resolve("statements-2025-09-part-000.txt.tmp/blocked"));
+        ResultSet row = row(1L, "100000000001", 500, LocalDateTime.of(2025, 9, 3, 10, 15));
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (int i = 0; i < 10; i++) {
+                when(row.getLong(1)).thenReturn((long) i);
+                handler.processRow(row);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        // Act & Assert
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> statementService.generateStatements(CYCLE));
+        assertInstanceOf(IOException.class, exception.getCause());
+        assertFalse(Files.exists(statementDirectory.resolve("statements-2025-09-part-001.txt.tmp")));
+    }
+
+    private static ResultSet row(long cardId, String cardNumber, Integer amount, LocalDateTime chargedAt) throws SQLException {
+        ResultSet row = mock(ResultSet.class, withSettings().strictness(Strictness.LENIENT));
+        when(row.getLong(1)).thenReturn(cardId);
+        when(row.getString(2)).thenReturn(cardNumber);
+        when(row.getString(3)).thenReturn("1234567890");
+        when(row.getString(4)).thenReturn("Credit Card");
+        when(row.getInt(5)).thenReturn(100000);
+        when(row.getInt(6)).thenReturn(1000);
+        when(row.getInt(7)).thenReturn(99000);
+        when(row.getInt(8)).thenReturn(amount == null ? 0 : amount);
+        when(row.wasNull()).thenReturn(amount == null);
+        when(row.getTimestamp(9)).thenReturn(chargedAt == null ? null : Timestamp.valueOf(chargedAt));
+        return row;
+    }
+
+    private static String readAll(Path directory) throws IOException {
+        StringBuilder content = new StringBuilder();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.sorted().toList()) {
+                content.append(Files.readString(file));
+            }
+        }
+        return content.toString();
+    }
+}
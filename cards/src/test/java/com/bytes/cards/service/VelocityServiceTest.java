@@ -0,0 +1,174 @@
+package com.bytes.cards.service;
+
+import com.bytes.cards.dto.VelocityLimitsDto;
+import com.bytes.cards.exception.ChargeDeclinedException;
+import com.bytes.cards.service.impl.VelocityServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VelocityServiceTest {
+
+    private static final String CARD_NUMBER = "123456789012";
+
+    private final MutableClock clock = new MutableClock();
+    private SimpleMeterRegistry meterRegistry;
+    private VelocityServiceImpl velocityService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        VelocityLimitsDto limits = new VelocityLimitsDto(true, 1,
+                new VelocityLimitsDto.WindowLimit(3, 1000),
+                new VelocityLimitsDto.WindowLimit(5, 5000),
+                new VelocityLimitsDto.WindowLimit(8, 10000));
+        velocityService = new VelocityServiceImpl(limits, meterRegistry, clock);
+    }
+
+    @Test
+    void authorize_shouldRejectCharge_whenMinuteCountIsExceeded() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            velocityService.authorize(CARD_NUMBER, 10);
+        }
+
+        // Act & Assert
+        assertThrows(ChargeDeclinedException.class, () -> velocityService.authorize(CARD_NUMBER, 10));
+        assertEquals(1.0, meterRegistry.get("cards.velocity.rejections")
+                .tag("window", "1m").tag("limit", "count").counter().count());
+    }
+
+    @Test
+    void authorize_shouldAcceptCharge_onceMinuteWindowHasPassed() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            velocityService.authorize(CARD_NUMBER, 10);
+        }
+        clock.advanceSeconds(61);
+
+        // Act & Assert
+        assertDoesNotThrow(() -> velocityService.authorize(CARD_NUMBER, 10));
+    }
+
+    @Test
+    void authorize_shouldRejectCharge_whenAmountIsExceeded() {
+        // Arrange
+        velocityService.authorize(CARD_NUMBER, 900);
+
+        // Act & Assert
+        assertThrows(ChargeDeclinedException.class, () -> velocityService.authorize(CARD_NUMBER, 101));
+        assertDoesNotThrow(() -> velocityService.authorize(CARD_NUMBER, 100));
+        assertEquals(1.0, meterRegistry.get("cards.velocity.rejections")
+                .tag("window", "1m").tag("limit", "amount").counter().count());
+    }
+
+    @Test
+    void authorize_shouldEnforceHourAndDayWindows() {
+        // Arrange: spread charges so the minute window never trips
+        for (int i = 0; i < 5; i++) {
+            velocityService.authorize(CARD_NUMBER, 10);
+            clock.advanceSeconds(120);
+        }
+
+        // Act & Assert
+        assertThrows(ChargeDeclinedException.class, () -> velocityService.authorize(CARD_NUMBER, 10));
+        clock.advanceSeconds(3600);
+        for (int i = 0; i < 3; i++) {
+            velocityService.authorize(CARD_NUMBER, 10);
+            clock.advanceSeconds(120);
+        }
+        assertThrows(ChargeDeclinedException.class, () -> velocityService.authorize(CARD_NUMBER, 10));
+        assertEquals(1.0, meterRegistry.get("cards.velocity.rejections")
+                .tag("window", "24h").tag("limit", "count").counter().count());
+    }
+
+    @Test
+    void authorize_shouldTrackCardsIndependently() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            velocityService.authorize(CARD_NUMBER, 10);
+        }
+
+        // Act & Assert
+        assertDoesNotThrow(() -> velocityService.authorize("210987654321", 10));
+    }
+
+    @Test
+    void revoke_shouldTakeBackTheCharge_soItNoLongerCountsTowardsTheLimits() {
+        // Arrange
+        velocityService.authorize(CARD_NUMBER, 10);
+        velocityService.authorize(CARD_NUMBER, 10);
+        long authorizedAt = velocityService.authorize(CARD_NUMBER, 900);
+
+        // Act
+        velocityService.revoke(CARD_NUMBER, 900, authorizedAt);
+
+        // Assert
+        assertDoesNotThrow(() -> velocityService.authorize(CARD_NUMBER, 900));
+        assertThrows(ChargeDeclinedException.class, () -> velocityService.authorize(CARD_NUMBER, 10));
+    }
+
+    @Test
+    void revoke_shouldLeaveLaterBuckets_whenTheWindowHasMovedOn() {
+        // Arrange
+        long authorizedAt = velocityService.authorize(CARD_NUMBER, 10);
+        clock.advanceSeconds(61);
+        for (int i = 0; i < 3; i++) {
+            velocityService.authorize(CARD_NUMBER, 10);
+        }
+
+        // Act
+        velocityService.revoke(CARD_NUMBER, 10, authorizedAt);
+
+        // Assert
+        assertThrows(ChargeDeclinedException.class, () -> velocityService.authorize(CARD_NUMBER, 10));
+    }
+
+    @Test
+    void authorize_shouldAllowEverything_whenDisabled() {
+        // Arrange
+        VelocityServiceImpl disabled = new VelocityServiceImpl(new VelocityLimitsDto(false, 1, null, null, null),
+                meterRegistry, clock);
+
+        // Act & Assert
+        for (int i = 0; i < 20; i++) {
+            assertDoesNotThrow(() -> disabled.authorize(CARD_NUMBER, 50000));
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private long millis = 1_700_000_000_000L;
+
+        void advanceSeconds(long seconds) {
+            millis += seconds * 1000;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+}
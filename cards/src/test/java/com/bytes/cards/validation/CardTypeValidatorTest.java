@@ -0,0 +1,61 @@
+package com.bytes.cards.validation;
+
+import com.bytes.cards.dto.CardsDto;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardTypeValidatorTest {
+
+    private static ValidatorFactory validatorFactory;
+    private static Validator validator;
+
+    @BeforeAll
+    static void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void validate_WhenCardTypeIsAKnownLabel_ShouldAcceptIt() {
+        // Act
+        Set<ConstraintViolation<CardsDto>> violations = validator.validate(card("Debit Card"));
+
+        // Assert
+        assertTrue(violations.isEmpty());
+    }
+
+    @Test
+    void validate_WhenCardTypeIsFreeText_ShouldRejectIt() {
+        // Act
+        Set<ConstraintViolation<CardsDto>> violations = validator.validate(card("credit card "));
+
+        // Assert
+        assertEquals(1, violations.size());
+        assertEquals("cardType", violations.iterator().next().getPropertyPath().toString());
+    }
+
+    private static CardsDto card(String cardType) {
+        return CardsDto.builder()
+                .mobileNumber("1234567890")
+                .cardNumber("123456789012")
+                .cardType(cardType)
+                .totalLimit(100000)
+                .amountUsed(1000)
+                .availableAmount(99000)
+                .build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.bytes.common.config;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+
+/**
+ * Encrypts the config snapshot with AES-GCM under a key derived from {@code config-snapshot.encryption-key}.
+ * <p>
+ * The config server decrypts {@code {cipher}} values before handing them out, so the snapshot would otherwise
+ * keep secrets on disk in plain text. A file is the PBKDF2 salt, the GCM nonce and the ciphertext; a wrong key
+ * or a tampered file fails to decrypt rather than loading garbage.
+ */
+final class ConfigSnapshotCipher {
+
+    static final String KEY_PROPERTY = "config-snapshot.encryption-key";
+
+    private static final int SALT_LENGTH = 16;
+    private static final int NONCE_LENGTH = 12;
+    private static final int TAG_BITS = 128;
+    private static final int ITERATIONS = 65_536;
+    private static final SecureRandom random = new SecureRandom();
+
+    private ConfigSnapshotCipher() {
+    }
+
+    static byte[] encrypt(String key, byte[] plain) throws GeneralSecurityException {
+        byte[] salt = new byte[SALT_LENGTH];
+        byte[] nonce = new byte[NONCE_LENGTH];
+        random.nextBytes( salt );
+        random.nextBytes( nonce );
+        byte[] encrypted = cipher( Cipher.ENCRYPT_MODE, key, salt, nonce ).doFinal( plain );
+        return ByteBuffer.allocate( SALT_LENGTH + NONCE_LENGTH + encrypted.length )
+                .put( salt ).put( nonce ).put( encrypted ).array();
+    }
+
+    static byte[] decrypt(String key, byte[] file) throws GeneralSecurityException {
+        if (file.length < SALT_LENGTH + NONCE_LENGTH + TAG_BITS / 8) {
+            throw new AEADBadTagException( "Truncated config snapshot" );
+        }
+        ByteBuffer buffer = ByteBuffer.wrap( file );
+        byte[] salt = new byte[SALT_LENGTH];
+        byte[] nonce = new byte[NONCE_LENGTH];
+        buffer.get( salt ).get( nonce );
+        return cipher( Cipher.DECRYPT_MODE, key, salt, nonce ).doFinal( file, buffer.position(), buffer.remaining() );
+    }
+
+    private static Cipher cipher(int mode, String key, byte[] salt, byte[] nonce) throws GeneralSecurityException {
+        byte[] derived = SecretKeyFactory.getInstance( "PBKDF2WithHmacSHA256" )
+                .generateSecret( new PBEKeySpec( key.toCharArray(), salt, ITERATIONS, 256 ) )
+                .getEncoded();
+        Cipher cipher = Cipher.getInstance( "AES/GCM/NoPadding" );
+        cipher.init( mode, new SecretKeySpec( derived, "AES" ), new GCMParameterSpec( TAG_BITS, nonce ) );
+        return cipher;
+    }
+}
@@ -0,0 +1,49 @@
+package com.bytes.common.config;
+
+import org.apache.commons.logging.Log;
+import org.springframework.boot.context.config.ConfigData;
+import org.springframework.boot.context.config.ConfigDataLoader;
+import org.springframework.boot.context.config.ConfigDataLoaderContext;
+import org.springframework.boot.logging.DeferredLogFactory;
+import org.springframework.core.env.MapPropertySource;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.GeneralSecurityException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Decrypts a {@link ConfigSnapshotResource} into the {@value #PROPERTY_SOURCE_NAME} property source.
+ * <p>
+ * A snapshot that does not decrypt, written with another key or damaged, loads as an empty source: the service
+ * starts as it would with the config server down and the reconciliation replaces the snapshot.
+ */
+public class ConfigSnapshotLoader implements ConfigDataLoader<ConfigSnapshotResource> {
+
+    static final String PROPERTY_SOURCE_NAME = "configSnapshot";
+
+    private final Log log;
+
+    public ConfigSnapshotLoader(DeferredLogFactory logFactory) {
+        this.log = logFactory.getLog( ConfigSnapshotLoader.class );
+    }
+
+    @Override
+    public ConfigData load(ConfigDataLoaderContext context, ConfigSnapshotResource resource) throws IOException {
+        Properties properties = new Properties();
+        try {
+            byte[] plain = ConfigSnapshotCipher.decrypt( resource.getEncryptionKey(), Files.readAllBytes( resource.getFile() ) );
+            properties.load( new StringReader( new String( plain, StandardCharsets.UTF_8 ) ) );
+        } catch (GeneralSecurityException e) {
+            log.warn( "Could not decrypt the config snapshot " + resource.getFile() + ", starting without it", e );
+        }
+        Map<String, Object> values = new LinkedHashMap<>();
+        properties.stringPropertyNames().forEach( name -> values.put( name, properties.getProperty( name ) ) );
+        return new ConfigData( List.of( new MapPropertySource( PROPERTY_SOURCE_NAME, values ) ) );
+    }
+}
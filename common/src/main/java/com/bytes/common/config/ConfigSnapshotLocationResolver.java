@@ -0,0 +1,81 @@
+package com.bytes.common.config;
+
+import org.springframework.boot.context.config.ConfigDataLocation;
+import org.springframework.boot.context.config.ConfigDataLocationResolver;
+import org.springframework.boot.context.config.ConfigDataLocationResolverContext;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.Ordered;
+import org.springframework.util.StringUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Resolves the {@code configserver:} import to the local config snapshot while the service starts, so startup
+ * never waits on the config server.
+ * <p>
+ * Only applies when a snapshot exists, {@code config-snapshot.enabled} is not false and the
+ * {@code config-snapshot.encryption-key} the snapshot was written with is set. Once the application
+ * is ready the config server resolver takes over again, so the background reconciliation and every later
+ * refresh read the config server itself.
+ */
+public class ConfigSnapshotLocationResolver implements ConfigDataLocationResolver<ConfigSnapshotResource>, Ordered {
+
+    static final String CONFIG_SERVER_PREFIX = "configserver:";
+    static final String ENABLED_PROPERTY = "config-snapshot.enabled";
+    static final String FILE_PROPERTY = "config-snapshot.file";
+
+    private static final AtomicBoolean started = new AtomicBoolean();
+
+    static void markStarted() {
+        started.set( true );
+    }
+
+    static void reset() {
+        started.set( false );
+    }
+
+    /**
+     * @return the snapshot file configured for the service, by default
+     * {@code <tmpdir>/<application>-<active profiles>-config-snapshot.properties}
+     */
+    static Path snapshotFile(Binder binder) {
+        return binder.bind( FILE_PROPERTY, Path.class ).orElseGet( () -> {
+            String application = binder.bind( "spring.application.name", String.class ).orElse( "application" );
+            String profiles = String.join( ",", binder.bind( "spring.profiles.active", String[].class )
+                    .orElse( new String[]{"default"} ) );
+            return Paths.get( System.getProperty( "java.io.tmpdir" ), application + "-" + profiles + "-config-snapshot.properties" );
+        } );
+    }
+
+    /**
+     * @return the key the snapshot is encrypted with, null when none is set and no snapshot is kept
+     */
+    static String encryptionKey(Binder binder) {
+        String key = binder.bind( ConfigSnapshotCipher.KEY_PROPERTY, String.class ).orElse( null );
+        return StringUtils.hasText( key ) ? key : null;
+    }
+
+    @Override
+    public boolean isResolvable(ConfigDataLocationResolverContext context, ConfigDataLocation location) {
+        return location.hasPrefix( CONFIG_SERVER_PREFIX )
+                && !started.get()
+                && context.getBinder().bind( ENABLED_PROPERTY, Boolean.class ).orElse( true )
+                && encryptionKey( context.getBinder() ) != null
+                && Files.isReadable( snapshotFile( context.getBinder() ) );
+    }
+
+    @Override
+    public List<ConfigSnapshotResource> resolve(ConfigDataLocationResolverContext context, ConfigDataLocation location) {
+        return List.of( new ConfigSnapshotResource( snapshotFile( context.getBinder() ), encryptionKey( context.getBinder() ) ) );
+    }
+
+    @Override
+    public int getOrder() {
+        // ahead of the config server resolver
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
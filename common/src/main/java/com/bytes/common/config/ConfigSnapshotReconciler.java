@@ -0,0 +1,210 @@
+package com.bytes.common.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.cloud.context.refresh.ContextRefresher;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.EnumerablePropertySource;
+import org.springframework.core.env.PropertySource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reconciles a service that booted from its config snapshot with the config server, and keeps the snapshot
+ * up to date.
+ * <p>
+ * When the application is ready a background thread refreshes the environment from the config server, retrying
+ * every {@code config-snapshot.retry-interval} until the server answers. The snapshot property source is then
+ * dropped and the snapshot file rewritten; it is rewritten again after every later refresh. A service that
+ * booted from the config server directly only writes the snapshot. Without a {@link ContextRefresher}, with
+ * {@code spring.cloud.refresh.enabled=false}, the service is not reconciled and runs on the snapshot until
+ * restarted.
+ * <p>
+ * The snapshot holds the values the config server decrypted, so it is encrypted with
+ * {@code config-snapshot.encryption-key} and readable by its owner only; without a key no snapshot is kept.
+ * {@code config.snapshot.age} is the time since the configuration was last fetched from the config server.
+ */
+@Slf4j
+public class ConfigSnapshotReconciler {
+
+    private final ConfigurableEnvironment environment;
+    private final ObjectProvider<ContextRefresher> contextRefresher;
+    private final ApplicationEventPublisher publisher;
+    private final Path snapshotFile;
+    private final Duration retryInterval;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+            new CustomizableThreadFactory( "config-snapshot-" ) );
+    private volatile long fetchedAtMillis;
+
+    public ConfigSnapshotReconciler(ConfigurableEnvironment environment, ObjectProvider<ContextRefresher> contextRefresher,
+                                    ApplicationEventPublisher publisher, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.contextRefresher = contextRefresher;
+        this.publisher = publisher;
+        this.snapshotFile = ConfigSnapshotLocationResolver.snapshotFile( Binder.get( environment ) );
+        this.retryInterval = environment.getProperty( "config-snapshot.retry-interval", Duration.class, Duration.ofSeconds( 30 ) );
+        this.fetchedAtMillis = lastModified( snapshotFile );
+        TimeGauge.builder( "config.snapshot.age", this, TimeUnit.MILLISECONDS,
+                        reconciler -> reconciler.fetchedAtMillis == 0 ? Double.NaN
+                                : System.currentTimeMillis() - reconciler.fetchedAtMillis )
+                .description( "Time since the configuration was last fetched from the config server" )
+                .register( meterRegistry );
+    }
+
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        ConfigSnapshotLocationResolver.markStarted();
+        if (encryptionKey() == null) {
+            log.info( "No {} set, not keeping a config snapshot", ConfigSnapshotCipher.KEY_PROPERTY );
+        }
+        if (environment.getPropertySources().contains( ConfigSnapshotLoader.PROPERTY_SOURCE_NAME )) {
+            log.info( "Started from the config snapshot {}, reconciling with the config server in the background", snapshotFile );
+            executor.execute( this::reconcile );
+        } else {
+            saveSnapshot();
+        }
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (!environment.getPropertySources().contains( ConfigSnapshotLoader.PROPERTY_SOURCE_NAME )) {
+            saveSnapshot();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    void reconcile() {
+        ContextRefresher refresher = contextRefresher.getIfAvailable();
+        if (refresher == null) {
+            // refresh disabled: retrying could never reach the config server
+            log.warn( "Configuration refresh is not available, running on the config snapshot until restarted" );
+            return;
+        }
+        try {
+            refresher.refresh();
+        } catch (RuntimeException e) {
+            log.warn( "Could not refresh the configuration from the config server", e );
+        }
+        if (!hasConfigServerSources()) {
+            log.warn( "Config server unavailable, still running on the config snapshot; retrying in {}", retryInterval );
+            executor.schedule( this::reconcile, retryInterval.toMillis(), TimeUnit.MILLISECONDS );
+            return;
+        }
+
+        PropertySource<?> snapshot = environment.getPropertySources().remove( ConfigSnapshotLoader.PROPERTY_SOURCE_NAME );
+        Set<String> dropped = new HashSet<>();
+        if (snapshot instanceof EnumerablePropertySource<?> enumerable) {
+            for (String name : enumerable.getPropertyNames()) {
+                if (!environment.containsProperty( name )) {
+                    dropped.add( name );
+                }
+            }
+        }
+        if (!dropped.isEmpty()) {
+            // properties removed from the config server since the snapshot was taken
+            publisher.publishEvent( new EnvironmentChangeEvent( dropped ) );
+        }
+        saveSnapshot();
+        log.info( "Reconciled the configuration with the config server" );
+    }
+
+    private boolean hasConfigServerSources() {
+        return environment.getPropertySources().stream().anyMatch( ConfigSnapshotReconciler::isConfigServerSource );
+    }
+
+    private static boolean isConfigServerSource(PropertySource<?> source) {
+        return source.getName().startsWith( ConfigSnapshotLocationResolver.CONFIG_SERVER_PREFIX )
+                || source.getName().equals( "configClient" );
+    }
+
+    synchronized void saveSnapshot() {
+        String key = encryptionKey();
+        if (key == null) {
+            deleteSnapshot();
+            return;
+        }
+        Properties properties = new Properties();
+        // property sources are in precedence order, the first value of a property wins
+        for (PropertySource<?> source : environment.getPropertySources()) {
+            if (isConfigServerSource( source ) && source instanceof EnumerablePropertySource<?> enumerable) {
+                for (String name : enumerable.getPropertyNames()) {
+                    Object value = enumerable.getProperty( name );
+                    if (value != null && !properties.containsKey( name )) {
+                        properties.setProperty( name, value.toString() );
+                    }
+                }
+            }
+        }
+        if (properties.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories( snapshotFile.toAbsolutePath().getParent() );
+            Path partial = snapshotFile.resolveSibling( snapshotFile.getFileName() + ".partial" );
+            Files.deleteIfExists( partial );
+            if (FileSystems.getDefault().supportedFileAttributeViews().contains( "posix" )) {
+                Files.createFile( partial, PosixFilePermissions.asFileAttribute( PosixFilePermissions.fromString( "rw-------" ) ) );
+            }
+            StringWriter plain = new StringWriter();
+            properties.store( plain, "Last configuration fetched from the config server" );
+            Files.write( partial, ConfigSnapshotCipher.encrypt( key, plain.toString().getBytes( StandardCharsets.UTF_8 ) ) );
+            Files.move( partial, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+            fetchedAtMillis = System.currentTimeMillis();
+        } catch (IOException | GeneralSecurityException e) {
+            log.warn( "Could not write the config snapshot {}", snapshotFile, e );
+        }
+    }
+
+    private String encryptionKey() {
+        String key = environment.getProperty( ConfigSnapshotCipher.KEY_PROPERTY );
+        return StringUtils.hasText( key ) ? key : null;
+    }
+
+    /**
+     * Removes a snapshot left behind while a key was set, or by a version that wrote it in plain text.
+     */
+    private void deleteSnapshot() {
+        try {
+            Files.deleteIfExists( snapshotFile );
+        } catch (IOException e) {
+            log.warn( "Could not delete the config snapshot {}", snapshotFile, e );
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.exists( file ) ? Files.getLastModifiedTime( file ).toMillis() : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.bytes.common.config;
+
+import org.springframework.boot.context.config.ConfigDataResource;
+
+import java.nio.file.Path;
+
+/**
+ * The last known good configuration of the service, persisted by the {@link ConfigSnapshotReconciler}.
+ */
+public class ConfigSnapshotResource extends ConfigDataResource {
+
+    private final Path file;
+    private final String encryptionKey;
+
+    public ConfigSnapshotResource(Path file, String encryptionKey) {
+        super( true );
+        this.file = file;
+        this.encryptionKey = encryptionKey;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    String getEncryptionKey() {
+        return encryptionKey;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ConfigSnapshotResource other && file.equals( other.file );
+    }
+
+    @Override
+    public int hashCode() {
+        return file.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "config snapshot " + file;
+    }
+}
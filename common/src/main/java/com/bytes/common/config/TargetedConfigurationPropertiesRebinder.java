@@ -0,0 +1,91 @@
+package com.bytes.common.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeansException;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.source.ConfigurationPropertyName;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.cloud.context.properties.ConfigurationPropertiesBeans;
+import org.springframework.cloud.context.properties.ConfigurationPropertiesRebinder;
+import org.springframework.context.ApplicationContext;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rebinds only the {@code @ConfigurationProperties} beans whose prefix covers one of the changed keys.
+ * <p>
+ * Spring Cloud rebinds every such bean on any {@link EnvironmentChangeEvent}, including the framework's own
+ * server, datasource and actuator properties. Keys are compared as relaxed property names, so
+ * {@code loans.contactDetails.name} matches a bean bound to {@code loans}. Beans whose prefix cannot be
+ * determined are always rebound, but are not taken to bind any key in particular.
+ */
+@Slf4j
+public class TargetedConfigurationPropertiesRebinder extends ConfigurationPropertiesRebinder {
+
+    private final Map<String, Optional<ConfigurationPropertyName>> prefixes = new ConcurrentHashMap<>();
+    private ApplicationContext applicationContext;
+
+    public TargetedConfigurationPropertiesRebinder(ConfigurationPropertiesBeans beans) {
+        super( beans );
+    }
+
+    @Override
+    public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
+        super.setApplicationContext( applicationContext );
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public void onApplicationEvent(EnvironmentChangeEvent event) {
+        if (applicationContext.equals( event.getSource() ) || event.getKeys().equals( event.getSource() )) {
+            rebindAffected( event.getKeys() );
+        }
+    }
+
+    /**
+     * @return the names of the beans rebound
+     */
+    public Set<String> rebindAffected(Collection<String> keys) {
+        Set<String> rebound = new TreeSet<>();
+        for (String name : getBeanNames()) {
+            Optional<ConfigurationPropertyName> prefix = prefix( name );
+            if (prefix.isEmpty() || keys.stream().anyMatch( key -> covers( prefix.get(), key ) )) {
+                if (rebind( name )) {
+                    rebound.add( name );
+                }
+            }
+        }
+        log.debug( "Rebound {} of {} configuration properties beans for keys {}", rebound.size(), getBeanNames().size(), keys );
+        return rebound;
+    }
+
+    /**
+     * @return whether the key is known to be bound by one of the configuration properties beans, so that
+     * rebinding those beans applies it
+     */
+    public boolean isBound(String key) {
+        return getBeanNames().stream().map( this::prefix ).anyMatch( prefix -> prefix.isPresent() && covers( prefix.get(), key ) );
+    }
+
+    private Optional<ConfigurationPropertyName> prefix(String beanName) {
+        return prefixes.computeIfAbsent( beanName, name -> {
+            try {
+                ConfigurationProperties annotation = applicationContext.findAnnotationOnBean( name, ConfigurationProperties.class );
+                return annotation == null ? Optional.empty()
+                        : Optional.of( ConfigurationPropertyName.of( annotation.prefix() ) );
+            } catch (RuntimeException e) {
+                return Optional.empty();
+            }
+        } );
+    }
+
+    private static boolean covers(ConfigurationPropertyName prefix, String key) {
+        ConfigurationPropertyName name = ConfigurationPropertyName.adapt( key, '.' );
+        return prefix.equals( name ) || prefix.isAncestorOf( name );
+    }
+}
@@ -0,0 +1,24 @@
+package com.bytes.common.config;
+
+import com.bytes.common.event.ConfigCommitChangedRemoteEvent;
+import org.springframework.cloud.bus.jackson.RemoteApplicationEventScan;
+import org.springframework.cloud.context.properties.ConfigurationPropertiesBeans;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Replaces the Spring Cloud rebinder by the {@link TargetedConfigurationPropertiesRebinder}, registers the
+ * config server's bus events and the {@link TargetedRefreshListener} acting on them. The bus' own refresh
+ * listener is switched off with {@code spring.cloud.bus.refresh.enabled=false} in favour of the latter.
+ */
+@Configuration(proxyBeanMethods = false)
+@Import(TargetedRefreshListener.class)
+@RemoteApplicationEventScan(basePackageClasses = ConfigCommitChangedRemoteEvent.class)
+public class TargetedRefreshConfiguration {
+
+    @Bean
+    public TargetedConfigurationPropertiesRebinder configurationPropertiesRebinder(ConfigurationPropertiesBeans beans) {
+        return new TargetedConfigurationPropertiesRebinder( beans );
+    }
+}
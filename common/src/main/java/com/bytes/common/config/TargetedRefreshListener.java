@@ -0,0 +1,208 @@
+package com.bytes.common.config;
+
+import com.bytes.common.event.ConfigCommitChangedRemoteEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.bus.ServiceMatcher;
+import org.springframework.cloud.bus.event.RefreshRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+import org.springframework.cloud.context.refresh.ContextRefresher;
+import org.springframework.cloud.context.scope.refresh.RefreshScope;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refreshes the configuration on bus refresh events, in place of the bus' own full context refresh.
+ * <p>
+ * Events are coalesced: the first one opens a window that every further event extends by
+ * {@code config-refresh.quiet-period}, up to {@code config-refresh.max-delay} after it, and a single refresh
+ * runs once the window closes. A {@link ConfigCommitChangedRemoteEvent} for a commit that is already pending
+ * or refreshed is dropped. Every instance receives a broadcast at the same moment, so
+ * each window also lasts a random extra delay of up to {@code config-refresh.max-jitter} to spread the reloads
+ * over the fleet and the config server.
+ * <p>
+ * Only the environment is reloaded: the {@link TargetedConfigurationPropertiesRebinder} then rebinds the beans
+ * bound to the keys that changed, and the refresh scope is only cleared when a changed key is not bound by
+ * any configuration properties bean, as it may then feed a refresh scoped bean.
+ * <p>
+ * Counts the events received as {@code config.refresh.events}, tagged with what became of them, and
+ * publishes {@code config.refresh} timings of the refreshes executed.
+ */
+@Slf4j
+public class TargetedRefreshListener {
+
+    private static final int REFRESHED_COMMITS = 32;
+
+    private final ObjectProvider<ContextRefresher> contextRefresher;
+    private final ObjectProvider<RefreshScope> refreshScope;
+    private final ObjectProvider<ServiceMatcher> serviceMatcher;
+    private final TargetedConfigurationPropertiesRebinder rebinder;
+    private final Duration maxJitter;
+    private final Duration quietPeriod;
+    private final Duration maxDelay;
+    private final Timer refreshSuccess;
+    private final Timer refreshFailure;
+    private final Counter eventsScheduled;
+    private final Counter eventsCoalesced;
+    private final Counter eventsDuplicate;
+    private final Counter eventsIgnored;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+            new CustomizableThreadFactory( "config-refresh-" ) );
+    private final Set<String> pendingCommits = new HashSet<>();
+    private final Set<String> refreshedCommits = new LinkedHashSet<>();
+    private ScheduledFuture<?> pending;
+    private long windowStartNanos;
+    private long windowJitterMillis;
+
+    public TargetedRefreshListener(ObjectProvider<ContextRefresher> contextRefresher,
+                                   ObjectProvider<RefreshScope> refreshScope,
+                                   ObjectProvider<ServiceMatcher> serviceMatcher,
+                                   TargetedConfigurationPropertiesRebinder rebinder,
+                                   @Value("${config-refresh.max-jitter:5s}") Duration maxJitter,
+                                   @Value("${config-refresh.quiet-period:2s}") Duration quietPeriod,
+                                   @Value("${config-refresh.max-delay:30s}") Duration maxDelay,
+                                   MeterRegistry meterRegistry) {
+        this.contextRefresher = contextRefresher;
+        this.refreshScope = refreshScope;
+        this.serviceMatcher = serviceMatcher;
+        this.rebinder = rebinder;
+        this.maxJitter = maxJitter;
+        this.quietPeriod = quietPeriod;
+        this.maxDelay = maxDelay;
+        this.refreshSuccess = refreshTimer( meterRegistry, "success" );
+        this.refreshFailure = refreshTimer( meterRegistry, "failure" );
+        this.eventsScheduled = eventCounter( meterRegistry, "scheduled" );
+        this.eventsCoalesced = eventCounter( meterRegistry, "coalesced" );
+        this.eventsDuplicate = eventCounter( meterRegistry, "duplicate" );
+        this.eventsIgnored = eventCounter( meterRegistry, "ignored" );
+    }
+
+    private static Timer refreshTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder( "config.refresh" )
+                .description( "Time to reload the configuration and rebind the beans it changed" )
+                .tag( "outcome", outcome )
+                .register( meterRegistry );
+    }
+
+    private static Counter eventCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder( "config.refresh.events" )
+                .description( "Bus refresh events received, by whether they started, joined or skipped a refresh" )
+                .tag( "result", result )
+                .register( meterRegistry );
+    }
+
+    @EventListener
+    public void onRefresh(RefreshRemoteApplicationEvent event) {
+        if (isForSelf( event )) {
+            schedule( event, null );
+        } else {
+            eventsIgnored.increment();
+        }
+    }
+
+    @EventListener
+    public void onCommitChanged(ConfigCommitChangedRemoteEvent event) {
+        if (isForSelf( event )) {
+            schedule( event, event.getCommitId() );
+        } else {
+            eventsIgnored.increment();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private boolean isForSelf(RemoteApplicationEvent event) {
+        ServiceMatcher matcher = serviceMatcher.getIfAvailable();
+        return matcher == null || matcher.isForSelf( event );
+    }
+
+    private synchronized void schedule(RemoteApplicationEvent event, String commitId) {
+        if (commitId != null && (pendingCommits.contains( commitId ) || refreshedCommits.contains( commitId ))) {
+            eventsDuplicate.increment();
+            log.debug( "Dropped {}, commit {} is already refreshed or pending", event, commitId );
+            return;
+        }
+        if (commitId != null) {
+            pendingCommits.add( commitId );
+        }
+        long now = System.nanoTime();
+        // a refresh that already started may have read the configuration before this event, so it opens a new window
+        if (pending != null && pending.cancel( false )) {
+            eventsCoalesced.increment();
+        } else {
+            eventsScheduled.increment();
+            windowStartNanos = now;
+            windowJitterMillis = maxJitter.isZero() || maxJitter.isNegative() ? 0
+                    : ThreadLocalRandom.current().nextLong( maxJitter.toMillis() + 1 );
+        }
+        long remainingMillis = maxDelay.toMillis() - TimeUnit.NANOSECONDS.toMillis( now - windowStartNanos );
+        long delayMillis = Math.max( 0, Math.min( quietPeriod.toMillis(), remainingMillis ) ) + windowJitterMillis;
+        log.info( "Received {}, refreshing the configuration in {} ms", event, delayMillis );
+        pending = executor.schedule( this::refreshPending, delayMillis, TimeUnit.MILLISECONDS );
+    }
+
+    private void refreshPending() {
+        Set<String> commits;
+        synchronized (this) {
+            commits = new HashSet<>( pendingCommits );
+            pendingCommits.clear();
+            pending = null;
+        }
+        boolean refreshed = refresh();
+        synchronized (this) {
+            if (refreshed) {
+                refreshedCommits.addAll( commits );
+                while (refreshedCommits.size() > REFRESHED_COMMITS) {
+                    refreshedCommits.remove( refreshedCommits.iterator().next() );
+                }
+            }
+        }
+    }
+
+    /**
+     * Reloads the environment and rebinds the beans bound to the keys that changed.
+     *
+     * @return whether the configuration was reloaded
+     */
+    boolean refresh() {
+        ContextRefresher refresher = contextRefresher.getIfAvailable();
+        if (refresher == null) {
+            return false;
+        }
+        long startNanos = System.nanoTime();
+        try {
+            // publishes the EnvironmentChangeEvent the rebinder acts on
+            Set<String> keys = refresher.refreshEnvironment();
+            RefreshScope scope = refreshScope.getIfAvailable();
+            if (scope != null && keys.stream().anyMatch( key -> !rebinder.isBound( key ) )) {
+                scope.refreshAll();
+            }
+            long elapsedNanos = System.nanoTime() - startNanos;
+            refreshSuccess.record( elapsedNanos, TimeUnit.NANOSECONDS );
+            log.info( "Refreshed {} changed configuration keys in {} ms: {}", keys.size(), elapsedNanos / 1_000_000, keys );
+            return true;
+        } catch (RuntimeException e) {
+            refreshFailure.record( System.nanoTime() - startNanos, TimeUnit.NANOSECONDS );
+            log.warn( "Could not refresh the configuration", e );
+            return false;
+        }
+    }
+}
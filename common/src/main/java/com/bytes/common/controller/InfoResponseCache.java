@@ -0,0 +1,113 @@
+package com.bytes.common.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertyName;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Pre-rendered responses of the build-info, java-version and contact-info endpoints.
+ * <p>
+ * Their values only change on redeploy or configuration refresh, yet the gateway polls them constantly. Each
+ * response is rendered once, with a strong ETag and {@code Cache-Control: max-age=<info-cache.max-age>,
+ * must-revalidate}, so serving it reads neither the {@link Environment} nor Jackson. Spring MVC answers a
+ * request whose {@code If-None-Match} matches the ETag with 304 before any body is written. The responses are
+ * rendered again when a configuration refresh changes {@code build.*}, {@code JAVA_HOME} or the contact
+ * properties of the service; the contact info is bound from the refreshed environment, as the service's contact
+ * info bean is immutable.
+ */
+@Slf4j
+public class InfoResponseCache {
+
+    private static final String JAVA_HOME = "JAVA_HOME";
+    private static final MediaType TEXT_PLAIN_UTF8 = new MediaType( MediaType.TEXT_PLAIN, StandardCharsets.UTF_8 );
+
+    private final Environment environment;
+    private final ObjectMapper objectMapper;
+    private final CacheControl cacheControl;
+    private final String contactInfoPrefix;
+    private final Class<?> contactInfoType;
+    private final List<ConfigurationPropertyName> renderedProperties;
+    private volatile ResponseEntity<byte[]> buildInfo;
+    private volatile ResponseEntity<byte[]> javaVersion;
+    private volatile ResponseEntity<byte[]> contactInfo;
+
+    /**
+     * @param contactInfoPrefix the prefix the contact info of the service is bound from
+     * @param contactInfoType   the immutable contact info type of the service
+     */
+    public InfoResponseCache(Environment environment, ObjectMapper objectMapper, Duration maxAge,
+                             String contactInfoPrefix, Class<?> contactInfoType) {
+        this.environment = environment;
+        this.objectMapper = objectMapper;
+        this.cacheControl = CacheControl.maxAge( maxAge ).mustRevalidate();
+        this.contactInfoPrefix = contactInfoPrefix;
+        this.contactInfoType = contactInfoType;
+        this.renderedProperties = List.of( ConfigurationPropertyName.of( "build" ), ConfigurationPropertyName.of( contactInfoPrefix ) );
+    }
+
+    @PostConstruct
+    public void render() {
+        buildInfo = render( text( environment.getProperty( "build.version" ) ), TEXT_PLAIN_UTF8, cacheControl );
+        javaVersion = render( text( environment.getProperty( JAVA_HOME ) ), TEXT_PLAIN_UTF8, cacheControl );
+        Object contactInfoDto = Binder.get( environment ).bindOrCreate( contactInfoPrefix, contactInfoType );
+        try {
+            contactInfo = render( objectMapper.writeValueAsBytes( contactInfoDto ), MediaType.APPLICATION_JSON, cacheControl );
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException( "Could not render the contact info", e );
+        }
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().anyMatch( this::isRendered )) {
+            render();
+            log.info( "Rendered the info responses again after a configuration refresh" );
+        }
+    }
+
+    public ResponseEntity<byte[]> buildInfo() {
+        return buildInfo;
+    }
+
+    public ResponseEntity<byte[]> javaVersion() {
+        return javaVersion;
+    }
+
+    public ResponseEntity<byte[]> contactInfo() {
+        return contactInfo;
+    }
+
+    static ResponseEntity<byte[]> render(byte[] body, MediaType contentType, CacheControl cacheControl) {
+        return ResponseEntity.ok()
+                .contentType( contentType )
+                .eTag( "\"" + DigestUtils.md5DigestAsHex( body ) + "\"" )
+                .cacheControl( cacheControl )
+                .body( body );
+    }
+
+    private static byte[] text(String value) {
+        return value == null ? new byte[0] : value.getBytes( StandardCharsets.UTF_8 );
+    }
+
+    private boolean isRendered(String key) {
+        if (JAVA_HOME.equals( key )) {
+            return true;
+        }
+        ConfigurationPropertyName name = ConfigurationPropertyName.adapt( key, '.' );
+        return renderedProperties.stream().anyMatch( rendered -> rendered.equals( name ) || rendered.isAncestorOf( name ) );
+    }
+}
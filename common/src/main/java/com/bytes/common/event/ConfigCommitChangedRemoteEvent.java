@@ -0,0 +1,38 @@
+package com.bytes.common.event;
+
+import org.springframework.cloud.bus.event.Destination;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+
+import java.util.Objects;
+
+/**
+ * Bus event sent by the config server to the services whose properties a commit changed, carrying the commit
+ * id.
+ * <p>
+ * The config server only addresses the services with changed keys; the keys themselves are not sent, each
+ * service diffs its own environment on refresh and rebinds from that.
+ */
+public class ConfigCommitChangedRemoteEvent extends RemoteApplicationEvent {
+
+    private String commitId;
+
+    @SuppressWarnings("unused")
+    private ConfigCommitChangedRemoteEvent() {
+        // for deserialization
+    }
+
+    public ConfigCommitChangedRemoteEvent(Object source, String originService, Destination destination,
+                                          String commitId) {
+        super( source, originService, destination );
+        this.commitId = Objects.requireNonNull( commitId );
+    }
+
+    public String getCommitId() {
+        return commitId;
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigCommitChangedRemoteEvent{commitId=" + commitId + ", " + super.toString() + "}";
+    }
+}
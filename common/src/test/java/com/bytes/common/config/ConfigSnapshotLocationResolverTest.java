@@ -0,0 +1,137 @@
+package com.bytes.common.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConfigSnapshotLocationResolverTest {
+
+    private static final String KEY = "snapshot-test-key";
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void tearDown() {
+        ConfigSnapshotLocationResolver.reset();
+    }
+
+    @Test
+    void startup_WhenSnapshotExists_ShouldLoadItInsteadOfTheConfigServer() throws Exception {
+        // Arrange
+        Path snapshot = directory.resolve("loans-config-snapshot.properties");
+        write(snapshot, "loans.message=From the snapshot\n");
+
+        // Act
+        try (ConfigurableApplicationContext context = start(snapshot, true)) {
+            ConfigurableEnvironment environment = context.getEnvironment();
+
+            // Assert
+            assertEquals("From the snapshot", environment.getProperty("loans.message"));
+            assertTrue(environment.getPropertySources().contains(ConfigSnapshotLoader.PROPERTY_SOURCE_NAME));
+        }
+    }
+
+    @Test
+    void startup_WhenSnapshotWasWrittenWithAnotherKey_ShouldStartWithoutItsValues() throws Exception {
+        // Arrange
+        Path snapshot = directory.resolve("loans-config-snapshot.properties");
+        Files.write(snapshot, ConfigSnapshotCipher.encrypt("another-key",
+                "loans.message=From the snapshot\n".getBytes(StandardCharsets.UTF_8)));
+
+        // Act
+        try (ConfigurableApplicationContext context = start(snapshot, true)) {
+            ConfigurableEnvironment environment = context.getEnvironment();
+
+            // Assert
+            assertNull(environment.getProperty("loans.message"));
+            assertTrue(environment.getPropertySources().contains(ConfigSnapshotLoader.PROPERTY_SOURCE_NAME));
+        }
+    }
+
+    @Test
+    void startup_WhenNoKeyIsSet_ShouldIgnoreTheSnapshot() throws Exception {
+        // Arrange
+        Path snapshot = directory.resolve("loans-config-snapshot.properties");
+        write(snapshot, "loans.message=From the snapshot\n");
+
+        // Act
+        try (ConfigurableApplicationContext context = start(snapshot, true, "")) {
+            // Assert
+            assertFalse(context.getEnvironment().getPropertySources().contains(ConfigSnapshotLoader.PROPERTY_SOURCE_NAME));
+            assertNull(context.getEnvironment().getProperty("loans.message"));
+        }
+    }
+
+    @Test
+    void startup_WhenSnapshotIsMissing_ShouldFallBackToTheConfigServer() {
+        // Act
+        try (ConfigurableApplicationContext context = start(directory.resolve("missing.properties"), true)) {
+            // Assert
+            assertFalse(context.getEnvironment().getPropertySources().contains(ConfigSnapshotLoader.PROPERTY_SOURCE_NAME));
+            assertNull(context.getEnvironment().getProperty("loans.message"));
+        }
+    }
+
+    @Test
+    void startup_WhenSnapshotIsDisabled_ShouldIgnoreIt() throws Exception {
+        // Arrange
+        Path snapshot = directory.resolve("loans-config-snapshot.properties");
+        write(snapshot, "loans.message=From the snapshot\n");
+
+        // Act
+        try (ConfigurableApplicationContext context = start(snapshot, false)) {
+            // Assert
+            assertNull(context.getEnvironment().getProperty("loans.message"));
+        }
+    }
+
+    @Test
+    void refresh_WhenApplicationHasStarted_ShouldNotReadTheSnapshot() throws Exception {
+        // Arrange
+        Path snapshot = directory.resolve("loans-config-snapshot.properties");
+        write(snapshot, "loans.message=From the snapshot\n");
+        ConfigSnapshotLocationResolver.markStarted();
+
+        // Act
+        try (ConfigurableApplicationContext context = start(snapshot, true)) {
+            // Assert
+            assertNull(context.getEnvironment().getProperty("loans.message"));
+        }
+    }
+
+    private static void write(Path snapshot, String content) throws Exception {
+        Files.write(snapshot, ConfigSnapshotCipher.encrypt(KEY, content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static ConfigurableApplicationContext start(Path snapshot, boolean enabled) {
+        return start(snapshot, enabled, KEY);
+    }
+
+    private static ConfigurableApplicationContext start(Path snapshot, boolean enabled, String key) {
+        return new SpringApplicationBuilder(EmptyConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.config.location=optional:classpath:/none/",
+                        // nothing listens on port 1, so the config server is unreachable
+                        "--spring.config.import=optional:configserver:http://localhost:1",
+                        "--spring.cloud.config.request-connect-timeout=200",
+                        "--config-snapshot.file=" + snapshot,
+                        "--config-snapshot.enabled=" + enabled,
+                        "--config-snapshot.encryption-key=" + key);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class EmptyConfiguration {
+    }
+}
@@ -0,0 +1,186 @@
+package com.bytes.common.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.cloud.context.refresh.ContextRefresher;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.convert.support.ConfigurableConversionService;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConfigSnapshotReconcilerTest {
+
+    private static final String KEY = "snapshot-test-key";
+
+    @Mock
+    private ObjectProvider<ContextRefresher> contextRefresherProvider;
+
+    @Mock
+    private ContextRefresher contextRefresher;
+
+    @Mock
+    private ApplicationEventPublisher publisher;
+
+    @TempDir
+    Path directory;
+
+    private MockEnvironment environment;
+    private Path snapshotFile;
+    private SimpleMeterRegistry meterRegistry;
+    private ConfigSnapshotReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        snapshotFile = directory.resolve("loans-qa-config-snapshot.properties");
+        environment = new MockEnvironment();
+        environment.setProperty("config-snapshot.file", snapshotFile.toString());
+        environment.setProperty("config-snapshot.encryption-key", KEY);
+        meterRegistry = new SimpleMeterRegistry();
+        reconciler = new ConfigSnapshotReconciler(environment, contextRefresherProvider, publisher, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reconciler.shutdown();
+        ConfigSnapshotLocationResolver.reset();
+    }
+
+    @Test
+    void saveSnapshot_ShouldWriteTheConfigServerPropertiesInPrecedenceOrder() throws Exception {
+        // Arrange
+        environment.getPropertySources().addFirst(new MapPropertySource("configserver:loans-qa.yml",
+                Map.of("loans.message", "QA loans", "loans.contactDetails.name", "Ops")));
+        environment.getPropertySources().addLast(new MapPropertySource("configserver:loans.yml",
+                Map.of("loans.message", "Default loans", "build.version", "3")));
+
+        // Act
+        reconciler.saveSnapshot();
+
+        // Assert
+        Properties snapshot = load(snapshotFile);
+        assertEquals("QA loans", snapshot.getProperty("loans.message"));
+        assertEquals("3", snapshot.getProperty("build.version"));
+        assertNull(snapshot.getProperty("config-snapshot.file"));
+        assertTrue(meterRegistry.get("config.snapshot.age").timeGauge().value() >= 0);
+    }
+
+    @Test
+    void saveSnapshot_ShouldNotWriteAnyValueInPlainText() throws Exception {
+        // Arrange
+        environment.getPropertySources().addFirst(new MapPropertySource("configserver:loans.yml",
+                Map.of("spring.datasource.password", "decrypted-secret")));
+
+        // Act
+        reconciler.saveSnapshot();
+
+        // Assert
+        String content = new String(Files.readAllBytes(snapshotFile), StandardCharsets.ISO_8859_1);
+        assertFalse(content.contains("decrypted-secret"));
+        assertFalse(content.contains("spring.datasource.password"));
+        assertEquals("decrypted-secret", load(snapshotFile).getProperty("spring.datasource.password"));
+    }
+
+    @Test
+    void saveSnapshot_WhenNoKeyIsSet_ShouldDeleteTheSnapshot() throws Exception {
+        // Arrange
+        Files.writeString(snapshotFile, "spring.datasource.password=written-by-an-older-version\n");
+        environment.setProperty("config-snapshot.encryption-key", "");
+        environment.getPropertySources().addFirst(new MapPropertySource("configserver:loans.yml",
+                Map.of("spring.datasource.password", "decrypted-secret")));
+
+        // Act
+        reconciler.saveSnapshot();
+
+        // Assert
+        assertFalse(Files.exists(snapshotFile));
+    }
+
+    @Test
+    void reconcile_WhenConfigServerAnswers_ShouldDropTheSnapshotSource() throws Exception {
+        // Arrange
+        environment.getPropertySources().addFirst(new MapPropertySource(ConfigSnapshotLoader.PROPERTY_SOURCE_NAME,
+                Map.of("loans.message", "Old", "loans.removed", "gone")));
+        when(contextRefresherProvider.getIfAvailable()).thenReturn(contextRefresher);
+        when(contextRefresher.refresh()).thenAnswer(invocation -> {
+            environment.getPropertySources().addFirst(new MapPropertySource("configserver:loans.yml",
+                    Map.of("loans.message", "New")));
+            return Set.of("loans.message");
+        });
+
+        // Act
+        reconciler.reconcile();
+
+        // Assert
+        assertFalse(environment.getPropertySources().contains(ConfigSnapshotLoader.PROPERTY_SOURCE_NAME));
+        assertEquals("New", load(snapshotFile).getProperty("loans.message"));
+        ArgumentCaptor<EnvironmentChangeEvent> event = ArgumentCaptor.forClass(EnvironmentChangeEvent.class);
+        verify(publisher).publishEvent(event.capture());
+        assertEquals(Set.of("loans.removed"), event.getValue().getKeys());
+    }
+
+    @Test
+    void reconcile_WhenConfigServerIsDown_ShouldKeepTheSnapshot() throws Exception {
+        // Arrange
+        environment.getPropertySources().addFirst(new MapPropertySource(ConfigSnapshotLoader.PROPERTY_SOURCE_NAME,
+                Map.of("loans.message", "Old")));
+        when(contextRefresherProvider.getIfAvailable()).thenReturn(contextRefresher);
+        when(contextRefresher.refresh()).thenReturn(Set.of());
+
+        // Act
+        reconciler.reconcile();
+
+        // Assert
+        assertEquals("Old", environment.getProperty("loans.message"));
+        assertFalse(Files.exists(snapshotFile));
+        verifyNoInteractions(publisher);
+    }
+
+    @Test
+    void reconcile_WhenRefreshIsNotAvailable_ShouldNotRetry() {
+        // Arrange
+        environment.setConversionService((ConfigurableConversionService) ApplicationConversionService.getSharedInstance());
+        environment.setProperty("config-snapshot.retry-interval", "10ms");
+        reconciler = new ConfigSnapshotReconciler(environment, contextRefresherProvider, publisher, meterRegistry);
+        environment.getPropertySources().addFirst(new MapPropertySource(ConfigSnapshotLoader.PROPERTY_SOURCE_NAME,
+                Map.of("loans.message", "Old")));
+
+        // Act
+        reconciler.reconcile();
+
+        // Assert
+        assertEquals("Old", environment.getProperty("loans.message"));
+
+        // Verify
+        verify(contextRefresherProvider, after(100).times(1)).getIfAvailable();
+        verifyNoInteractions(publisher);
+    }
+
+    private static Properties load(Path file) throws Exception {
+        Properties properties = new Properties();
+        byte[] plain = ConfigSnapshotCipher.decrypt(KEY, Files.readAllBytes(file));
+        properties.load(new StringReader(new String(plain, StandardCharsets.UTF_8)));
+        return properties;
+    }
+}
@@ -0,0 +1,136 @@
+package com.bytes.common.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.cloud.context.properties.ConfigurationPropertiesBeans;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TargetedConfigurationPropertiesRebinderTest {
+
+    private final Map<String, Object> properties = new HashMap<>();
+    private AnnotationConfigApplicationContext context;
+
+    @BeforeEach
+    void setUp() {
+        properties.put("loans.message", "Welcome");
+        properties.put("loans.contact-details.name", "Ops");
+        properties.put("other.message", "Hello");
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test", properties));
+        context.register(TestConfiguration.class);
+        context.refresh();
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    void onApplicationEvent_WhenKeysChange_ShouldRebindOnlyTheBeansBoundToThem() {
+        // Arrange
+        properties.put("loans.contact-details.name", "Support");
+        properties.put("other.message", "Changed");
+
+        // Act
+        context.publishEvent(new EnvironmentChangeEvent(context, Set.of("loans.contactDetails.name")));
+
+        // Assert
+        assertEquals("Support", context.getBean(LoansProperties.class).getContactDetails().get("name"));
+        assertEquals("Hello", context.getBean(OtherProperties.class).getMessage());
+    }
+
+    @Test
+    void rebindAffected_WhenNoBeanIsBoundToTheKeys_ShouldRebindNothing() {
+        // Arrange
+        TargetedConfigurationPropertiesRebinder rebinder = context.getBean(TargetedConfigurationPropertiesRebinder.class);
+
+        // Act
+        Set<String> rebound = rebinder.rebindAffected(Set.of("build.version"));
+
+        // Assert
+        assertTrue(rebound.isEmpty());
+        assertFalse(rebinder.isBound("build.version"));
+        assertTrue(rebinder.isBound("loans.onCallSupport[0]"));
+    }
+
+    @Test
+    void isBound_WhenABeanPrefixCannotBeResolved_ShouldNotCountItAsBindingTheKey() {
+        // Arrange
+        TargetedConfigurationPropertiesRebinder rebinder = spy(context.getBean(TargetedConfigurationPropertiesRebinder.class));
+        Set<String> beanNames = new HashSet<>(rebinder.getBeanNames());
+        beanNames.add("removedProperties");
+        doReturn(beanNames).when(rebinder).getBeanNames();
+
+        // Act & Assert
+        assertFalse(rebinder.isBound("build.version"));
+        assertTrue(rebinder.isBound("other.message"));
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableConfigurationProperties({LoansProperties.class, OtherProperties.class})
+    static class TestConfiguration {
+
+        @Bean
+        static ConfigurationPropertiesBeans configurationPropertiesBeans() {
+            return new ConfigurationPropertiesBeans();
+        }
+
+        @Bean
+        TargetedConfigurationPropertiesRebinder configurationPropertiesRebinder(ConfigurationPropertiesBeans beans) {
+            return new TargetedConfigurationPropertiesRebinder(beans);
+        }
+    }
+
+    @ConfigurationProperties(prefix = "loans")
+    static class LoansProperties {
+
+        private String message;
+        private Map<String, String> contactDetails = new HashMap<>();
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+
+        public Map<String, String> getContactDetails() {
+            return contactDetails;
+        }
+
+        public void setContactDetails(Map<String, String> contactDetails) {
+            this.contactDetails = contactDetails;
+        }
+    }
+
+    @ConfigurationProperties(prefix = "other")
+    static class OtherProperties {
+
+        private String message;
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
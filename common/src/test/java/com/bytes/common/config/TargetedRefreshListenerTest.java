@@ -0,0 +1,175 @@
+package com.bytes.common.config;
+
+import com.bytes.common.event.ConfigCommitChangedRemoteEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.bus.ServiceMatcher;
+import org.springframework.cloud.bus.event.PathDestinationFactory;
+import org.springframework.cloud.bus.event.RefreshRemoteApplicationEvent;
+import org.springframework.cloud.context.refresh.ContextRefresher;
+import org.springframework.cloud.context.scope.refresh.RefreshScope;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TargetedRefreshListenerTest {
+
+    @Mock
+    private ObjectProvider<ContextRefresher> contextRefresherProvider;
+
+    @Mock
+    private ObjectProvider<RefreshScope> refreshScopeProvider;
+
+    @Mock
+    private ObjectProvider<ServiceMatcher> serviceMatcherProvider;
+
+    @Mock
+    private ContextRefresher contextRefresher;
+
+    @Mock
+    private RefreshScope refreshScope;
+
+    @Mock
+    private ServiceMatcher serviceMatcher;
+
+    @Mock
+    private TargetedConfigurationPropertiesRebinder rebinder;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TargetedRefreshListener listener;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        listener = new TargetedRefreshListener(contextRefresherProvider, refreshScopeProvider, serviceMatcherProvider,
+                rebinder, Duration.ZERO, Duration.ZERO, Duration.ofSeconds(30), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        listener.shutdown();
+    }
+
+    @Test
+    void onCommitChanged_WhenForThisService_ShouldReloadTheEnvironmentOnly() {
+        // Arrange
+        ConfigCommitChangedRemoteEvent event = commitChanged("4f2a9c1");
+        when(serviceMatcherProvider.getIfAvailable()).thenReturn(serviceMatcher);
+        when(serviceMatcher.isForSelf(event)).thenReturn(true);
+        when(contextRefresherProvider.getIfAvailable()).thenReturn(contextRefresher);
+        when(refreshScopeProvider.getIfAvailable()).thenReturn(refreshScope);
+        when(contextRefresher.refreshEnvironment()).thenReturn(Set.of("loans.message"));
+        when(rebinder.isBound("loans.message")).thenReturn(true);
+
+        // Act
+        listener.onCommitChanged(event);
+
+        // Verify
+        verify(rebinder, timeout(2000)).isBound("loans.message");
+        verify(contextRefresher).refreshEnvironment();
+        verify(contextRefresher, never()).refresh();
+        verify(refreshScope, after(100).never()).refreshAll();
+        assertEquals(1, meterRegistry.get("config.refresh").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void refresh_WhenAnUnboundKeyChanged_ShouldClearTheRefreshScope() {
+        // Arrange
+        when(contextRefresherProvider.getIfAvailable()).thenReturn(contextRefresher);
+        when(refreshScopeProvider.getIfAvailable()).thenReturn(refreshScope);
+        when(contextRefresher.refreshEnvironment()).thenReturn(Set.of("build.version"));
+        when(rebinder.isBound("build.version")).thenReturn(false);
+
+        // Act
+        boolean refreshed = listener.refresh();
+
+        // Assert
+        assertTrue(refreshed);
+
+        // Verify
+        verify(refreshScope).refreshAll();
+    }
+
+    @Test
+    void onCommitChanged_WhenEventsArriveWithinTheQuietPeriod_ShouldRefreshOnceAndDropDuplicateCommits() {
+        // Arrange
+        listener.shutdown();
+        listener = new TargetedRefreshListener(contextRefresherProvider, refreshScopeProvider, serviceMatcherProvider,
+                rebinder, Duration.ZERO, Duration.ofMillis(300), Duration.ofSeconds(30), meterRegistry);
+        ConfigCommitChangedRemoteEvent first = commitChanged("4f2a9c1");
+        ConfigCommitChangedRemoteEvent duplicate = commitChanged("4f2a9c1");
+        RefreshRemoteApplicationEvent busRefresh = new RefreshRemoteApplicationEvent(this, "loans:8082",
+                new PathDestinationFactory().getDestination("**"));
+        when(serviceMatcherProvider.getIfAvailable()).thenReturn(serviceMatcher);
+        when(serviceMatcher.isForSelf(any())).thenReturn(true);
+        when(contextRefresherProvider.getIfAvailable()).thenReturn(contextRefresher);
+        when(contextRefresher.refreshEnvironment()).thenReturn(Set.of("loans.message"));
+
+        // Act
+        listener.onCommitChanged(first);
+        listener.onCommitChanged(duplicate);
+        listener.onRefresh(busRefresh);
+
+        // Assert
+        verify(contextRefresherProvider, timeout(2000)).getIfAvailable();
+        verify(contextRefresherProvider, after(500).times(1)).getIfAvailable();
+        assertEquals(1, events("scheduled"));
+        assertEquals(1, events("coalesced"));
+        assertEquals(1, events("duplicate"));
+
+        // Act
+        listener.onCommitChanged(commitChanged("4f2a9c1"));
+
+        // Assert
+        assertEquals(2, events("duplicate"));
+    }
+
+    @Test
+    void onCommitChanged_WhenForAnotherService_ShouldNotRefresh() {
+        // Arrange
+        ConfigCommitChangedRemoteEvent event = commitChanged("4f2a9c1");
+        when(serviceMatcherProvider.getIfAvailable()).thenReturn(serviceMatcher);
+        when(serviceMatcher.isForSelf(event)).thenReturn(false);
+
+        // Act
+        listener.onCommitChanged(event);
+
+        // Verify
+        verify(contextRefresherProvider, after(100).never()).getIfAvailable();
+        assertEquals(1, events("ignored"));
+    }
+
+    @Test
+    void onRefresh_WhenForAnotherService_ShouldNotRefresh() {
+        // Arrange
+        RefreshRemoteApplicationEvent event = new RefreshRemoteApplicationEvent(this, "config-server",
+                new PathDestinationFactory().getDestination("cards:**"));
+        when(serviceMatcherProvider.getIfAvailable()).thenReturn(serviceMatcher);
+        when(serviceMatcher.isForSelf(event)).thenReturn(false);
+
+        // Act
+        listener.onRefresh(event);
+
+        // Verify
+        verify(contextRefresherProvider, after(100).never()).getIfAvailable();
+    }
+
+    private double events(String result) {
+        return meterRegistry.get("config.refresh.events").tag("result", result).counter().count();
+    }
+
+    private ConfigCommitChangedRemoteEvent commitChanged(String commitId) {
+        return new ConfigCommitChangedRemoteEvent(this, "config-server",
+                new PathDestinationFactory().getDestination("loans:**"), commitId);
+    }
+}
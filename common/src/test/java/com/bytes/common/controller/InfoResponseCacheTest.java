@@ -0,0 +1,116 @@
+package com.bytes.common.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class InfoResponseCacheTest {
+
+    private MockEnvironment environment;
+    private InfoResponseCache infoResponseCache;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        environment = new MockEnvironment()
+                .withProperty("build.version", "3")
+                .withProperty("loans.message", "Welcome to EazyBank loans")
+                .withProperty("loans.contactDetails.name", "Ops");
+        infoResponseCache = new InfoResponseCache(environment, new ObjectMapper(), Duration.ofSeconds(60), "loans",
+                ContactInfo.class);
+        infoResponseCache.render();
+        mockMvc = MockMvcBuilders.standaloneSetup(new InfoController(infoResponseCache)).build();
+    }
+
+    @Test
+    void buildInfo_WhenIfNoneMatchHasTheETag_ShouldReturnNotModified() throws Exception {
+        // Arrange
+        String eTag = infoResponseCache.buildInfo().getHeaders().getETag();
+
+        // Act & Assert
+        mockMvc.perform(get("/build-info"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(header().string("Cache-Control", "max-age=60, must-revalidate"))
+                .andExpect(content().string("3"));
+        mockMvc.perform(get("/build-info").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void contactInfo_ShouldRenderTheBoundContactProperties() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/contact-info"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Welcome to EazyBank loans"))
+                .andExpect(jsonPath("$.contactDetails.name").value("Ops"));
+    }
+
+    @Test
+    void onEnvironmentChange_WhenContactPropertiesChange_ShouldRenderThemAgain() {
+        // Arrange
+        ResponseEntity<byte[]> before = infoResponseCache.contactInfo();
+        ResponseEntity<byte[]> buildInfo = infoResponseCache.buildInfo();
+        environment.setProperty("loans.message", "Loans are closed today");
+
+        // Act
+        infoResponseCache.onEnvironmentChange(new EnvironmentChangeEvent(Set.of("loans.message")));
+
+        // Assert
+        assertNotEquals(before.getHeaders().getETag(), infoResponseCache.contactInfo().getHeaders().getETag());
+        assertTrue(new String(infoResponseCache.contactInfo().getBody()).contains("Loans are closed today"));
+        assertEquals(buildInfo.getHeaders().getETag(), infoResponseCache.buildInfo().getHeaders().getETag());
+    }
+
+    @Test
+    void onEnvironmentChange_WhenUnrelatedKeysChange_ShouldKeepTheResponses() {
+        // Arrange
+        ResponseEntity<byte[]> before = infoResponseCache.contactInfo();
+
+        // Act
+        infoResponseCache.onEnvironmentChange(new EnvironmentChangeEvent(Set.of("spring.datasource.url")));
+
+        // Assert
+        assertSame(before, infoResponseCache.contactInfo());
+    }
+
+    record ContactInfo(String message, Map<String, String> contactDetails, List<String> onCallSupport) {
+    }
+
+    @RestController
+    static class InfoController {
+
+        private final InfoResponseCache infoResponseCache;
+
+        InfoController(InfoResponseCache infoResponseCache) {
+            this.infoResponseCache = infoResponseCache;
+        }
+
+        @GetMapping("/build-info")
+        ResponseEntity<byte[]> buildInfo() {
+            return infoResponseCache.buildInfo();
+        }
+
+        @GetMapping("/contact-info")
+        ResponseEntity<byte[]> contactInfo() {
+            return infoResponseCache.contactInfo();
+        }
+    }
+}
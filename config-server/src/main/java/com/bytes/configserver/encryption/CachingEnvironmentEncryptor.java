@@ -0,0 +1,129 @@
+package com.bytes.configserver.encryption;
+
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.environment.PropertySource;
+import org.springframework.cloud.config.server.encryption.EnvironmentEncryptor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decorates an {@link EnvironmentEncryptor}, remembering what every {@code {cipher}} value of a version
+ * decrypted to.
+ * <p>
+ * Only the values not seen before at the environment's version are handed to the delegate, all in one call,
+ * so a commit is decrypted once per application and profile rather than once per client fetch. Decrypted
+ * values are kept in memory only, for the {@code versions} most recently requested versions; environments
+ * without a version are always decrypted by the delegate.
+ */
+public class CachingEnvironmentEncryptor implements EnvironmentEncryptor {
+
+    private static final String CIPHER_PREFIX = "{cipher}";
+
+    private final EnvironmentEncryptor delegate;
+    private final int versions;
+    private final Map<String, Map<CacheKey, Decrypted>> cache;
+
+    public CachingEnvironmentEncryptor(EnvironmentEncryptor delegate, int versions) {
+        this.delegate = delegate;
+        this.versions = versions;
+        this.cache = new LinkedHashMap<>( 16, 0.75f, true );
+    }
+
+    @Override
+    public Environment decrypt(Environment environment) {
+        if (environment.getVersion() == null) {
+            return delegate.decrypt( environment );
+        }
+        Map<CacheKey, Decrypted> decrypted = versionCache( environment.getVersion() );
+        String profiles = Arrays.toString( environment.getProfiles() );
+
+        // decrypt everything this version has not seen yet in a single delegate call
+        Environment misses = new Environment( environment );
+        List<List<CacheKey>> missingKeys = new ArrayList<>();
+        for (PropertySource source : environment.getPropertySources()) {
+            Map<Object, Object> missing = new LinkedHashMap<>();
+            List<CacheKey> keys = new ArrayList<>();
+            for (Map.Entry<?, ?> entry : source.getSource().entrySet()) {
+                if (isCipher( entry.getValue() )) {
+                    CacheKey key = new CacheKey( environment.getName(), profiles, entry.getKey().toString(),
+                            entry.getValue().toString() );
+                    if (!decrypted.containsKey( key )) {
+                        missing.put( entry.getKey(), entry.getValue() );
+                        keys.add( key );
+                    }
+                }
+            }
+            misses.add( new PropertySource( source.getName(), missing ) );
+            missingKeys.add( keys );
+        }
+        if (missingKeys.stream().anyMatch( keys -> !keys.isEmpty() )) {
+            List<PropertySource> results = delegate.decrypt( misses ).getPropertySources();
+            for (int s = 0; s < results.size(); s++) {
+                Map<?, ?> result = results.get( s ).getSource();
+                for (CacheKey key : missingKeys.get( s )) {
+                    Decrypted value = find( result, key.property() );
+                    if (value != null) {
+                        decrypted.put( key, value );
+                    }
+                }
+            }
+        }
+
+        Environment result = new Environment( environment );
+        for (PropertySource source : environment.getPropertySources()) {
+            // like the delegate, decrypted values move behind the plain ones
+            Map<Object, Object> plain = new LinkedHashMap<>();
+            Map<Object, Object> deciphered = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : source.getSource().entrySet()) {
+                if (!isCipher( entry.getValue() )) {
+                    plain.put( entry.getKey(), entry.getValue() );
+                    continue;
+                }
+                Decrypted value = decrypted.get( new CacheKey( environment.getName(), profiles,
+                        entry.getKey().toString(), entry.getValue().toString() ) );
+                if (value != null) {
+                    deciphered.put( value.property(), value.value() );
+                }
+            }
+            plain.putAll( deciphered );
+            result.add( new PropertySource( source.getName(), plain ) );
+        }
+        return result;
+    }
+
+    private synchronized Map<CacheKey, Decrypted> versionCache(String version) {
+        Map<CacheKey, Decrypted> decrypted = cache.computeIfAbsent( version, v -> new ConcurrentHashMap<>() );
+        while (cache.size() > versions) {
+            cache.remove( cache.keySet().iterator().next() );
+        }
+        return decrypted;
+    }
+
+    /**
+     * @return the value the delegate decrypted the property to, under its own or its {@code invalid.} name
+     */
+    private static Decrypted find(Map<?, ?> result, String property) {
+        for (Map.Entry<?, ?> entry : result.entrySet()) {
+            String name = entry.getKey().toString();
+            if (name.equals( property ) || name.equals( "invalid." + property )) {
+                return new Decrypted( name, entry.getValue() );
+            }
+        }
+        return null;
+    }
+
+    private static boolean isCipher(Object value) {
+        return value != null && value.toString().startsWith( CIPHER_PREFIX );
+    }
+
+    private record CacheKey(String application, String profiles, String property, String cipherText) {
+    }
+
+    private record Decrypted(String property, Object value) {
+    }
+}
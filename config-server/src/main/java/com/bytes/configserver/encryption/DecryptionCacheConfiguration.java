@@ -0,0 +1,31 @@
+package com.bytes.configserver.encryption;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.cloud.config.server.encryption.EnvironmentEncryptor;
+import org.springframework.core.env.Environment;
+
+/**
+ * Wraps every {@link EnvironmentEncryptor} of the config server in a {@link CachingEnvironmentEncryptor},
+ * unless {@code config-server.decryption-cache.enabled} is false.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "config-server.decryption-cache", name = "enabled", matchIfMissing = true)
+public class DecryptionCacheConfiguration {
+
+    @Bean
+    public static BeanPostProcessor cachingEnvironmentEncryptorPostProcessor(Environment environment) {
+        int versions = environment.getProperty( "config-server.decryption-cache.versions", Integer.class, 4 );
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof EnvironmentEncryptor encryptor && !(bean instanceof CachingEnvironmentEncryptor)) {
+                    return new CachingEnvironmentEncryptor( encryptor, versions );
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,117 @@
+package com.bytes.configserver.mirror;
+
+import com.bytes.common.event.ConfigCommitChangedRemoteEvent;
+import com.bytes.configserver.mirror.GitMirror.Snapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.env.PropertiesPropertySourceLoader;
+import org.springframework.boot.env.PropertySourceLoader;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.cloud.bus.event.PathDestinationFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.env.EnumerablePropertySource;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Sends a {@link ConfigCommitChangedRemoteEvent} over the bus for every application whose properties changed
+ * between two snapshots of a branch.
+ * <p>
+ * The property files at the root of both snapshots are compared key by key. A file named
+ * {@code <application>[-<profile>]} targets the instances of that application, {@code application*} files
+ * target every service. The keys only decide which applications are addressed and are logged, each service
+ * diffs its own environment on refresh.
+ */
+public class ChangedKeysPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger( ChangedKeysPublisher.class );
+    private static final String SHARED_APPLICATION = "application";
+
+    private final ApplicationEventPublisher publisher;
+    private final String busId;
+    private final PathDestinationFactory destinationFactory = new PathDestinationFactory();
+    private final PropertySourceLoader yamlLoader = new YamlPropertySourceLoader();
+    private final PropertySourceLoader propertiesLoader = new PropertiesPropertySourceLoader();
+
+    public ChangedKeysPublisher(ApplicationEventPublisher publisher, String busId) {
+        this.publisher = publisher;
+        this.busId = busId;
+    }
+
+    public void publish(Snapshot previous, Snapshot current) throws IOException {
+        Map<String, Set<String>> changes = changedKeys( previous.directory(), current.directory() );
+        changes.forEach( (application, keys) -> {
+            String destination = SHARED_APPLICATION.equals( application ) ? "**" : application + ":**";
+            log.info( "Commit {} changed {} keys for {}", current.commitId(), keys.size(), destination );
+            publisher.publishEvent( new ConfigCommitChangedRemoteEvent( this, busId,
+                    destinationFactory.getDestination( destination ), current.commitId() ) );
+        } );
+    }
+
+    /**
+     * @return the changed keys by application name
+     */
+    Map<String, Set<String>> changedKeys(Path previous, Path current) throws IOException {
+        Set<String> files = new TreeSet<>( propertyFiles( previous ) );
+        files.addAll( propertyFiles( current ) );
+        Map<String, Set<String>> changes = new TreeMap<>();
+        for (String file : files) {
+            Map<String, String> before = load( previous.resolve( file ) );
+            Map<String, String> after = load( current.resolve( file ) );
+            Set<String> keys = new HashSet<>( before.keySet() );
+            keys.addAll( after.keySet() );
+            keys.removeIf( key -> Objects.equals( before.get( key ), after.get( key ) ) );
+            if (!keys.isEmpty()) {
+                changes.computeIfAbsent( application( file ), name -> new TreeSet<>() ).addAll( keys );
+            }
+        }
+        return changes;
+    }
+
+    private static Set<String> propertyFiles(Path directory) throws IOException {
+        Set<String> files = new HashSet<>();
+        try (Stream<Path> paths = Files.list( directory )) {
+            paths.filter( Files::isRegularFile )
+                    .map( path -> path.getFileName().toString() )
+                    .filter( name -> name.endsWith( ".yml" ) || name.endsWith( ".yaml" ) || name.endsWith( ".properties" ) )
+                    .forEach( files::add );
+        }
+        return files;
+    }
+
+    private Map<String, String> load(Path file) throws IOException {
+        Map<String, String> properties = new HashMap<>();
+        if (!Files.isRegularFile( file )) {
+            return properties;
+        }
+        PropertySourceLoader loader = file.toString().endsWith( ".properties" ) ? propertiesLoader : yamlLoader;
+        // the documents of a multi-document YAML file are merged, a key changed in any of them counts
+        for (PropertySource<?> source : loader.load( file.toString(), new FileSystemResource( file ) )) {
+            if (source instanceof EnumerablePropertySource<?> enumerable) {
+                for (String name : enumerable.getPropertyNames()) {
+                    properties.merge( name, String.valueOf( enumerable.getProperty( name ) ), (first, next) -> first + "\n" + next );
+                }
+            }
+        }
+        return properties;
+    }
+
+    private static String application(String file) {
+        String name = StringUtils.stripFilenameExtension( file );
+        int profileStart = name.indexOf( '-' );
+        return profileStart > 0 ? name.substring( 0, profileStart ) : name;
+    }
+}
@@ -0,0 +1,209 @@
+package com.bytes.configserver.mirror;
+
+import com.bytes.configserver.mirror.GitMirror.Snapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.cloud.config.environment.EnvironmentMediaType;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Caches the rendered JSON of {@code /{application}/{profile}[/{label}]} responses for the commit they were
+ * rendered from.
+ * <p>
+ * The first request for an application, profile, label and media type renders the environment as usual;
+ * its body is kept together with a gzipped copy and an ETag. Later requests are answered from those bytes,
+ * with a 304 when the client already holds the ETag, until the label moves to another commit. The cache
+ * holds one entry per key, so an entry is replaced rather than piled up when the commit changes, and the
+ * {@code maxEntries} most recently used keys are kept.
+ * <p>
+ * The media type is the one the config server negotiates from the Accept header, plain JSON or the v2 JSON
+ * the config clients ask for, so the many ways of spelling an Accept header share two entries. Requests
+ * accepting neither are passed through uncached.
+ */
+public class EnvironmentResponseCacheFilter extends OncePerRequestFilter {
+
+    private static final MediaType V2_JSON = MediaType.parseMediaType( EnvironmentMediaType.V2_JSON );
+    private static final Set<String> RESERVED_PATHS = Set.of( "actuator", "monitor", "encrypt", "decrypt", "key", "error" );
+
+    private final GitMirrorEnvironmentRepository repository;
+    private final GitMirrorProperties properties;
+    private final Map<Key, Rendered> cache;
+    private final Counter hits;
+    private final Counter notModified;
+    private final Counter misses;
+
+    public EnvironmentResponseCacheFilter(GitMirrorEnvironmentRepository repository, GitMirrorProperties properties,
+                                          int maxEntries, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.properties = properties;
+        this.cache = new LinkedHashMap<>( 16, 0.75f, true ) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Rendered> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.hits = responseCounter( meterRegistry, "hit" );
+        this.notModified = responseCounter( meterRegistry, "not-modified" );
+        this.misses = responseCounter( meterRegistry, "miss" );
+    }
+
+    private static Counter responseCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder( "config.mirror.response-cache" )
+                .description( "Environment responses by how the response cache answered them" )
+                .tag( "result", result )
+                .register( meterRegistry );
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.GET.matches( request.getMethod() ) || parse( request ) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Key key = parse( request );
+        Snapshot snapshot = repository.snapshots().get( key.label() );
+        if (snapshot == null) {
+            chain.doFilter( request, response );
+            return;
+        }
+
+        Rendered rendered;
+        synchronized (cache) {
+            rendered = cache.get( key );
+        }
+        if (rendered != null && rendered.commitId().equals( snapshot.commitId() )) {
+            write( rendered, request, response, hits );
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper( response );
+        chain.doFilter( request, wrapper );
+        if (wrapper.getStatus() != HttpServletResponse.SC_OK || !hasMediaType( wrapper.getContentType(), key.mediaType() )) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+        rendered = render( snapshot.commitId(), wrapper.getContentType(), wrapper.getContentAsByteArray() );
+        synchronized (cache) {
+            cache.put( key, rendered );
+        }
+        write( rendered, request, response, misses );
+    }
+
+    private void write(Rendered rendered, HttpServletRequest request, HttpServletResponse response, Counter counter)
+            throws IOException {
+        response.setHeader( HttpHeaders.ETAG, rendered.etag() );
+        response.setHeader( HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING );
+        String ifNoneMatch = request.getHeader( HttpHeaders.IF_NONE_MATCH );
+        if (ifNoneMatch != null && ifNoneMatch.contains( rendered.etag() )) {
+            notModified.increment();
+            response.setStatus( HttpServletResponse.SC_NOT_MODIFIED );
+            return;
+        }
+        counter.increment();
+        response.setStatus( HttpServletResponse.SC_OK );
+        response.setContentType( rendered.contentType() );
+        byte[] body = rendered.body();
+        String acceptEncoding = request.getHeader( HttpHeaders.ACCEPT_ENCODING );
+        if (acceptEncoding != null && acceptEncoding.contains( "gzip" )) {
+            response.setHeader( HttpHeaders.CONTENT_ENCODING, "gzip" );
+            body = rendered.gzippedBody();
+        }
+        response.setContentLength( body.length );
+        response.getOutputStream().write( body );
+    }
+
+    private static Rendered render(String commitId, String contentType, byte[] body) throws IOException {
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream( body.length / 4 + 64 );
+        try (GZIPOutputStream out = new GZIPOutputStream( gzipped )) {
+            out.write( body );
+        }
+        String etag = "\"" + DigestUtils.md5DigestAsHex( body ) + "\"";
+        return new Rendered( commitId, contentType, etag, body, gzipped.toByteArray() );
+    }
+
+    private static boolean hasMediaType(String contentType, MediaType mediaType) {
+        return contentType != null && MediaType.parseMediaType( contentType ).equalsTypeAndSubtype( mediaType );
+    }
+
+    /**
+     * @return the cache key of an environment request, or null for any other path
+     */
+    private Key parse(HttpServletRequest request) {
+        String path = request.getRequestURI().substring( request.getContextPath().length() );
+        String[] segments = path.startsWith( "/" ) ? path.substring( 1 ).split( "/" ) : path.split( "/" );
+        if (segments.length < 2 || segments.length > 3 || RESERVED_PATHS.contains( segments[0] )) {
+            return null;
+        }
+        for (String segment : segments) {
+            // blank segments and the /{label}/{application}-{profile}.yml style documents
+            if (segment.isEmpty() || segment.contains( "." )) {
+                return null;
+            }
+        }
+        MediaType mediaType = negotiate( request.getHeader( HttpHeaders.ACCEPT ) );
+        if (mediaType == null) {
+            return null;
+        }
+        String label = segments.length == 3 ? segments[2].replace( "(_)", "/" ) : properties.getDefaultLabel();
+        return new Key( segments[0], segments[1], label, mediaType );
+    }
+
+    /**
+     * Picks the media type the environment endpoints answer an Accept header with: the one matched by the
+     * accepted type of highest quality, plain JSON when wildcards match both.
+     *
+     * @return null when neither is acceptable, or the header does not parse
+     */
+    static MediaType negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> acceptable;
+        try {
+            acceptable = new ArrayList<>( MediaType.parseMediaTypes( accept ) );
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+        acceptable.sort( Comparator.comparingDouble( MediaType::getQualityValue ).reversed() );
+        for (MediaType mediaType : acceptable) {
+            if (mediaType.getQualityValue() == 0) {
+                break;
+            }
+            if (mediaType.includes( MediaType.APPLICATION_JSON )) {
+                return MediaType.APPLICATION_JSON;
+            }
+            if (mediaType.includes( V2_JSON )) {
+                return V2_JSON;
+            }
+        }
+        return null;
+    }
+
+    private record Key(String application, String profile, String label, MediaType mediaType) {
+    }
+
+    private record Rendered(String commitId, String contentType, String etag, byte[] body, byte[] gzippedBody) {
+    }
+}
@@ -0,0 +1,195 @@
+package com.bytes.configserver.mirror;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.TransportCommand;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.transport.UsernamePasswordCredentialsProvider;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * A bare mirror of the remote configuration repository on local disk, plus a read only snapshot of the
+ * files of every branch head.
+ * <p>
+ * Snapshots live in a directory named after their commit id and are never modified once written, so the
+ * files of a commit can be read without any locking while the mirror fetches the next one. Readers
+ * {@link #acquire(Snapshot) acquire} a snapshot for as long as they read it, and pruning leaves the snapshots
+ * they still hold for a later pass.
+ */
+public class GitMirror {
+
+    private final GitMirrorProperties properties;
+    private final Path repositoryDirectory;
+    private final Path snapshotsDirectory;
+    private final Map<Path, Integer> readers = new HashMap<>();
+
+    public GitMirror(GitMirrorProperties properties) {
+        this.properties = properties;
+        this.repositoryDirectory = properties.getBasedir().resolve( "mirror.git" );
+        this.snapshotsDirectory = properties.getBasedir().resolve( "snapshots" );
+    }
+
+    public boolean exists() {
+        return Files.isDirectory( repositoryDirectory.resolve( "objects" ) );
+    }
+
+    /**
+     * Brings the mirror up to date with the remote, cloning it on first use.
+     */
+    public void fetch() throws GitAPIException, IOException {
+        if (!exists()) {
+            cloneRemote();
+            return;
+        }
+        try (Git git = Git.open( repositoryDirectory.toFile() )) {
+            configure( git.fetch().setRemote( Constants.DEFAULT_REMOTE_NAME ).setRemoveDeletedRefs( true ) ).call();
+        }
+    }
+
+    /**
+     * Writes a snapshot for every branch head that does not have one yet.
+     *
+     * @return the snapshot of every branch, by branch name
+     */
+    public Map<String, Snapshot> checkout() throws IOException {
+        Map<String, Snapshot> snapshots = new HashMap<>();
+        try (Git git = Git.open( repositoryDirectory.toFile() )) {
+            Repository repository = git.getRepository();
+            for (Ref branch : repository.getRefDatabase().getRefsByPrefix( Constants.R_HEADS )) {
+                ObjectId commitId = branch.getObjectId();
+                String label = Repository.shortenRefName( branch.getName() );
+                snapshots.put( label, new Snapshot( label, commitId.getName(), export( repository, commitId ) ) );
+            }
+        }
+        return snapshots;
+    }
+
+    /**
+     * Marks a snapshot as being read, so that {@link #prune(Collection)} leaves it alone until it is
+     * {@link #release(Snapshot) released}.
+     *
+     * @return false when the snapshot has been pruned already
+     */
+    public synchronized boolean acquire(Snapshot snapshot) {
+        if (!Files.isDirectory( snapshot.directory() )) {
+            return false;
+        }
+        readers.merge( snapshot.directory(), 1, Integer::sum );
+        return true;
+    }
+
+    public synchronized void release(Snapshot snapshot) {
+        readers.computeIfPresent( snapshot.directory(), (directory, count) -> count == 1 ? null : count - 1 );
+    }
+
+    /**
+     * Deletes the snapshots of commits that are no longer referenced. A snapshot still acquired by a reader is
+     * kept and deleted by a later call once released.
+     */
+    public void prune(Collection<Snapshot> keep) throws IOException {
+        if (!Files.isDirectory( snapshotsDirectory )) {
+            return;
+        }
+        Set<Path> kept = new HashSet<>();
+        keep.forEach( snapshot -> kept.add( snapshot.directory() ) );
+        List<Path> unused = new ArrayList<>();
+        synchronized (this) {
+            try (Stream<Path> directories = Files.list( snapshotsDirectory )) {
+                for (Path directory : directories.toList()) {
+                    if (kept.contains( directory ) || readers.containsKey( directory )) {
+                        continue;
+                    }
+                    // moved aside under the lock so no reader can acquire it, deleted outside of it
+                    Path pruned = directory.getFileName().toString().endsWith( ".pruned" ) ? directory
+                            : snapshotsDirectory.resolve( directory.getFileName() + ".pruned" );
+                    if (!pruned.equals( directory )) {
+                        FileSystemUtils.deleteRecursively( pruned );
+                        Files.move( directory, pruned, StandardCopyOption.ATOMIC_MOVE );
+                    }
+                    unused.add( pruned );
+                }
+            }
+        }
+        for (Path directory : unused) {
+            FileSystemUtils.deleteRecursively( directory );
+        }
+    }
+
+    private void cloneRemote() throws GitAPIException, IOException {
+        Path partial = properties.getBasedir().resolve( "mirror.git.partial" );
+        FileSystemUtils.deleteRecursively( partial );
+        Files.createDirectories( properties.getBasedir() );
+        try (Git ignored = configure( Git.cloneRepository()
+                .setURI( properties.getUri() )
+                .setDirectory( partial.toFile() )
+                .setBare( true )
+                .setMirror( true ) ).call()) {
+            // the clone is complete once call() returns, a failed one is deleted on the next attempt
+        }
+        FileSystemUtils.deleteRecursively( repositoryDirectory );
+        Files.move( partial, repositoryDirectory, StandardCopyOption.ATOMIC_MOVE );
+    }
+
+    private Path export(Repository repository, ObjectId commitId) throws IOException {
+        Path directory = snapshotsDirectory.resolve( commitId.getName() );
+        if (Files.isDirectory( directory )) {
+            return directory;
+        }
+        Path partial = snapshotsDirectory.resolve( commitId.getName() + ".partial" );
+        FileSystemUtils.deleteRecursively( partial );
+        Files.createDirectories( partial );
+        try (RevWalk revWalk = new RevWalk( repository );
+             TreeWalk treeWalk = new TreeWalk( repository )) {
+            treeWalk.addTree( revWalk.parseCommit( commitId ).getTree() );
+            treeWalk.setRecursive( true );
+            while (treeWalk.next()) {
+                Path file = partial.resolve( treeWalk.getPathString() ).normalize();
+                if (!file.startsWith( partial ) || !FileMode.REGULAR_FILE.equals( treeWalk.getFileMode( 0 ) )) {
+                    continue;
+                }
+                Files.createDirectories( file.getParent() );
+                try (OutputStream out = Files.newOutputStream( file )) {
+                    repository.open( treeWalk.getObjectId( 0 ) ).copyTo( out );
+                }
+            }
+        }
+        Files.move( partial, directory, StandardCopyOption.ATOMIC_MOVE );
+        return directory;
+    }
+
+    private <C extends TransportCommand<C, ?>> C configure(C command) {
+        command.setTimeout( (int) properties.getTimeout().toSeconds() );
+        if (StringUtils.hasText( properties.getUsername() )) {
+            command.setCredentialsProvider(
+                    new UsernamePasswordCredentialsProvider( properties.getUsername(), properties.getPassword() ) );
+        }
+        return command;
+    }
+
+    /**
+     * The files of one branch head, checked out under {@code directory}.
+     */
+    public record Snapshot(String label, String commitId, Path directory) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.bytes.configserver.mirror;
+
+import com.bytes.common.event.ConfigCommitChangedRemoteEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.cloud.bus.BusProperties;
+import org.springframework.cloud.bus.jackson.RemoteApplicationEventScan;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+/**
+ * Replaces the Git backend by the local {@link GitMirror} when the {@code git-mirror} profile is active. With
+ * the bus enabled, the services whose properties a new commit changed are told to refresh.
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("git-mirror")
+@EnableConfigurationProperties(GitMirrorProperties.class)
+@RemoteApplicationEventScan(basePackageClasses = ConfigCommitChangedRemoteEvent.class)
+public class GitMirrorConfiguration {
+
+    @Bean
+    public GitMirror gitMirror(GitMirrorProperties properties) {
+        return new GitMirror( properties );
+    }
+
+    @Bean
+    public GitMirrorEnvironmentRepository gitMirrorEnvironmentRepository(GitMirror gitMirror,
+                                                                         ConfigurableEnvironment environment,
+                                                                         ObjectProvider<ObservationRegistry> observationRegistry,
+                                                                         GitMirrorProperties properties,
+                                                                         MeterRegistry meterRegistry) {
+        return new GitMirrorEnvironmentRepository( gitMirror, environment,
+                observationRegistry.getIfAvailable( () -> ObservationRegistry.NOOP ), properties, meterRegistry );
+    }
+
+    @Bean
+    public GitMirrorRefresher gitMirrorRefresher(GitMirror gitMirror, GitMirrorEnvironmentRepository repository,
+                                                 GitMirrorProperties properties, ObjectProvider<BusProperties> busProperties,
+                                                 ApplicationEventPublisher publisher, MeterRegistry meterRegistry) {
+        BusProperties bus = busProperties.getIfAvailable();
+        ChangedKeysPublisher changedKeysPublisher = bus == null ? null : new ChangedKeysPublisher( publisher, bus.getId() );
+        return new GitMirrorRefresher( gitMirror, repository, properties, changedKeysPublisher, meterRegistry );
+    }
+
+    @Bean
+    public FilterRegistrationBean<EnvironmentResponseCacheFilter> environmentResponseCacheFilter(
+            GitMirrorEnvironmentRepository repository, GitMirrorProperties properties, MeterRegistry meterRegistry) {
+        FilterRegistrationBean<EnvironmentResponseCacheFilter> registration = new FilterRegistrationBean<>(
+                new EnvironmentResponseCacheFilter( repository, properties, properties.getResponseCacheSize(), meterRegistry ) );
+        registration.addUrlPatterns( "/*" );
+        return registration;
+    }
+
+    @Bean
+    public GitMirrorEndpoint gitMirrorEndpoint(GitMirrorEnvironmentRepository repository, GitMirrorRefresher refresher) {
+        return new GitMirrorEndpoint( repository, refresher );
+    }
+}
@@ -0,0 +1,40 @@
+package com.bytes.configserver.mirror;
+
+import com.bytes.configserver.mirror.GitMirror.Snapshot;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * {@code /actuator/gitmirror}: the commit served for every label, and a write operation to fetch the
+ * remote right away.
+ */
+@Endpoint(id = "gitmirror")
+public class GitMirrorEndpoint {
+
+    private final GitMirrorEnvironmentRepository repository;
+    private final GitMirrorRefresher refresher;
+
+    public GitMirrorEndpoint(GitMirrorEnvironmentRepository repository, GitMirrorRefresher refresher) {
+        this.repository = repository;
+        this.refresher = refresher;
+    }
+
+    @ReadOperation
+    public Map<String, String> commits() {
+        Map<String, String> commits = new TreeMap<>();
+        for (Snapshot snapshot : repository.snapshots().values()) {
+            commits.put( snapshot.label(), snapshot.commitId() );
+        }
+        return commits;
+    }
+
+    @WriteOperation
+    public Map<String, String> refresh() throws Exception {
+        refresher.refresh();
+        return commits();
+    }
+}
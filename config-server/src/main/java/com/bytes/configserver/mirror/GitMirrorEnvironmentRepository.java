@@ -0,0 +1,112 @@
+package com.bytes.configserver.mirror;
+
+import com.bytes.configserver.mirror.GitMirror.Snapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.server.environment.EnvironmentCleaner;
+import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+import org.springframework.cloud.config.server.environment.NativeEnvironmentProperties;
+import org.springframework.cloud.config.server.environment.NativeEnvironmentRepository;
+import org.springframework.cloud.config.server.environment.NoSuchLabelException;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+import java.util.Map;
+
+/**
+ * Serves configuration from the snapshots of the {@link GitMirror}.
+ * <p>
+ * A request only reads the snapshot map published by the last refresh and the immutable files it points
+ * to; it never waits for a clone, a fetch or another request, unlike the Git backend whose requests all
+ * serialize on one working copy. The snapshot is acquired from the {@link GitMirror} for the duration of the
+ * request, so a refresh does not prune it mid read. Labels are the branch names of the remote.
+ */
+public class GitMirrorEnvironmentRepository implements EnvironmentRepository, Ordered {
+
+    private final GitMirror mirror;
+    private final ConfigurableEnvironment environment;
+    private final ObservationRegistry observationRegistry;
+    private final GitMirrorProperties properties;
+    private final Timer requestTimer;
+    private final EnvironmentCleaner cleaner = new EnvironmentCleaner();
+    private volatile Map<String, Snapshot> snapshots = Map.of();
+
+    public GitMirrorEnvironmentRepository(GitMirror mirror, ConfigurableEnvironment environment,
+                                          ObservationRegistry observationRegistry, GitMirrorProperties properties,
+                                          MeterRegistry meterRegistry) {
+        this.mirror = mirror;
+        this.environment = environment;
+        this.observationRegistry = observationRegistry;
+        this.properties = properties;
+        this.requestTimer = Timer.builder( "config.mirror.requests" )
+                .description( "Time to resolve a configuration request from the local mirror" )
+                .register( meterRegistry );
+    }
+
+    void publish(Map<String, Snapshot> snapshots) {
+        this.snapshots = Map.copyOf( snapshots );
+    }
+
+    Map<String, Snapshot> snapshots() {
+        return snapshots;
+    }
+
+    @Override
+    public Environment findOne(String application, String profile, String label) {
+        return findOne( application, profile, label, false );
+    }
+
+    @Override
+    public Environment findOne(String application, String profile, String label, boolean includeOrigin) {
+        return requestTimer.record( () -> find( application, profile, label, includeOrigin ) );
+    }
+
+    private Environment find(String application, String profile, String label, boolean includeOrigin) {
+        String requestedLabel = label == null || label.isEmpty() ? properties.getDefaultLabel() : label;
+        Snapshot snapshot = acquire( requestedLabel );
+        try {
+            return find( application, profile, requestedLabel, includeOrigin, snapshot );
+        } finally {
+            mirror.release( snapshot );
+        }
+    }
+
+    private Snapshot acquire(String requestedLabel) {
+        while (true) {
+            Map<String, Snapshot> current = snapshots;
+            if (current.isEmpty()) {
+                throw new NoSuchLabelException( "The configuration mirror of " + properties.getUri() + " has not been synced yet" );
+            }
+            Snapshot snapshot = current.get( requestedLabel );
+            if (snapshot == null) {
+                throw new NoSuchLabelException( "No such label: " + requestedLabel );
+            }
+            if (mirror.acquire( snapshot )) {
+                return snapshot;
+            }
+            // a snapshot is only pruned once its successor is published, so the next read finds that one
+            if (current == snapshots) {
+                throw new IllegalStateException( "The snapshot of commit " + snapshot.commitId() + " is missing from " + snapshot.directory() );
+            }
+        }
+    }
+
+    private Environment find(String application, String profile, String requestedLabel, boolean includeOrigin,
+                             Snapshot snapshot) {
+        NativeEnvironmentProperties nativeProperties = new NativeEnvironmentProperties();
+        nativeProperties.setSearchLocations( new String[]{snapshot.directory().toUri().toString()} );
+        nativeProperties.setAddLabelLocations( false );
+        Environment result = new NativeEnvironmentRepository( environment, nativeProperties, observationRegistry )
+                .findOne( application, profile, "", includeOrigin );
+        result.setLabel( requestedLabel );
+        result.setVersion( snapshot.commitId() );
+        return cleaner.clean( result, snapshot.directory().toUri().toString(), properties.getUri() );
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,100 @@
+package com.bytes.configserver.mirror;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * Settings of the local Git mirror, bound from {@code config-server.git-mirror}.
+ */
+@ConfigurationProperties(prefix = "config-server.git-mirror")
+public class GitMirrorProperties {
+
+    /** URI of the remote configuration repository */
+    private String uri;
+
+    /** label served when a request names none */
+    private String defaultLabel = "main";
+
+    private String username;
+
+    private String password;
+
+    /** directory holding the bare mirror and the checked out snapshots, kept across restarts */
+    private Path basedir = Paths.get( System.getProperty( "java.io.tmpdir" ), "config-server-mirror" );
+
+    /** time between two background fetches of the remote */
+    private Duration pollInterval = Duration.ofSeconds( 30 );
+
+    /** timeout of a single clone or fetch of the remote */
+    private Duration timeout = Duration.ofSeconds( 5 );
+
+    /** number of application, profile, label and media type combinations whose rendered responses are cached, least recently used first out */
+    private int responseCacheSize = 1000;
+
+    public String getUri() {
+        return uri;
+    }
+
+    public void setUri(String uri) {
+        this.uri = uri;
+    }
+
+    public String getDefaultLabel() {
+        return defaultLabel;
+    }
+
+    public void setDefaultLabel(String defaultLabel) {
+        this.defaultLabel = defaultLabel;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public Path getBasedir() {
+        return basedir;
+    }
+
+    public void setBasedir(Path basedir) {
+        this.basedir = basedir;
+    }
+
+    public Duration getPollInterval() {
+        return pollInterval;
+    }
+
+    public void setPollInterval(Duration pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    public int getResponseCacheSize() {
+        return responseCacheSize;
+    }
+
+    public void setResponseCacheSize(int responseCacheSize) {
+        this.responseCacheSize = responseCacheSize;
+    }
+}
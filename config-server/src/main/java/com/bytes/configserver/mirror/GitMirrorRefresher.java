@@ -0,0 +1,151 @@
+package com.bytes.configserver.mirror;
+
+import com.bytes.configserver.mirror.GitMirror.Snapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.bus.event.RefreshRemoteApplicationEvent;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the {@link GitMirror} up to date in the background and publishes its snapshots to the
+ * {@link GitMirrorEnvironmentRepository}.
+ * <p>
+ * The remote is fetched every {@code config-server.git-mirror.poll-interval}, and immediately when the
+ * {@code /monitor} webhook announces a push. The webhook refresh runs before the bus forwards the event,
+ * so clients refreshing on it already read the new commit. On startup the snapshots left on disk by the
+ * previous run are served straight away, so a remote that is down does not keep the config server from
+ * starting.
+ * <p>
+ * When the commit of the default label changes, the {@link ChangedKeysPublisher}, if any, tells the services
+ * over the bus which of their keys changed.
+ * <p>
+ * Publishes {@code config.mirror.refresh} timings and {@code config.mirror.lag}, the time since the last
+ * successful fetch.
+ */
+public class GitMirrorRefresher implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger( GitMirrorRefresher.class );
+
+    private final GitMirror mirror;
+    private final GitMirrorEnvironmentRepository repository;
+    private final GitMirrorProperties properties;
+    private final ChangedKeysPublisher changedKeysPublisher;
+    private final Timer refreshSuccess;
+    private final Timer refreshFailure;
+    private volatile long lastRefreshNanos = System.nanoTime();
+    private volatile ScheduledExecutorService executor;
+    private Map<String, Snapshot> previous = Map.of();
+
+    public GitMirrorRefresher(GitMirror mirror, GitMirrorEnvironmentRepository repository,
+                              GitMirrorProperties properties, ChangedKeysPublisher changedKeysPublisher,
+                              MeterRegistry meterRegistry) {
+        this.mirror = mirror;
+        this.repository = repository;
+        this.properties = properties;
+        this.changedKeysPublisher = changedKeysPublisher;
+        this.refreshSuccess = refreshTimer( meterRegistry, "success" );
+        this.refreshFailure = refreshTimer( meterRegistry, "failure" );
+        TimeGauge.builder( "config.mirror.lag", this, TimeUnit.NANOSECONDS,
+                        refresher -> System.nanoTime() - refresher.lastRefreshNanos )
+                .description( "Time since the mirror last fetched the remote successfully" )
+                .register( meterRegistry );
+    }
+
+    private static Timer refreshTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder( "config.mirror.refresh" )
+                .description( "Time to fetch the remote and check out its branches" )
+                .tag( "outcome", outcome )
+                .register( meterRegistry );
+    }
+
+    @Override
+    public void start() {
+        if (mirror.exists()) {
+            try {
+                publish( mirror.checkout() );
+                log.info( "Serving configuration from the local mirror of {} until the first fetch", properties.getUri() );
+            } catch (Exception e) {
+                log.warn( "Could not read the local mirror of {}, waiting for the first fetch", properties.getUri(), e );
+            }
+        }
+        executor = Executors.newSingleThreadScheduledExecutor( new CustomizableThreadFactory( "git-mirror-" ) );
+        executor.scheduleWithFixedDelay( this::refreshQuietly, 0, properties.getPollInterval().toMillis(), TimeUnit.MILLISECONDS );
+    }
+
+    @Override
+    public void stop() {
+        executor.shutdownNow();
+        executor = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onRefreshRemote(RefreshRemoteApplicationEvent event) {
+        refreshQuietly();
+    }
+
+    /**
+     * Fetches the remote and publishes a snapshot of every branch.
+     *
+     * @return the commit id served for the default label, null while the remote has no such branch
+     */
+    public synchronized String refresh() throws Exception {
+        long startNanos = System.nanoTime();
+        try {
+            mirror.fetch();
+            publish( mirror.checkout() );
+            lastRefreshNanos = System.nanoTime();
+            refreshSuccess.record( lastRefreshNanos - startNanos, TimeUnit.NANOSECONDS );
+        } catch (Exception e) {
+            refreshFailure.record( System.nanoTime() - startNanos, TimeUnit.NANOSECONDS );
+            throw e;
+        }
+        Snapshot snapshot = repository.snapshots().get( properties.getDefaultLabel() );
+        return snapshot == null ? null : snapshot.commitId();
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn( "Could not refresh the mirror of {}, still serving the previous commits", properties.getUri(), e );
+        }
+    }
+
+    private synchronized void publish(Map<String, Snapshot> snapshots) throws IOException {
+        repository.publish( snapshots );
+        publishChangedKeys( previous.get( properties.getDefaultLabel() ), snapshots.get( properties.getDefaultLabel() ) );
+        // the snapshots replaced just now are left on disk while requests that started before still read them
+        mirror.prune( snapshots.values() );
+        previous = snapshots;
+    }
+
+    private void publishChangedKeys(Snapshot before, Snapshot after) {
+        if (changedKeysPublisher == null || before == null || after == null || before.commitId().equals( after.commitId() )) {
+            return;
+        }
+        try {
+            changedKeysPublisher.publish( before, after );
+        } catch (IOException | RuntimeException e) {
+            log.warn( "Could not publish the keys changed by commit {}", after.commitId(), e );
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.bytes.configserver.benchmark;
+
+import com.bytes.configserver.encryption.CachingEnvironmentEncryptor;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.environment.PropertySource;
+import org.springframework.cloud.config.server.encryption.CipherEnvironmentEncryptor;
+import org.springframework.cloud.config.server.encryption.SingleTextEncryptorLocator;
+import org.springframework.cloud.config.server.environment.EnvironmentEncryptorEnvironmentRepository;
+import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+import org.springframework.cloud.context.encrypt.EncryptorFactory;
+import org.springframework.security.crypto.encrypt.TextEncryptor;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of an environment request whose property sources hold many {@code {cipher}} values, decrypted on
+ * every request as the config server does out of the box, and through the {@link CachingEnvironmentEncryptor}.
+ * <p>
+ * The repository returns a ready environment, so the numbers isolate decryption from resolving the files.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.bytes.configserver.benchmark.DecryptionBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DecryptionBenchmark {
+
+    @Param({"10", "200"})
+    int encryptedProperties;
+
+    private EnvironmentRepository uncached;
+    private EnvironmentRepository cached;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        TextEncryptor textEncryptor = new EncryptorFactory().create("A789ASQWEDFR4567JSDSHIUS3232894ASDFBASKJB");
+        Map<String, Object> source = new LinkedHashMap<>();
+        for (int i = 0; i < encryptedProperties; i++) {
+            source.put("secret." + i, "{cipher}" + textEncryptor.encrypt("value-" + i));
+            source.put("plain." + i, "value-" + i);
+        }
+        EnvironmentRepository repository = (application, profile, label) -> {
+            Environment environment = new Environment(application, new String[]{profile}, label, "3f2a9c1", null);
+            environment.add(new PropertySource("accounts.yml", source));
+            return environment;
+        };
+        CipherEnvironmentEncryptor encryptor = new CipherEnvironmentEncryptor(new SingleTextEncryptorLocator(textEncryptor));
+        uncached = new EnvironmentEncryptorEnvironmentRepository(repository, List.of(encryptor), ObservationRegistry.NOOP);
+        cached = new EnvironmentEncryptorEnvironmentRepository(repository,
+                List.of(new CachingEnvironmentEncryptor(encryptor, 4)), ObservationRegistry.NOOP);
+    }
+
+    @Benchmark
+    public Environment decryptEveryRequest() {
+        return uncached.findOne("accounts", "default", "main");
+    }
+
+    @Benchmark
+    public Environment decryptOncePerCommit() {
+        return cached.findOne("accounts", "default", "main");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DecryptionBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,109 @@
+package com.bytes.configserver.encryption;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.environment.PropertySource;
+import org.springframework.cloud.config.server.encryption.CipherEnvironmentEncryptor;
+import org.springframework.cloud.config.server.encryption.EnvironmentEncryptor;
+import org.springframework.cloud.config.server.encryption.SingleTextEncryptorLocator;
+import org.springframework.security.crypto.encrypt.Encryptors;
+import org.springframework.security.crypto.encrypt.TextEncryptor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CachingEnvironmentEncryptorTest {
+
+    private final TextEncryptor textEncryptor = Encryptors.text("A789ASQWEDFR4567", "deadbeef");
+    private String encryptedPassword;
+    private String encryptedToken;
+    private EnvironmentEncryptor delegate;
+    private CachingEnvironmentEncryptor encryptor;
+
+    @BeforeEach
+    void setUp() {
+        encryptedPassword = "{cipher}" + textEncryptor.encrypt("s3cr3t");
+        encryptedToken = "{cipher}" + textEncryptor.encrypt("token");
+        delegate = spy(new CipherEnvironmentEncryptor(new SingleTextEncryptorLocator(textEncryptor)));
+        encryptor = new CachingEnvironmentEncryptor(delegate, 2);
+    }
+
+    @Test
+    void decrypt_ShouldReturnWhatTheDelegateReturns() {
+        // Arrange
+        Environment environment = environment("c1");
+
+        // Act
+        Environment cached = encryptor.decrypt(environment);
+        Environment cachedAgain = encryptor.decrypt(environment);
+        Environment expected = new CipherEnvironmentEncryptor(new SingleTextEncryptorLocator(textEncryptor))
+                .decrypt(environment);
+
+        // Assert
+        assertSources(expected, cached);
+        assertSources(expected, cachedAgain);
+        Map<?, ?> source = cached.getPropertySources().get(0).getSource();
+        assertEquals("s3cr3t", source.get("accounts.datasource.password"));
+        assertEquals("<n/a>", source.get("invalid.accounts.api-key"));
+        assertEquals("c1", cached.getVersion());
+    }
+
+    @Test
+    void decrypt_WhenVersionWasDecryptedBefore_ShouldNotCallTheDelegate() {
+        // Act
+        encryptor.decrypt(environment("c1"));
+        encryptor.decrypt(environment("c1"));
+        encryptor.decrypt(environment("c1"));
+
+        // Assert
+        verify(delegate, times(1)).decrypt(any(Environment.class));
+    }
+
+    @Test
+    void decrypt_WhenVersionChanges_ShouldDecryptAgain() {
+        // Act
+        encryptor.decrypt(environment("c1"));
+        encryptor.decrypt(environment("c2"));
+        encryptor.decrypt(environment("c3"));
+        encryptor.decrypt(environment("c1"));
+
+        // Assert
+        // only two versions are kept, so c1 was evicted by c3
+        verify(delegate, times(4)).decrypt(any(Environment.class));
+    }
+
+    @Test
+    void decrypt_WhenEnvironmentHasNoVersion_ShouldAlwaysCallTheDelegate() {
+        // Act
+        encryptor.decrypt(environment(null));
+        encryptor.decrypt(environment(null));
+
+        // Assert
+        verify(delegate, times(2)).decrypt(any(Environment.class));
+    }
+
+    private Environment environment(String version) {
+        Map<String, Object> source = new LinkedHashMap<>();
+        source.put("accounts.datasource.password", encryptedPassword);
+        source.put("accounts.message", "Welcome to EazyBank accounts");
+        source.put("accounts.api-key", "{cipher}not-a-cipher");
+        Environment environment = new Environment("accounts", new String[]{"default"}, "main", version, null);
+        environment.add(new PropertySource("accounts.yml", source));
+        environment.add(new PropertySource("application.yml",
+                Map.of("encrypted.token", encryptedToken)));
+        return environment;
+    }
+
+    private static void assertSources(Environment expected, Environment actual) {
+        assertEquals(expected.getPropertySources().size(), actual.getPropertySources().size());
+        for (int i = 0; i < expected.getPropertySources().size(); i++) {
+            assertEquals(expected.getPropertySources().get(i).getName(), actual.getPropertySources().get(i).getName());
+            assertEquals(expected.getPropertySources().get(i).getSource().entrySet().stream().toList(),
+                    actual.getPropertySources().get(i).getSource().entrySet().stream().toList());
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.bytes.configserver.mirror;
+
+import com.bytes.configserver.mirror.GitMirror.Snapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.config.environment.EnvironmentMediaType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EnvironmentResponseCacheFilterTest {
+
+    private static final MediaType V2_JSON = MediaType.parseMediaType(EnvironmentMediaType.V2_JSON);
+    private static final String BODY = "{\"name\":\"accounts\",\"profiles\":[\"default\"],\"label\":\"main\"}";
+
+    @Mock
+    private GitMirrorEnvironmentRepository repository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EnvironmentResponseCacheFilter filter;
+    private final AtomicInteger renders = new AtomicInteger();
+    private String renderedContentType = MediaType.APPLICATION_JSON_VALUE;
+
+    @BeforeEach
+    void setUp() {
+        GitMirrorProperties properties = new GitMirrorProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new EnvironmentResponseCacheFilter(repository, properties, 10, meterRegistry);
+    }
+
+    @Test
+    void doFilter_WhenCommitIsUnchanged_ShouldServeTheRenderedResponse() throws Exception {
+        // Arrange
+        servingCommit("main", "c1");
+
+        // Act
+        MockHttpServletResponse first = get("/accounts/default", null, null);
+        MockHttpServletResponse second = get("/accounts/default", null, null);
+
+        // Assert
+        assertEquals(1, renders.get());
+        assertEquals(BODY, second.getContentAsString());
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, second.getContentType());
+        assertNotNull(first.getHeader(HttpHeaders.ETAG));
+        assertEquals(first.getHeader(HttpHeaders.ETAG), second.getHeader(HttpHeaders.ETAG));
+        assertEquals(1, meterRegistry.get("config.mirror.response-cache").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void doFilter_WhenClientHoldsTheETag_ShouldAnswerNotModified() throws Exception {
+        // Arrange
+        servingCommit("main", "c1");
+        String etag = get("/accounts/default/main", null, null).getHeader(HttpHeaders.ETAG);
+
+        // Act
+        MockHttpServletResponse response = get("/accounts/default/main", etag, null);
+
+        // Assert
+        assertEquals(HttpServletResponse.SC_NOT_MODIFIED, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    void doFilter_WhenClientAcceptsGzip_ShouldServeTheGzippedBody() throws Exception {
+        // Arrange
+        servingCommit("main", "c1");
+        get("/accounts/default", null, null);
+
+        // Act
+        MockHttpServletResponse response = get("/accounts/default", null, "gzip, deflate");
+
+        // Assert
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        byte[] body = StreamUtils.copyToByteArray(new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray())));
+        assertEquals(BODY, new String(body, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void doFilter_WhenCommitChanges_ShouldRenderAgain() throws Exception {
+        // Arrange
+        servingCommit("main", "c1");
+        get("/accounts/default", null, null);
+        servingCommit("main", "c2");
+
+        // Act
+        get("/accounts/default", null, null);
+        get("/accounts/default", null, null);
+
+        // Assert
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    void doFilter_WhenAcceptHeadersNegotiateTheSameMediaType_ShouldShareOneEntry() throws Exception {
+        // Arrange
+        servingCommit("main", "c1");
+        get("/accounts/default", null, null);
+
+        // Act
+        get("/accounts/default", null, null, "*/*");
+        get("/accounts/default", null, null, "application/json, */*;q=0.8");
+        get("/accounts/default", null, null, "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8");
+
+        // Assert
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    void doFilter_WhenClientAsksForTheV2MediaType_ShouldCacheItApart() throws Exception {
+        // Arrange
+        servingCommit("main", "c1");
+        get("/accounts/default", null, null);
+        renderedContentType = EnvironmentMediaType.V2_JSON;
+
+        // Act
+        get("/accounts/default", null, null, EnvironmentMediaType.V2_JSON);
+        MockHttpServletResponse response = get("/accounts/default", null, null, EnvironmentMediaType.V2_JSON);
+
+        // Assert
+        assertEquals(2, renders.get());
+        assertEquals(EnvironmentMediaType.V2_JSON, response.getContentType());
+    }
+
+    @Test
+    void doFilter_WhenNeitherMediaTypeIsAcceptable_ShouldPassThrough() throws Exception {
+        // Act
+        get("/accounts/default", null, null, "text/html");
+        get("/accounts/default", null, null, "not a media type");
+
+        // Assert
+        assertEquals(2, renders.get());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void doFilter_WhenCacheIsFull_ShouldEvictTheLeastRecentlyUsedEntry() throws Exception {
+        // Arrange
+        filter = new EnvironmentResponseCacheFilter(repository, new GitMirrorProperties(), 2, meterRegistry);
+        servingCommit("main", "c1");
+        get("/accounts/default", null, null);
+        get("/cards/default", null, null);
+        get("/accounts/default", null, null);
+
+        // Act
+        get("/loans/default", null, null);
+        get("/accounts/default", null, null);
+        get("/cards/default", null, null);
+
+        // Assert
+        assertEquals(4, renders.get());
+    }
+
+    @Test
+    void negotiate_ShouldPickTheMediaTypeTheEnvironmentEndpointsAnswerWith() {
+        // Act & Assert
+        assertEquals(MediaType.APPLICATION_JSON, EnvironmentResponseCacheFilter.negotiate(null));
+        assertEquals(MediaType.APPLICATION_JSON, EnvironmentResponseCacheFilter.negotiate("application/*"));
+        assertEquals(MediaType.APPLICATION_JSON,
+                EnvironmentResponseCacheFilter.negotiate("application/json, " + EnvironmentMediaType.V2_JSON));
+        assertEquals(V2_JSON, EnvironmentResponseCacheFilter.negotiate(EnvironmentMediaType.V2_JSON + ", application/json"));
+        assertEquals(V2_JSON,
+                EnvironmentResponseCacheFilter.negotiate("application/json;q=0.5, " + EnvironmentMediaType.V2_JSON));
+        assertNull(EnvironmentResponseCacheFilter.negotiate(EnvironmentMediaType.V1_JSON));
+        assertNull(EnvironmentResponseCacheFilter.negotiate("application/json;q=0"));
+    }
+
+    @Test
+    void doFilter_WhenPathIsNotAnEnvironment_ShouldPassThrough() throws Exception {
+        // Act
+        get("/actuator/health", null, null);
+        get("/main/accounts-default.yml", null, null);
+        get("/accounts/default/main/logback.xml", null, null);
+
+        // Assert
+        assertEquals(3, renders.get());
+        verifyNoInteractions(repository);
+    }
+
+    private void servingCommit(String label, String commitId) {
+        when(repository.snapshots()).thenReturn(Map.of(label, new Snapshot(label, commitId, Path.of(commitId))));
+    }
+
+    private MockHttpServletResponse get(String path, String ifNoneMatch, String acceptEncoding) throws Exception {
+        return get(path, ifNoneMatch, acceptEncoding, null);
+    }
+
+    private MockHttpServletResponse get(String path, String ifNoneMatch, String acceptEncoding, String accept)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        if (accept != null) {
+            request.addHeader(HttpHeaders.ACCEPT, accept);
+        }
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                renders.incrementAndGet();
+                resp.setContentType(renderedContentType);
+                resp.getOutputStream().write(BODY.getBytes(StandardCharsets.UTF_8));
+            }
+        }));
+        return response;
+    }
+}
@@ -0,0 +1,222 @@
+package com.bytes.configserver.mirror;
+
+import com.bytes.common.event.ConfigCommitChangedRemoteEvent;
+import com.bytes.configserver.mirror.GitMirror.Snapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.transport.RefSpec;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.server.environment.NoSuchLabelException;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GitMirrorRefresherTest {
+
+    @TempDir
+    Path directory;
+
+    private Path remote;
+    private Git work;
+    private GitMirrorProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private GitMirror mirror;
+    private GitMirrorEnvironmentRepository repository;
+    private GitMirrorRefresher refresher;
+    private final List<Object> events = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        remote = directory.resolve("remote.git");
+        Git.init().setBare(true).setInitialBranch("main").setDirectory(remote.toFile()).call().close();
+        work = Git.init().setInitialBranch("main").setDirectory(directory.resolve("work").toFile()).call();
+
+        properties = new GitMirrorProperties();
+        properties.setUri(remote.toUri().toString());
+        properties.setBasedir(directory.resolve("mirror"));
+        meterRegistry = new SimpleMeterRegistry();
+        mirror = new GitMirror(properties);
+        repository = newRepository(mirror);
+        refresher = new GitMirrorRefresher(mirror, repository, properties,
+                new ChangedKeysPublisher(events::add, "config-server:8071"), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        work.close();
+    }
+
+    @Test
+    void refresh_ShouldServeTheCommitOfTheDefaultLabel() throws Exception {
+        // Arrange
+        RevCommit commit = push("accounts.yml", "build:\n  version: \"1\"\n");
+
+        // Act
+        String served = refresher.refresh();
+        Environment environment = repository.findOne("accounts", "default", null);
+
+        // Assert
+        assertEquals(commit.getName(), served);
+        assertEquals(commit.getName(), environment.getVersion());
+        assertEquals("main", environment.getLabel());
+        assertEquals("1", environment.getPropertySources().get(0).getSource().get("build.version"));
+        assertEquals(1, meterRegistry.get("config.mirror.refresh").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void refresh_WhenRemoteHasANewCommit_ShouldServeTheNewCommit() throws Exception {
+        // Arrange
+        push("accounts.yml", "build:\n  version: \"1\"\n");
+        refresher.refresh();
+        RevCommit second = push("accounts.yml", "build:\n  version: \"2\"\n");
+
+        // Act
+        refresher.refresh();
+        Environment environment = repository.findOne("accounts", "default", "main");
+
+        // Assert
+        assertEquals(second.getName(), environment.getVersion());
+        assertEquals("2", environment.getPropertySources().get(0).getSource().get("build.version"));
+    }
+
+    @Test
+    void refresh_WhenACommitChangesProperties_ShouldNotifyEachApplicationWithChangedKeys() throws Exception {
+        // Arrange
+        push("accounts.yml", "build:\n  version: \"1\"\naccounts:\n  message: Welcome\n");
+        push("loans-qa.yml", "loans:\n  message: QA\n");
+        refresher.refresh();
+        push("accounts.yml", "build:\n  version: \"2\"\naccounts:\n  message: Welcome\n");
+        RevCommit second = push("loans-qa.yml", "loans:\n  message: QA\n  onCallSupport:\n    - ops\n");
+
+        // Act
+        refresher.refresh();
+
+        // Assert
+        assertEquals(2, events.size());
+        ConfigCommitChangedRemoteEvent accounts = (ConfigCommitChangedRemoteEvent) events.get(0);
+        assertEquals("accounts:**", accounts.getDestinationService());
+        assertEquals(second.getName(), accounts.getCommitId());
+        ConfigCommitChangedRemoteEvent loans = (ConfigCommitChangedRemoteEvent) events.get(1);
+        assertEquals("loans:**", loans.getDestinationService());
+        assertEquals(second.getName(), loans.getCommitId());
+    }
+
+    @Test
+    void refresh_WhenRemoteIsUnreachable_ShouldKeepServingThePreviousCommit() throws Exception {
+        // Arrange
+        RevCommit commit = push("accounts.yml", "build:\n  version: \"1\"\n");
+        refresher.refresh();
+        FileSystemUtils.deleteRecursively(remote);
+
+        // Act & Assert
+        assertThrows(Exception.class, () -> refresher.refresh());
+        assertEquals(commit.getName(), repository.findOne("accounts", "default", null).getVersion());
+        assertEquals(1, meterRegistry.get("config.mirror.refresh").tag("outcome", "failure").timer().count());
+    }
+
+    @Test
+    void refresh_WhenAReplacedSnapshotIsStillRead_ShouldPruneItOnlyOnceReleased() throws Exception {
+        // Arrange
+        push("accounts.yml", "build:\n  version: \"1\"\n");
+        refresher.refresh();
+        Snapshot first = repository.snapshots().get("main");
+        assertTrue(mirror.acquire(first));
+        push("accounts.yml", "build:\n  version: \"2\"\n");
+        refresher.refresh();
+        push("accounts.yml", "build:\n  version: \"3\"\n");
+
+        // Act
+        refresher.refresh();
+
+        // Assert
+        assertEquals("build:\n  version: \"1\"\n", Files.readString(first.directory().resolve("accounts.yml")));
+        mirror.release(first);
+        refresher.refresh();
+        assertFalse(Files.exists(first.directory()));
+        assertFalse(mirror.acquire(first));
+        assertEquals("3", repository.findOne("accounts", "default", null).getPropertySources().get(0).getSource()
+                .get("build.version"));
+    }
+
+    @Test
+    void refresh_WhenAReplacedSnapshotIsNotRead_ShouldPruneIt() throws Exception {
+        // Arrange
+        push("accounts.yml", "build:\n  version: \"1\"\n");
+        refresher.refresh();
+        Snapshot first = repository.snapshots().get("main");
+        push("accounts.yml", "build:\n  version: \"2\"\n");
+
+        // Act
+        refresher.refresh();
+
+        // Assert
+        assertFalse(Files.exists(first.directory()));
+        try (Stream<Path> snapshots = Files.list(properties.getBasedir().resolve("snapshots"))) {
+            assertEquals(List.of(repository.snapshots().get("main").directory()), snapshots.toList());
+        }
+    }
+
+    @Test
+    void findOne_WhenLabelIsUnknown_ShouldThrowNoSuchLabel() throws Exception {
+        // Arrange
+        push("accounts.yml", "build:\n  version: \"1\"\n");
+        refresher.refresh();
+
+        // Act & Assert
+        assertThrows(NoSuchLabelException.class, () -> repository.findOne("accounts", "default", "release"));
+    }
+
+    @Test
+    void findOne_WhenMirrorHasNotSynced_ShouldThrowNoSuchLabel() {
+        // Act & Assert
+        assertThrows(NoSuchLabelException.class, () -> repository.findOne("accounts", "default", null));
+    }
+
+    @Test
+    void start_WhenMirrorExistsOnDisk_ShouldServeItWithoutTheRemote() throws Exception {
+        // Arrange
+        RevCommit commit = push("accounts.yml", "build:\n  version: \"1\"\n");
+        refresher.refresh();
+        FileSystemUtils.deleteRecursively(remote);
+        GitMirror restartedMirror = new GitMirror(properties);
+        GitMirrorEnvironmentRepository restarted = newRepository(restartedMirror);
+        GitMirrorRefresher restartedRefresher = new GitMirrorRefresher(restartedMirror, restarted,
+                properties, null, new SimpleMeterRegistry());
+
+        // Act
+        restartedRefresher.start();
+        try {
+            // Assert
+            assertEquals(commit.getName(), restarted.findOne("accounts", "default", null).getVersion());
+        } finally {
+            restartedRefresher.stop();
+        }
+    }
+
+    private GitMirrorEnvironmentRepository newRepository(GitMirror mirror) {
+        return new GitMirrorEnvironmentRepository(mirror, new StandardEnvironment(), ObservationRegistry.NOOP, properties,
+                meterRegistry);
+    }
+
+    private RevCommit push(String file, String content) throws Exception {
+        Files.writeString(work.getRepository().getWorkTree().toPath().resolve(file), content);
+        work.add().addFilepattern(file).call();
+        RevCommit commit = work.commit().setMessage("Update " + file).setAuthor("test", "test@example.com")
+                .setCommitter("test", "test@example.com").setSign(false).call();
+        work.push().setRemote(remote.toUri().toString()).setRefSpecs(new RefSpec("main:main")).call();
+        return commit;
+    }
+}
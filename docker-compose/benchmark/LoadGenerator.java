@@ -0,0 +1,60 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop HTTP load: every client sends its next GET as soon as the previous one is answered. Prints the
+ * successful requests per second of the measured period, which follows the warm-up.
+ * <p>
+ * {@code java LoadGenerator.java <url> <clients> <warm-up seconds> <measured seconds>}
+ */
+public class LoadGenerator {
+
+    public static void main(String[] args) throws InterruptedException {
+        URI uri = URI.create( args[0] );
+        int clients = Integer.parseInt( args[1] );
+        long warmUpNanos = TimeUnit.SECONDS.toNanos( Long.parseLong( args[2] ) );
+        long measuredSeconds = Long.parseLong( args[3] );
+
+        HttpClient client = HttpClient.newBuilder().version( HttpClient.Version.HTTP_1_1 ).build();
+        HttpRequest request = HttpRequest.newBuilder( uri ).timeout( Duration.ofSeconds( 10 ) ).build();
+        LongAdder succeeded = new LongAdder();
+        LongAdder failed = new LongAdder();
+        long measureStart = System.nanoTime() + warmUpNanos;
+        long measureEnd = measureStart + TimeUnit.SECONDS.toNanos( measuredSeconds );
+
+        ExecutorService executor = Executors.newFixedThreadPool( clients );
+        for (int i = 0; i < clients; i++) {
+            executor.execute( () -> {
+                long sentAt;
+                while ((sentAt = System.nanoTime()) < measureEnd) {
+                    boolean ok;
+                    try {
+                        ok = client.send( request, HttpResponse.BodyHandlers.discarding() ).statusCode() == 200;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (Exception e) {
+                        ok = false;
+                    }
+                    if (sentAt >= measureStart) {
+                        (ok ? succeeded : failed).increment();
+                    }
+                }
+            } );
+        }
+        executor.shutdown();
+        executor.awaitTermination( measuredSeconds + 60, TimeUnit.SECONDS );
+
+        if (failed.sum() > 0) {
+            System.err.printf( "%d requests failed%n", failed.sum() );
+        }
+        System.out.println( succeeded.sum() / measuredSeconds );
+    }
+}
@@ -0,0 +1,152 @@
+#!/usr/bin/env bash
+#
+# Startup and footprint benchmark of the services: time from launching the process to the first successful request,
+# its resident memory at that point, and the steady-state throughput and resident memory under load. Compared on
+# the plain JVM, with the Spring AOT initializers and with AOT plus the AppCDS archive baked into the image.
+#
+#   ./startup-benchmark.sh [service...]     (default: accounts loans cards)
+#
+# Every service is built with `mvn -Paot package` and launched from target/cds/app, the class path layout of its
+# image, against the MySQL databases and the RabbitMQ broker of the docker-compose.yml next to this script. The
+# config server is left out, the services start from their bundled application.yml.
+#
+#   RUNS=5                      launches per service and mode, the median and the fastest startup are reported
+#   THROUGHPUT_SECONDS=30       measured seconds of the fetch load after a warm-up of the same length, 0 disables
+#   CLIENTS=8                   concurrent closed-loop clients of the load
+#   SKIP_BUILD=true             reuse the previous aot build
+#   START_DEPENDENCIES=false    use databases and a broker already listening on the default ports
+#
+set -euo pipefail
+
+BENCHMARK_DIR=$(cd "$(dirname "$0")" && pwd)
+PROJECT_DIR=$(cd "$BENCHMARK_DIR/../.." && pwd)
+RUNS=${RUNS:-5}
+THROUGHPUT_SECONDS=${THROUGHPUT_SECONDS:-30}
+CLIENTS=${CLIENTS:-8}
+SKIP_BUILD=${SKIP_BUILD:-false}
+START_DEPENDENCIES=${START_DEPENDENCIES:-true}
+STARTUP_TIMEOUT_SECONDS=${STARTUP_TIMEOUT_SECONDS:-180}
+MOBILE_NUMBER=9876543210
+SERVICES=("$@")
+if [ ${#SERVICES[@]} -eq 0 ]; then
+  SERVICES=(accounts loans cards)
+fi
+
+declare -A PORTS=([accounts]=8081 [loans]=8082 [cards]=8083)
+
+if [ "$START_DEPENDENCIES" = true ]; then
+  docker compose -f "$BENCHMARK_DIR/docker-compose.yml" up -d --wait
+  trap 'docker compose -f "$BENCHMARK_DIR/docker-compose.yml" down' EXIT
+fi
+
+now_millis() {
+  date +%s%3N
+}
+
+base_url() {
+  echo "http://localhost:${PORTS[$1]}/api/v1/$1"
+}
+
+# starts the service in the given mode in the background and sets PID
+launch() {
+  local service=$1 mode=$2 log=$3
+  local app_dir="$PROJECT_DIR/$service/target/cds/app"
+  local flags=(-Dspring.cloud.config.enabled=false -Dconfig-snapshot.enabled=false)
+  case $mode in
+    jvm) ;;
+    aot) flags+=(-Dspring.aot.enabled=true) ;;
+    # -Xshare:on fails the launch instead of silently running without an archive the JVM rejects
+    aot-cds) flags+=(-Dspring.aot.enabled=true -Xshare:on "-XX:SharedArchiveFile=../archive/$service.jsa") ;;
+  esac
+  ( cd "$app_dir" && exec java "${flags[@]}" -cp @classpath.args "$(cat main-class)" ) > "$log" 2>&1 &
+  PID=$!
+}
+
+# waits for the build-info endpoint of the service to answer 200, returns 1 when the process died or timed out
+await_first_request() {
+  local service=$1 mode=$2 log=$3 start=$4
+  until curl -sf -o /dev/null "$(base_url "$service")/build-info"; do
+    if ! kill -0 "$PID" 2> /dev/null; then
+      echo "$service ($mode) exited before answering, see $log" >&2
+      return 1
+    fi
+    if [ $(( $(now_millis) - start )) -gt $(( STARTUP_TIMEOUT_SECONDS * 1000 )) ]; then
+      stop
+      echo "$service ($mode) did not answer within ${STARTUP_TIMEOUT_SECONDS}s, see $log" >&2
+      return 1
+    fi
+    sleep 0.02
+  done
+}
+
+stop() {
+  kill "$PID"
+  wait "$PID" || true
+}
+
+rss_mb() {
+  echo $(( $(awk '/^VmRSS:/ { print $2 }' "/proc/$PID/status") / 1024 ))
+}
+
+# creates the customer and the product fetched by the load, tolerating it exists from an earlier mode
+seed() {
+  local service=$1
+  if [ "$service" = accounts ]; then
+    curl -s -o /dev/null -X POST -H 'Content-Type: application/json' \
+        -d "{\"name\":\"Benchmark\",\"email\":\"benchmark@eazybank.com\",\"mobileNumber\":\"$MOBILE_NUMBER\"}" \
+        "$(base_url accounts)/create"
+  else
+    curl -s -o /dev/null -X POST "$(base_url "$service")/create?mobileNumber=$MOBILE_NUMBER"
+  fi
+}
+
+if [ "$THROUGHPUT_SECONDS" -gt 0 ]; then
+  # compiled once instead of by every source-file launch
+  LOAD_GENERATOR_DIR=$(mktemp -d)
+  javac -d "$LOAD_GENERATOR_DIR" "$BENCHMARK_DIR/LoadGenerator.java"
+fi
+
+results=()
+for service in "${SERVICES[@]}"; do
+  if [ "$SKIP_BUILD" != true ]; then
+    (cd "$PROJECT_DIR/$service" && mvn -B -q -Paot -DskipTests package)
+  fi
+  log_dir="$PROJECT_DIR/$service/target/cds/benchmark"
+  mkdir -p "$log_dir"
+  for mode in jvm aot aot-cds; do
+    timings=()
+    rss=()
+    for run in $(seq 1 "$RUNS"); do
+      log="$log_dir/$mode-$run.log"
+      start=$(now_millis)
+      launch "$service" "$mode" "$log"
+      await_first_request "$service" "$mode" "$log" "$start"
+      timings+=($(( $(now_millis) - start )))
+      rss+=("$(rss_mb)")
+      stop
+      echo "$service $mode run $run: ${timings[-1]} ms, ${rss[-1]} MB"
+    done
+    sorted=($(printf '%s\n' "${timings[@]}" | sort -n))
+    sorted_rss=($(printf '%s\n' "${rss[@]}" | sort -n))
+
+    throughput=- loaded_rss=-
+    if [ "$THROUGHPUT_SECONDS" -gt 0 ]; then
+      log="$log_dir/$mode-load.log"
+      launch "$service" "$mode" "$log"
+      await_first_request "$service" "$mode" "$log" "$(now_millis)"
+      seed "$service"
+      throughput=$(java -cp "$LOAD_GENERATOR_DIR" LoadGenerator \
+          "$(base_url "$service")/fetch?mobileNumber=$MOBILE_NUMBER" \
+          "$CLIENTS" "$THROUGHPUT_SECONDS" "$THROUGHPUT_SECONDS")
+      loaded_rss=$(rss_mb)
+      stop
+      echo "$service $mode load: $throughput req/s, $loaded_rss MB"
+    fi
+    results+=("$(printf '%-10s %-8s %10s %10s %10s %10s %10s' "$service" "$mode" \
+        "${sorted[$(( RUNS / 2 ))]}" "${sorted[0]}" "${sorted_rss[$(( RUNS / 2 ))]}" "$throughput" "$loaded_rss")")
+  done
+done
+
+echo
+printf '%-10s %-8s %10s %10s %10s %10s %10s\n' service mode "median ms" "min ms" "RSS MB" "req/s" "load RSS"
+printf '%s\n' "${results[@]}"
@@ -1,5 +1,6 @@
 package com.bytes.loans.config;
 
+import com.bytes.loans.constants.LoansConstants;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.stereotype.Component;
 
@@ -10,7 +11,7 @@ public class AuditAwareImpl implements AuditorAware<String> {
 
     @Override
     public Optional<String> getCurrentAuditor() {
-        return Optional.of( "LOANS_MS" );
+        return Optional.of( LoansConstants.AUDITOR );
     }
 
 }
\ No newline at end of file
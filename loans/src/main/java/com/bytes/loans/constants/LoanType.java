@@ -0,0 +1,31 @@
+package com.bytes.loans.constants;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Loan types that can be granted, stored in the loan_type column by their label. A customer holds at most one
+ * loan of each type, enforced by the unique {@code (mobile_number, loan_type)} key.
+ */
+public enum LoanType {
+
+    HOME_LOAN( LoansConstants.HOME_LOAN ),
+    CAR_LOAN( "Car Loan" ),
+    PERSONAL_LOAN( "Personal Loan" ),
+    EDUCATION_LOAN( "Education Loan" ),
+    GOLD_LOAN( "Gold Loan" );
+
+    private final String label;
+
+    LoanType(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public static Optional<LoanType> fromLabel(String label) {
+        return Arrays.stream( values() ).filter( type -> type.label.equals( label ) ).findFirst();
+    }
+}
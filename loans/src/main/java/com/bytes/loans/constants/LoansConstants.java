@@ -6,8 +6,17 @@ public class LoansConstants {
         // restrict instantiation
     }
 
+    public static final String  AUDITOR = "LOANS_MS";
     public static final String  HOME_LOAN = "Home Loan";
     public static final int  NEW_LOAN_LIMIT = 1_00_000;
+    public static final int  MAX_LOANS_PER_CUSTOMER = 5;
+    public static final int  MAX_BATCH_FETCH_SIZE = 500;
+    public static final double  DEFAULT_INTEREST_RATE = 8.5;
+    public static final int  DEFAULT_TENURE_MONTHS = 240;
+    public static final String  RATE_TYPE_FIXED = "FIXED";
+    public static final String  RATE_TYPE_FLOATING = "FLOATING";
+    public static final String  RATE_TYPES = RATE_TYPE_FIXED + "|" + RATE_TYPE_FLOATING;
+    public static final int  MAX_RATE_SPREAD = 10;
     public static final String  STATUS_201 = "201";
     public static final String  MESSAGE_201 = "Loan created successfully";
     public static final String  STATUS_200 = "200";
@@ -3,6 +3,8 @@ package com.bytes.loans.controller;
 import com.bytes.loans.dto.ErrorResponseDto;
 import com.bytes.loans.dto.ResponseDto;
 import com.bytes.loans.exception.LoanAlreadyExistException;
+import com.bytes.loans.exception.LoanNotEligibleException;
+import com.bytes.loans.exception.PaymentRejectedException;
 import com.bytes.loans.exception.ResourceNotFoundException;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
@@ -77,6 +79,45 @@ public class GlobalExceptionController extends ResponseEntityExceptionHandler {
                         .build() );
     }
 
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponseDto> handleIllegalArgumentException(IllegalArgumentException exception, WebRequest request) {
+        log.error( "Illegal argument exception: ", exception );
+        return ResponseEntity
+                .status( HttpStatus.BAD_REQUEST )
+                .body( ErrorResponseDto.builder()
+                        .apiPath( request.getDescription( Boolean.FALSE ) )
+                        .errorCode( HttpStatus.BAD_REQUEST.toString() )
+                        .errorMessage( exception.getMessage() )
+                        .errorTime( LocalDateTime.now() )
+                        .build() );
+    }
+
+    @ExceptionHandler(LoanNotEligibleException.class)
+    public ResponseEntity<ErrorResponseDto> handleLoanNotEligibleException(LoanNotEligibleException exception, WebRequest request) {
+        log.error( "Loan not eligible: ", exception );
+        return ResponseEntity
+                .status( HttpStatus.UNPROCESSABLE_ENTITY )
+                .body( ErrorResponseDto.builder()
+                        .apiPath( request.getDescription( Boolean.FALSE ) )
+                        .errorCode( HttpStatus.UNPROCESSABLE_ENTITY.toString() )
+                        .errorMessage( exception.getMessage() )
+                        .errorTime( LocalDateTime.now() )
+                        .build() );
+    }
+
+    @ExceptionHandler(PaymentRejectedException.class)
+    public ResponseEntity<ErrorResponseDto> handlePaymentRejectedException(PaymentRejectedException exception, WebRequest request) {
+        log.error( "Payment rejected: ", exception );
+        return ResponseEntity
+                .status( HttpStatus.UNPROCESSABLE_ENTITY )
+                .body( ErrorResponseDto.builder()
+                        .apiPath( request.getDescription( Boolean.FALSE ) )
+                        .errorCode( HttpStatus.UNPROCESSABLE_ENTITY.toString() )
+                        .errorMessage( exception.getMessage() )
+                        .errorTime( LocalDateTime.now() )
+                        .build() );
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<?> handleGlobalException(Exception exception,WebRequest request){
         log.error( "Internal server error: ", exception );
@@ -0,0 +1,119 @@
+package com.bytes.loans.controller;
+
+import com.bytes.loans.dto.ErrorResponseDto;
+import com.bytes.loans.dto.LoanBalanceDto;
+import com.bytes.loans.dto.PaymentRequestDto;
+import com.bytes.loans.dto.PaymentResponseDto;
+import com.bytes.loans.service.LoanPaymentService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@Tag(
+        name = "Payment REST APIs for Loans in EazyBank",
+        description = "REST APIs in EazyBank to POST loan repayments and FETCH loan balances"
+)
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+@RequestMapping("/api/v1/loans/payments")
+public class LoanPaymentsController {
+
+    private final LoanPaymentService loanPaymentService;
+
+    @Operation(
+            summary = "Post Loan Payment",
+            description = "REST API to post a loan repayment exactly once per Idempotency-Key, a repeated key returns the original payment"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "201",
+                    description = "HTTP Status 201 CREATED"
+            ),
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status 200 SUCCESS, the payment had already been posted"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "HTTP Status 404 NOT FOUND",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "422",
+                    description = "HTTP Status 422 UNPROCESSABLE ENTITY",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status 500 INTERNAL SERVER ERROR",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping
+    public ResponseEntity<PaymentResponseDto> postPayment(@RequestHeader("Idempotency-Key")
+                                                          @NotBlank @Size(max = 64, message = "Idempotency-Key must be at most 64 characters")
+                                                          String idempotencyKey,
+                                                          @Valid @RequestBody PaymentRequestDto paymentRequestDto){
+        log.info( "Posting payment {} for loan number: {}", idempotencyKey, paymentRequestDto.getLoanNumber());
+        PaymentResponseDto payment = loanPaymentService.postPayment(idempotencyKey, paymentRequestDto);
+        return ResponseEntity
+                .status( payment.isReplayed() ? HttpStatus.OK : HttpStatus.CREATED )
+                .body(payment);
+    }
+
+    @Operation(
+            summary = "Fetch Loan Balance",
+            description = "REST API to fetch the live balance of a loan, or its balance at a past date from the balance snapshots"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status 200 SUCCESS"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "HTTP Status 404 NOT FOUND",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status 500 INTERNAL SERVER ERROR",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @GetMapping("/balance")
+    public ResponseEntity<LoanBalanceDto> fetchBalance(@RequestParam String loanNumber,
+                                                       @RequestParam(required = false)
+                                                       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                                       LocalDate asOf){
+        log.info( "Fetching balance of loan number: {} as of {}", loanNumber, asOf);
+        return ResponseEntity
+                .status( HttpStatus.OK )
+                .body(loanPaymentService.fetchBalance(loanNumber, asOf));
+    }
+}
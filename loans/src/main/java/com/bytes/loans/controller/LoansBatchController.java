@@ -0,0 +1,156 @@
+package com.bytes.loans.controller;
+
+import com.bytes.loans.dto.AccrualRunResultDto;
+import com.bytes.loans.dto.CompactionResultDto;
+import com.bytes.loans.dto.ErrorResponseDto;
+import com.bytes.loans.dto.ExportResultDto;
+import com.bytes.loans.dto.RepricingRequestDto;
+import com.bytes.loans.dto.RepricingResultDto;
+import com.bytes.loans.service.InterestAccrualService;
+import com.bytes.loans.service.LoanCompactionService;
+import com.bytes.loans.service.LoanExportService;
+import com.bytes.loans.service.LoanRepricingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@Tag(
+        name = "Batch REST APIs for Loans in EazyBank",
+        description = "Batch REST APIs in EazyBank to run loan book jobs"
+)
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+@RequestMapping("/api/v1/loans/batch")
+public class LoansBatchController {
+
+    private final InterestAccrualService interestAccrualService;
+
+    private final LoanCompactionService loanCompactionService;
+
+    private final LoanRepricingService loanRepricingService;
+
+    private final LoanExportService loanExportService;
+
+    @Operation(
+            summary = "Interest Accrual",
+            description = "REST API to accrue daily interest on every loan up to a date, resuming an interrupted run for the same date"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status 200 SUCCESS"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status 500 INTERNAL SERVER ERROR",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/accrual")
+    public ResponseEntity<AccrualRunResultDto> accrueInterest(@RequestParam(required = false)
+                                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                                              LocalDate accrualDate){
+        LocalDate date = accrualDate == null ? LocalDate.now() : accrualDate;
+        log.info( "Accruing interest up to {}", date);
+        AccrualRunResultDto result = interestAccrualService.accrueInterest(date);
+        return ResponseEntity
+                .status( HttpStatus.OK )
+                .body(result);
+    }
+
+    @Operation(
+            summary = "Duplicate Loan Compaction",
+            description = "REST API to delete duplicate loan rows in batches, keeping the newest row of every mobile and loan number"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status 200 SUCCESS"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status 500 INTERNAL SERVER ERROR",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/compaction")
+    public ResponseEntity<CompactionResultDto> compactDuplicates(){
+        log.info( "Compacting duplicate loan rows");
+        CompactionResultDto result = loanCompactionService.compactDuplicates();
+        return ResponseEntity
+                .status( HttpStatus.OK )
+                .body(result);
+    }
+
+    @Operation(
+            summary = "Floating Rate Repricing",
+            description = "REST API to move every floating rate loan to a new base rate plus its spread and recalculate its EMI"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status 200 SUCCESS"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status 500 INTERNAL SERVER ERROR",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/repricing")
+    public ResponseEntity<RepricingResultDto> repriceFloatingLoans(@Valid @RequestBody RepricingRequestDto repricingRequestDto){
+        log.info( "Repricing floating rate loans to base rate {}", repricingRequestDto.getBaseRate());
+        RepricingResultDto result = loanRepricingService.repriceFloatingLoans(repricingRequestDto.getBaseRate());
+        return ResponseEntity
+                .status( HttpStatus.OK )
+                .body(result);
+    }
+
+    @Operation(
+            summary = "Loan Book Export",
+            description = "REST API to export every loan to a compressed Parquet file for analytics, replacing an earlier export of the same date"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status 200 SUCCESS"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status 500 INTERNAL SERVER ERROR",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/export")
+    public ResponseEntity<ExportResultDto> exportLoanBook(@RequestParam(required = false)
+                                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                                          LocalDate exportDate){
+        LocalDate date = exportDate == null ? LocalDate.now() : exportDate;
+        log.info( "Exporting the loan book for {}", date);
+        ExportResultDto result = loanExportService.exportLoanBook(date);
+        return ResponseEntity
+                .status( HttpStatus.OK )
+                .body(result);
+    }
+}
@@ -1,25 +1,45 @@
 package com.bytes.loans.controller;
 
+import com.bytes.common.controller.InfoResponseCache;
 import com.bytes.loans.constants.LoansConstants;
+import com.bytes.loans.dto.AmortizationScheduleDto;
+import com.bytes.loans.dto.EligibilityDecisionDto;
 import com.bytes.loans.dto.ErrorResponseDto;
+import com.bytes.loans.dto.LoanApplicationDto;
 import com.bytes.loans.dto.LoansContactInfoDto;
 import com.bytes.loans.dto.LoansDto;
+import com.bytes.loans.dto.PortfolioCashFlowDto;
+import com.bytes.loans.dto.PortfolioSummaryDto;
 import com.bytes.loans.dto.ResponseDto;
+import com.bytes.loans.dto.WhatIfRequestDto;
+import com.bytes.loans.dto.WhatIfResponseDto;
+import com.bytes.loans.service.AmortizationService;
+import com.bytes.loans.service.EligibilityService;
 import com.bytes.loans.service.LoansService;
+import com.bytes.loans.service.PortfolioSummaryService;
+import com.bytes.loans.service.WhatIfService;
+import com.bytes.loans.validation.ValidLoanType;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.env.Environment;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
+
 @Tag(
         name = "CRUD REST APIs for Loans in EazyBank",
         description = "CRUD REST APIs in EazyBank to CREATE, UPDATE, FETCH AND DELETE loan details"
@@ -32,22 +52,33 @@ public class LoansController {
 
     private final LoansService loansService;
 
-    private final Environment environment;
+    private final AmortizationService amortizationService;
+
+    private final PortfolioSummaryService portfolioSummaryService;
+
+    private final EligibilityService eligibilityService;
 
-    @Value( "${build.version}" )
-    private String buildVersion;
+    private final WhatIfService whatIfService;
 
-    private final LoansContactInfoDto loansContactInfoDto;
+    private final InfoResponseCache infoResponseCache;
 
     @Operation(
             summary = "Create Loan",
-            description = "REST API to create new Loan inside EazyBank"
+            description = "REST API to create new Loan inside EazyBank. A FLOATING loan starts at the approved rate "
+                    + "and pays the base rate plus its rateSpread from the next repricing on; a FIXED loan takes no spread"
     )
     @ApiResponses({
             @ApiResponse(
                     responseCode = "201",
                     description = "HTTP Status 201 CREATED"
             ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "HTTP Status 400 BAD REQUEST",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
             @ApiResponse(
                     responseCode = "500",
                     description = "HTTP Status 500 INTERNAL SERVER ERROR",
@@ -57,17 +88,84 @@ public class LoansController {
             )
     })
     @PostMapping("/create")
-    public ResponseEntity<ResponseDto> createLoan(@RequestParam String mobileNumber){
-        log.info( "Creating loan for mobile number: {}", mobileNumber);
-        loansService.createLoan(mobileNumber);
+    public ResponseEntity<ResponseDto> createLoan(@RequestParam String mobileNumber,
+                                                  @RequestParam(defaultValue = LoansConstants.HOME_LOAN)
+                                                  @ValidLoanType
+                                                  String loanType,
+                                                  @RequestParam(defaultValue = LoansConstants.RATE_TYPE_FIXED)
+                                                  @Pattern(regexp = LoansConstants.RATE_TYPES, message = "Rate type must be FIXED or FLOATING")
+                                                  String rateType,
+                                                  @RequestParam(defaultValue = "0")
+                                                  @DecimalMin(value = "0", message = "Rate spread should be equal or greater than zero")
+                                                  @DecimalMax(value = "10", message = "Rate spread should not exceed 10 percent")
+                                                  double rateSpread){
+        log.info( "Creating {} {} for mobile number: {}", rateType, loanType, mobileNumber);
+        loansService.createLoan(mobileNumber, loanType, rateType, rateSpread);
         return ResponseEntity
                 .status( HttpStatus.CREATED )
                 .body(new ResponseDto( LoansConstants.STATUS_201, LoansConstants.MESSAGE_201 ));
     }
 
+    @Operation(
+            summary = "Check Loan Eligibility",
+            description = "REST API to decide eligibility, amount and pricing of a loan application without creating the loan"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status 200 SUCCESS"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status 500 INTERNAL SERVER ERROR",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/eligibility")
+    public ResponseEntity<EligibilityDecisionDto> checkEligibility(@Valid @RequestBody LoanApplicationDto loanApplicationDto){
+        log.info( "Checking {} eligibility for mobile number: {}", loanApplicationDto.getLoanType(), loanApplicationDto.getMobileNumber());
+        return ResponseEntity
+                .status( HttpStatus.OK )
+                .body(eligibilityService.evaluate(loanApplicationDto));
+    }
+
+    @Operation(
+            summary = "What-if Scenarios",
+            description = "REST API to evaluate the EMI, interest and payoff of many rate, tenure and prepayment scenarios in one call"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status 200 SUCCESS"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "HTTP Status 400 BAD REQUEST",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status 500 INTERNAL SERVER ERROR",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/what-if")
+    public ResponseEntity<WhatIfResponseDto> evaluateWhatIf(@Valid @RequestBody WhatIfRequestDto whatIfRequestDto){
+        log.info( "Evaluating {} what-if scenarios", whatIfRequestDto.getScenarios().size());
+        return ResponseEntity
+                .status( HttpStatus.OK )
+                .body(whatIfService.evaluate(whatIfRequestDto));
+    }
+
     @Operation(
             summary = "Fetch Loan Details",
-            description = "REST API to fetch loan details inside EazyBank"
+            description = "REST API to fetch all the loans of a customer inside EazyBank"
     )
     @ApiResponses({
             @ApiResponse(
@@ -83,12 +181,124 @@ public class LoansController {
             )
     })
     @GetMapping("/fetch")
-    public ResponseEntity<LoansDto> fetchLoanDetails(@RequestParam String mobileNumber){
+    public ResponseEntity<List<LoansDto>> fetchLoanDetails(@RequestParam String mobileNumber){
         log.info( "Fetching loan details for mobile number: {}", mobileNumber);
-        LoansDto loansDto = loansService.fetchLoanDetails(mobileNumber);
+        List<LoansDto> loansDtos = loansService.fetchLoans(mobileNumber);
+        return ResponseEntity
+                .status( HttpStatus.OK )
+                .body(loansDtos);
+    }
+
+    @Operation(
+            summary = "Fetch Loans of many Customers",
+            description = "REST API to fetch the loans of a batch of customers in one call, keyed by mobile number"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status 200 SUCCESS"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "HTTP Status 400 BAD REQUEST",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status 500 INTERNAL SERVER ERROR",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/fetch-batch")
+    public ResponseEntity<Map<String, List<LoansDto>>> fetchLoansForCustomers(
+            @RequestBody
+            @Size(max = LoansConstants.MAX_BATCH_FETCH_SIZE, message = "At most 500 mobile numbers can be fetched at once")
+            List<@Pattern(regexp="(^$|[0-9]{10})",message = "Mobile Number must be 10 digits") String> mobileNumbers){
+        log.info( "Fetching loan details for {} mobile numbers", mobileNumbers.size());
         return ResponseEntity
                 .status( HttpStatus.OK )
-                .body(loansDto);
+                .body(loansService.fetchLoansForCustomers(mobileNumbers));
+    }
+
+    @Operation(
+            summary = "Fetch Loan EMI Schedule",
+            description = "REST API to fetch the month by month EMI schedule of a loan, the loan number may be left out when the customer holds a single loan"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status 200 SUCCESS"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "HTTP Status 404 NOT FOUND",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @GetMapping("/schedule")
+    public ResponseEntity<AmortizationScheduleDto> fetchSchedule(@RequestParam String mobileNumber,
+                                                                 @RequestParam(required = false) String loanNumber){
+        log.info( "Fetching EMI schedule for mobile number: {}", mobileNumber);
+        AmortizationScheduleDto scheduleDto = amortizationService.fetchSchedule(mobileNumber, loanNumber);
+        return ResponseEntity
+                .status( HttpStatus.OK )
+                .body(scheduleDto);
+    }
+
+    @Operation(
+            summary = "Project Portfolio Cash Flow",
+            description = "REST API to project the scheduled interest and principal of the whole loan book per month"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status 200 SUCCESS"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status 500 INTERNAL SERVER ERROR",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @GetMapping("/portfolio/cash-flow")
+    public ResponseEntity<PortfolioCashFlowDto> projectPortfolioCashFlow(){
+        log.info( "Projecting portfolio cash flow");
+        PortfolioCashFlowDto cashFlowDto = amortizationService.projectPortfolioCashFlow();
+        return ResponseEntity
+                .status( HttpStatus.OK )
+                .body(cashFlowDto);
+    }
+
+    @Operation(
+            summary = "Fetch Portfolio Summary",
+            description = "REST API to fetch the loan count and amount totals of the whole loan book and per loan type"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status 200 SUCCESS"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status 500 INTERNAL SERVER ERROR",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @GetMapping("/portfolio/summary")
+    public ResponseEntity<PortfolioSummaryDto> fetchPortfolioSummary(){
+        return ResponseEntity
+                .status( HttpStatus.OK )
+                .body(portfolioSummaryService.fetchSummary());
     }
 
     @Operation(
@@ -100,6 +310,13 @@ public class LoansController {
                     responseCode = "200",
                     description = "HTTP Status OK"
             ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "HTTP Status 400 BAD REQUEST",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
             @ApiResponse(
                     responseCode = "417",
                     description = "Expectation Failed"
@@ -131,7 +348,7 @@ public class LoansController {
 
     @Operation(
             summary = "Delete Loan",
-            description = "REST API to delete loan inside EazyBank"
+            description = "REST API to delete all the loans of a customer inside EazyBank"
     )
     @ApiResponses({
             @ApiResponse(
@@ -152,7 +369,7 @@ public class LoansController {
     })
     @DeleteMapping("/delete")
     public ResponseEntity<?> deleteLoan(@RequestParam String mobileNumber){
-        log.info( "Deleting loan for mobile number: {}", mobileNumber);
+        log.info( "Deleting loans for mobile number: {}", mobileNumber);
         Boolean isDeleted =loansService.deleteLoan(mobileNumber);
         if(!isDeleted){
             return ResponseEntity
@@ -172,7 +389,11 @@ public class LoansController {
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
-                    description = "HTTP Status OK"
+                    description = "HTTP Status OK",
+                    content = @Content(
+                            mediaType = MediaType.TEXT_PLAIN_VALUE,
+                            schema = @Schema(implementation = String.class)
+                    )
             ),
             @ApiResponse(
                     responseCode = "500",
@@ -183,11 +404,8 @@ public class LoansController {
             )
     })
     @GetMapping("/build-info")
-    public ResponseEntity<String> getBuildInfo(){
-        return ResponseEntity
-                .status( HttpStatus.OK )
-                .body(this.buildVersion  );
-
+    public ResponseEntity<byte[]> getBuildInfo(){
+        return infoResponseCache.buildInfo();
     }
 
     @Operation(
@@ -197,7 +415,11 @@ public class LoansController {
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
-                    description = "HTTP Status OK"
+                    description = "HTTP Status OK",
+                    content = @Content(
+                            mediaType = MediaType.TEXT_PLAIN_VALUE,
+                            schema = @Schema(implementation = String.class)
+                    )
             ),
             @ApiResponse(
                     responseCode = "500",
@@ -208,10 +430,8 @@ public class LoansController {
             )
     })
     @GetMapping("/java-version")
-    public ResponseEntity<String> getJavaVersion(){
-        return ResponseEntity
-                .status( HttpStatus.OK )
-                .body(environment.getProperty( "JAVA_HOME" ) );
+    public ResponseEntity<byte[]> getJavaVersion(){
+        return infoResponseCache.javaVersion();
     }
 
 
@@ -222,7 +442,11 @@ public class LoansController {
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
-                    description = "HTTP Status OK"
+                    description = "HTTP Status OK",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = LoansContactInfoDto.class)
+                    )
             ),
             @ApiResponse(
                     responseCode = "500",
@@ -230,9 +454,7 @@ public class LoansController {
             )
     })
     @GetMapping("/contact-info")
-    public ResponseEntity<LoansContactInfoDto> getContactInfo() {
-        return ResponseEntity
-                .status(HttpStatus.OK)
-                .body(loansContactInfoDto);
+    public ResponseEntity<byte[]> getContactInfo() {
+        return infoResponseCache.contactInfo();
     }
 }
@@ -0,0 +1,35 @@
+package com.bytes.loans.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(
+        name = "AccrualRunResult",
+        description = "Schema to hold the outcome of an interest accrual run")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AccrualRunResultDto {
+
+    @Schema(description = "Date interest was accrued up to", example = "2026-10-18")
+    private String accrualDate;
+
+    @Schema(description = "Number of loan id partitions", example = "16")
+    private int partitions;
+
+    @Schema(description = "Partitions not accrued by this run, completed earlier or claimed by another instance", example = "0")
+    private int skippedPartitions;
+
+    @Schema(description = "Loans accrued by this run", example = "5000000")
+    private long loansAccrued;
+
+    @Schema(description = "Total run time in milliseconds", example = "410000")
+    private long elapsedMillis;
+
+    @Schema(description = "Loans accrued per second", example = "12195.1")
+    private double loansPerSecond;
+}
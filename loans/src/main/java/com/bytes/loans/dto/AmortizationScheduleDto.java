@@ -0,0 +1,51 @@
+package com.bytes.loans.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(
+        name = "AmortizationSchedule",
+        description = "Schema to hold the EMI schedule of a loan, one array per column and one element per month"
+)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AmortizationScheduleDto {
+
+    @Schema(description = "Unique Loan Number", example = "548732457654")
+    private String loanNumber;
+
+    @Schema(description = "Amount amortized by the schedule", example = "80000")
+    private double principal;
+
+    @Schema(description = "Annual interest rate in percent", example = "8.5")
+    private double annualInterestRate;
+
+    @Schema(description = "Number of monthly instalments the loan was opened with", example = "240")
+    private int tenureMonths;
+
+    @Schema(description = "Number of monthly instalments left, the length of the schedule", example = "180")
+    private int remainingMonths;
+
+    @Schema(description = "Monthly instalment (EMI)", example = "694.26")
+    private double monthlyInstalment;
+
+    @Schema(description = "Interest paid over the whole schedule", example = "86622.4")
+    private double totalInterest;
+
+    @Schema(description = "Instalment paid each month")
+    private double[] instalment;
+
+    @Schema(description = "Interest part of each instalment")
+    private double[] interest;
+
+    @Schema(description = "Principal part of each instalment")
+    private double[] principalRepaid;
+
+    @Schema(description = "Outstanding balance after each instalment")
+    private double[] balance;
+}
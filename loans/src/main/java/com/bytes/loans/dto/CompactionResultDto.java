@@ -0,0 +1,26 @@
+package com.bytes.loans.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(
+        name = "CompactionResult",
+        description = "Schema to hold the outcome of a duplicate loan compaction run")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CompactionResultDto {
+
+    @Schema(description = "Duplicate loan rows deleted", example = "12000")
+    private long rowsDeleted;
+
+    @Schema(description = "Number of delete batches", example = "12")
+    private int batches;
+
+    @Schema(description = "Total run time in milliseconds", example = "5300")
+    private long elapsedMillis;
+}
@@ -0,0 +1,35 @@
+package com.bytes.loans.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(
+        name = "EligibilityDecision",
+        description = "Schema to hold the eligibility and pricing decided for a loan application")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class EligibilityDecisionDto {
+
+    @Schema(description = "Whether the loan can be granted", example = "true")
+    private boolean eligible;
+
+    @Schema(description = "Decision table rule that decided, empty when no rule matched", example = "prime-home")
+    private String ruleId;
+
+    @Schema(description = "Amount granted, the requested amount capped at the rule's maximum", example = "2500000")
+    private int approvedAmount;
+
+    @Schema(description = "Annual interest rate in percent", example = "8.25")
+    private double interestRate;
+
+    @Schema(description = "Tenure in months", example = "240")
+    private int tenureMonths;
+
+    @Schema(description = "Monthly instalment of the approved amount", example = "21302.14")
+    private double monthlyInstalment;
+}
@@ -0,0 +1,35 @@
+package com.bytes.loans.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(
+        name = "ExportResult",
+        description = "Schema to hold the outcome of a loan book export")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ExportResultDto {
+
+    @Schema(description = "Path of the exported file", example = "/var/exports/loans/loans-2026-10-19.parquet")
+    private String file;
+
+    @Schema(description = "Loans exported", example = "1000000")
+    private long rows;
+
+    @Schema(description = "Row groups written", example = "10")
+    private int rowGroups;
+
+    @Schema(description = "Size of the file in bytes", example = "21500000")
+    private long bytes;
+
+    @Schema(description = "Total run time in milliseconds", example = "2400")
+    private long elapsedMillis;
+
+    @Schema(description = "Loans exported per second", example = "416666.6")
+    private double rowsPerSecond;
+}
@@ -0,0 +1,52 @@
+package com.bytes.loans.dto;
+
+import com.bytes.loans.validation.ValidLoanType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(
+        name = "LoanApplication",
+        description = "Schema to hold the applicant details a loan decision is made on, missing details only match rules that ignore them")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class LoanApplicationDto {
+
+    @Schema(description = "Mobile Number of the applicant", example = "9848149507")
+    @NotEmpty(message = "Mobile Number can not be a null or empty")
+    @Pattern(regexp="(^$|[0-9]{10})",message = "Mobile Number must be 10 digits")
+    private String mobileNumber;
+
+    @Schema(description = "Type of the loan",example = "Home Loan",
+            allowableValues = {"Home Loan", "Car Loan", "Personal Loan", "Education Loan", "Gold Loan"})
+    @NotEmpty(message = "LoanType can not be a null or empty")
+    @ValidLoanType
+    private String loanType;
+
+    @Schema(description = "Credit score of the applicant", example = "760")
+    @Min(value = 300, message = "Credit score should be at least 300")
+    @Max(value = 900, message = "Credit score should be at most 900")
+    private Integer creditScore;
+
+    @Schema(description = "Monthly income of the applicant", example = "85000")
+    @PositiveOrZero(message = "Monthly income should be equal or greater than zero")
+    private Integer monthlyIncome;
+
+    @Schema(description = "Age of the applicant in years", example = "34")
+    @Min(value = 18, message = "Applicant should be at least 18 years old")
+    private Integer age;
+
+    @Schema(description = "Loan amount requested", example = "2500000")
+    @Positive(message = "Requested amount should be greater than zero")
+    private Integer requestedAmount;
+}
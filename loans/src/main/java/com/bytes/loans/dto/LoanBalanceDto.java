@@ -0,0 +1,30 @@
+package com.bytes.loans.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(
+        name = "LoanBalance",
+        description = "Schema to hold the balance of a loan")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class LoanBalanceDto {
+
+    @Schema(description = "Unique Loan Number", example = "548732457654")
+    private String loanNumber;
+
+    @Schema(description = "Total loan amount paid", example = "25000")
+    private int amountPaid;
+
+    @Schema(description = "Total outstanding amount", example = "75000")
+    private int outstandingAmount;
+
+    @Schema(description = "Date of the snapshot the balance was read from, the opening date of the loan before its "
+            + "first snapshot, empty for the live balance", example = "2026-10-18")
+    private String asOf;
+}
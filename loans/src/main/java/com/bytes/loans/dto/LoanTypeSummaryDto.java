@@ -0,0 +1,32 @@
+package com.bytes.loans.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(
+        name = "LoanTypeSummary",
+        description = "Schema to hold the totals of one loan type")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class LoanTypeSummaryDto {
+
+    @Schema(description = "Type of the loan", example = "Home Loan")
+    private String loanType;
+
+    @Schema(description = "Number of loans", example = "250000")
+    private long loans;
+
+    @Schema(description = "Sum of the total loan amounts", example = "25000000000")
+    private long totalLoan;
+
+    @Schema(description = "Sum of the amounts paid", example = "5000000000")
+    private long amountPaid;
+
+    @Schema(description = "Sum of the outstanding amounts", example = "20000000000")
+    private long outstandingAmount;
+}
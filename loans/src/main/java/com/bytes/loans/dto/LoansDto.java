@@ -1,5 +1,7 @@
 package com.bytes.loans.dto;
 
+import com.bytes.loans.constants.LoansConstants;
+import com.bytes.loans.validation.ValidLoanType;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Pattern;
@@ -28,8 +30,10 @@ public class LoansDto {
     @Pattern(regexp="(^$|[0-9]{12})",message = "LoanNumber must be 12 digits")
     private String loanNumber;
 
-    @Schema(description = "Type of the loan",example = "Home Loan")
+    @Schema(description = "Type of the loan",example = "Home Loan",
+            allowableValues = {"Home Loan", "Car Loan", "Personal Loan", "Education Loan", "Gold Loan"})
     @NotEmpty(message = "LoanType can not be a null or empty")
+    @ValidLoanType
     private String loanType;
 
     @Schema(description = "Total loan amount",example = "500000")
@@ -43,4 +47,12 @@ public class LoansDto {
     @Schema(description = "Total outstanding amount",example = "300000")
     @PositiveOrZero(message = "Total outstanding amount should be equal or greater than zero")
     private int outstandingAmount;
+
+    @Schema(description = "FIXED, or FLOATING to follow the base rate plus the spread; left as is on update when absent",
+            allowableValues = {LoansConstants.RATE_TYPE_FIXED, LoansConstants.RATE_TYPE_FLOATING}, example = "FLOATING")
+    private String rateType;
+
+    @Schema(description = "Annual percent a floating loan pays over the base rate, 0 to 10; left as is on update when absent",
+            example = "1.75")
+    private Double rateSpread;
 }
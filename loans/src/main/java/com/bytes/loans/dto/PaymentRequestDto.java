@@ -0,0 +1,29 @@
+package com.bytes.loans.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(
+        name = "PaymentRequest",
+        description = "Schema to hold a loan repayment")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PaymentRequestDto {
+
+    @Schema(description = "Loan Number the payment is applied to", example = "548732457654")
+    @NotEmpty(message = "Loan Number can not be a null or empty")
+    @Pattern(regexp="(^$|[0-9]{12,14})",message = "LoanNumber must be 12 to 14 digits")
+    private String loanNumber;
+
+    @Schema(description = "Amount paid", example = "5000")
+    @Positive(message = "Payment amount should be greater than zero")
+    private int amount;
+}
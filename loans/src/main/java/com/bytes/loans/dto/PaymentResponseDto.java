@@ -0,0 +1,40 @@
+package com.bytes.loans.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Schema(
+        name = "PaymentResponse",
+        description = "Schema to hold a posted loan repayment and the resulting balance")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PaymentResponseDto {
+
+    @Schema(description = "Idempotency key the payment was posted with", example = "9f1c2d3e-payment-001")
+    private String idempotencyKey;
+
+    @Schema(description = "Loan Number the payment was applied to", example = "548732457654")
+    private String loanNumber;
+
+    @Schema(description = "Amount paid", example = "5000")
+    private int amount;
+
+    @Schema(description = "Total loan amount paid after the payment", example = "25000")
+    private int amountPaid;
+
+    @Schema(description = "Outstanding amount after the payment", example = "75000")
+    private int outstandingAmount;
+
+    @Schema(description = "Time the payment was posted")
+    private LocalDateTime postedAt;
+
+    @Schema(description = "True when the key had already been posted and the original payment is returned", example = "false")
+    private boolean replayed;
+}
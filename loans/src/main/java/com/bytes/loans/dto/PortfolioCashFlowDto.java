@@ -0,0 +1,39 @@
+package com.bytes.loans.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(
+        name = "PortfolioCashFlow",
+        description = "Schema to hold the scheduled repayments of the whole loan book summed per month from now"
+)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PortfolioCashFlowDto {
+
+    @Schema(description = "Number of loans projected", example = "1000000")
+    private int loans;
+
+    @Schema(description = "Number of months until the last loan is repaid", example = "360")
+    private int horizonMonths;
+
+    @Schema(description = "Interest scheduled over the horizon", example = "5412345678.9")
+    private double totalInterest;
+
+    @Schema(description = "Principal scheduled over the horizon", example = "80000000000")
+    private double totalPrincipal;
+
+    @Schema(description = "Interest due each month")
+    private double[] interest;
+
+    @Schema(description = "Principal due each month")
+    private double[] principal;
+
+    @Schema(description = "Time spent loading and projecting the book in milliseconds", example = "850")
+    private long elapsedMillis;
+}
@@ -0,0 +1,38 @@
+package com.bytes.loans.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Schema(
+        name = "PortfolioSummary",
+        description = "Schema to hold the totals of the whole loan book and per loan type")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PortfolioSummaryDto {
+
+    @Schema(description = "Number of loans", example = "1000000")
+    private long loans;
+
+    @Schema(description = "Sum of the total loan amounts", example = "100000000000")
+    private long totalLoan;
+
+    @Schema(description = "Sum of the amounts paid", example = "20000000000")
+    private long amountPaid;
+
+    @Schema(description = "Sum of the outstanding amounts", example = "80000000000")
+    private long outstandingAmount;
+
+    @Schema(description = "Totals per loan type")
+    private List<LoanTypeSummaryDto> loanTypes;
+
+    @Schema(description = "Time the totals were last rebuilt from the loans table")
+    private LocalDateTime rebuiltAt;
+}
@@ -0,0 +1,24 @@
+package com.bytes.loans.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(
+        name = "RepricingRequest",
+        description = "Schema to hold a base rate change")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RepricingRequestDto {
+
+    @Schema(description = "New annual base rate in percent, floating loans pay it plus their spread", example = "6.5")
+    @PositiveOrZero(message = "Base rate should be equal or greater than zero")
+    @DecimalMax(value = "50", message = "Base rate should not exceed 50 percent")
+    private double baseRate;
+}
@@ -0,0 +1,38 @@
+package com.bytes.loans.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(
+        name = "RepricingResult",
+        description = "Schema to hold the outcome of a floating rate repricing run")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RepricingResultDto {
+
+    @Schema(description = "Base rate the loans were repriced to", example = "6.5")
+    private double baseRate;
+
+    @Schema(description = "Number of loan types repriced", example = "3")
+    private int loanTypes;
+
+    @Schema(description = "Loans repriced", example = "1000000")
+    private long loansRepriced;
+
+    @Schema(description = "Chunks read and written, each one SELECT and one batched UPDATE", example = "1000")
+    private int chunks;
+
+    @Schema(description = "Total run time in milliseconds", example = "52000")
+    private long elapsedMillis;
+
+    @Schema(description = "Loans repriced per second", example = "19230.7")
+    private double loansPerSecond;
+
+    @Schema(description = "Time writers spent waiting on the throttle in milliseconds", example = "31000")
+    private long throttledMillis;
+}
@@ -0,0 +1,42 @@
+package com.bytes.loans.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(
+        name = "WhatIfOutcome",
+        description = "Schema to hold the outcome of one what-if scenario"
+)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class WhatIfOutcomeDto {
+
+    @Schema(description = "Loan Number the scenario started from", example = "548732457654")
+    private String loanNumber;
+
+    @Schema(description = "Amount amortized", example = "2500000")
+    private int principal;
+
+    @Schema(description = "Annual interest rate in percent", example = "8.5")
+    private double interestRate;
+
+    @Schema(description = "Tenure in months", example = "240")
+    private int tenureMonths;
+
+    @Schema(description = "Monthly instalment", example = "21695.51")
+    private double monthlyInstalment;
+
+    @Schema(description = "Interest paid until the loan is repaid", example = "2451234.56")
+    private double totalInterest;
+
+    @Schema(description = "Interest saved by the prepayment", example = "1256789.12")
+    private double interestSaved;
+
+    @Schema(description = "Instalments paid until the loan is repaid", example = "178")
+    private int monthsToPayoff;
+}
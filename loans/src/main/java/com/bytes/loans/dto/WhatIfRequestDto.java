@@ -0,0 +1,27 @@
+package com.bytes.loans.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Schema(
+        name = "WhatIfRequest",
+        description = "Schema to hold the what-if scenarios evaluated in one call")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class WhatIfRequestDto {
+
+    @Schema(description = "Scenarios to evaluate, outcomes are returned in the same order")
+    @NotEmpty(message = "Scenarios can not be a null or empty")
+    @Size(max = 10000, message = "At most 10000 scenarios can be evaluated in one call")
+    private List<@Valid WhatIfScenarioDto> scenarios;
+}
@@ -0,0 +1,26 @@
+package com.bytes.loans.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Schema(
+        name = "WhatIfResponse",
+        description = "Schema to hold the outcomes of a batch of what-if scenarios"
+)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class WhatIfResponseDto {
+
+    @Schema(description = "Outcome of every scenario in request order")
+    private List<WhatIfOutcomeDto> outcomes;
+
+    @Schema(description = "Time spent evaluating the scenarios in milliseconds", example = "4")
+    private long elapsedMillis;
+}
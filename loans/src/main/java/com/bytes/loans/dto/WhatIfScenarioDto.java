@@ -0,0 +1,58 @@
+package com.bytes.loans.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(
+        name = "WhatIfScenario",
+        description = "Schema to hold one what-if scenario, terms left out are taken from the loan")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class WhatIfScenarioDto {
+
+    @Schema(description = "Loan Number whose outstanding amount, rate and tenure the scenario starts from", example = "548732457654")
+    @Pattern(regexp="(^$|[0-9]{12,14})",message = "LoanNumber must be 12 to 14 digits")
+    private String loanNumber;
+
+    @Schema(description = "Amount to amortize", example = "2500000")
+    @Positive(message = "Principal should be greater than zero")
+    private Integer principal;
+
+    @Schema(description = "Annual interest rate in percent", example = "8.5")
+    @PositiveOrZero(message = "Interest rate should be equal or greater than zero")
+    @DecimalMax(value = "50", message = "Interest rate should not exceed 50 percent")
+    private Double interestRate;
+
+    @Schema(description = "Tenure in months", example = "240")
+    @Min(value = 1, message = "Tenure should be at least one month")
+    @Max(value = 480, message = "Tenure should be at most 480 months")
+    private Integer tenureMonths;
+
+    @Schema(description = "Lump sum prepaid, the EMI stays the same and the tenure shortens", example = "500000")
+    @PositiveOrZero(message = "Prepayment should be equal or greater than zero")
+    private Integer prepaymentAmount;
+
+    @Schema(description = "Instalment, from 1, the lump sum is paid with", example = "36")
+    @Min(value = 1, message = "Prepayment month should be at least 1")
+    private Integer prepaymentMonth;
+
+    @JsonIgnore
+    @AssertTrue(message = "Scenario needs a loan number or a principal, interest rate and tenure")
+    public boolean isPriced() {
+        return (loanNumber != null && !loanNumber.isEmpty())
+                || (principal != null && interestRate != null && tenureMonths != null);
+    }
+}
@@ -0,0 +1,38 @@
+package com.bytes.loans.engine;
+
+import lombok.Getter;
+
+/**
+ * Amortization table of one loan held column by column, amounts in paise.
+ * Index {@code i} of every column is instalment {@code i + 1}.
+ */
+@Getter
+public final class AmortizationSchedule {
+
+    private final long monthlyInstalment;
+    private final long[] instalment;
+    private final long[] interest;
+    private final long[] principal;
+    private final long[] balance;
+    private long totalInterest;
+
+    AmortizationSchedule(long monthlyInstalment, int months) {
+        this.monthlyInstalment = monthlyInstalment;
+        this.instalment = new long[months];
+        this.interest = new long[months];
+        this.principal = new long[months];
+        this.balance = new long[months];
+    }
+
+    void set(int month, long interestPart, long principalPart, long remaining) {
+        instalment[month] = interestPart + principalPart;
+        interest[month] = interestPart;
+        principal[month] = principalPart;
+        balance[month] = remaining;
+        totalInterest += interestPart;
+    }
+
+    public int getMonths() {
+        return balance.length;
+    }
+}
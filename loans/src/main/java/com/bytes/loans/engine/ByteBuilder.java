@@ -0,0 +1,116 @@
+package com.bytes.loans.engine;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Growable, unsynchronized byte buffer with the little endian, varint and bit packed writes Parquet pages and
+ * their Thrift headers are made of.
+ */
+final class ByteBuilder {
+
+    private byte[] bytes;
+    private int size;
+
+    ByteBuilder(int capacity) {
+        bytes = new byte[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    void reset() {
+        size = 0;
+    }
+
+    void writeTo(OutputStream out) throws IOException {
+        out.write( bytes, 0, size );
+    }
+
+    void write(ByteBuilder other) {
+        write( other.bytes, 0, other.size );
+    }
+
+    void write(int b) {
+        ensure( 1 );
+        bytes[size++] = (byte) b;
+    }
+
+    void write(byte[] b, int off, int len) {
+        ensure( len );
+        System.arraycopy( b, off, bytes, size, len );
+        size += len;
+    }
+
+    void writeIntLE(int value) {
+        ensure( 4 );
+        bytes[size++] = (byte) value;
+        bytes[size++] = (byte) (value >>> 8);
+        bytes[size++] = (byte) (value >>> 16);
+        bytes[size++] = (byte) (value >>> 24);
+    }
+
+    void writeLongLE(long value) {
+        writeIntLE( (int) value );
+        writeIntLE( (int) (value >>> 32) );
+    }
+
+    void writeDoubleLE(double value) {
+        writeLongLE( Double.doubleToLongBits( value ) );
+    }
+
+    /**
+     * ULEB128: seven bits at a time, low bits first, the high bit set on every byte but the last.
+     */
+    void writeVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            write( (int) ((value & 0x7F) | 0x80) );
+            value >>>= 7;
+        }
+        write( (int) value );
+    }
+
+    void writeZigZag(long value) {
+        writeVarint( (value << 1) ^ (value >> 63) );
+    }
+
+    /**
+     * Packs the low {@code bitWidth} bits of each value, least significant bit first, as the bit packed runs of
+     * the RLE hybrid and the DELTA_BINARY_PACKED miniblocks lay them out. The last byte is padded with zeros.
+     */
+    void writeBitPacked(long[] values, int from, int count, int bitWidth) {
+        if (bitWidth == 0) {
+            return;
+        }
+        ensure( (int) (((long) count * bitWidth + 7) / 8) );
+        int current = 0;
+        int used = 0;
+        for (int i = from; i < from + count; i++) {
+            long value = values[i];
+            int remaining = bitWidth;
+            while (remaining > 0) {
+                int take = Math.min( 8 - used, remaining );
+                current |= (int) ((value & ((1L << take) - 1)) << used);
+                value >>>= take;
+                remaining -= take;
+                used += take;
+                if (used == 8) {
+                    bytes[size++] = (byte) current;
+                    current = 0;
+                    used = 0;
+                }
+            }
+        }
+        if (used > 0) {
+            bytes[size++] = (byte) current;
+        }
+    }
+
+    private void ensure(int extra) {
+        if (size + extra > bytes.length) {
+            bytes = Arrays.copyOf( bytes, Math.max( bytes.length * 2, size + extra ) );
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.bytes.loans.engine;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * An eligibility decision table compiled for first-hit evaluation.
+ * <p>
+ * Every numeric input is cut into the elementary intervals formed by all rule bounds on it, and every
+ * interval holds a bitset of the rules it satisfies; loan types get one bitset each. Evaluating an
+ * application is one binary search per input followed by an AND of a handful of {@code long} words, the
+ * lowest set bit being the first matching rule in table order. Nothing is parsed, reflected on or allocated
+ * per evaluation. A table is immutable and is replaced as a whole when the rules change.
+ */
+public final class DecisionTable {
+
+    /**
+     * Value of an input the application did not provide; it only satisfies rules that do not constrain it.
+     */
+    public static final long UNKNOWN = Long.MIN_VALUE;
+
+    static final int CREDIT_SCORE = 0;
+    static final int MONTHLY_INCOME = 1;
+    static final int AGE = 2;
+    static final int REQUESTED_AMOUNT = 3;
+    private static final int INPUTS = 4;
+
+    private final EligibilityRule[] rules;
+    private final int words;
+    // per input: start of every elementary interval, ascending
+    private final long[][] starts;
+    // per input: the rule bitset of every interval followed by the bitset of rules not constraining the input
+    private final long[][] masks;
+    private final Map<String, long[]> loanTypeMasks;
+    private final long[] anyLoanTypeMask;
+
+    private DecisionTable(EligibilityRule[] rules) {
+        this.rules = rules;
+        this.words = Math.max( 1, (rules.length + 63) >>> 6 );
+        this.starts = new long[INPUTS][];
+        this.masks = new long[INPUTS][];
+        for (int input = 0; input < INPUTS; input++) {
+            compileInput( input );
+        }
+        this.anyLoanTypeMask = new long[words];
+        this.loanTypeMasks = new HashMap<>();
+        for (int r = 0; r < rules.length; r++) {
+            List<String> loanTypes = rules[r].loanTypes();
+            if (loanTypes == null || loanTypes.isEmpty()) {
+                set( anyLoanTypeMask, 0, r );
+            }
+        }
+        for (int r = 0; r < rules.length; r++) {
+            List<String> loanTypes = rules[r].loanTypes();
+            if (loanTypes != null) {
+                for (String loanType : loanTypes) {
+                    set( loanTypeMasks.computeIfAbsent( loanType, type -> anyLoanTypeMask.clone() ), 0, r );
+                }
+            }
+        }
+    }
+
+    public static DecisionTable compile(List<EligibilityRule> rules) {
+        for (EligibilityRule rule : rules) {
+            for (int input = 0; input < INPUTS; input++) {
+                if (lower( rule, input ) > upper( rule, input )) {
+                    throw new IllegalArgumentException( "Rule " + rule.id() + " has a lower bound above its upper bound" );
+                }
+            }
+        }
+        return new DecisionTable( rules.toArray( new EligibilityRule[0] ) );
+    }
+
+    private void compileInput(int input) {
+        TreeSet<Long> points = new TreeSet<>();
+        points.add( UNKNOWN + 1 );
+        for (EligibilityRule rule : rules) {
+            if (constrains( rule, input )) {
+                points.add( lower( rule, input ) );
+                long upper = upper( rule, input );
+                if (upper != Long.MAX_VALUE) {
+                    points.add( upper + 1 );
+                }
+            }
+        }
+        long[] intervalStarts = points.stream().mapToLong( Long::longValue ).toArray();
+        long[] intervalMasks = new long[(intervalStarts.length + 1) * words];
+        for (int r = 0; r < rules.length; r++) {
+            EligibilityRule rule = rules[r];
+            if (!constrains( rule, input )) {
+                // matches every interval and an unknown value
+                for (int interval = 0; interval <= intervalStarts.length; interval++) {
+                    set( intervalMasks, interval * words, r );
+                }
+                continue;
+            }
+            long lower = lower( rule, input );
+            long upper = upper( rule, input );
+            for (int interval = 0; interval < intervalStarts.length; interval++) {
+                if (intervalStarts[interval] >= lower && intervalStarts[interval] <= upper) {
+                    set( intervalMasks, interval * words, r );
+                }
+            }
+        }
+        starts[input] = intervalStarts;
+        masks[input] = intervalMasks;
+    }
+
+    /**
+     * @return the index of the first rule matching the application, -1 when none does
+     */
+    public int match(String loanType, long creditScore, long monthlyIncome, long age, long requestedAmount) {
+        long[] typeMask = loanType == null ? anyLoanTypeMask : loanTypeMasks.getOrDefault( loanType, anyLoanTypeMask );
+        int creditScoreAt = offset( CREDIT_SCORE, creditScore );
+        int monthlyIncomeAt = offset( MONTHLY_INCOME, monthlyIncome );
+        int ageAt = offset( AGE, age );
+        int requestedAmountAt = offset( REQUESTED_AMOUNT, requestedAmount );
+        long[] creditScoreMasks = masks[CREDIT_SCORE];
+        long[] monthlyIncomeMasks = masks[MONTHLY_INCOME];
+        long[] ageMasks = masks[AGE];
+        long[] requestedAmountMasks = masks[REQUESTED_AMOUNT];
+        for (int w = 0; w < words; w++) {
+            long matching = typeMask[w] & creditScoreMasks[creditScoreAt + w] & monthlyIncomeMasks[monthlyIncomeAt + w]
+                    & ageMasks[ageAt + w] & requestedAmountMasks[requestedAmountAt + w];
+            if (matching != 0) {
+                return (w << 6) + Long.numberOfTrailingZeros( matching );
+            }
+        }
+        return -1;
+    }
+
+    public EligibilityRule rule(int index) {
+        return rules[index];
+    }
+
+    public int size() {
+        return rules.length;
+    }
+
+    private int offset(int input, long value) {
+        long[] intervalStarts = starts[input];
+        if (value == UNKNOWN) {
+            return intervalStarts.length * words;
+        }
+        int interval = Arrays.binarySearch( intervalStarts, value );
+        return (interval >= 0 ? interval : -interval - 2) * words;
+    }
+
+    private static void set(long[] bits, int offset, int rule) {
+        bits[offset + (rule >>> 6)] |= 1L << rule;
+    }
+
+    private static boolean constrains(EligibilityRule rule, int input) {
+        return lower( rule, input ) != UNKNOWN + 1 || upper( rule, input ) != Long.MAX_VALUE;
+    }
+
+    private static long lower(EligibilityRule rule, int input) {
+        Integer bound = switch (input) {
+            case CREDIT_SCORE -> rule.minCreditScore();
+            case MONTHLY_INCOME -> rule.minMonthlyIncome();
+            case AGE -> rule.minAge();
+            default -> rule.minRequestedAmount();
+        };
+        return bound == null ? UNKNOWN + 1 : bound;
+    }
+
+    private static long upper(EligibilityRule rule, int input) {
+        Integer bound = switch (input) {
+            case CREDIT_SCORE -> rule.maxCreditScore();
+            case MONTHLY_INCOME -> rule.maxMonthlyIncome();
+            case AGE -> rule.maxAge();
+            default -> rule.maxRequestedAmount();
+        };
+        return bound == null ? Long.MAX_VALUE : bound;
+    }
+}
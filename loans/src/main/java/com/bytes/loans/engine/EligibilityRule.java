@@ -0,0 +1,36 @@
+package com.bytes.loans.engine;
+
+import java.util.List;
+
+/**
+ * One row of the eligibility decision table. Every bound is inclusive and a missing bound or loan type list
+ * leaves that input unconstrained.
+ *
+ * @param id - rule name reported with the decision
+ * @param loanTypes - loan types the rule applies to
+ * @param eligible - whether a match is granted, granted when missing
+ * @param maxAmount - largest amount granted in rupees
+ * @param interestRate - annual interest rate in percent
+ * @param tenureMonths - number of monthly instalments
+ */
+public record EligibilityRule(
+        String id,
+        List<String> loanTypes,
+        Integer minCreditScore,
+        Integer maxCreditScore,
+        Integer minMonthlyIncome,
+        Integer maxMonthlyIncome,
+        Integer minAge,
+        Integer maxAge,
+        Integer minRequestedAmount,
+        Integer maxRequestedAmount,
+        Boolean eligible,
+        int maxAmount,
+        double interestRate,
+        int tenureMonths
+) {
+
+    public boolean grants() {
+        return eligible == null || eligible;
+    }
+}
@@ -0,0 +1,61 @@
+package com.bytes.loans.engine;
+
+import java.util.Arrays;
+
+/**
+ * Loans to project, held as parallel primitive arrays so a whole portfolio fits in a few flat arrays.
+ */
+public final class LoanBook {
+
+    private long[] principal;
+    private double[] monthlyRate;
+    private int[] months;
+    private int size;
+    private int maxMonths;
+
+    public LoanBook(int initialCapacity) {
+        int capacity = Math.max( 16, initialCapacity );
+        this.principal = new long[capacity];
+        this.monthlyRate = new double[capacity];
+        this.months = new int[capacity];
+    }
+
+    /**
+     * @param principalPaise - amount to amortize in paise
+     * @param annualInterestRate - annual interest rate in percent
+     * @param tenureMonths - number of monthly instalments
+     */
+    public void add(long principalPaise, double annualInterestRate, int tenureMonths) {
+        if (size == principal.length) {
+            int capacity = size * 2;
+            principal = Arrays.copyOf( principal, capacity );
+            monthlyRate = Arrays.copyOf( monthlyRate, capacity );
+            months = Arrays.copyOf( months, capacity );
+        }
+        principal[size] = principalPaise;
+        monthlyRate[size] = AmortizationEngine.monthlyRate( annualInterestRate );
+        months[size] = tenureMonths;
+        maxMonths = Math.max( maxMonths, tenureMonths );
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int maxMonths() {
+        return maxMonths;
+    }
+
+    long principal(int loan) {
+        return principal[loan];
+    }
+
+    double monthlyRate(int loan) {
+        return monthlyRate[loan];
+    }
+
+    int months(int loan) {
+        return months[loan];
+    }
+}
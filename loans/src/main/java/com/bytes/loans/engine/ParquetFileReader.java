@@ -0,0 +1,349 @@
+package com.bytes.loans.engine;
+
+import com.bytes.loans.engine.ParquetFileWriter.Column;
+import com.bytes.loans.engine.ParquetFileWriter.Type;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads the Parquet files written by {@link ParquetFileWriter}, one row group at a time.
+ * <p>
+ * Meant for checks and small tools rather than speed: values come back boxed, row by row. It reads the subset
+ * of Parquet the writer produces, a flat schema of GZIP or uncompressed version 1 data pages in the PLAIN,
+ * dictionary and DELTA_BINARY_PACKED encodings, and decodes by the format specification rather than by the
+ * writer's code. Both are checked against parquet-java, the reference implementation, in the tests. Files from
+ * other writers are best read with a full Parquet library.
+ */
+public final class ParquetFileReader {
+
+    private final Path file;
+    private final List<Column> columns;
+    private final boolean[] optional;
+    private final List<Map<Integer, Object>> rowGroups;
+
+    private ParquetFileReader(Path file, List<Column> columns, boolean[] optional,
+                              List<Map<Integer, Object>> rowGroups) {
+        this.file = file;
+        this.columns = columns;
+        this.optional = optional;
+        this.rowGroups = rowGroups;
+    }
+
+    public static ParquetFileReader open(Path file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile( file.toFile(), "r" )) {
+            byte[] magic = new byte[ParquetFileWriter.MAGIC.length];
+            raf.readFully( magic );
+            if (raf.length() < 12 || !Arrays.equals( magic, ParquetFileWriter.MAGIC )) {
+                throw new IOException( file + " is not a Parquet file" );
+            }
+            raf.seek( raf.length() - 8 );
+            int footerLength = Integer.reverseBytes( raf.readInt() );
+            raf.readFully( magic );
+            if (!Arrays.equals( magic, ParquetFileWriter.MAGIC ) || footerLength <= 0 || footerLength > raf.length() - 12) {
+                throw new IOException( file + " is not a Parquet file" );
+            }
+            byte[] footer = new byte[footerLength];
+            raf.seek( raf.length() - 8 - footerLength );
+            raf.readFully( footer );
+            Map<Integer, Object> metadata = new ThriftCompactReader( footer, 0 ).readStruct();
+            List<Map<Integer, Object>> schema = structs( metadata.get( 2 ) );
+            List<Map<Integer, Object>> rowGroups = structs( metadata.get( 4 ) );
+            boolean[] optional = new boolean[schema.size() - 1];
+            for (int c = 0; c < optional.length; c++) {
+                Long repetition = (Long) schema.get( c + 1 ).get( 3 );
+                optional[c] = repetition != null && repetition == ParquetFileWriter.OPTIONAL;
+            }
+            return new ParquetFileReader( file, columns( schema, rowGroups ), optional, rowGroups );
+        }
+    }
+
+    public List<Column> columns() {
+        return columns;
+    }
+
+    public int rowGroups() {
+        return rowGroups.size();
+    }
+
+    public long rows() {
+        return rowGroups.stream().mapToLong( group -> (Long) group.get( 3 ) ).sum();
+    }
+
+    /**
+     * @return the rows of the group, values typed after their column: Long, Integer, Double, String or LocalDate
+     */
+    public List<Object[]> readRowGroup(int group) throws IOException {
+        Map<Integer, Object> rowGroup = rowGroups.get( group );
+        int rows = Math.toIntExact( (Long) rowGroup.get( 3 ) );
+        List<Map<Integer, Object>> chunks = structs( rowGroup.get( 1 ) );
+        Object[][] values = new Object[columns.size()][];
+        try (RandomAccessFile raf = new RandomAccessFile( file.toFile(), "r" )) {
+            for (int c = 0; c < columns.size(); c++) {
+                values[c] = readColumnChunk( raf, columns.get( c ).type(), optional[c],
+                        struct( chunks.get( c ).get( 3 ) ), rows );
+            }
+        }
+        List<Object[]> result = new ArrayList<>( rows );
+        for (int r = 0; r < rows; r++) {
+            Object[] row = new Object[columns.size()];
+            for (int c = 0; c < columns.size(); c++) {
+                row[c] = values[c][r];
+            }
+            result.add( row );
+        }
+        return result;
+    }
+
+    private static Object[] readColumnChunk(RandomAccessFile raf, Type type, boolean optional,
+                                            Map<Integer, Object> metadata, int rows) throws IOException {
+        long start = metadata.containsKey( 11 ) ? (Long) metadata.get( 11 ) : (Long) metadata.get( 9 );
+        byte[] chunk = new byte[Math.toIntExact( (Long) metadata.get( 7 ) )];
+        raf.seek( start );
+        raf.readFully( chunk );
+        int codec = Math.toIntExact( (Long) metadata.get( 4 ) );
+        int physicalType = ParquetFileWriter.physicalType( type );
+
+        Object[] values = new Object[rows];
+        Object[] dictionary = null;
+        int filled = 0;
+        int position = 0;
+        while (filled < rows) {
+            ThriftCompactReader thrift = new ThriftCompactReader( chunk, position );
+            Map<Integer, Object> header = thrift.readStruct();
+            int compressedSize = Math.toIntExact( (Long) header.get( 3 ) );
+            byte[] page = decompress( codec, chunk, thrift.position(), compressedSize );
+            position = thrift.position() + compressedSize;
+            int pageType = Math.toIntExact( (Long) header.get( 1 ) );
+            if (pageType == ParquetFileWriter.DICTIONARY_PAGE) {
+                Map<Integer, Object> dictionaryHeader = struct( header.get( 7 ) );
+                dictionary = decodePlain( physicalType, Math.toIntExact( (Long) dictionaryHeader.get( 1 ) ),
+                        ByteBuffer.wrap( page ).order( ByteOrder.LITTLE_ENDIAN ) );
+                continue;
+            }
+            if (pageType != ParquetFileWriter.DATA_PAGE) {
+                throw new IOException( "Unsupported Parquet page type " + pageType );
+            }
+            Map<Integer, Object> dataHeader = struct( header.get( 5 ) );
+            int count = Math.toIntExact( (Long) dataHeader.get( 1 ) );
+            int encoding = Math.toIntExact( (Long) dataHeader.get( 2 ) );
+            ByteBuffer data = ByteBuffer.wrap( page ).order( ByteOrder.LITTLE_ENDIAN );
+            long[] definitionLevels = null;
+            int defined = count;
+            if (optional) {
+                int length = data.getInt();
+                definitionLevels = decodeHybrid( ByteBuffer.wrap( page, data.position(), length ), 1, count );
+                data.position( data.position() + length );
+                defined = (int) Arrays.stream( definitionLevels ).filter( level -> level == 1 ).count();
+            }
+            Object[] decoded = switch (encoding) {
+                case ParquetFileWriter.PLAIN -> decodePlain( physicalType, defined, data );
+                case ParquetFileWriter.PLAIN_DICTIONARY, ParquetFileWriter.RLE_DICTIONARY -> {
+                    if (dictionary == null) {
+                        throw new IOException( "Dictionary encoded page without a dictionary page" );
+                    }
+                    int bitWidth = data.get() & 0xFF;
+                    long[] indexes = decodeHybrid( data.slice(), bitWidth, defined );
+                    Object[] lookedUp = new Object[defined];
+                    for (int i = 0; i < defined; i++) {
+                        lookedUp[i] = dictionary[(int) indexes[i]];
+                    }
+                    yield lookedUp;
+                }
+                case ParquetFileWriter.DELTA_BINARY_PACKED -> decodeDeltaBinaryPacked( physicalType, data );
+                default -> throw new IOException( "Unsupported Parquet encoding " + encoding );
+            };
+            for (int i = 0, next = 0; i < count; i++) {
+                Object value = definitionLevels == null || definitionLevels[i] == 1 ? decoded[next++] : null;
+                values[filled + i] = type == Type.DATE && value != null ? LocalDate.ofEpochDay( (Integer) value ) : value;
+            }
+            filled += count;
+        }
+        return values;
+    }
+
+    private static Object[] decodePlain(int physicalType, int count, ByteBuffer data) throws IOException {
+        Object[] values = new Object[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = switch (physicalType) {
+                case ParquetFileWriter.INT32 -> data.getInt();
+                case ParquetFileWriter.INT64 -> data.getLong();
+                case ParquetFileWriter.DOUBLE -> data.getDouble();
+                case ParquetFileWriter.BYTE_ARRAY -> {
+                    byte[] bytes = new byte[data.getInt()];
+                    data.get( bytes );
+                    yield new String( bytes, StandardCharsets.UTF_8 );
+                }
+                default -> throw new IOException( "Unsupported Parquet type " + physicalType );
+            };
+        }
+        return values;
+    }
+
+    /**
+     * RLE / bit packing hybrid runs, without the length prefix.
+     */
+    private static long[] decodeHybrid(ByteBuffer data, int bitWidth, int count) {
+        long[] values = new long[count];
+        int filled = 0;
+        while (filled < count) {
+            long header = readVarint( data );
+            if ((header & 1) == 0) {
+                int run = (int) (header >>> 1);
+                long value = 0;
+                for (int b = 0; b < (bitWidth + 7) / 8; b++) {
+                    value |= (long) (data.get() & 0xFF) << (8 * b);
+                }
+                Arrays.fill( values, filled, Math.min( count, filled + run ), value );
+                filled += run;
+            } else {
+                int run = (int) (header >>> 1) * 8;
+                long[] unpacked = unpack( data, bitWidth, run );
+                System.arraycopy( unpacked, 0, values, filled, Math.min( run, count - filled ) );
+                filled += run;
+            }
+        }
+        return values;
+    }
+
+    private static Object[] decodeDeltaBinaryPacked(int physicalType, ByteBuffer data) {
+        int blockSize = (int) readVarint( data );
+        int miniblocks = (int) readVarint( data );
+        int count = (int) readVarint( data );
+        long value = readZigZag( data );
+        int miniblockSize = blockSize / miniblocks;
+        Object[] values = new Object[count];
+        int filled = 0;
+        if (count > 0) {
+            values[filled++] = box( physicalType, value );
+        }
+        while (filled < count) {
+            long minDelta = readZigZag( data );
+            int[] bitWidths = new int[miniblocks];
+            for (int m = 0; m < miniblocks; m++) {
+                bitWidths[m] = data.get() & 0xFF;
+            }
+            for (int m = 0; m < miniblocks && filled < count; m++) {
+                long[] deltas = unpack( data, bitWidths[m], miniblockSize );
+                for (int i = 0; i < miniblockSize && filled < count; i++) {
+                    value += minDelta + deltas[i];
+                    values[filled++] = box( physicalType, value );
+                }
+            }
+        }
+        return values;
+    }
+
+    private static Object box(int physicalType, long value) {
+        return physicalType == ParquetFileWriter.INT32 ? (Object) (int) value : (Object) value;
+    }
+
+    /**
+     * Unpacks {@code count} values of {@code bitWidth} bits each, least significant bit first.
+     */
+    private static long[] unpack(ByteBuffer data, int bitWidth, int count) {
+        long[] values = new long[count];
+        int current = 0;
+        int available = 0;
+        for (int i = 0; i < count; i++) {
+            long value = 0;
+            int filled = 0;
+            while (filled < bitWidth) {
+                if (available == 0) {
+                    current = data.get() & 0xFF;
+                    available = 8;
+                }
+                int take = Math.min( available, bitWidth - filled );
+                value |= (long) ((current >>> (8 - available)) & ((1 << take) - 1)) << filled;
+                available -= take;
+                filled += take;
+            }
+            values[i] = value;
+        }
+        return values;
+    }
+
+    private static long readZigZag(ByteBuffer data) {
+        long value = readVarint( data );
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long readVarint(ByteBuffer data) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = data.get() & 0xFF;
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+
+    private static byte[] decompress(int codec, byte[] chunk, int offset, int length) throws IOException {
+        if (codec == 0) {
+            return Arrays.copyOfRange( chunk, offset, offset + length );
+        }
+        if (codec != ParquetFileWriter.GZIP) {
+            throw new IOException( "Unsupported Parquet codec " + codec );
+        }
+        try (InputStream gzip = new GZIPInputStream( new ByteArrayInputStream( chunk, offset, length ) )) {
+            return gzip.readAllBytes();
+        }
+    }
+
+    /**
+     * Types the leaf columns of the schema after their physical and converted types, and the encodings their
+     * chunks use, so a file written by {@link ParquetFileWriter} reads back with the columns it was written with.
+     */
+    private static List<Column> columns(List<Map<Integer, Object>> schema, List<Map<Integer, Object>> rowGroups)
+            throws IOException {
+        List<Column> columns = new ArrayList<>( schema.size() - 1 );
+        for (int c = 1; c < schema.size(); c++) {
+            Map<Integer, Object> element = schema.get( c );
+            if (element.containsKey( 5 )) {
+                throw new IOException( "Nested Parquet schemas are not supported" );
+            }
+            int physicalType = Math.toIntExact( (Long) element.get( 1 ) );
+            Long convertedType = (Long) element.get( 6 );
+            boolean dictionary = false;
+            boolean delta = false;
+            for (Map<Integer, Object> rowGroup : rowGroups) {
+                Map<Integer, Object> metadata = struct( structs( rowGroup.get( 1 ) ).get( c - 1 ).get( 3 ) );
+                dictionary |= metadata.containsKey( 11 );
+                delta |= ((List<?>) metadata.get( 2 )).contains( (long) ParquetFileWriter.DELTA_BINARY_PACKED );
+            }
+            Type type = switch (physicalType) {
+                case ParquetFileWriter.INT32 -> convertedType != null && convertedType == ParquetFileWriter.CONVERTED_DATE
+                        ? Type.DATE : Type.INT32;
+                case ParquetFileWriter.INT64 -> delta ? Type.INT64_DELTA : Type.INT64;
+                case ParquetFileWriter.DOUBLE -> Type.FLOAT64;
+                case ParquetFileWriter.BYTE_ARRAY -> dictionary ? Type.DICTIONARY : Type.STRING;
+                default -> throw new IOException( "Unsupported Parquet type " + physicalType );
+            };
+            columns.add( new Column( new String( (byte[]) element.get( 4 ), StandardCharsets.UTF_8 ), type ) );
+        }
+        return List.copyOf( columns );
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Integer, Object> struct(Object value) {
+        return (Map<Integer, Object>) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<Integer, Object>> structs(Object value) {
+        return value == null ? List.of() : (List<Map<Integer, Object>>) value;
+    }
+}
@@ -0,0 +1,533 @@
+package com.bytes.loans.engine;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes rows to an Apache Parquet file in row groups, readable by any Parquet reader: Spark, Trino, DuckDB,
+ * pandas or parquet-java.
+ * <p>
+ * Rows are buffered column by column until a row group is full, then every column is written as one
+ * GZIP compressed, version 1 data page, so memory stays bounded by one row group. The file is a flat schema of
+ * the columns in order, {@code PAR1}, the column chunks of every row group, the Thrift compact
+ * {@code FileMetaData}, its little endian length and {@code PAR1} again, as laid down in the Parquet format
+ * specification. See {@link Type} for how each column is typed and encoded.
+ */
+public final class ParquetFileWriter implements Closeable {
+
+    static final byte[] MAGIC = {'P', 'A', 'R', '1'};
+
+    // parquet.thrift enums
+    static final int INT32 = 1;
+    static final int INT64 = 2;
+    static final int DOUBLE = 5;
+    static final int BYTE_ARRAY = 6;
+    static final int REQUIRED = 0;
+    static final int OPTIONAL = 1;
+    static final int CONVERTED_UTF8 = 0;
+    static final int CONVERTED_DATE = 6;
+    static final int PLAIN = 0;
+    static final int PLAIN_DICTIONARY = 2;
+    static final int RLE = 3;
+    static final int DELTA_BINARY_PACKED = 5;
+    static final int RLE_DICTIONARY = 8;
+    static final int GZIP = 2;
+    static final int DATA_PAGE = 0;
+    static final int DICTIONARY_PAGE = 2;
+
+    private static final int DELTA_BLOCK_SIZE = 128;
+    private static final int DELTA_MINIBLOCKS = 4;
+    private static final int DELTA_MINIBLOCK_SIZE = DELTA_BLOCK_SIZE / DELTA_MINIBLOCKS;
+    private static final String CREATED_BY = "EazyBank loans export";
+
+    public enum Type {
+        /** required INT64, DELTA_BINARY_PACKED; for ascending ids */
+        INT64_DELTA,
+        /** required INT32, PLAIN */
+        INT32,
+        /** required INT64, PLAIN */
+        INT64,
+        /** required DOUBLE, PLAIN */
+        FLOAT64,
+        /** optional UTF8 BYTE_ARRAY, PLAIN */
+        STRING,
+        /** optional UTF8 BYTE_ARRAY, dictionary encoded per row group; for low cardinality text */
+        DICTIONARY,
+        /** optional DATE, days since the epoch as INT32, PLAIN */
+        DATE
+    }
+
+    public record Column(String name, Type type) {
+    }
+
+    private final CountingOutputStream out;
+    private final List<Column> columns;
+    private final int rowGroupSize;
+    private final long[][] longs;
+    private final double[][] doubles;
+    private final String[][] strings;
+    private final boolean[][] nulls;
+    private final List<List<ChunkMetadata>> rowGroups = new ArrayList<>();
+    private final List<Integer> rowGroupRows = new ArrayList<>();
+    private final ByteBuilder page = new ByteBuilder( 1 << 16 );
+    private final ByteBuilder header = new ByteBuilder( 64 );
+    private final ByteBuilder levels = new ByteBuilder( 1 << 12 );
+    private final ByteArrayOutputStream compressed = new ByteArrayOutputStream( 1 << 16 );
+    private final long[] scratch;
+    private final long[] indexes;
+    private int rows;
+    private long totalRows;
+
+    public ParquetFileWriter(OutputStream out, List<Column> columns, int rowGroupSize) throws IOException {
+        if (rowGroupSize <= 0) {
+            throw new IllegalArgumentException( "Row group size must be positive" );
+        }
+        this.out = new CountingOutputStream( out );
+        this.columns = List.copyOf( columns );
+        this.rowGroupSize = rowGroupSize;
+        this.longs = new long[columns.size()][];
+        this.doubles = new double[columns.size()][];
+        this.strings = new String[columns.size()][];
+        this.nulls = new boolean[columns.size()][];
+        for (int c = 0; c < columns.size(); c++) {
+            switch (columns.get( c ).type()) {
+                case FLOAT64 -> doubles[c] = new double[rowGroupSize];
+                case STRING, DICTIONARY -> strings[c] = new String[rowGroupSize];
+                case DATE -> {
+                    longs[c] = new long[rowGroupSize];
+                    nulls[c] = new boolean[rowGroupSize];
+                }
+                default -> longs[c] = new long[rowGroupSize];
+            }
+        }
+        this.scratch = new long[rowGroupSize];
+        this.indexes = new long[rowGroupSize];
+        this.out.write( MAGIC );
+    }
+
+    public void setLong(int column, long value) {
+        longs[column][rows] = value;
+    }
+
+    public void setInt(int column, int value) {
+        longs[column][rows] = value;
+    }
+
+    public void setDouble(int column, double value) {
+        doubles[column][rows] = value;
+    }
+
+    public void setString(int column, String value) {
+        strings[column][rows] = value;
+    }
+
+    public void setDate(int column, LocalDate value) {
+        nulls[column][rows] = value == null;
+        longs[column][rows] = value == null ? 0 : value.toEpochDay();
+    }
+
+    /**
+     * Completes the current row, writing out the row group once it is full.
+     */
+    public void endRow() throws IOException {
+        rows++;
+        totalRows++;
+        if (rows == rowGroupSize) {
+            flushRowGroup();
+        }
+    }
+
+    public long rows() {
+        return totalRows;
+    }
+
+    public int rowGroups() {
+        return rowGroups.size();
+    }
+
+    public long bytesWritten() {
+        return out.count;
+    }
+
+    /**
+     * Writes the last partial row group and the footer. The underlying stream is closed too.
+     */
+    @Override
+    public void close() throws IOException {
+        if (rows > 0) {
+            flushRowGroup();
+        }
+        ByteBuilder footer = new ByteBuilder( 1024 );
+        writeFileMetadata( new ThriftCompactWriter( footer ) );
+        footer.writeTo( out );
+        ByteBuilder tail = new ByteBuilder( 8 );
+        tail.writeIntLE( footer.size() );
+        tail.write( MAGIC, 0, MAGIC.length );
+        tail.writeTo( out );
+        out.close();
+    }
+
+    private void flushRowGroup() throws IOException {
+        List<ChunkMetadata> chunks = new ArrayList<>( columns.size() );
+        for (int c = 0; c < columns.size(); c++) {
+            chunks.add( writeColumnChunk( c ) );
+            if (strings[c] != null) {
+                // let the row group's strings be collected while the next one fills
+                Arrays.fill( strings[c], 0, rows, null );
+            }
+        }
+        rowGroups.add( chunks );
+        rowGroupRows.add( rows );
+        rows = 0;
+    }
+
+    private ChunkMetadata writeColumnChunk(int c) throws IOException {
+        Type type = columns.get( c ).type();
+        ChunkMetadata chunk = new ChunkMetadata( physicalType( type ), out.count );
+        page.reset();
+        int dataEncoding = PLAIN;
+        switch (type) {
+            case INT64_DELTA -> {
+                writeDeltaBinaryPacked( longs[c], rows );
+                dataEncoding = DELTA_BINARY_PACKED;
+            }
+            case INT64 -> {
+                for (int r = 0; r < rows; r++) {
+                    page.writeLongLE( longs[c][r] );
+                }
+            }
+            case INT32 -> {
+                for (int r = 0; r < rows; r++) {
+                    page.writeIntLE( (int) longs[c][r] );
+                }
+            }
+            case FLOAT64 -> {
+                for (int r = 0; r < rows; r++) {
+                    page.writeDoubleLE( doubles[c][r] );
+                }
+            }
+            case DATE -> {
+                writeDefinitionLevels( nulls[c] );
+                for (int r = 0; r < rows; r++) {
+                    if (!nulls[c][r]) {
+                        page.writeIntLE( (int) longs[c][r] );
+                    }
+                }
+            }
+            case STRING -> {
+                writeDefinitionLevels( strings[c] );
+                for (int r = 0; r < rows; r++) {
+                    if (strings[c][r] != null) {
+                        writeByteArray( page, strings[c][r] );
+                    }
+                }
+            }
+            case DICTIONARY -> {
+                writeDictionaryEncoded( strings[c], chunk );
+                dataEncoding = PLAIN_DICTIONARY;
+            }
+        }
+        chunk.dataPageOffset = out.count;
+        writePage( DATA_PAGE, rows, dataEncoding, chunk );
+        chunk.encodings.add( dataEncoding );
+        if (type == Type.STRING || type == Type.DICTIONARY || type == Type.DATE) {
+            chunk.encodings.add( RLE );
+        }
+        chunk.values = rows;
+        return chunk;
+    }
+
+    /**
+     * Writes the dictionary page of the row group's distinct values and leaves the data page, the bit width then
+     * the RLE hybrid encoded index of every non null value, in {@link #page}.
+     */
+    private void writeDictionaryEncoded(String[] values, ChunkMetadata chunk) throws IOException {
+        Map<String, Integer> dictionary = new HashMap<>();
+        int defined = 0;
+        for (int r = 0; r < rows; r++) {
+            if (values[r] != null) {
+                Integer index = dictionary.putIfAbsent( values[r], dictionary.size() );
+                indexes[defined++] = index == null ? dictionary.size() - 1 : index;
+            }
+        }
+        String[] entries = new String[dictionary.size()];
+        dictionary.forEach( (value, index) -> entries[index] = value );
+        page.reset();
+        for (String entry : entries) {
+            writeByteArray( page, entry );
+        }
+        chunk.dictionaryPageOffset = out.count;
+        writePage( DICTIONARY_PAGE, entries.length, PLAIN_DICTIONARY, chunk );
+
+        page.reset();
+        writeDefinitionLevels( values );
+        int bitWidth = entries.length <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros( entries.length - 1 );
+        page.write( bitWidth );
+        writeHybrid( page, indexes, defined, bitWidth );
+    }
+
+    private void writeDefinitionLevels(String[] values) {
+        for (int r = 0; r < rows; r++) {
+            scratch[r] = values[r] == null ? 0 : 1;
+        }
+        writeDefinitionLevels();
+    }
+
+    private void writeDefinitionLevels(boolean[] isNull) {
+        for (int r = 0; r < rows; r++) {
+            scratch[r] = isNull[r] ? 0 : 1;
+        }
+        writeDefinitionLevels();
+    }
+
+    /**
+     * Definition levels of an optional column in a v1 data page: their byte length, then the levels RLE hybrid
+     * encoded with a bit width of one.
+     */
+    private void writeDefinitionLevels() {
+        levels.reset();
+        writeHybrid( levels, scratch, rows, 1 );
+        page.writeIntLE( levels.size() );
+        page.write( levels );
+    }
+
+    /**
+     * RLE / bit packing hybrid: a single repeated run when all values are equal, else one bit packed run of
+     * groups of eight, the last group padded with zeros.
+     */
+    private static void writeHybrid(ByteBuilder target, long[] values, int count, int bitWidth) {
+        if (count == 0) {
+            return;
+        }
+        boolean repeated = true;
+        for (int i = 1; i < count && repeated; i++) {
+            repeated = values[i] == values[0];
+        }
+        if (repeated) {
+            target.writeVarint( (long) count << 1 );
+            long value = values[0];
+            for (int b = 0; b < (bitWidth + 7) / 8; b++) {
+                target.write( (int) (value >>> (8 * b)) );
+            }
+            return;
+        }
+        int groups = (count + 7) / 8;
+        target.writeVarint( ((long) groups << 1) | 1 );
+        target.writeBitPacked( values, 0, count, bitWidth );
+        // pad the last group of eight with zero values, the last partial byte already is
+        for (long b = ((long) count * bitWidth + 7) / 8; b < (long) groups * bitWidth; b++) {
+            target.write( 0 );
+        }
+    }
+
+    /**
+     * DELTA_BINARY_PACKED in blocks of 128 values of four miniblocks: the first value, then per block the
+     * smallest delta and the deltas above it bit packed at the width each miniblock needs.
+     */
+    private void writeDeltaBinaryPacked(long[] values, int count) {
+        page.writeVarint( DELTA_BLOCK_SIZE );
+        page.writeVarint( DELTA_MINIBLOCKS );
+        page.writeVarint( count );
+        page.writeZigZag( count == 0 ? 0 : values[0] );
+        long[] deltas = new long[DELTA_BLOCK_SIZE];
+        for (int start = 1; start < count; start += DELTA_BLOCK_SIZE) {
+            int size = Math.min( DELTA_BLOCK_SIZE, count - start );
+            long minDelta = Long.MAX_VALUE;
+            for (int i = 0; i < size; i++) {
+                deltas[i] = values[start + i] - values[start + i - 1];
+                minDelta = Math.min( minDelta, deltas[i] );
+            }
+            int[] bitWidths = new int[DELTA_MINIBLOCKS];
+            for (int i = 0; i < DELTA_BLOCK_SIZE; i++) {
+                deltas[i] = i < size ? deltas[i] - minDelta : 0;
+                bitWidths[i / DELTA_MINIBLOCK_SIZE] = Math.max( bitWidths[i / DELTA_MINIBLOCK_SIZE],
+                        64 - Long.numberOfLeadingZeros( deltas[i] ) );
+            }
+            page.writeZigZag( minDelta );
+            for (int bitWidth : bitWidths) {
+                page.write( bitWidth );
+            }
+            int miniblocks = (size + DELTA_MINIBLOCK_SIZE - 1) / DELTA_MINIBLOCK_SIZE;
+            for (int m = 0; m < miniblocks; m++) {
+                page.writeBitPacked( deltas, m * DELTA_MINIBLOCK_SIZE, DELTA_MINIBLOCK_SIZE, bitWidths[m] );
+            }
+        }
+    }
+
+    /**
+     * Compresses {@link #page} and writes it after its page header.
+     */
+    private void writePage(int pageType, int values, int encoding, ChunkMetadata chunk) throws IOException {
+        compressed.reset();
+        try (OutputStream gzip = new FastGzipOutputStream( compressed )) {
+            page.writeTo( gzip );
+        }
+        header.reset();
+        ThriftCompactWriter thrift = new ThriftCompactWriter( header );
+        thrift.beginStruct();
+        thrift.i32( 1, pageType );
+        thrift.i32( 2, page.size() );
+        thrift.i32( 3, compressed.size() );
+        thrift.beginStruct( pageType == DATA_PAGE ? 5 : 7 );
+        thrift.i32( 1, values );
+        thrift.i32( 2, encoding );
+        if (pageType == DATA_PAGE) {
+            thrift.i32( 3, RLE );
+            thrift.i32( 4, RLE );
+        }
+        thrift.endStruct();
+        thrift.endStruct();
+        header.writeTo( out );
+        compressed.writeTo( out );
+        chunk.uncompressedSize += header.size() + page.size();
+        chunk.compressedSize += header.size() + compressed.size();
+    }
+
+    private void writeFileMetadata(ThriftCompactWriter thrift) {
+        thrift.beginStruct();
+        thrift.i32( 1, 1 );
+        thrift.beginList( 2, ThriftCompactWriter.STRUCT, columns.size() + 1 );
+        thrift.beginStruct();
+        thrift.string( 4, "schema" );
+        thrift.i32( 5, columns.size() );
+        thrift.endStruct();
+        for (Column column : columns) {
+            thrift.beginStruct();
+            thrift.i32( 1, physicalType( column.type() ) );
+            thrift.i32( 3, isOptional( column.type() ) ? OPTIONAL : REQUIRED );
+            thrift.string( 4, column.name() );
+            switch (column.type()) {
+                case STRING, DICTIONARY -> thrift.i32( 6, CONVERTED_UTF8 );
+                case DATE -> thrift.i32( 6, CONVERTED_DATE );
+                default -> {
+                }
+            }
+            thrift.endStruct();
+        }
+        thrift.i64( 3, totalRows );
+        thrift.beginList( 4, ThriftCompactWriter.STRUCT, rowGroups.size() );
+        for (int g = 0; g < rowGroups.size(); g++) {
+            long groupBytes = 0;
+            thrift.beginStruct();
+            thrift.beginList( 1, ThriftCompactWriter.STRUCT, columns.size() );
+            for (int c = 0; c < columns.size(); c++) {
+                ChunkMetadata chunk = rowGroups.get( g ).get( c );
+                groupBytes += chunk.uncompressedSize;
+                thrift.beginStruct();
+                thrift.i64( 2, chunk.offset );
+                thrift.beginStruct( 3 );
+                thrift.i32( 1, chunk.physicalType );
+                thrift.beginList( 2, ThriftCompactWriter.I32, chunk.encodings.size() );
+                chunk.encodings.forEach( thrift::listI32 );
+                thrift.beginList( 3, ThriftCompactWriter.BINARY, 1 );
+                thrift.listString( columns.get( c ).name() );
+                thrift.i32( 4, GZIP );
+                thrift.i64( 5, chunk.values );
+                thrift.i64( 6, chunk.uncompressedSize );
+                thrift.i64( 7, chunk.compressedSize );
+                thrift.i64( 9, chunk.dataPageOffset );
+                if (chunk.dictionaryPageOffset >= 0) {
+                    thrift.i64( 11, chunk.dictionaryPageOffset );
+                }
+                thrift.endStruct();
+                thrift.endStruct();
+            }
+            thrift.i64( 2, groupBytes );
+            thrift.i64( 3, rowGroupRows.get( g ) );
+            thrift.endStruct();
+        }
+        thrift.string( 6, CREATED_BY );
+        thrift.endStruct();
+    }
+
+    private static void writeByteArray(ByteBuilder target, String value) {
+        byte[] bytes = value.getBytes( StandardCharsets.UTF_8 );
+        target.writeIntLE( bytes.length );
+        target.write( bytes, 0, bytes.length );
+    }
+
+    static int physicalType(Type type) {
+        return switch (type) {
+            case INT64_DELTA, INT64 -> INT64;
+            case INT32, DATE -> INT32;
+            case FLOAT64 -> DOUBLE;
+            case STRING, DICTIONARY -> BYTE_ARRAY;
+        };
+    }
+
+    static boolean isOptional(Type type) {
+        return type == Type.STRING || type == Type.DICTIONARY || type == Type.DATE;
+    }
+
+    private static final class ChunkMetadata {
+
+        private final int physicalType;
+        private final long offset;
+        private final List<Integer> encodings = new ArrayList<>( 3 );
+        private long dataPageOffset;
+        private long dictionaryPageOffset = -1;
+        private long values;
+        private long uncompressedSize;
+        private long compressedSize;
+
+        private ChunkMetadata(int physicalType, long offset) {
+            this.physicalType = physicalType;
+            this.offset = offset;
+        }
+    }
+
+    /**
+     * GZIP at the fastest deflate level: column chunks are already grouped by value so the higher levels buy
+     * little extra compression for several times the CPU.
+     */
+    private static final class FastGzipOutputStream extends GZIPOutputStream {
+
+        private FastGzipOutputStream(OutputStream out) throws IOException {
+            super( out, 1 << 16 );
+            def.setLevel( Deflater.BEST_SPEED );
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private final OutputStream out;
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write( b );
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write( b, off, len );
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.bytes.loans.engine;
+
+import lombok.Getter;
+
+/**
+ * Scheduled interest and principal of a set of loans summed per month from now, amounts in paise.
+ */
+@Getter
+public final class PortfolioCashFlow {
+
+    private final int loans;
+    private final long[] interest;
+    private final long[] principal;
+
+    PortfolioCashFlow(int loans, int months) {
+        this( loans, new long[months], new long[months] );
+    }
+
+    PortfolioCashFlow(int loans, long[] interest, long[] principal) {
+        this.loans = loans;
+        this.interest = interest;
+        this.principal = principal;
+    }
+
+    PortfolioCashFlow merge(PortfolioCashFlow other) {
+        for (int m = 0; m < interest.length; m++) {
+            interest[m] += other.interest[m];
+            principal[m] += other.principal[m];
+        }
+        return new PortfolioCashFlow( loans + other.loans, interest, principal );
+    }
+
+    public long getTotalInterest() {
+        long total = 0;
+        for (long value : interest) {
+            total += value;
+        }
+        return total;
+    }
+
+    public long getTotalPrincipal() {
+        long total = 0;
+        for (long value : principal) {
+            total += value;
+        }
+        return total;
+    }
+}
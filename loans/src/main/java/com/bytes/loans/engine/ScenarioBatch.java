@@ -0,0 +1,78 @@
+package com.bytes.loans.engine;
+
+/**
+ * What-if scenarios to evaluate together, held as parallel primitive arrays like {@link LoanBook}.
+ * <p>
+ * A scenario is a loan amortized with a fixed EMI that may take one lump sum prepayment together with
+ * one of its instalments. The EMI is kept after the prepayment, so the prepayment shortens the tenure.
+ */
+public final class ScenarioBatch {
+
+    private final long[] principal;
+    private final double[] monthlyRate;
+    private final int[] months;
+    private final long[] prepayment;
+    private final int[] prepaymentMonth;
+    private int size;
+    private int maxMonths;
+
+    public ScenarioBatch(int capacity) {
+        this.principal = new long[capacity];
+        this.monthlyRate = new double[capacity];
+        this.months = new int[capacity];
+        this.prepayment = new long[capacity];
+        this.prepaymentMonth = new int[capacity];
+    }
+
+    /**
+     * @param principalPaise - amount to amortize in paise
+     * @param annualInterestRate - annual interest rate in percent
+     * @param tenureMonths - number of monthly instalments
+     * @param prepaymentPaise - lump sum prepaid in paise, zero for none
+     * @param prepaymentMonthNumber - instalment, from 1, the lump sum is paid with
+     */
+    public void add(long principalPaise, double annualInterestRate, int tenureMonths, long prepaymentPaise,
+                    int prepaymentMonthNumber) {
+        if (tenureMonths <= 0) {
+            throw new IllegalArgumentException( "Tenure must be at least one month" );
+        }
+        if (prepaymentPaise > 0 && (prepaymentMonthNumber < 1 || prepaymentMonthNumber > tenureMonths)) {
+            throw new IllegalArgumentException( "Prepayment must be paid with one of the " + tenureMonths + " instalments" );
+        }
+        principal[size] = principalPaise;
+        monthlyRate[size] = AmortizationEngine.monthlyRate( annualInterestRate );
+        months[size] = tenureMonths;
+        prepayment[size] = Math.max( 0, prepaymentPaise );
+        prepaymentMonth[size] = prepaymentPaise > 0 ? prepaymentMonthNumber : 0;
+        maxMonths = Math.max( maxMonths, tenureMonths );
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int maxMonths() {
+        return maxMonths;
+    }
+
+    long principal(int scenario) {
+        return principal[scenario];
+    }
+
+    double monthlyRate(int scenario) {
+        return monthlyRate[scenario];
+    }
+
+    int months(int scenario) {
+        return months[scenario];
+    }
+
+    long prepayment(int scenario) {
+        return prepayment[scenario];
+    }
+
+    int prepaymentMonth(int scenario) {
+        return prepaymentMonth[scenario];
+    }
+}
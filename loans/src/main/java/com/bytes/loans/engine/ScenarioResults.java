@@ -0,0 +1,27 @@
+package com.bytes.loans.engine;
+
+import lombok.Getter;
+
+/**
+ * Outcome of every scenario of a {@link ScenarioBatch} held column by column, amounts in paise.
+ * Index {@code i} of every column is scenario {@code i} of the batch.
+ */
+@Getter
+public final class ScenarioResults {
+
+    private final long[] monthlyInstalment;
+    private final long[] totalInterest;
+    private final long[] interestSaved;
+    private final int[] monthsToPayoff;
+
+    ScenarioResults(int scenarios) {
+        this.monthlyInstalment = new long[scenarios];
+        this.totalInterest = new long[scenarios];
+        this.interestSaved = new long[scenarios];
+        this.monthsToPayoff = new int[scenarios];
+    }
+
+    public int size() {
+        return monthlyInstalment.length;
+    }
+}
@@ -0,0 +1,106 @@
+package com.bytes.loans.engine;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parses Thrift compact protocol structs into maps of field id to value, so fields a reader does not know are
+ * skipped for free. Integers come back as {@code Long}, binaries as {@code byte[]}, lists and sets as
+ * {@code List} and structs as {@code Map<Integer, Object>}.
+ */
+final class ThriftCompactReader {
+
+    private final byte[] bytes;
+    private int position;
+
+    ThriftCompactReader(byte[] bytes, int position) {
+        this.bytes = bytes;
+        this.position = position;
+    }
+
+    int position() {
+        return position;
+    }
+
+    Map<Integer, Object> readStruct() throws IOException {
+        Map<Integer, Object> fields = new HashMap<>();
+        int lastFieldId = 0;
+        while (true) {
+            int header = readByte();
+            int type = header & 0x0F;
+            if (type == 0) {
+                return fields;
+            }
+            int delta = header >>> 4;
+            int id = delta == 0 ? (int) readZigZag() : lastFieldId + delta;
+            fields.put( id, type == 1 || type == 2 ? type == 1 : readValue( type ) );
+            lastFieldId = id;
+        }
+    }
+
+    private Object readValue(int type) throws IOException {
+        return switch (type) {
+            case 1, 2 -> readByte() == 1;
+            case 3 -> (long) (byte) readByte();
+            case 4, 5, 6 -> readZigZag();
+            case 7 -> {
+                long bits = 0;
+                for (int b = 0; b < 8; b++) {
+                    bits |= (long) readByte() << (8 * b);
+                }
+                yield Double.longBitsToDouble( bits );
+            }
+            case 8 -> {
+                int length = (int) readVarint();
+                if (length < 0 || position + length > bytes.length) {
+                    throw new IOException( "Truncated Thrift binary" );
+                }
+                byte[] value = new byte[length];
+                System.arraycopy( bytes, position, value, 0, length );
+                position += length;
+                yield value;
+            }
+            case 9, 10 -> {
+                int header = readByte();
+                int size = header >>> 4;
+                if (size == 15) {
+                    size = (int) readVarint();
+                }
+                List<Object> values = new ArrayList<>( size );
+                for (int i = 0; i < size; i++) {
+                    values.add( readValue( header & 0x0F ) );
+                }
+                yield values;
+            }
+            case 12 -> readStruct();
+            default -> throw new IOException( "Unsupported Thrift compact type " + type );
+        };
+    }
+
+    private long readZigZag() throws IOException {
+        long value = readVarint();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private long readVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException( "Malformed Thrift varint" );
+    }
+
+    private int readByte() throws IOException {
+        if (position >= bytes.length) {
+            throw new IOException( "Truncated Thrift struct" );
+        }
+        return bytes[position++] & 0xFF;
+    }
+}
@@ -0,0 +1,93 @@
+package com.bytes.loans.engine;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes the Thrift compact protocol encoding of the Parquet page headers and file metadata, field by field.
+ * <p>
+ * Fields must be written in ascending id order within a struct; every struct, including the outermost one,
+ * is closed with {@link #endStruct()}.
+ */
+final class ThriftCompactWriter {
+
+    static final byte I32 = 5;
+    static final byte I64 = 6;
+    static final byte BINARY = 8;
+    static final byte STRUCT = 12;
+    private static final byte LIST = 9;
+
+    private final ByteBuilder out;
+    private final int[] lastFieldIds = new int[8];
+    private int depth;
+
+    ThriftCompactWriter(ByteBuilder out) {
+        this.out = out;
+    }
+
+    void i32(int id, int value) {
+        fieldHeader( id, I32 );
+        out.writeZigZag( value );
+    }
+
+    void i64(int id, long value) {
+        fieldHeader( id, I64 );
+        out.writeZigZag( value );
+    }
+
+    void string(int id, String value) {
+        fieldHeader( id, BINARY );
+        binary( value );
+    }
+
+    void beginStruct(int id) {
+        fieldHeader( id, STRUCT );
+        beginStruct();
+    }
+
+    /**
+     * Starts a struct element of a list, or the outermost struct.
+     */
+    void beginStruct() {
+        lastFieldIds[++depth] = 0;
+    }
+
+    void endStruct() {
+        out.write( 0 );
+        depth--;
+    }
+
+    void beginList(int id, byte elementType, int size) {
+        fieldHeader( id, LIST );
+        if (size < 15) {
+            out.write( (size << 4) | elementType );
+        } else {
+            out.write( 0xF0 | elementType );
+            out.writeVarint( size );
+        }
+    }
+
+    void listI32(int value) {
+        out.writeZigZag( value );
+    }
+
+    void listString(String value) {
+        binary( value );
+    }
+
+    private void binary(String value) {
+        byte[] bytes = value.getBytes( StandardCharsets.UTF_8 );
+        out.writeVarint( bytes.length );
+        out.write( bytes, 0, bytes.length );
+    }
+
+    private void fieldHeader(int id, byte type) {
+        int delta = id - lastFieldIds[depth];
+        if (delta > 0 && delta <= 15) {
+            out.write( (delta << 4) | type );
+        } else {
+            out.write( type );
+            out.writeZigZag( id );
+        }
+        lastFieldIds[depth] = id;
+    }
+}
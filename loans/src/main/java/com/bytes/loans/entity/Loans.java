@@ -6,6 +6,9 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.validation.constraints.NotEmpty;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
+
+import java.time.LocalDate;
 
 @Getter
 @Setter
@@ -13,6 +16,7 @@ import lombok.*;
 @NoArgsConstructor
 @Builder
 @Entity
+@DynamicUpdate
 public class Loans extends BaseEntity{
 
     @Id
@@ -30,4 +34,20 @@ public class Loans extends BaseEntity{
     private int amountPaid;
 
     private int outstandingAmount;
+
+    private double interestRate;
+
+    private int tenureMonths;
+
+    private String rateType;
+
+    private double rateSpread;
+
+    // paise, like accruedInterest, while the amounts above are whole rupees
+    private long emiAmount;
+
+    // paise
+    private long accruedInterest;
+
+    private LocalDate lastAccruedOn;
 }
@@ -0,0 +1,39 @@
+package com.bytes.loans.event;
+
+import org.springframework.cloud.bus.event.Destination;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Bus event sent by a loans instance to the other ones with the portfolio totals changes it committed since its
+ * previous event, by loan type.
+ * <p>
+ * Every delta holds the changes in the number of loans, the total loan amount, the amount paid and the
+ * outstanding amount, in that order.
+ */
+public class PortfolioDeltaRemoteEvent extends RemoteApplicationEvent {
+
+    private Map<String, long[]> deltas;
+
+    @SuppressWarnings("unused")
+    private PortfolioDeltaRemoteEvent() {
+        // for deserialization
+    }
+
+    public PortfolioDeltaRemoteEvent(Object source, String originService, Destination destination,
+                                     Map<String, long[]> deltas) {
+        super( source, originService, destination );
+        this.deltas = Objects.requireNonNull( deltas );
+    }
+
+    public Map<String, long[]> getDeltas() {
+        return deltas;
+    }
+
+    @Override
+    public String toString() {
+        return "PortfolioDeltaRemoteEvent{loanTypes=" + deltas.keySet() + ", " + super.toString() + "}";
+    }
+}
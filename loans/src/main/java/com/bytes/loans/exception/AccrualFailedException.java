@@ -0,0 +1,12 @@
+package com.bytes.loans.exception;
+
+public class AccrualFailedException extends RuntimeException{
+
+    public AccrualFailedException(String message) {
+        super( message );
+    }
+
+    public AccrualFailedException(String message, Throwable cause) {
+        super( message, cause );
+    }
+}
@@ -0,0 +1,12 @@
+package com.bytes.loans.exception;
+
+public class ExportFailedException extends RuntimeException{
+
+    public ExportFailedException(String message) {
+        super( message );
+    }
+
+    public ExportFailedException(String message, Throwable cause) {
+        super( message, cause );
+    }
+}
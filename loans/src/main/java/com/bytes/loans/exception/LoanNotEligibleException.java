@@ -0,0 +1,8 @@
+package com.bytes.loans.exception;
+
+public class LoanNotEligibleException extends RuntimeException{
+
+    public LoanNotEligibleException(String message) {
+        super( message );
+    }
+}
@@ -0,0 +1,8 @@
+package com.bytes.loans.exception;
+
+public class PaymentRejectedException extends RuntimeException{
+
+    public PaymentRejectedException(String message) {
+        super( message );
+    }
+}
@@ -0,0 +1,12 @@
+package com.bytes.loans.exception;
+
+public class RepricingFailedException extends RuntimeException{
+
+    public RepricingFailedException(String message) {
+        super( message );
+    }
+
+    public RepricingFailedException(String message, Throwable cause) {
+        super( message, cause );
+    }
+}
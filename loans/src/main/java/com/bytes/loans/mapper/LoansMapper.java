@@ -13,6 +13,8 @@ public class LoansMapper {
                 .totalLoan(loansDto.getTotalLoan())
                 .amountPaid(loansDto.getAmountPaid())
                 .outstandingAmount(loansDto.getOutstandingAmount())
+                .rateType(loansDto.getRateType())
+                .rateSpread(loansDto.getRateSpread() == null ? 0 : loansDto.getRateSpread())
                 .build();
     }
 
@@ -24,6 +26,8 @@ public class LoansMapper {
                 .totalLoan(loans.getTotalLoan())
                 .amountPaid(loans.getAmountPaid())
                 .outstandingAmount(loans.getOutstandingAmount())
+                .rateType(loans.getRateType())
+                .rateSpread(loans.getRateSpread())
                 .build();
     }
 }
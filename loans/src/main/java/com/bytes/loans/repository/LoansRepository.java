@@ -1,11 +1,36 @@
 package com.bytes.loans.repository;
 
 import com.bytes.loans.entity.Loans;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface LoansRepository extends JpaRepository<Loans, Long> {
 
-    Optional<Loans> findByMobileNumber(String mobileNumber);
+    /**
+     * Served by the {@code (mobile_number, loan_number)} index, so it is one index range scan per customer.
+     *
+     * @param mobileNumber - Mobile Number of the Customer
+     * @return every loan held by the customer
+     */
+    List<Loans> findByMobileNumber(String mobileNumber);
+
+    /**
+     * Loads the loans of many customers with a single IN query on the same index.
+     *
+     * @param mobileNumbers - Mobile Numbers of the Customers
+     * @return the loans held by any of the given customers
+     */
+    List<Loans> findByMobileNumberIn(Collection<String> mobileNumbers);
+
+    /**
+     * Locks the loan until the end of the transaction so its current amounts can be diffed against an update.
+     * Duplicate rows not yet removed by the compaction resolve to the newest one, the row the compaction keeps.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Loans> findFirstByMobileNumberAndLoanNumberOrderByLoanIdDesc(String mobileNumber, String loanNumber);
 }
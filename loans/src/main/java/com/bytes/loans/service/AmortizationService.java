@@ -0,0 +1,19 @@
+package com.bytes.loans.service;
+
+import com.bytes.loans.dto.AmortizationScheduleDto;
+import com.bytes.loans.dto.PortfolioCashFlowDto;
+
+public interface AmortizationService {
+
+    /**
+     * @param mobileNumber - Mobile Number of the Customer
+     * @param loanNumber - Loan Number, may be null when the customer holds a single loan
+     * @return the EMI schedule of the outstanding amount of the customer's loan
+     */
+    AmortizationScheduleDto fetchSchedule(String mobileNumber, String loanNumber);
+
+    /**
+     * @return the scheduled interest and principal of every loan summed per month
+     */
+    PortfolioCashFlowDto projectPortfolioCashFlow();
+}
@@ -0,0 +1,15 @@
+package com.bytes.loans.service;
+
+import com.bytes.loans.dto.EligibilityDecisionDto;
+import com.bytes.loans.dto.LoanApplicationDto;
+
+public interface EligibilityService {
+
+    /**
+     * Decides eligibility and pricing with the first matching rule of the eligibility decision table.
+     *
+     * @param loanApplicationDto - LoanApplicationDto Object
+     * @return the decision, not eligible when no rule matches
+     */
+    EligibilityDecisionDto evaluate(LoanApplicationDto loanApplicationDto);
+}
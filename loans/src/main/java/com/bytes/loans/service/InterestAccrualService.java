@@ -0,0 +1,17 @@
+package com.bytes.loans.service;
+
+import com.bytes.loans.dto.AccrualRunResultDto;
+
+import java.time.LocalDate;
+
+public interface InterestAccrualService {
+
+    /**
+     * Accrues daily interest on every loan up to the given date, resuming from the checkpoints of a
+     * previous run for the same date.
+     *
+     * @param accrualDate - Date to accrue interest up to
+     * @return the outcome of the run
+     */
+    AccrualRunResultDto accrueInterest(LocalDate accrualDate);
+}
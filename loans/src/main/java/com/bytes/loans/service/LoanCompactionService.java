@@ -0,0 +1,14 @@
+package com.bytes.loans.service;
+
+import com.bytes.loans.dto.CompactionResultDto;
+
+public interface LoanCompactionService {
+
+    /**
+     * Removes the duplicate rows left behind by updates that re-inserted a loan, keeping the newest row of
+     * every mobile and loan number.
+     *
+     * @return the outcome of the run
+     */
+    CompactionResultDto compactDuplicates();
+}
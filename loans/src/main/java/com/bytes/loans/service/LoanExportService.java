@@ -0,0 +1,16 @@
+package com.bytes.loans.service;
+
+import com.bytes.loans.dto.ExportResultDto;
+
+import java.time.LocalDate;
+
+public interface LoanExportService {
+
+    /**
+     * Writes every loan to the Parquet export file of the given date, replacing an earlier export of that date.
+     *
+     * @param exportDate - Date the export file is named after
+     * @return the outcome of the run
+     */
+    ExportResultDto exportLoanBook(LocalDate exportDate);
+}
@@ -0,0 +1,33 @@
+package com.bytes.loans.service;
+
+import com.bytes.loans.dto.LoanBalanceDto;
+import com.bytes.loans.dto.PaymentRequestDto;
+import com.bytes.loans.dto.PaymentResponseDto;
+
+import java.time.LocalDate;
+
+public interface LoanPaymentService {
+
+    /**
+     * Posts a repayment once per idempotency key; repeating a key returns the original payment.
+     *
+     * @param idempotencyKey - Client generated key identifying the payment
+     * @param paymentRequestDto - PaymentRequestDto Object
+     * @return the posted payment with the resulting balance
+     */
+    PaymentResponseDto postPayment(String idempotencyKey, PaymentRequestDto paymentRequestDto);
+
+    /**
+     * @param loanNumber - Loan Number
+     * @param asOf - Date to read the balance at, the live balance when null
+     * @return the balance of the loan
+     */
+    LoanBalanceDto fetchBalance(String loanNumber, LocalDate asOf);
+
+    /**
+     * Snapshots the balance of every loan paid since the previous snapshot.
+     *
+     * @return number of snapshot rows written
+     */
+    int snapshotBalances();
+}
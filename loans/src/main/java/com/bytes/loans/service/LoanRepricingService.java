@@ -0,0 +1,14 @@
+package com.bytes.loans.service;
+
+import com.bytes.loans.dto.RepricingResultDto;
+
+public interface LoanRepricingService {
+
+    /**
+     * Moves every floating rate loan to the new base rate plus its spread and recalculates its EMI.
+     *
+     * @param baseRate - New annual base rate in percent
+     * @return the outcome of the run
+     */
+    RepricingResultDto repriceFloatingLoans(double baseRate);
+}
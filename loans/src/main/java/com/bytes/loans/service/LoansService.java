@@ -2,11 +2,17 @@ package com.bytes.loans.service;
 
 import com.bytes.loans.dto.LoansDto;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 public interface LoansService {
 
-    void createLoan(String mobileNumber);
+    void createLoan(String mobileNumber, String loanType, String rateType, double rateSpread);
+
+    List<LoansDto> fetchLoans(String mobileNumber);
 
-    LoansDto fetchLoanDetails(String mobileNumber);
+    Map<String, List<LoansDto>> fetchLoansForCustomers(Collection<String> mobileNumbers);
 
     Boolean updateLoanDetails(LoansDto loansDto);
 
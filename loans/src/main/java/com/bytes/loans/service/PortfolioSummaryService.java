@@ -0,0 +1,27 @@
+package com.bytes.loans.service;
+
+import com.bytes.loans.dto.PortfolioSummaryDto;
+
+public interface PortfolioSummaryService {
+
+    /**
+     * Adds the effect of a committed loan change to the totals of its loan type.
+     *
+     * @param loanType - Type of the changed loan
+     * @param loans - change in the number of loans
+     * @param totalLoan - change in the total loan amount
+     * @param amountPaid - change in the amount paid
+     * @param outstandingAmount - change in the outstanding amount
+     */
+    void record(String loanType, long loans, long totalLoan, long amountPaid, long outstandingAmount);
+
+    /**
+     * @return the current totals, read from memory
+     */
+    PortfolioSummaryDto fetchSummary();
+
+    /**
+     * Recomputes the totals with a streaming scan of the loans table.
+     */
+    void rebuild();
+}
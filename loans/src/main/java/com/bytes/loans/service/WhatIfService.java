@@ -0,0 +1,13 @@
+package com.bytes.loans.service;
+
+import com.bytes.loans.dto.WhatIfRequestDto;
+import com.bytes.loans.dto.WhatIfResponseDto;
+
+public interface WhatIfService {
+
+    /**
+     * @param whatIfRequestDto - WhatIfRequestDto Object
+     * @return the EMI, interest and payoff of every scenario in request order
+     */
+    WhatIfResponseDto evaluate(WhatIfRequestDto whatIfRequestDto);
+}
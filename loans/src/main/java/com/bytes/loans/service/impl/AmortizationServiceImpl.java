@@ -0,0 +1,123 @@
+package com.bytes.loans.service.impl;
+
+import com.bytes.loans.dto.AmortizationScheduleDto;
+import com.bytes.loans.dto.PortfolioCashFlowDto;
+import com.bytes.loans.engine.AmortizationEngine;
+import com.bytes.loans.engine.AmortizationSchedule;
+import com.bytes.loans.engine.LoanBook;
+import com.bytes.loans.engine.PortfolioCashFlow;
+import com.bytes.loans.entity.Loans;
+import com.bytes.loans.exception.ResourceNotFoundException;
+import com.bytes.loans.repository.LoansRepository;
+import com.bytes.loans.service.AmortizationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AmortizationServiceImpl implements AmortizationService {
+
+    private static final String LOAN_BOOK_SQL = "SELECT outstanding_amount, interest_rate, tenure_months, created_at "
+            + "FROM loans WHERE outstanding_amount > 0 AND tenure_months > 0";
+
+    private final LoansRepository loansRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Amortizes the outstanding amount of the loan over the instalments left on it, counted from the day it was
+     * opened, starting next month.
+     */
+    @Override
+    public AmortizationScheduleDto fetchSchedule(String mobileNumber, String loanNumber) {
+        log.info( "Inside AmortizationServiceImpl.fetchSchedule for mobile number: {}", mobileNumber );
+        Loans loans = findLoan( mobileNumber, loanNumber );
+        int remainingMonths = AmortizationEngine.remainingMonths( loans.getTenureMonths(),
+                loans.getCreatedAt().toLocalDate(), LocalDate.now() );
+        AmortizationSchedule schedule = AmortizationEngine.schedule( toPaise( loans.getOutstandingAmount() ),
+                loans.getInterestRate(), remainingMonths );
+        return AmortizationScheduleDto.builder()
+                .loanNumber( loans.getLoanNumber() )
+                .principal( loans.getOutstandingAmount() )
+                .annualInterestRate( loans.getInterestRate() )
+                .tenureMonths( loans.getTenureMonths() )
+                .remainingMonths( remainingMonths )
+                .monthlyInstalment( toRupees( schedule.getMonthlyInstalment() ) )
+                .totalInterest( toRupees( schedule.getTotalInterest() ) )
+                .instalment( toRupees( schedule.getInstalment() ) )
+                .interest( toRupees( schedule.getInterest() ) )
+                .principalRepaid( toRupees( schedule.getPrincipal() ) )
+                .balance( toRupees( schedule.getBalance() ) )
+                .build();
+    }
+
+    /**
+     * Streams the outstanding loans into a {@link LoanBook} and projects them on the fork-join pool.
+     * Each loan is amortized from its outstanding amount over the instalments left on it, starting next month.
+     */
+    @Override
+    public PortfolioCashFlowDto projectPortfolioCashFlow() {
+        long startNanos = System.nanoTime();
+        LocalDate today = LocalDate.now();
+        LoanBook book = new LoanBook( 1024 );
+        jdbcTemplate.query( connection -> {
+            PreparedStatement statement = connection.prepareStatement( LOAN_BOOK_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY );
+            // MySQL Connector/J streams the result row by row instead of buffering it
+            statement.setFetchSize( Integer.MIN_VALUE );
+            return statement;
+        }, (RowCallbackHandler) rs -> book.add( toPaise( rs.getInt( 1 ) ), rs.getDouble( 2 ),
+                AmortizationEngine.remainingMonths( rs.getInt( 3 ), rs.getDate( 4 ).toLocalDate(), today ) ) );
+
+        PortfolioCashFlow cashFlow = AmortizationEngine.projectPortfolio( book );
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        log.info( "Projected cash flow of {} loans over {} months in {} ms", book.size(), book.maxMonths(), elapsedMillis );
+        return PortfolioCashFlowDto.builder()
+                .loans( cashFlow.getLoans() )
+                .horizonMonths( book.maxMonths() )
+                .totalInterest( toRupees( cashFlow.getTotalInterest() ) )
+                .totalPrincipal( toRupees( cashFlow.getTotalPrincipal() ) )
+                .interest( toRupees( cashFlow.getInterest() ) )
+                .principal( toRupees( cashFlow.getPrincipal() ) )
+                .elapsedMillis( elapsedMillis )
+                .build();
+    }
+
+    private Loans findLoan(String mobileNumber, String loanNumber) {
+        List<Loans> loans = loansRepository.findByMobileNumber( mobileNumber );
+        if (loanNumber == null || loanNumber.isEmpty()) {
+            if (loans.size() > 1) {
+                throw new IllegalArgumentException( "Mobile number " + mobileNumber + " holds " + loans.size()
+                        + " loans, a loan number is required" );
+            }
+            return loans.stream().findFirst().orElseThrow(
+                    () -> new ResourceNotFoundException( "Loan", "mobileNumber", mobileNumber ) );
+        }
+        return loans.stream().filter( loan -> loan.getLoanNumber().equals( loanNumber ) ).findFirst().orElseThrow(
+                () -> new ResourceNotFoundException( "Loan", "loanNumber", loanNumber ) );
+    }
+
+    private static long toPaise(int rupees) {
+        return rupees * 100L;
+    }
+
+    private static double toRupees(long paise) {
+        return paise / 100d;
+    }
+
+    private static double[] toRupees(long[] paise) {
+        double[] rupees = new double[paise.length];
+        for (int i = 0; i < paise.length; i++) {
+            rupees[i] = paise[i] / 100d;
+        }
+        return rupees;
+    }
+}
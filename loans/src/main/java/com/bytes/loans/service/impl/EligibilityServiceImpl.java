@@ -0,0 +1,92 @@
+package com.bytes.loans.service.impl;
+
+import com.bytes.loans.dto.EligibilityDecisionDto;
+import com.bytes.loans.dto.LoanApplicationDto;
+import com.bytes.loans.engine.AmortizationEngine;
+import com.bytes.loans.engine.DecisionTable;
+import com.bytes.loans.engine.EligibilityRule;
+import com.bytes.loans.service.EligibilityService;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Evaluates loan applications against the decision table configured under {@code loans.eligibility.rules}.
+ * <p>
+ * The rules are compiled into a {@link DecisionTable} at startup and recompiled whenever a configuration
+ * refresh changes one of them. The new table replaces the old one in a single write, so evaluations in
+ * flight finish on the table they started with. Rules that fail to compile on a refresh are rejected
+ * and the previous table stays in use.
+ */
+@Service
+@Slf4j
+public class EligibilityServiceImpl implements EligibilityService {
+
+    static final String RULES_PROPERTY = "loans.eligibility.rules";
+
+    private final Environment environment;
+    private volatile DecisionTable decisionTable = DecisionTable.compile( List.of() );
+
+    public EligibilityServiceImpl(Environment environment) {
+        this.environment = environment;
+    }
+
+    @PostConstruct
+    public void compileRules() {
+        List<EligibilityRule> rules = Binder.get( environment )
+                .bind( RULES_PROPERTY, Bindable.listOf( EligibilityRule.class ) )
+                .orElse( List.of() );
+        decisionTable = DecisionTable.compile( rules );
+        log.info( "Compiled eligibility decision table of {} rules", rules.size() );
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().noneMatch( key -> key.startsWith( RULES_PROPERTY ) )) {
+            return;
+        }
+        try {
+            compileRules();
+        } catch (RuntimeException e) {
+            log.error( "Refreshed eligibility rules were rejected, keeping the previous {} rules", decisionTable.size(), e );
+        }
+    }
+
+    @Override
+    public EligibilityDecisionDto evaluate(LoanApplicationDto loanApplicationDto) {
+        DecisionTable table = decisionTable;
+        int match = table.match( loanApplicationDto.getLoanType(), valueOf( loanApplicationDto.getCreditScore() ),
+                valueOf( loanApplicationDto.getMonthlyIncome() ), valueOf( loanApplicationDto.getAge() ),
+                valueOf( loanApplicationDto.getRequestedAmount() ) );
+        if (match < 0) {
+            return EligibilityDecisionDto.builder().eligible( false ).build();
+        }
+        EligibilityRule rule = table.rule( match );
+        if (!rule.grants()) {
+            return EligibilityDecisionDto.builder().eligible( false ).ruleId( rule.id() ).build();
+        }
+        Integer requestedAmount = loanApplicationDto.getRequestedAmount();
+        int approvedAmount = requestedAmount == null ? rule.maxAmount() : Math.min( requestedAmount, rule.maxAmount() );
+        long monthlyInstalment = rule.tenureMonths() > 0 ? AmortizationEngine.monthlyInstalment( approvedAmount * 100L,
+                AmortizationEngine.monthlyRate( rule.interestRate() ), rule.tenureMonths() ) : 0;
+        return EligibilityDecisionDto.builder()
+                .eligible( true )
+                .ruleId( rule.id() )
+                .approvedAmount( approvedAmount )
+                .interestRate( rule.interestRate() )
+                .tenureMonths( rule.tenureMonths() )
+                .monthlyInstalment( monthlyInstalment / 100d )
+                .build();
+    }
+
+    private static long valueOf(Integer input) {
+        return input == null ? DecisionTable.UNKNOWN : input;
+    }
+}
@@ -0,0 +1,327 @@
+package com.bytes.loans.service.impl;
+
+import com.bytes.loans.dto.AccrualRunResultDto;
+import com.bytes.loans.exception.AccrualFailedException;
+import com.bytes.loans.service.InterestAccrualService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accrues daily interest on the whole loan book.
+ * <p>
+ * The {@code loan_id} space is cut into equal ranges that are processed in parallel. Each partition walks
+ * its range with a keyset cursor in chunks; a chunk's batched UPDATE and the partition checkpoint commit in
+ * one transaction, so a crashed run resumes after the last committed chunk when restarted for the same
+ * date. The UPDATE only touches loans not yet accrued for the date, which keeps reruns from accruing a day
+ * twice. Loans that missed days are caught up for every day since their last accrual.
+ * <p>
+ * Every instance runs the nightly job, so the checkpoints double as work leases. The first instance creates
+ * the checkpoints of the date in one transaction, the others hit its primary keys and read them instead. A
+ * worker claims a partition by setting its lease with a conditional UPDATE that only matches an unleased or
+ * expired partition, and every chunk renews the lease while moving the checkpoint of a partition it still
+ * owns. An instance that stalls past its lease loses the partition to the next claim, and its next chunk
+ * rolls back instead of moving the checkpoint. Lease times are database time, so instance clocks do not matter.
+ */
+@Service
+@Slf4j
+public class InterestAccrualServiceImpl implements InterestAccrualService {
+
+    private static final String LOAN_ID_RANGE_SQL = "SELECT MIN(loan_id), MAX(loan_id) FROM loans";
+    private static final String CHECKPOINTS_SQL = "SELECT partition_no, last_loan_id, upper_loan_id, completed "
+            + "FROM loan_accrual_checkpoints WHERE accrual_date = ?";
+    private static final String INSERT_CHECKPOINT_SQL = "INSERT INTO loan_accrual_checkpoints "
+            + "(accrual_date, partition_no, last_loan_id, upper_loan_id, processed, completed, updated_at) "
+            + "VALUES (?, ?, ?, ?, 0, false, ?)";
+    private static final String CLAIM_SQL = "UPDATE loan_accrual_checkpoints "
+            + "SET lease_owner = ?, lease_until = NOW() + INTERVAL ? SECOND "
+            + "WHERE accrual_date = ? AND partition_no = ? AND completed = false "
+            + "AND (lease_until IS NULL OR lease_until < NOW())";
+    private static final String CLAIMED_SQL = "SELECT last_loan_id, upper_loan_id FROM loan_accrual_checkpoints "
+            + "WHERE accrual_date = ? AND partition_no = ?";
+    private static final String UPDATE_CHECKPOINT_SQL = "UPDATE loan_accrual_checkpoints "
+            + "SET last_loan_id = ?, processed = processed + ?, completed = ?, updated_at = ?, "
+            + "lease_until = NOW() + INTERVAL ? SECOND "
+            + "WHERE accrual_date = ? AND partition_no = ? AND lease_owner = ?";
+    private static final String RELEASE_SQL = "UPDATE loan_accrual_checkpoints SET lease_owner = NULL, lease_until = NULL "
+            + "WHERE accrual_date = ? AND partition_no = ? AND lease_owner = ?";
+    private static final String CHUNK_SQL = "SELECT loan_id, outstanding_amount, interest_rate, last_accrued_on FROM loans "
+            + "WHERE loan_id > ? AND loan_id <= ? ORDER BY loan_id LIMIT ?";
+    private static final String ACCRUE_SQL = "UPDATE loans SET accrued_interest = accrued_interest + ?, last_accrued_on = ? "
+            + "WHERE loan_id = ? AND (last_accrued_on IS NULL OR last_accrued_on < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int partitions;
+    private final int threads;
+    private final int chunkSize;
+    private final int leaseSeconds;
+    /**
+     * Identifies this instance in {@code lease_owner}.
+     */
+    private final String instanceId = UUID.randomUUID().toString();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public InterestAccrualServiceImpl(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                      @Value("${loans.accrual.partitions:16}") int partitions,
+                                      @Value("${loans.accrual.threads:4}") int threads,
+                                      @Value("${loans.accrual.chunk-size:1000}") int chunkSize,
+                                      @Value("${loans.accrual.lease-seconds:120}") int leaseSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate( transactionManager );
+        this.partitions = partitions;
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+        this.leaseSeconds = leaseSeconds;
+    }
+
+    @Scheduled(cron = "${loans.accrual.cron:0 30 1 * * *}")
+    public void accrueNightly() {
+        accrueInterest( LocalDate.now() );
+    }
+
+    @Override
+    public AccrualRunResultDto accrueInterest(LocalDate accrualDate) {
+        if (!running.compareAndSet( false, true )) {
+            throw new AccrualFailedException( "Interest accrual is already running on this instance" );
+        }
+        try {
+            return run( accrualDate );
+        } finally {
+            running.set( false );
+        }
+    }
+
+    private AccrualRunResultDto run(LocalDate accrualDate) {
+        long startNanos = System.nanoTime();
+        List<long[]> checkpoints = preparePartitions( accrualDate );
+        Queue<Integer> pending = new ConcurrentLinkedQueue<>();
+        checkpoints.stream().filter( partition -> partition[3] == 0 ).forEach( partition -> pending.add( (int) partition[0] ) );
+        log.info( "Accruing interest for {}: {} partitions to claim, {} already completed",
+                accrualDate, pending.size(), checkpoints.size() - pending.size() );
+
+        ExecutorService executor = Executors.newFixedThreadPool( threads, new CustomizableThreadFactory( "interest-accrual-" ) );
+        LongAdder accrued = new LongAdder();
+        AtomicInteger processed = new AtomicInteger();
+        Map<Integer, Throwable> failed = new ConcurrentSkipListMap<>();
+        try {
+            List<Future<?>> workers = new ArrayList<>( threads );
+            for (int i = 0; i < threads; i++) {
+                workers.add( executor.submit( () -> {
+                    Integer partitionNo;
+                    while ((partitionNo = pending.poll()) != null) {
+                        try {
+                            OptionalLong partitionAccrued = accruePartition( accrualDate, partitionNo );
+                            if (partitionAccrued.isPresent()) {
+                                accrued.add( partitionAccrued.getAsLong() );
+                                processed.incrementAndGet();
+                            }
+                        } catch (RuntimeException e) {
+                            failed.put( partitionNo, e );
+                            log.error( "Interest accrual partition {} for {} failed", partitionNo, accrualDate, e );
+                            release( accrualDate, partitionNo );
+                        }
+                    }
+                } ) );
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AccrualFailedException( "Interest accrual for " + accrualDate + " was interrupted", e );
+        } catch (ExecutionException e) {
+            throw new AccrualFailedException( "Interest accrual for " + accrualDate + " failed", e.getCause() );
+        } finally {
+            executor.shutdownNow();
+        }
+        if (!failed.isEmpty()) {
+            throw new AccrualFailedException( String.format( "Interest accrual for %s failed in partitions %s, "
+                    + "rerun for the same date to resume from the last checkpoint", accrualDate, failed.keySet() ),
+                    failed.values().iterator().next() );
+        }
+
+        long elapsedNanos = Math.max( 1, System.nanoTime() - startNanos );
+        AccrualRunResultDto result = AccrualRunResultDto.builder()
+                .accrualDate( accrualDate.toString() )
+                .partitions( checkpoints.size() )
+                .skippedPartitions( checkpoints.size() - processed.get() )
+                .loansAccrued( accrued.sum() )
+                .elapsedMillis( elapsedNanos / 1_000_000 )
+                .loansPerSecond( accrued.sum() * 1_000_000_000d / elapsedNanos )
+                .build();
+        log.info( "Finished interest accrual: {}", result );
+        return result;
+    }
+
+    /**
+     * Creates the checkpoints of a new run or loads those of an interrupted one, or of a run another instance
+     * started for the same date.
+     *
+     * @return {partition, last processed loan id, upper loan id, 1 when completed} of every partition
+     */
+    private List<long[]> preparePartitions(LocalDate accrualDate) {
+        Date date = Date.valueOf( accrualDate );
+        List<long[]> partitionStates = loadCheckpoints( date );
+        if (!partitionStates.isEmpty()) {
+            return partitionStates;
+        }
+
+        long[] range = jdbcTemplate.queryForObject( LOAN_ID_RANGE_SQL, (rs, rowNum) -> new long[]{rs.getLong( 1 ), rs.getLong( 2 )} );
+        long lower = range[0] - 1;
+        long upper = range[1];
+        long width = Math.max( 1, (upper - lower + partitions - 1) / partitions );
+        List<Object[]> rows = new ArrayList<>( partitions );
+        Timestamp now = Timestamp.valueOf( LocalDateTime.now() );
+        for (int p = 0; p < partitions; p++) {
+            long from = Math.min( upper, lower + p * width );
+            long to = p == partitions - 1 ? upper : Math.min( upper, from + width );
+            rows.add( new Object[]{date, p, from, to, now} );
+            partitionStates.add( new long[]{p, from, to, 0} );
+        }
+        try {
+            // one transaction, so a racing instance blocks on partition 0 until this commits and then gets a
+            // duplicate key instead of inserting ranges computed from a different MAX(loan_id)
+            transactionTemplate.executeWithoutResult( status -> jdbcTemplate.batchUpdate( INSERT_CHECKPOINT_SQL, rows ) );
+        } catch (DuplicateKeyException e) {
+            log.info( "Interest accrual checkpoints for {} were created by another instance", accrualDate );
+            return loadCheckpoints( date );
+        }
+        return partitionStates;
+    }
+
+    private List<long[]> loadCheckpoints(Date date) {
+        List<long[]> partitionStates = new ArrayList<>();
+        for (Map<String, Object> checkpoint : jdbcTemplate.queryForList( CHECKPOINTS_SQL, date )) {
+            partitionStates.add( new long[]{((Number) checkpoint.get( "partition_no" )).longValue(),
+                    ((Number) checkpoint.get( "last_loan_id" )).longValue(),
+                    ((Number) checkpoint.get( "upper_loan_id" )).longValue(),
+                    isCompleted( checkpoint.get( "completed" ) ) ? 1 : 0} );
+        }
+        return partitionStates;
+    }
+
+    /**
+     * Claims the partition and accrues it from its checkpoint to the end of its range.
+     *
+     * @return the loans accrued, empty when the partition is completed, leased by another instance, or lost to
+     * another instance after this one stalled past its lease
+     */
+    private OptionalLong accruePartition(LocalDate accrualDate, int partitionNo) {
+        Date date = Date.valueOf( accrualDate );
+        if (jdbcTemplate.update( CLAIM_SQL, instanceId, leaseSeconds, date, partitionNo ) == 0) {
+            log.debug( "Interest accrual partition {} for {} is completed or leased elsewhere", partitionNo, accrualDate );
+            return OptionalLong.empty();
+        }
+        // the checkpoint may have moved since the run started, if another instance held the partition before
+        long[] claimed = jdbcTemplate.queryForObject( CLAIMED_SQL,
+                (rs, rowNum) -> new long[]{rs.getLong( 1 ), rs.getLong( 2 )}, date, partitionNo );
+        long lastLoanId = claimed[0];
+        long upperLoanId = claimed[1];
+        long accrued = 0;
+        boolean completed = false;
+        while (!completed) {
+            long from = lastLoanId;
+            long[] chunk = transactionTemplate.execute( status -> accrueChunk( status, accrualDate, date, partitionNo, from, upperLoanId ) );
+            if (chunk == null) {
+                log.warn( "Interest accrual partition {} for {} lost its lease after {} loans, another instance resumes it",
+                        partitionNo, accrualDate, accrued );
+                return OptionalLong.empty();
+            }
+            accrued += chunk[1];
+            lastLoanId = chunk[0];
+            completed = chunk[2] == 1;
+        }
+        log.debug( "Interest accrual partition {} for {} completed with {} loans", partitionNo, accrualDate, accrued );
+        return OptionalLong.of( accrued );
+    }
+
+    private void release(LocalDate accrualDate, int partitionNo) {
+        try {
+            jdbcTemplate.update( RELEASE_SQL, Date.valueOf( accrualDate ), partitionNo, instanceId );
+        } catch (RuntimeException e) {
+            log.warn( "Could not release interest accrual partition {} for {}, it is claimable once its lease expires",
+                    partitionNo, accrualDate, e );
+        }
+    }
+
+    /**
+     * Accrues one chunk of a partition and moves its checkpoint in the same transaction.
+     *
+     * @return {last loan id of the chunk, loans accrued, 1 when the partition is exhausted}, or {@code null} with
+     * the transaction marked for rollback when the lease of the partition was lost
+     */
+    private long[] accrueChunk(TransactionStatus status, LocalDate accrualDate, Date date, int partitionNo,
+                               long fromLoanId, long upperLoanId) {
+        List<Object[]> updates = new ArrayList<>( chunkSize );
+        long[] lastLoanId = {fromLoanId};
+        int[] rows = {0};
+        jdbcTemplate.query( CHUNK_SQL, (RowCallbackHandler) rs -> {
+            long loanId = rs.getLong( 1 );
+            lastLoanId[0] = loanId;
+            rows[0]++;
+            Date lastAccruedOn = rs.getDate( 4 );
+            long days = lastAccruedOn == null ? 1 : ChronoUnit.DAYS.between( lastAccruedOn.toLocalDate(), accrualDate );
+            if (days > 0) {
+                updates.add( new Object[]{dailyInterest( rs.getInt( 2 ), rs.getDouble( 3 ) ) * days, date, loanId, date} );
+            }
+        }, fromLoanId, upperLoanId, chunkSize );
+
+        long accrued = 0;
+        if (!updates.isEmpty()) {
+            for (int count : jdbcTemplate.batchUpdate( ACCRUE_SQL, updates )) {
+                // the driver may report SUCCESS_NO_INFO (-2) for rewritten batches
+                accrued += count == 0 ? 0 : 1;
+            }
+        }
+        boolean exhausted = rows[0] < chunkSize || lastLoanId[0] >= upperLoanId;
+        if (jdbcTemplate.update( UPDATE_CHECKPOINT_SQL, lastLoanId[0], accrued, exhausted,
+                Timestamp.valueOf( LocalDateTime.now() ), leaseSeconds, date, partitionNo, instanceId ) == 0) {
+            status.setRollbackOnly();
+            return null;
+        }
+        return new long[]{lastLoanId[0], accrued, exhausted ? 1 : 0};
+    }
+
+    private static boolean isCompleted(Object completed) {
+        return completed instanceof Boolean flag ? flag : ((Number) completed).intValue() != 0;
+    }
+
+    /**
+     * @param outstandingAmount - outstanding amount in rupees
+     * @param annualInterestRate - annual interest rate in percent
+     * @return one day of interest in paise, on an actual/365 basis
+     */
+    static long dailyInterest(int outstandingAmount, double annualInterestRate) {
+        return Math.round( outstandingAmount * annualInterestRate / 365d );
+    }
+}
@@ -0,0 +1,77 @@
+package com.bytes.loans.service.impl;
+
+import com.bytes.loans.dto.CompactionResultDto;
+import com.bytes.loans.service.LoanCompactionService;
+import com.bytes.loans.service.PortfolioSummaryService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deletes duplicate loan rows in small batches.
+ * <p>
+ * Every row that has a newer row ({@code loan_id} greater) for the same mobile and loan number is a stale
+ * copy. Stale ids are found with a keyset scan over the {@code (mobile_number, loan_number)} index and
+ * deleted by primary key, each batch in its own short transaction so the table is never locked for long
+ * and an interrupted run can simply be started again.
+ */
+@Service
+@Slf4j
+public class LoanCompactionServiceImpl implements LoanCompactionService {
+
+    private static final String STALE_IDS_SQL = "SELECT d.loan_id FROM loans d "
+            + "WHERE d.loan_id > ? AND EXISTS (SELECT 1 FROM loans k WHERE k.mobile_number = d.mobile_number "
+            + "AND k.loan_number = d.loan_number AND k.loan_id > d.loan_id) "
+            + "ORDER BY d.loan_id LIMIT ?";
+    private static final String DELETE_SQL = "DELETE FROM loans WHERE loan_id IN (:loanIds)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final PortfolioSummaryService portfolioSummaryService;
+    private final int batchSize;
+
+    public LoanCompactionServiceImpl(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                                     PortfolioSummaryService portfolioSummaryService,
+                                     @Value("${loans.compaction.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.portfolioSummaryService = portfolioSummaryService;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public CompactionResultDto compactDuplicates() {
+        long startNanos = System.nanoTime();
+        long lastLoanId = 0;
+        long deleted = 0;
+        int batches = 0;
+        while (true) {
+            List<Long> staleIds = jdbcTemplate.queryForList( STALE_IDS_SQL, Long.class, lastLoanId, batchSize );
+            if (staleIds.isEmpty()) {
+                break;
+            }
+            deleted += namedParameterJdbcTemplate.update( DELETE_SQL, Map.of( "loanIds", staleIds ) );
+            batches++;
+            lastLoanId = staleIds.get( staleIds.size() - 1 );
+            if (staleIds.size() < batchSize) {
+                break;
+            }
+        }
+        if (deleted > 0) {
+            // the duplicates were counted in the portfolio summary
+            portfolioSummaryService.rebuild();
+        }
+        CompactionResultDto result = CompactionResultDto.builder()
+                .rowsDeleted( deleted )
+                .batches( batches )
+                .elapsedMillis( (System.nanoTime() - startNanos) / 1_000_000 )
+                .build();
+        log.info( "Finished duplicate loan compaction: {}", result );
+        return result;
+    }
+}
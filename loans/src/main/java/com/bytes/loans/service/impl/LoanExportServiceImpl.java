@@ -0,0 +1,159 @@
+package com.bytes.loans.service.impl;
+
+import com.bytes.loans.dto.ExportResultDto;
+import com.bytes.loans.engine.ParquetFileWriter;
+import com.bytes.loans.engine.ParquetFileWriter.Column;
+import com.bytes.loans.engine.ParquetFileWriter.Type;
+import com.bytes.loans.exception.ExportFailedException;
+import com.bytes.loans.service.LoanExportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Exports the whole loan book for analytics as a GZIP compressed Parquet file.
+ * <p>
+ * The loans are streamed from MySQL with a forward only cursor and written through a
+ * {@link ParquetFileWriter} in row groups of {@code loans.export.row-group-size} rows, so memory stays
+ * bounded by one row group whatever the size of the book. The file is written under a temporary name
+ * and moved into place once complete, so readers never see a partial export.
+ */
+@Service
+@Slf4j
+public class LoanExportServiceImpl implements LoanExportService {
+
+    static final List<Column> COLUMNS = List.of(
+            new Column( "loan_id", Type.INT64_DELTA ),
+            new Column( "mobile_number", Type.STRING ),
+            new Column( "loan_number", Type.STRING ),
+            new Column( "loan_type", Type.DICTIONARY ),
+            new Column( "total_loan", Type.INT32 ),
+            new Column( "amount_paid", Type.INT32 ),
+            new Column( "outstanding_amount", Type.INT32 ),
+            new Column( "interest_rate", Type.FLOAT64 ),
+            new Column( "tenure_months", Type.INT32 ),
+            new Column( "rate_type", Type.DICTIONARY ),
+            new Column( "rate_spread", Type.FLOAT64 ),
+            new Column( "emi_amount", Type.INT64 ),
+            new Column( "accrued_interest", Type.INT64 ),
+            new Column( "last_accrued_on", Type.DATE ),
+            new Column( "created_at", Type.DATE ) );
+
+    private static final String EXPORT_SQL = "SELECT loan_id, mobile_number, loan_number, loan_type, total_loan, "
+            + "amount_paid, outstanding_amount, interest_rate, tenure_months, rate_type, rate_spread, emi_amount, "
+            + "accrued_interest, last_accrued_on, created_at FROM loans ORDER BY loan_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Path directory;
+    private final int rowGroupSize;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public LoanExportServiceImpl(JdbcTemplate jdbcTemplate,
+                                 @Value("${loans.export.directory:exports}") String directory,
+                                 @Value("${loans.export.row-group-size:100000}") int rowGroupSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.directory = Paths.get( directory );
+        this.rowGroupSize = rowGroupSize;
+    }
+
+    @Scheduled(cron = "${loans.export.cron:0 0 4 * * *}")
+    public void exportDaily() {
+        exportLoanBook( LocalDate.now() );
+    }
+
+    @Override
+    public ExportResultDto exportLoanBook(LocalDate exportDate) {
+        if (!running.compareAndSet( false, true )) {
+            throw new ExportFailedException( "Loan book export is already running on this instance" );
+        }
+        try {
+            return run( exportDate );
+        } catch (IOException | UncheckedIOException e) {
+            throw new ExportFailedException( "Loan book export for " + exportDate + " failed", e );
+        } finally {
+            running.set( false );
+        }
+    }
+
+    private ExportResultDto run(LocalDate exportDate) throws IOException {
+        long startNanos = System.nanoTime();
+        Files.createDirectories( directory );
+        Path file = directory.resolve( "loans-" + exportDate + ".parquet" );
+        Path partial = directory.resolve( file.getFileName() + ".partial" );
+        ParquetFileWriter writer = new ParquetFileWriter(
+                new BufferedOutputStream( Files.newOutputStream( partial ), 1 << 16 ), COLUMNS, rowGroupSize );
+        try {
+            jdbcTemplate.query( connection -> {
+                PreparedStatement statement = connection.prepareStatement( EXPORT_SQL,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY );
+                // MySQL Connector/J streams the result row by row instead of buffering it
+                statement.setFetchSize( Integer.MIN_VALUE );
+                return statement;
+            }, (RowCallbackHandler) rs -> {
+                writer.setLong( 0, rs.getLong( 1 ) );
+                writer.setString( 1, rs.getString( 2 ) );
+                writer.setString( 2, rs.getString( 3 ) );
+                writer.setString( 3, rs.getString( 4 ) );
+                writer.setInt( 4, rs.getInt( 5 ) );
+                writer.setInt( 5, rs.getInt( 6 ) );
+                writer.setInt( 6, rs.getInt( 7 ) );
+                writer.setDouble( 7, rs.getDouble( 8 ) );
+                writer.setInt( 8, rs.getInt( 9 ) );
+                writer.setString( 9, rs.getString( 10 ) );
+                writer.setDouble( 10, rs.getDouble( 11 ) );
+                writer.setLong( 11, rs.getLong( 12 ) );
+                writer.setLong( 12, rs.getLong( 13 ) );
+                writer.setDate( 13, toLocalDate( rs.getDate( 14 ) ) );
+                writer.setDate( 14, toLocalDate( rs.getDate( 15 ) ) );
+                try {
+                    writer.endRow();
+                } catch (IOException e) {
+                    throw new UncheckedIOException( e );
+                }
+            } );
+            writer.close();
+        } catch (RuntimeException | IOException e) {
+            try {
+                writer.close();
+            } catch (IOException suppressed) {
+                e.addSuppressed( suppressed );
+            }
+            Files.deleteIfExists( partial );
+            throw e;
+        }
+        Files.move( partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+
+        long elapsedNanos = Math.max( 1, System.nanoTime() - startNanos );
+        ExportResultDto result = ExportResultDto.builder()
+                .file( file.toAbsolutePath().toString() )
+                .rows( writer.rows() )
+                .rowGroups( writer.rowGroups() )
+                .bytes( writer.bytesWritten() )
+                .elapsedMillis( elapsedNanos / 1_000_000 )
+                .rowsPerSecond( writer.rows() * 1_000_000_000d / elapsedNanos )
+                .build();
+        log.info( "Finished loan book export: {}", result );
+        return result;
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date == null ? null : date.toLocalDate();
+    }
+}
@@ -0,0 +1,352 @@
+package com.bytes.loans.service.impl;
+
+import com.bytes.loans.dto.LoanBalanceDto;
+import com.bytes.loans.dto.PaymentRequestDto;
+import com.bytes.loans.dto.PaymentResponseDto;
+import com.bytes.loans.exception.PaymentRejectedException;
+import com.bytes.loans.exception.ResourceNotFoundException;
+import com.bytes.loans.service.LoanPaymentService;
+import com.bytes.loans.service.PortfolioSummaryService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Posts loan repayments to the append-only {@code loan_payments} ledger.
+ * <p>
+ * Request threads only enqueue their payment and wait. A single writer thread drains whatever has queued up
+ * and commits it as one group: one query for already posted idempotency keys, one locking read of the
+ * affected loans, then a batched ledger INSERT and a batched balance UPDATE in the same transaction. Under
+ * load the group grows and the cost of a commit is shared by many payments; when idle a group is a single
+ * payment and adds no latency. If another instance posts one of the keys concurrently the unique key makes
+ * the group fail, which is then retried payment by payment so only the duplicate is affected.
+ * <p>
+ * Balances live on the loan row and are read in O(1). An hourly job copies the balance of every loan paid
+ * since the previous run into {@code loan_balance_snapshots}, so balances at a past date are a single
+ * indexed lookup instead of a replay of the ledger. A date before the first snapshot of a loan falls back to
+ * its opening balance.
+ * <p>
+ * Payment ids are allocated at INSERT but become visible at commit, so a committed id may be above one still in
+ * flight. The snapshot watermark therefore stops at the last payment posted before the safety margin, which is
+ * far longer than a payment group transaction; payments inside the margin are picked up by the next run.
+ */
+@Service
+@Slf4j
+public class LoanPaymentServiceImpl implements LoanPaymentService {
+
+    private static final String POSTED_PAYMENTS_SQL = "SELECT idempotency_key, loan_number, amount, posted_at "
+            + "FROM loan_payments WHERE idempotency_key IN (:keys)";
+    private static final String LOCK_LOANS_SQL = "SELECT loan_number, loan_type, amount_paid, outstanding_amount "
+            + "FROM loans WHERE loan_number IN (:loanNumbers) FOR UPDATE";
+    private static final String INSERT_PAYMENT_SQL = "INSERT INTO loan_payments (idempotency_key, loan_number, amount, posted_at) "
+            + "VALUES (?, ?, ?, ?)";
+    private static final String UPDATE_BALANCE_SQL = "UPDATE loans SET amount_paid = ?, outstanding_amount = ? "
+            + "WHERE loan_number = ?";
+    private static final String LIVE_BALANCE_SQL = "SELECT amount_paid, outstanding_amount FROM loans "
+            + "WHERE loan_number = ? LIMIT 1";
+    private static final String SNAPSHOT_BALANCE_SQL = "SELECT amount_paid, outstanding_amount, snapshot_date "
+            + "FROM loan_balance_snapshots WHERE loan_number = ? AND snapshot_date <= ? "
+            + "ORDER BY snapshot_date DESC LIMIT 1";
+    private static final String OPENING_BALANCE_SQL = "SELECT l.amount_paid - COALESCE(SUM(p.amount), 0), "
+            + "l.outstanding_amount + COALESCE(SUM(p.amount), 0), l.created_at FROM loans l "
+            + "LEFT JOIN loan_payments p ON p.loan_number = l.loan_number WHERE l.loan_number = ? "
+            + "GROUP BY l.loan_id, l.amount_paid, l.outstanding_amount, l.created_at ORDER BY l.loan_id DESC LIMIT 1";
+    private static final String SNAPSHOT_WATERMARK_SQL = "SELECT COALESCE(MAX(last_payment_id), 0) FROM loan_balance_snapshots";
+    private static final String LAST_SETTLED_PAYMENT_SQL = "SELECT payment_id FROM loan_payments WHERE posted_at < ? "
+            + "ORDER BY payment_id DESC LIMIT 1";
+    private static final String SNAPSHOT_SQL = "INSERT INTO loan_balance_snapshots "
+            + "(loan_number, snapshot_date, amount_paid, outstanding_amount, last_payment_id) "
+            + "SELECT l.loan_number, ?, l.amount_paid, l.outstanding_amount, ? FROM loans l "
+            + "WHERE l.loan_number IN (SELECT p.loan_number FROM loan_payments p WHERE p.payment_id > ? AND p.payment_id <= ?) "
+            + "ON DUPLICATE KEY UPDATE amount_paid = VALUES(amount_paid), outstanding_amount = VALUES(outstanding_amount), "
+            + "last_payment_id = VALUES(last_payment_id)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PortfolioSummaryService portfolioSummaryService;
+    private final BlockingQueue<PendingPayment> queue;
+    private final int maxBatchSize;
+    private final long timeoutMillis;
+    private final Duration snapshotMargin;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public LoanPaymentServiceImpl(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                                  PlatformTransactionManager transactionManager, PortfolioSummaryService portfolioSummaryService,
+                                  @Value("${loans.payments.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${loans.payments.max-batch-size:256}") int maxBatchSize,
+                                  @Value("${loans.payments.timeout-ms:5000}") long timeoutMillis,
+                                  @Value("${loans.payments.snapshot-margin:10m}") Duration snapshotMargin) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate( transactionManager );
+        this.portfolioSummaryService = portfolioSummaryService;
+        this.queue = new ArrayBlockingQueue<>( queueCapacity );
+        this.maxBatchSize = maxBatchSize;
+        this.timeoutMillis = timeoutMillis;
+        this.snapshotMargin = snapshotMargin;
+        this.writer = new Thread( this::writeLoop, "loan-payment-writer" );
+        this.writer.setDaemon( true );
+    }
+
+    @PostConstruct
+    public void start() {
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join( timeoutMillis );
+    }
+
+    @Override
+    public PaymentResponseDto postPayment(String idempotencyKey, PaymentRequestDto paymentRequestDto) {
+        PendingPayment payment = new PendingPayment( idempotencyKey, paymentRequestDto.getLoanNumber(),
+                paymentRequestDto.getAmount() );
+        try {
+            if (!running || !queue.offer( payment, timeoutMillis, TimeUnit.MILLISECONDS )) {
+                throw new IllegalStateException( "Payment service is busy, retry with the same Idempotency-Key" );
+            }
+            return payment.result.get( timeoutMillis, TimeUnit.MILLISECONDS );
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException( "Interrupted while posting payment " + idempotencyKey, e );
+        } catch (TimeoutException e) {
+            // the payment may still commit, a retry with the same key returns it instead of paying twice
+            throw new IllegalStateException( "Payment " + idempotencyKey + " is still being posted, retry with the same Idempotency-Key" );
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException( e.getCause() );
+        }
+    }
+
+    private void writeLoop() {
+        List<PendingPayment> group = new ArrayList<>( maxBatchSize );
+        while (running) {
+            try {
+                group.add( queue.take() );
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo( group, maxBatchSize - 1 );
+            commit( group, true );
+            group.clear();
+        }
+        PendingPayment payment;
+        while ((payment = queue.poll()) != null) {
+            payment.result.completeExceptionally( new IllegalStateException( "Payment service is shutting down" ) );
+        }
+    }
+
+    void commit(List<PendingPayment> group, boolean retryOnConflict) {
+        try {
+            transactionTemplate.executeWithoutResult( status -> apply( group ) );
+            group.forEach( PendingPayment::publish );
+        } catch (DataIntegrityViolationException e) {
+            if (!retryOnConflict) {
+                log.error( "Posting payment {} failed", group.get( 0 ).idempotencyKey, e );
+                group.forEach( payment -> payment.result.completeExceptionally( e ) );
+                return;
+            }
+            // another instance posted one of the keys in the meantime, the retries replay it
+            log.warn( "Group of {} payments hit a concurrently posted key, retrying one by one", group.size() );
+            for (PendingPayment payment : group) {
+                commit( List.of( payment ), false );
+            }
+        } catch (RuntimeException e) {
+            log.error( "Posting a group of {} payments failed", group.size(), e );
+            group.forEach( payment -> payment.result.completeExceptionally( e ) );
+        }
+    }
+
+    /**
+     * Applies a group inside the current transaction, staging each payment's outcome until commit.
+     */
+    private void apply(List<PendingPayment> group) {
+        Set<String> keys = new HashSet<>();
+        Set<String> loanNumbers = new HashSet<>();
+        for (PendingPayment payment : group) {
+            payment.outcome = null;
+            payment.failure = null;
+            keys.add( payment.idempotencyKey );
+            loanNumbers.add( payment.loanNumber );
+        }
+
+        Map<String, PostedPayment> posted = new HashMap<>();
+        namedParameterJdbcTemplate.query( POSTED_PAYMENTS_SQL, Map.of( "keys", keys ), (RowCallbackHandler) rs -> {
+            PostedPayment payment = new PostedPayment( rs.getString( 2 ), rs.getInt( 3 ),
+                    rs.getTimestamp( 4 ).toLocalDateTime() );
+            posted.put( rs.getString( 1 ), payment );
+            loanNumbers.add( payment.loanNumber() );
+        } );
+
+        Map<String, int[]> balances = new LinkedHashMap<>();
+        Map<String, String> loanTypes = new HashMap<>();
+        namedParameterJdbcTemplate.query( LOCK_LOANS_SQL, Map.of( "loanNumbers", loanNumbers ), (RowCallbackHandler) rs -> {
+            balances.put( rs.getString( 1 ), new int[]{rs.getInt( 3 ), rs.getInt( 4 )} );
+            loanTypes.put( rs.getString( 1 ), rs.getString( 2 ) );
+        } );
+
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp postedAt = Timestamp.valueOf( now );
+        List<Object[]> inserts = new ArrayList<>( group.size() );
+        Set<String> paidLoans = new HashSet<>();
+        for (PendingPayment payment : group) {
+            PostedPayment original = posted.get( payment.idempotencyKey );
+            if (original != null) {
+                if (!original.loanNumber().equals( payment.loanNumber ) || original.amount() != payment.amount) {
+                    payment.failure = new PaymentRejectedException( "Idempotency-Key " + payment.idempotencyKey
+                            + " was already used for a different payment" );
+                } else {
+                    payment.outcome = response( payment.idempotencyKey, original, balances.get( original.loanNumber() ), true );
+                }
+                continue;
+            }
+            int[] balance = balances.get( payment.loanNumber );
+            if (balance == null) {
+                payment.failure = new ResourceNotFoundException( "Loan", "loanNumber", payment.loanNumber );
+                continue;
+            }
+            if (payment.amount > balance[1]) {
+                payment.failure = new PaymentRejectedException( "Payment of " + payment.amount
+                        + " exceeds the outstanding amount " + balance[1] + " of loan " + payment.loanNumber );
+                continue;
+            }
+            balance[0] += payment.amount;
+            balance[1] -= payment.amount;
+            PostedPayment accepted = new PostedPayment( payment.loanNumber, payment.amount, now );
+            // a second request with the same key in this group replays this one
+            posted.put( payment.idempotencyKey, accepted );
+            paidLoans.add( payment.loanNumber );
+            inserts.add( new Object[]{payment.idempotencyKey, payment.loanNumber, payment.amount, postedAt} );
+            portfolioSummaryService.record( loanTypes.get( payment.loanNumber ), 0, 0, payment.amount, -payment.amount );
+            payment.outcome = response( payment.idempotencyKey, accepted, balance, false );
+        }
+
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate( INSERT_PAYMENT_SQL, inserts );
+            List<Object[]> updates = new ArrayList<>( paidLoans.size() );
+            for (String loanNumber : paidLoans) {
+                int[] balance = balances.get( loanNumber );
+                updates.add( new Object[]{balance[0], balance[1], loanNumber} );
+            }
+            jdbcTemplate.batchUpdate( UPDATE_BALANCE_SQL, updates );
+        }
+    }
+
+    private static PaymentResponseDto response(String idempotencyKey, PostedPayment payment, int[] balance, boolean replayed) {
+        return PaymentResponseDto.builder()
+                .idempotencyKey( idempotencyKey )
+                .loanNumber( payment.loanNumber() )
+                .amount( payment.amount() )
+                .amountPaid( balance == null ? 0 : balance[0] )
+                .outstandingAmount( balance == null ? 0 : balance[1] )
+                .postedAt( payment.postedAt() )
+                .replayed( replayed )
+                .build();
+    }
+
+    @Override
+    public LoanBalanceDto fetchBalance(String loanNumber, LocalDate asOf) {
+        if (asOf == null) {
+            return jdbcTemplate.query( LIVE_BALANCE_SQL, (rs, rowNum) -> new LoanBalanceDto( loanNumber,
+                            rs.getInt( 1 ), rs.getInt( 2 ), null ), loanNumber )
+                    .stream().findFirst()
+                    .orElseThrow( () -> new ResourceNotFoundException( "Loan", "loanNumber", loanNumber ) );
+        }
+        return jdbcTemplate.query( SNAPSHOT_BALANCE_SQL, (rs, rowNum) -> new LoanBalanceDto( loanNumber,
+                        rs.getInt( 1 ), rs.getInt( 2 ), rs.getDate( 3 ).toLocalDate().toString() ), loanNumber, Date.valueOf( asOf ) )
+                .stream().findFirst()
+                .orElseGet( () -> openingBalance( loanNumber, asOf ) );
+    }
+
+    /**
+     * Balance of a loan before its first snapshot, when no payment had been snapshotted yet: the live balance
+     * with every payment of the ledger taken back out.
+     */
+    private LoanBalanceDto openingBalance(String loanNumber, LocalDate asOf) {
+        LoanBalanceDto opening = jdbcTemplate.query( OPENING_BALANCE_SQL, (rs, rowNum) -> new LoanBalanceDto( loanNumber,
+                        rs.getInt( 1 ), rs.getInt( 2 ), rs.getDate( 3 ).toLocalDate().toString() ), loanNumber )
+                .stream().findFirst()
+                .orElseThrow( () -> new ResourceNotFoundException( "Loan", "loanNumber", loanNumber ) );
+        if (asOf.isBefore( LocalDate.parse( opening.getAsOf() ) )) {
+            throw new ResourceNotFoundException( "Loan " + loanNumber + " balance", "asOf", asOf );
+        }
+        return opening;
+    }
+
+    @Override
+    @Scheduled(cron = "${loans.payments.snapshot-cron:0 0 * * * *}")
+    public int snapshotBalances() {
+        long watermark = jdbcTemplate.queryForObject( SNAPSHOT_WATERMARK_SQL, Long.class );
+        Timestamp settledBefore = Timestamp.valueOf( LocalDateTime.now().minus( snapshotMargin ) );
+        long lastPayment = jdbcTemplate.queryForList( LAST_SETTLED_PAYMENT_SQL, Long.class, settledBefore )
+                .stream().findFirst().orElse( 0L );
+        if (lastPayment <= watermark) {
+            return 0;
+        }
+        int rows = jdbcTemplate.update( SNAPSHOT_SQL, Date.valueOf( LocalDate.now() ), lastPayment, watermark, lastPayment );
+        log.info( "Snapshotted balances of loans paid by payments {} to {}: {} rows", watermark + 1, lastPayment, rows );
+        return rows;
+    }
+
+    private record PostedPayment(String loanNumber, int amount, LocalDateTime postedAt) {
+    }
+
+    static final class PendingPayment {
+
+        private final String idempotencyKey;
+        private final String loanNumber;
+        private final int amount;
+        private final CompletableFuture<PaymentResponseDto> result = new CompletableFuture<>();
+        private PaymentResponseDto outcome;
+        private RuntimeException failure;
+
+        PendingPayment(String idempotencyKey, String loanNumber, int amount) {
+            this.idempotencyKey = idempotencyKey;
+            this.loanNumber = loanNumber;
+            this.amount = amount;
+        }
+
+        private void publish() {
+            if (failure != null) {
+                result.completeExceptionally( failure );
+            } else {
+                result.complete( outcome );
+            }
+        }
+    }
+}
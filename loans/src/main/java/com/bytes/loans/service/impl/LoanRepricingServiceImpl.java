@@ -0,0 +1,231 @@
+package com.bytes.loans.service.impl;
+
+import com.bytes.loans.constants.LoansConstants;
+import com.bytes.loans.dto.RepricingResultDto;
+import com.bytes.loans.engine.AmortizationEngine;
+import com.bytes.loans.exception.RepricingFailedException;
+import com.bytes.loans.service.LoanRepricingService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reprices the floating rate loans after a base rate change.
+ * <p>
+ * Loans are read one loan type at a time with a keyset cursor over the {@code (loan_type, rate_type, loan_id)}
+ * index, in chunks of primitive columns. Each chunk is handed to a worker that recalculates the rate, and the EMI
+ * of the outstanding amount over the instalments left on the loan, and writes them with one batched UPDATE in
+ * its own short transaction, so a chunk is repriced entirely or not at all. Only a few chunks may be in flight
+ * so reading never runs ahead of writing, and all workers share a rows per second budget so the run leaves
+ * MySQL capacity for online traffic. Repricing to the same base rate is idempotent, so a failed run is
+ * simply started again.
+ */
+@Service
+@Slf4j
+public class LoanRepricingServiceImpl implements LoanRepricingService {
+
+    private static final String LOAN_TYPES_SQL = "SELECT DISTINCT loan_type FROM loans WHERE rate_type = ?";
+    private static final String CHUNK_SQL = "SELECT loan_id, outstanding_amount, rate_spread, tenure_months, "
+            + "created_at FROM loans "
+            + "WHERE loan_type = ? AND rate_type = ? AND loan_id > ? ORDER BY loan_id LIMIT ?";
+    private static final String REPRICE_SQL = "UPDATE loans SET interest_rate = ?, emi_amount = ? "
+            + "WHERE loan_id = ? AND rate_type = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int threads;
+    private final int chunkSize;
+    private final int maxRowsPerSecond;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public LoanRepricingServiceImpl(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                    @Value("${loans.repricing.threads:4}") int threads,
+                                    @Value("${loans.repricing.chunk-size:1000}") int chunkSize,
+                                    @Value("${loans.repricing.max-rows-per-second:20000}") int maxRowsPerSecond) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate( transactionManager );
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+        this.maxRowsPerSecond = maxRowsPerSecond;
+    }
+
+    @Override
+    public RepricingResultDto repriceFloatingLoans(double baseRate) {
+        if (!running.compareAndSet( false, true )) {
+            throw new RepricingFailedException( "Loan repricing is already running on this instance" );
+        }
+        try {
+            return run( baseRate );
+        } finally {
+            running.set( false );
+        }
+    }
+
+    private RepricingResultDto run(double baseRate) {
+        long startNanos = System.nanoTime();
+        LocalDate today = LocalDate.now();
+        List<String> loanTypes = jdbcTemplate.queryForList( LOAN_TYPES_SQL, String.class,
+                LoansConstants.RATE_TYPE_FLOATING );
+        log.info( "Repricing floating rate loans of {} loan types to base rate {}", loanTypes.size(), baseRate );
+
+        ExecutorService executor = Executors.newFixedThreadPool( threads,
+                new CustomizableThreadFactory( "loan-repricing-" ) );
+        Semaphore inFlight = new Semaphore( threads * 2 );
+        Throttle throttle = new Throttle( maxRowsPerSecond );
+        AtomicLong throttledNanos = new AtomicLong();
+        List<Future<Integer>> futures = new ArrayList<>();
+        long repriced = 0;
+        try {
+            for (String loanType : loanTypes) {
+                long lastLoanId = 0;
+                while (true) {
+                    Chunk chunk = readChunk( loanType, lastLoanId, today );
+                    if (chunk.size == 0) {
+                        break;
+                    }
+                    inFlight.acquire();
+                    futures.add( executor.submit( () -> {
+                        try {
+                            throttledNanos.addAndGet( throttle.acquire( chunk.size ) );
+                            return repriceChunk( chunk, baseRate );
+                        } finally {
+                            inFlight.release();
+                        }
+                    } ) );
+                    lastLoanId = chunk.loanIds[chunk.size - 1];
+                    if (chunk.size < chunkSize) {
+                        break;
+                    }
+                }
+            }
+            for (Future<Integer> future : futures) {
+                repriced += future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RepricingFailedException( "Loan repricing to base rate " + baseRate + " was interrupted", e );
+        } catch (ExecutionException e) {
+            throw new RepricingFailedException( "Loan repricing to base rate " + baseRate
+                    + " failed, rerun it to reprice the remaining loans", e.getCause() );
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long elapsedNanos = Math.max( 1, System.nanoTime() - startNanos );
+        RepricingResultDto result = RepricingResultDto.builder()
+                .baseRate( baseRate )
+                .loanTypes( loanTypes.size() )
+                .loansRepriced( repriced )
+                .chunks( futures.size() )
+                .elapsedMillis( elapsedNanos / 1_000_000 )
+                .loansPerSecond( repriced * 1_000_000_000d / elapsedNanos )
+                .throttledMillis( throttledNanos.get() / 1_000_000 )
+                .build();
+        log.info( "Finished loan repricing: {}", result );
+        return result;
+    }
+
+    private Chunk readChunk(String loanType, long fromLoanId, LocalDate today) {
+        Chunk chunk = new Chunk( chunkSize );
+        jdbcTemplate.query( CHUNK_SQL, (RowCallbackHandler) rs -> {
+            int tenureMonths = rs.getInt( 4 );
+            int months = tenureMonths > 0
+                    ? AmortizationEngine.remainingMonths( tenureMonths, rs.getDate( 5 ).toLocalDate(), today ) : 0;
+            chunk.add( rs.getLong( 1 ), rs.getInt( 2 ), rs.getDouble( 3 ), months );
+        }, loanType, LoansConstants.RATE_TYPE_FLOATING, fromLoanId, chunkSize );
+        return chunk;
+    }
+
+    private int repriceChunk(Chunk chunk, double baseRate) {
+        List<Object[]> updates = new ArrayList<>( chunk.size );
+        for (int i = 0; i < chunk.size; i++) {
+            double rate = baseRate + chunk.rateSpreads[i];
+            long emi = chunk.remainingMonths[i] > 0
+                    ? AmortizationEngine.monthlyInstalment( chunk.outstandingAmounts[i] * 100L,
+                            AmortizationEngine.monthlyRate( rate ), chunk.remainingMonths[i] )
+                    : 0;
+            updates.add( new Object[]{rate, emi, chunk.loanIds[i], LoansConstants.RATE_TYPE_FLOATING} );
+        }
+        int[] counts = transactionTemplate.execute( status -> jdbcTemplate.batchUpdate( REPRICE_SQL, updates ) );
+        int repriced = 0;
+        for (int count : counts) {
+            // the driver may report SUCCESS_NO_INFO (-2) for rewritten batches
+            repriced += count == 0 ? 0 : 1;
+        }
+        return repriced;
+    }
+
+    private static final class Chunk {
+
+        private final long[] loanIds;
+        private final int[] outstandingAmounts;
+        private final double[] rateSpreads;
+        private final int[] remainingMonths;
+        private int size;
+
+        private Chunk(int capacity) {
+            loanIds = new long[capacity];
+            outstandingAmounts = new int[capacity];
+            rateSpreads = new double[capacity];
+            remainingMonths = new int[capacity];
+        }
+
+        private void add(long loanId, int outstandingAmount, double rateSpread, int months) {
+            loanIds[size] = loanId;
+            outstandingAmounts[size] = outstandingAmount;
+            rateSpreads[size] = rateSpread;
+            remainingMonths[size] = months;
+            size++;
+        }
+    }
+
+    /**
+     * Spaces writes out to a rows per second budget shared by all workers; a budget of zero disables it.
+     */
+    static final class Throttle {
+
+        private final long nanosPerRow;
+        private long nextFreeNanos = System.nanoTime();
+
+        Throttle(int rowsPerSecond) {
+            this.nanosPerRow = rowsPerSecond > 0 ? 1_000_000_000L / rowsPerSecond : 0;
+        }
+
+        /**
+         * @return nanoseconds waited before the rows could be written
+         */
+        long acquire(int rows) throws InterruptedException {
+            if (nanosPerRow == 0) {
+                return 0;
+            }
+            long waitNanos;
+            synchronized (this) {
+                long now = System.nanoTime();
+                long start = Math.max( nextFreeNanos, now );
+                waitNanos = start - now;
+                nextFreeNanos = start + rows * nanosPerRow;
+            }
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep( waitNanos );
+            }
+            return waitNanos;
+        }
+    }
+}
@@ -1,19 +1,32 @@
 package com.bytes.loans.service.impl;
 
+import com.bytes.loans.constants.LoanType;
 import com.bytes.loans.constants.LoansConstants;
+import com.bytes.loans.dto.EligibilityDecisionDto;
+import com.bytes.loans.dto.LoanApplicationDto;
 import com.bytes.loans.dto.LoansDto;
+import com.bytes.loans.engine.AmortizationEngine;
 import com.bytes.loans.entity.Loans;
 import com.bytes.loans.exception.LoanAlreadyExistException;
+import com.bytes.loans.exception.LoanNotEligibleException;
 import com.bytes.loans.exception.ResourceNotFoundException;
 import com.bytes.loans.mapper.LoansMapper;
 import com.bytes.loans.repository.LoansRepository;
+import com.bytes.loans.service.EligibilityService;
 import com.bytes.loans.service.LoansService;
+import com.bytes.loans.service.PortfolioSummaryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ObjectUtils;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -22,51 +35,161 @@ public class LoansServiceImpl implements LoansService {
 
     private final LoansRepository loansRepository;
 
+    private final PortfolioSummaryService portfolioSummaryService;
+
+    private final EligibilityService eligibilityService;
+
+    /**
+     * A customer may hold up to {@link LoansConstants#MAX_LOANS_PER_CUSTOMER} loans, at most one of each type.
+     * The checks below only give the common case a clear message; the unique {@code (mobile_number, loan_type)}
+     * key is what holds when two requests race, and with one loan of each {@link LoanType} it caps the count too.
+     * A floating rate loan starts at the rate of the eligibility decision and follows the base rate plus its
+     * spread from the next repricing on; a fixed rate loan has no spread.
+     */
     @Override
-    public void createLoan(String mobileNumber) {
-        Optional<Loans> loans =loansRepository.findByMobileNumber( mobileNumber );
-        if(loans.isPresent()){
-            log.info("Loan already exists for mobile number: {}", mobileNumber);
-            throw new LoanAlreadyExistException("Loan already exists for mobile number: " + mobileNumber);
+    public void createLoan(String mobileNumber, String loanType, String rateType, double rateSpread) {
+        if(LoansConstants.RATE_TYPE_FIXED.equals( rateType ) && rateSpread != 0){
+            throw new IllegalArgumentException("A fixed rate loan has no rate spread");
+        }
+        List<Loans> loans = loansRepository.findByMobileNumber( mobileNumber );
+        if(loans.size() >= LoansConstants.MAX_LOANS_PER_CUSTOMER){
+            throw new LoanAlreadyExistException("Maximum of " + LoansConstants.MAX_LOANS_PER_CUSTOMER
+                    + " loans already registered with given mobileNumber " + mobileNumber);
+        }
+        if(loans.stream().anyMatch( loan -> loan.getLoanType().equals( loanType ) )){
+            log.info("{} already exists for mobile number: {}", loanType, mobileNumber);
+            throw new LoanAlreadyExistException(loanType + " already exists for mobile number: " + mobileNumber);
+        }
+        // only the loan type is known here, so the decision comes from the rules that ignore applicant details
+        EligibilityDecisionDto decision = eligibilityService.evaluate( LoanApplicationDto.builder()
+                .mobileNumber( mobileNumber )
+                .loanType( loanType )
+                .build() );
+        if (!decision.isEligible()) {
+            throw new LoanNotEligibleException( "Mobile number " + mobileNumber + " is not eligible for a " + loanType );
         }
-        loansRepository.save( createNewLoan( mobileNumber ));
+        Loans newLoan;
+        try {
+            newLoan = loansRepository.save( createNewLoan( mobileNumber, loanType, rateType, rateSpread, decision ));
+        } catch (DataIntegrityViolationException e) {
+            log.info("{} was created concurrently for mobile number: {}", loanType, mobileNumber);
+            throw new LoanAlreadyExistException(loanType + " already exists for mobile number: " + mobileNumber);
+        }
+        portfolioSummaryService.record( newLoan.getLoanType(), 1, newLoan.getTotalLoan(), newLoan.getAmountPaid(),
+                newLoan.getOutstandingAmount() );
     }
 
-    private Loans createNewLoan(String mobileNumber) {
-      return Loans.builder()
+    private Loans createNewLoan(String mobileNumber, String loanType, String rateType, double rateSpread,
+                                EligibilityDecisionDto decision) {
+      Loans loans = Loans.builder()
                 .loanNumber( 9999999999999L + (long)(Math.random() * ((9999999999999L - 999999999999L) + 1)) + "" )
                 .mobileNumber( mobileNumber )
-                .loanType( LoansConstants.HOME_LOAN )
-                .totalLoan( LoansConstants.NEW_LOAN_LIMIT )
+                .loanType( loanType )
+                .totalLoan( decision.getApprovedAmount() )
                 .amountPaid( 0 )
-                .outstandingAmount( 80000 )
+                .outstandingAmount( decision.getApprovedAmount() )
+                .interestRate( decision.getInterestRate() )
+                .tenureMonths( decision.getTenureMonths() )
+                .rateType( rateType )
+                .rateSpread( rateSpread )
                 .build();
+      loans.setEmiAmount( AmortizationEngine.monthlyInstalment( loans.getOutstandingAmount() * 100L,
+              AmortizationEngine.monthlyRate( loans.getInterestRate() ), loans.getTenureMonths() ) );
+      return loans;
     }
 
     @Override
-    public LoansDto fetchLoanDetails(String mobileNumber) {
-        Loans loans = loansRepository.findByMobileNumber(mobileNumber).orElseThrow(
-                () -> new ResourceNotFoundException("Loan", "mobileNumber", mobileNumber)
-        );
-        return LoansMapper.mapToLoanDto( loans );
+    public List<LoansDto> fetchLoans(String mobileNumber) {
+        List<Loans> loans = loansRepository.findByMobileNumber( mobileNumber );
+        if(loans.isEmpty()){
+            throw new ResourceNotFoundException("Loan", "mobileNumber", mobileNumber);
+        }
+        return loans.stream().map( LoansMapper::mapToLoanDto ).toList();
+    }
+
+    /**
+     * @param mobileNumbers - Mobile Numbers of the Customers
+     * @return the loans of every customer that holds at least one loan, keyed by mobile number
+     */
+    @Override
+    public Map<String, List<LoansDto>> fetchLoansForCustomers(Collection<String> mobileNumbers) {
+        log.info( "Inside LoansServiceImpl.fetchLoansForCustomers for {} mobile numbers", mobileNumbers.size() );
+        Map<String, List<LoansDto>> loansByMobileNumber = new HashMap<>();
+        if(mobileNumbers.isEmpty()){
+            return loansByMobileNumber;
+        }
+        for (Loans loans : loansRepository.findByMobileNumberIn( mobileNumbers )) {
+            loansByMobileNumber.computeIfAbsent( loans.getMobileNumber(), key -> new ArrayList<>() )
+                    .add( LoansMapper.mapToLoanDto( loans ) );
+        }
+        return loansByMobileNumber;
     }
 
+    /**
+     * Applies the update to the existing, locked row, so the loan keeps its id, no duplicate row is written and
+     * the portfolio summary gets the exact difference. The entity is {@code @DynamicUpdate}, so the UPDATE sets
+     * only the columns whose value changed, plus the audit columns; an update that changes nothing writes
+     * nothing. It is flushed here so a loan type the customer already holds fails on the unique key as a
+     * {@link LoanAlreadyExistException}. The rate type and spread change only when given: a loan switched to a
+     * fixed rate keeps its current rate and drops its spread, a floating loan moves to the new spread at the next
+     * repricing. Rate, tenure, accrual and payment bookkeeping columns are never touched.
+     */
     @Override
+    @Transactional
     public Boolean updateLoanDetails(LoansDto loansDto) {
-        Loans loans = loansRepository.findByMobileNumber(loansDto.getMobileNumber()).orElseThrow(
-                () -> new ResourceNotFoundException("Loan", "mobileNumber", loansDto.getMobileNumber())
+        Loans loans = loansRepository.findFirstByMobileNumberAndLoanNumberOrderByLoanIdDesc( loansDto.getMobileNumber(),
+                loansDto.getLoanNumber() ).orElseThrow(
+                () -> new ResourceNotFoundException("Loan", "loanNumber", loansDto.getLoanNumber())
         );
-        loans = LoansMapper.mapToLoans(loansDto);
-        loansRepository.save(loans);
-        return  true;
+        if(LoanType.fromLabel( loansDto.getLoanType() ).isEmpty()){
+            throw new IllegalArgumentException("Unknown loan type " + loansDto.getLoanType());
+        }
+        String rateType = loansDto.getRateType() != null ? loansDto.getRateType() : loans.getRateType();
+        double rateSpread = loansDto.getRateSpread() != null ? loansDto.getRateSpread() : loans.getRateSpread();
+        if(!rateType.matches( LoansConstants.RATE_TYPES ) || rateSpread < 0 || rateSpread > LoansConstants.MAX_RATE_SPREAD){
+            throw new IllegalArgumentException("Rate type must be FIXED or FLOATING with a rate spread from 0 to "
+                    + LoansConstants.MAX_RATE_SPREAD);
+        }
+        if(LoansConstants.RATE_TYPE_FIXED.equals( rateType )){
+            if(loansDto.getRateSpread() != null && rateSpread != 0){
+                throw new IllegalArgumentException("A fixed rate loan has no rate spread");
+            }
+            rateSpread = 0;
+        }
+        portfolioSummaryService.record( loans.getLoanType(), -1, -loans.getTotalLoan(), -loans.getAmountPaid(),
+                -loans.getOutstandingAmount() );
+        loans.setLoanType( loansDto.getLoanType() );
+        loans.setTotalLoan( loansDto.getTotalLoan() );
+        loans.setAmountPaid( loansDto.getAmountPaid() );
+        loans.setOutstandingAmount( loansDto.getOutstandingAmount() );
+        loans.setRateType( rateType );
+        loans.setRateSpread( rateSpread );
+        try {
+            loansRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw new LoanAlreadyExistException(loans.getLoanType() + " already exists for mobile number: "
+                    + loans.getMobileNumber());
+        }
+        portfolioSummaryService.record( loans.getLoanType(), 1, loans.getTotalLoan(), loans.getAmountPaid(),
+                loans.getOutstandingAmount() );
+        return true;
     }
 
+    /**
+     * Deletes every loan of the customer with one statement.
+     */
     @Override
+    @Transactional
     public Boolean deleteLoan(String mobileNumber) {
-        Loans loans = loansRepository.findByMobileNumber(mobileNumber).orElseThrow(
-                () -> new ResourceNotFoundException("Loan", "mobileNumber", mobileNumber)
-        );
-        loansRepository.deleteById( loans.getLoanId() );
+        List<Loans> loans = loansRepository.findByMobileNumber( mobileNumber );
+        if(loans.isEmpty()){
+            throw new ResourceNotFoundException("Loan", "mobileNumber", mobileNumber);
+        }
+        loansRepository.deleteAllInBatch( loans );
+        for (Loans loan : loans) {
+            portfolioSummaryService.record( loan.getLoanType(), -1, -loan.getTotalLoan(), -loan.getAmountPaid(),
+                    -loan.getOutstandingAmount() );
+        }
         return true;
     }
 }
@@ -0,0 +1,324 @@
+package com.bytes.loans.service.impl;
+
+import com.bytes.loans.dto.LoanTypeSummaryDto;
+import com.bytes.loans.dto.PortfolioSummaryDto;
+import com.bytes.loans.event.PortfolioDeltaRemoteEvent;
+import com.bytes.loans.service.PortfolioSummaryService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.bus.ServiceMatcher;
+import org.springframework.cloud.bus.event.Destination;
+import org.springframework.cloud.bus.event.PathDestinationFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps the loan book totals per loan type in memory so the portfolio summary never scans {@code loans}.
+ * <p>
+ * Every committed create, update, delete and payment adds its delta to striped {@link LongAdder}s, so
+ * concurrent writers do not contend on a single counter. The totals are rebuilt with one streaming scan when
+ * the application is ready and again nightly.
+ * <p>
+ * Every loans instance keeps its own totals, so the deltas committed here are also summed per loan type and
+ * sent to the other instances in one {@link PortfolioDeltaRemoteEvent} every
+ * {@code loans.portfolio.publish-interval-ms}, and the deltas received from them are added like local ones. The
+ * totals of an instance therefore lag the changes committed on the others by the publish interval plus the bus
+ * latency. Deltas lost with an instance dying before publishing them, or with the bus, and changes made outside
+ * the loans service are only corrected by the next rebuild.
+ * <p>
+ * A rebuild must count every change exactly once, either in its scan or as a delta. A transaction recording a
+ * delta therefore holds the shared lock from just before its commit until its delta is applied, and the rebuild
+ * opens the consistent snapshot of its scan under the exclusive lock. Changes committed before the snapshot are
+ * in the scan and their deltas went to the live totals only; changes committed after it are not in the scan and
+ * their deltas also go to the totals being rebuilt, which replace the live ones once the scan finishes. That
+ * holds for local deltas only: a remote delta is counted by the commit order of the bus, so one committed just
+ * before the snapshot but received after it is counted twice, and the reverse missed, until the next rebuild.
+ */
+@Service
+@Slf4j
+public class PortfolioSummaryServiceImpl implements PortfolioSummaryService {
+
+    /**
+     * The first consistent read of the rebuild transaction, which fixes the snapshot the scan reads.
+     */
+    private static final String SNAPSHOT_SQL = "SELECT COUNT(*) FROM loans WHERE loan_id = 0";
+    private static final String SCAN_SQL = "SELECT loan_type, total_loan, amount_paid, outstanding_amount FROM loans";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTransaction;
+    private final ApplicationEventPublisher publisher;
+    private final ObjectProvider<ServiceMatcher> serviceMatcher;
+    private final Destination peers;
+    // deltas committed here and not yet sent to the other instances
+    private final Map<String, LoanTypeTotals> unpublished = new ConcurrentHashMap<>();
+    // committing writers and recording take the shared lock, a rebuild takes the exclusive lock only to open its
+    // snapshot and to swap
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private Map<String, LoanTypeTotals> totals = new ConcurrentHashMap<>();
+    private Map<String, LoanTypeTotals> rebuilding;
+    private volatile LocalDateTime rebuiltAt;
+
+    public PortfolioSummaryServiceImpl(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                       ApplicationEventPublisher publisher,
+                                       ObjectProvider<ServiceMatcher> serviceMatcher,
+                                       @Value("${spring.application.name:loans}") String applicationName) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshotTransaction = new TransactionTemplate( transactionManager );
+        this.snapshotTransaction.setReadOnly( true );
+        this.snapshotTransaction.setIsolationLevel( TransactionDefinition.ISOLATION_REPEATABLE_READ );
+        this.publisher = publisher;
+        this.serviceMatcher = serviceMatcher;
+        this.peers = new PathDestinationFactory().getDestination( applicationName + ":**" );
+    }
+
+    /**
+     * Applies the delta after the surrounding transaction commits, or right away outside of one. The shared lock
+     * is held from before the commit until the delta is applied, so no rebuild can open its snapshot in between.
+     */
+    @Override
+    public void record(String loanType, long loans, long totalLoan, long amountPaid, long outstandingAmount) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization( new TransactionSynchronization() {
+                private boolean locked;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    swapLock.readLock().lock();
+                    locked = true;
+                }
+
+                @Override
+                public void afterCommit() {
+                    apply( loanType, loans, totalLoan, amountPaid, outstandingAmount );
+                    unpublished( loanType, loans, totalLoan, amountPaid, outstandingAmount );
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (locked) {
+                        locked = false;
+                        swapLock.readLock().unlock();
+                    }
+                }
+            } );
+        } else {
+            apply( loanType, loans, totalLoan, amountPaid, outstandingAmount );
+            unpublished( loanType, loans, totalLoan, amountPaid, outstandingAmount );
+        }
+    }
+
+    private void unpublished(String loanType, long loans, long totalLoan, long amountPaid, long outstandingAmount) {
+        if (serviceMatcher.getIfAvailable() != null) {
+            unpublished.computeIfAbsent( loanType, type -> new LoanTypeTotals() )
+                    .add( loans, totalLoan, amountPaid, outstandingAmount );
+        }
+    }
+
+    /**
+     * Sends the deltas committed here since the previous call to the other instances.
+     *
+     * @return number of loan types whose deltas were sent
+     */
+    @Scheduled(fixedDelayString = "${loans.portfolio.publish-interval-ms:1000}")
+    public int publish() {
+        ServiceMatcher matcher = serviceMatcher.getIfAvailable();
+        if (matcher == null) {
+            return 0;
+        }
+        Map<String, long[]> deltas = new HashMap<>();
+        unpublished.forEach( (loanType, delta) -> {
+            long[] sums = delta.drain();
+            if (sums[0] != 0 || sums[1] != 0 || sums[2] != 0 || sums[3] != 0) {
+                deltas.put( loanType, sums );
+            }
+        } );
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        try {
+            publisher.publishEvent( new PortfolioDeltaRemoteEvent( this, matcher.getBusId(), peers, deltas ) );
+        } catch (RuntimeException e) {
+            deltas.forEach( (loanType, sums) -> unpublished.computeIfAbsent( loanType, type -> new LoanTypeTotals() )
+                    .add( sums[0], sums[1], sums[2], sums[3] ) );
+            log.warn( "Sending the portfolio deltas of {} loan types failed, retrying on the next publish",
+                    deltas.size(), e );
+            return 0;
+        }
+        return deltas.size();
+    }
+
+    @PreDestroy
+    public void publishOnShutdown() {
+        publish();
+    }
+
+    /**
+     * Adds the deltas committed on another instance. The event this instance sent itself is skipped, its deltas
+     * were applied on commit.
+     */
+    @EventListener
+    public void onPortfolioDelta(PortfolioDeltaRemoteEvent event) {
+        ServiceMatcher matcher = serviceMatcher.getIfAvailable();
+        if (matcher != null && matcher.isFromSelf( event )) {
+            return;
+        }
+        event.getDeltas().forEach( (loanType, sums) -> apply( loanType, sums[0], sums[1], sums[2], sums[3] ) );
+    }
+
+    private void apply(String loanType, long loans, long totalLoan, long amountPaid, long outstandingAmount) {
+        swapLock.readLock().lock();
+        try {
+            totals.computeIfAbsent( loanType, type -> new LoanTypeTotals() )
+                    .add( loans, totalLoan, amountPaid, outstandingAmount );
+            if (rebuilding != null) {
+                rebuilding.computeIfAbsent( loanType, type -> new LoanTypeTotals() )
+                        .add( loans, totalLoan, amountPaid, outstandingAmount );
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public PortfolioSummaryDto fetchSummary() {
+        List<LoanTypeSummaryDto> loanTypes = new ArrayList<>();
+        long loans = 0, totalLoan = 0, amountPaid = 0, outstandingAmount = 0;
+        swapLock.readLock().lock();
+        try {
+            for (Map.Entry<String, LoanTypeTotals> entry : totals.entrySet()) {
+                LoanTypeSummaryDto loanType = entry.getValue().toDto( entry.getKey() );
+                loans += loanType.getLoans();
+                totalLoan += loanType.getTotalLoan();
+                amountPaid += loanType.getAmountPaid();
+                outstandingAmount += loanType.getOutstandingAmount();
+                loanTypes.add( loanType );
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+        loanTypes.sort( Comparator.comparing( LoanTypeSummaryDto::getLoanType ) );
+        return PortfolioSummaryDto.builder()
+                .loans( loans )
+                .totalLoan( totalLoan )
+                .amountPaid( amountPaid )
+                .outstandingAmount( outstandingAmount )
+                .loanTypes( loanTypes )
+                .rebuiltAt( rebuiltAt )
+                .build();
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${loans.portfolio.rebuild-cron:0 0 3 * * *}")
+    public synchronized void rebuild() {
+        long startNanos = System.nanoTime();
+        Map<String, long[]> scanned = new HashMap<>();
+        try {
+            snapshotTransaction.executeWithoutResult( status -> scan( scanned ) );
+        } catch (RuntimeException e) {
+            swapLock.writeLock().lock();
+            try {
+                rebuilding = null;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        swapLock.writeLock().lock();
+        try {
+            Map<String, LoanTypeTotals> rebuilt = rebuilding;
+            scanned.forEach( (loanType, sums) -> rebuilt.computeIfAbsent( loanType, type -> new LoanTypeTotals() )
+                    .add( sums[0], sums[1], sums[2], sums[3] ) );
+            totals = rebuilt;
+            rebuilding = null;
+            rebuiltAt = LocalDateTime.now();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        log.info( "Rebuilt portfolio summary of {} loan types in {} ms", scanned.size(),
+                (System.nanoTime() - startNanos) / 1_000_000 );
+    }
+
+    /**
+     * Opens the snapshot and starts collecting deltas in one step under the exclusive lock, then streams the
+     * snapshot without holding any lock.
+     */
+    private void scan(Map<String, long[]> scanned) {
+        swapLock.writeLock().lock();
+        try {
+            jdbcTemplate.queryForObject( SNAPSHOT_SQL, Long.class );
+            rebuilding = new ConcurrentHashMap<>();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        jdbcTemplate.query( connection -> {
+            PreparedStatement statement = connection.prepareStatement( SCAN_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY );
+            // MySQL Connector/J streams the result row by row instead of buffering it
+            statement.setFetchSize( Integer.MIN_VALUE );
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            long[] sums = scanned.computeIfAbsent( rs.getString( 1 ), type -> new long[4] );
+            sums[0]++;
+            sums[1] += rs.getInt( 2 );
+            sums[2] += rs.getInt( 3 );
+            sums[3] += rs.getInt( 4 );
+        } );
+    }
+
+    private static final class LoanTypeTotals {
+
+        private final LongAdder loans = new LongAdder();
+        private final LongAdder totalLoan = new LongAdder();
+        private final LongAdder amountPaid = new LongAdder();
+        private final LongAdder outstandingAmount = new LongAdder();
+
+        private void add(long loans, long totalLoan, long amountPaid, long outstandingAmount) {
+            this.loans.add( loans );
+            this.totalLoan.add( totalLoan );
+            this.amountPaid.add( amountPaid );
+            this.outstandingAmount.add( outstandingAmount );
+        }
+
+        private long[] drain() {
+            return new long[]{loans.sumThenReset(), totalLoan.sumThenReset(), amountPaid.sumThenReset(),
+                    outstandingAmount.sumThenReset()};
+        }
+
+        private LoanTypeSummaryDto toDto(String loanType) {
+            return LoanTypeSummaryDto.builder()
+                    .loanType( loanType )
+                    .loans( loans.sum() )
+                    .totalLoan( totalLoan.sum() )
+                    .amountPaid( amountPaid.sum() )
+                    .outstandingAmount( outstandingAmount.sum() )
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.bytes.loans.service.impl;
+
+import com.bytes.loans.dto.WhatIfOutcomeDto;
+import com.bytes.loans.dto.WhatIfRequestDto;
+import com.bytes.loans.dto.WhatIfResponseDto;
+import com.bytes.loans.dto.WhatIfScenarioDto;
+import com.bytes.loans.engine.AmortizationEngine;
+import com.bytes.loans.engine.ScenarioBatch;
+import com.bytes.loans.engine.ScenarioResults;
+import com.bytes.loans.exception.ResourceNotFoundException;
+import com.bytes.loans.service.WhatIfService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Evaluates what-if scenarios in one batch on the {@link AmortizationEngine}.
+ * <p>
+ * The loans the scenarios refer to are loaded with a single query, then every scenario is copied into a
+ * {@link ScenarioBatch} and evaluated in lockstep, so a request with thousands of scenarios costs a few
+ * passes over primitive arrays rather than one schedule per scenario.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WhatIfServiceImpl implements WhatIfService {
+
+    private static final String LOANS_SQL = "SELECT loan_number, outstanding_amount, interest_rate, tenure_months, "
+            + "created_at FROM loans WHERE loan_number IN (:loanNumbers) ORDER BY loan_id";
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Override
+    public WhatIfResponseDto evaluate(WhatIfRequestDto whatIfRequestDto) {
+        long startNanos = System.nanoTime();
+        List<WhatIfScenarioDto> scenarios = whatIfRequestDto.getScenarios();
+        Map<String, LoanTerms> loans = loadLoans( scenarios );
+
+        ScenarioBatch batch = new ScenarioBatch( scenarios.size() );
+        List<WhatIfOutcomeDto> outcomes = new ArrayList<>( scenarios.size() );
+        for (int i = 0; i < scenarios.size(); i++) {
+            WhatIfScenarioDto scenario = scenarios.get( i );
+            LoanTerms loan = hasLoanNumber( scenario ) ? loans.get( scenario.getLoanNumber() ) : null;
+            int principal = scenario.getPrincipal() != null ? scenario.getPrincipal() : loan.outstandingAmount();
+            double interestRate = scenario.getInterestRate() != null ? scenario.getInterestRate() : loan.interestRate();
+            int tenureMonths = scenario.getTenureMonths() != null ? scenario.getTenureMonths() : loan.tenureMonths();
+            int prepayment = scenario.getPrepaymentAmount() != null ? scenario.getPrepaymentAmount() : 0;
+            int prepaymentMonth = scenario.getPrepaymentMonth() != null ? scenario.getPrepaymentMonth() : 0;
+            try {
+                batch.add( toPaise( principal ), interestRate, tenureMonths, toPaise( prepayment ), prepaymentMonth );
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException( "Scenario " + (i + 1) + ": " + e.getMessage(), e );
+            }
+            outcomes.add( WhatIfOutcomeDto.builder()
+                    .loanNumber( scenario.getLoanNumber() )
+                    .principal( principal )
+                    .interestRate( interestRate )
+                    .tenureMonths( tenureMonths )
+                    .build() );
+        }
+
+        ScenarioResults results = AmortizationEngine.evaluateScenarios( batch );
+        for (int i = 0; i < results.size(); i++) {
+            WhatIfOutcomeDto outcome = outcomes.get( i );
+            outcome.setMonthlyInstalment( toRupees( results.getMonthlyInstalment()[i] ) );
+            outcome.setTotalInterest( toRupees( results.getTotalInterest()[i] ) );
+            outcome.setInterestSaved( toRupees( results.getInterestSaved()[i] ) );
+            outcome.setMonthsToPayoff( results.getMonthsToPayoff()[i] );
+        }
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        log.info( "Evaluated {} what-if scenarios over {} loans in {} ms", scenarios.size(), loans.size(), elapsedMillis );
+        return WhatIfResponseDto.builder()
+                .outcomes( outcomes )
+                .elapsedMillis( elapsedMillis )
+                .build();
+    }
+
+    private Map<String, LoanTerms> loadLoans(List<WhatIfScenarioDto> scenarios) {
+        Set<String> loanNumbers = new LinkedHashSet<>();
+        for (WhatIfScenarioDto scenario : scenarios) {
+            if (hasLoanNumber( scenario )) {
+                loanNumbers.add( scenario.getLoanNumber() );
+            }
+        }
+        Map<String, LoanTerms> loans = new HashMap<>();
+        if (loanNumbers.isEmpty()) {
+            return loans;
+        }
+        // duplicate rows of a loan are read oldest first, so the newest one wins; the outstanding amount is
+        // amortized over the instalments left on the loan
+        LocalDate today = LocalDate.now();
+        namedParameterJdbcTemplate.query( LOANS_SQL, Map.of( "loanNumbers", loanNumbers ),
+                (RowCallbackHandler) rs -> loans.put( rs.getString( 1 ), new LoanTerms( rs.getInt( 2 ), rs.getDouble( 3 ),
+                        AmortizationEngine.remainingMonths( rs.getInt( 4 ), rs.getDate( 5 ).toLocalDate(), today ) ) ) );
+        for (String loanNumber : loanNumbers) {
+            if (!loans.containsKey( loanNumber )) {
+                throw new ResourceNotFoundException( "Loan", "loanNumber", loanNumber );
+            }
+        }
+        return loans;
+    }
+
+    private static boolean hasLoanNumber(WhatIfScenarioDto scenario) {
+        return scenario.getLoanNumber() != null && !scenario.getLoanNumber().isEmpty();
+    }
+
+    private static long toPaise(int rupees) {
+        return rupees * 100L;
+    }
+
+    private static double toRupees(long paise) {
+        return paise / 100d;
+    }
+
+    private record LoanTerms(int outstandingAmount, double interestRate, int tenureMonths) {
+    }
+}
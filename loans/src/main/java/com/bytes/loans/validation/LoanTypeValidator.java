@@ -0,0 +1,13 @@
+package com.bytes.loans.validation;
+
+import com.bytes.loans.constants.LoanType;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class LoanTypeValidator implements ConstraintValidator<ValidLoanType, String> {
+
+    @Override
+    public boolean isValid(String value, ConstraintValidatorContext context) {
+        return value == null || LoanType.fromLabel( value ).isPresent();
+    }
+}
@@ -0,0 +1,27 @@
+package com.bytes.loans.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The annotated string must be the label of a {@link com.bytes.loans.constants.LoanType}. Null is valid, pair it
+ * with {@code @NotEmpty} where the loan type is required.
+ */
+@Documented
+@Constraint(validatedBy = LoanTypeValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ValidLoanType {
+
+    String message() default "LoanType must be one of Home Loan, Car Loan, Personal Loan, Education Loan or Gold Loan";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
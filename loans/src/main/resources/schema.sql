@@ -6,9 +6,53 @@ CREATE TABLE IF NOT EXISTS `loans` (
     `total_loan` int NOT NULL,
     `amount_paid` int NOT NULL,
     `outstanding_amount` int NOT NULL,
+    `interest_rate` decimal(5,2) NOT NULL DEFAULT 8.50,
+    `tenure_months` int NOT NULL DEFAULT 240,
+    `rate_type` varchar(10) NOT NULL DEFAULT 'FIXED',
+    `rate_spread` decimal(5,2) NOT NULL DEFAULT 0.00,
+    `emi_amount` bigint NOT NULL DEFAULT 0 COMMENT 'paise, unlike the rupee amounts above',
+    `accrued_interest` bigint NOT NULL DEFAULT 0 COMMENT 'paise, unlike the rupee amounts above',
+    `last_accrued_on` date DEFAULT NULL,
     `created_at` date NOT NULL,
     `created_by` varchar(20) NOT NULL,
     `updated_at` date DEFAULT NULL,
     `updated_by` varchar(20) DEFAULT NULL,
-    PRIMARY KEY (`loan_id`)
+    PRIMARY KEY (`loan_id`),
+    UNIQUE KEY `uk_loans_mobile_number_loan_type` (`mobile_number`, `loan_type`),
+    KEY `idx_loans_loan_number` (`loan_number`),
+    KEY `idx_loans_mobile_loan_number` (`mobile_number`, `loan_number`),
+    KEY `idx_loans_type_rate_type` (`loan_type`, `rate_type`, `loan_id`)
+    );
+
+CREATE TABLE IF NOT EXISTS `loan_accrual_checkpoints` (
+                                       `accrual_date` date NOT NULL,
+                                       `partition_no` int NOT NULL,
+    `last_loan_id` bigint NOT NULL,
+    `upper_loan_id` bigint NOT NULL,
+    `processed` bigint NOT NULL DEFAULT 0,
+    `completed` boolean NOT NULL DEFAULT false,
+    `lease_owner` varchar(36) DEFAULT NULL,
+    `lease_until` datetime DEFAULT NULL,
+    `updated_at` datetime NOT NULL,
+    PRIMARY KEY (`accrual_date`, `partition_no`)
+    );
+
+CREATE TABLE IF NOT EXISTS `loan_payments` (
+                                       `payment_id` bigint NOT NULL AUTO_INCREMENT,
+                                       `idempotency_key` varchar(64) NOT NULL,
+    `loan_number` varchar(100) NOT NULL,
+    `amount` int NOT NULL,
+    `posted_at` datetime(6) NOT NULL,
+    PRIMARY KEY (`payment_id`),
+    UNIQUE KEY `uk_loan_payments_idempotency_key` (`idempotency_key`),
+    KEY `idx_loan_payments_loan_number` (`loan_number`, `payment_id`)
+    );
+
+CREATE TABLE IF NOT EXISTS `loan_balance_snapshots` (
+                                       `loan_number` varchar(100) NOT NULL,
+                                       `snapshot_date` date NOT NULL,
+    `amount_paid` int NOT NULL,
+    `outstanding_amount` int NOT NULL,
+    `last_payment_id` bigint NOT NULL,
+    PRIMARY KEY (`loan_number`, `snapshot_date`)
     );
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.bytes.loans.benchmark;
+
+import com.bytes.loans.engine.AmortizationEngine;
+import com.bytes.loans.engine.AmortizationSchedule;
+import com.bytes.loans.engine.LoanBook;
+import com.bytes.loans.engine.PortfolioCashFlow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one 360-month schedule and of projecting a one million loan book on the common fork-join pool.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.bytes.loans.benchmark.AmortizationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class AmortizationBenchmark {
+
+    private static final int PORTFOLIO_LOANS = 1_000_000;
+
+    private LoanBook book;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        book = new LoanBook(PORTFOLIO_LOANS);
+        for (int i = 0; i < PORTFOLIO_LOANS; i++) {
+            // 10k to 1Cr outstanding, 6% to 14% a year, 1 to 30 years left
+            book.add(1_000_000L + random.nextLong(999_000_000L), 6 + random.nextInt(800) / 100d, 12 + random.nextInt(349));
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public AmortizationSchedule schedule360Months() {
+        return AmortizationEngine.schedule(500_000_000L, 8.5, 360);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public PortfolioCashFlow portfolioOneMillionLoans() {
+        return AmortizationEngine.projectPortfolio(book);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AmortizationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
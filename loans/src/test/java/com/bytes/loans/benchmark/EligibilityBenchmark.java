@@ -0,0 +1,111 @@
+package com.bytes.loans.benchmark;
+
+import com.bytes.loans.engine.DecisionTable;
+import com.bytes.loans.engine.EligibilityRule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluations per second of a campaign sized decision table, compiled against a rule by rule scan.
+ * <p>
+ * The table has a few hundred rules over four loan types with random credit score, income, age and amount
+ * bands, and a catch-all last rule, so most applications only match deep into the table.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.bytes.loans.benchmark.EligibilityBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EligibilityBenchmark {
+
+    private static final String[] LOAN_TYPES = {"Home Loan", "Car Loan", "Personal Loan", "Education Loan"};
+    private static final int APPLICATIONS = 4096;
+
+    @Param({"300"})
+    int rules;
+
+    private List<EligibilityRule> ruleList;
+    private DecisionTable table;
+    private String[] loanTypes;
+    private long[][] inputs;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        ruleList = new ArrayList<>(rules);
+        for (int r = 0; r < rules - 1; r++) {
+            int minScore = 300 + random.nextInt(500);
+            int minIncome = random.nextInt(200_000);
+            ruleList.add(new EligibilityRule("rule-" + r, List.of(LOAN_TYPES[random.nextInt(LOAN_TYPES.length)]),
+                    minScore, minScore + random.nextInt(100), minIncome, minIncome + random.nextInt(20_000),
+                    18 + random.nextInt(30), null, null, 1_000_000 + random.nextInt(9_000_000),
+                    random.nextInt(10) > 0, 5_000_000, 8 + random.nextInt(400) / 100d, 240));
+        }
+        ruleList.add(new EligibilityRule("default", null, null, null, null, null, null, null, null, null,
+                null, 100_000, 8.5, 240));
+        table = DecisionTable.compile(ruleList);
+
+        loanTypes = new String[APPLICATIONS];
+        inputs = new long[APPLICATIONS][];
+        for (int i = 0; i < APPLICATIONS; i++) {
+            loanTypes[i] = LOAN_TYPES[random.nextInt(LOAN_TYPES.length)];
+            inputs[i] = new long[]{300 + random.nextInt(600), random.nextInt(250_000), 18 + random.nextInt(60),
+                    100_000 + random.nextInt(10_000_000)};
+        }
+    }
+
+    @Benchmark
+    public int compiledTable() {
+        int i = next++ & (APPLICATIONS - 1);
+        long[] application = inputs[i];
+        return table.match(loanTypes[i], application[0], application[1], application[2], application[3]);
+    }
+
+    @Benchmark
+    public int ruleByRuleScan() {
+        int i = next++ & (APPLICATIONS - 1);
+        long[] application = inputs[i];
+        for (int r = 0; r < ruleList.size(); r++) {
+            EligibilityRule rule = ruleList.get(r);
+            if ((rule.loanTypes() == null || rule.loanTypes().contains(loanTypes[i]))
+                    && within(application[0], rule.minCreditScore(), rule.maxCreditScore())
+                    && within(application[1], rule.minMonthlyIncome(), rule.maxMonthlyIncome())
+                    && within(application[2], rule.minAge(), rule.maxAge())
+                    && within(application[3], rule.minRequestedAmount(), rule.maxRequestedAmount())) {
+                return r;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean within(long value, Integer min, Integer max) {
+        return (min == null || value >= min) && (max == null || value <= max);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EligibilityBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,196 @@
+package com.bytes.loans.benchmark;
+
+import com.bytes.loans.engine.ParquetFileWriter;
+import com.bytes.loans.engine.ParquetFileWriter.Column;
+import com.bytes.loans.engine.ParquetFileWriter.Type;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Time to write a one million loan book as a Parquet file, as CSV and as GZIP compressed CSV; the sizes of
+ * the three files are printed after each trial.
+ * <p>
+ * Rows come from memory so only the encoding and compression are measured, not the database cursor.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.bytes.loans.benchmark.LoanExportBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class LoanExportBenchmark {
+
+    private static final int LOANS = 1_000_000;
+    private static final String[] LOAN_TYPES = {"Home Loan", "Car Loan", "Personal Loan", "Education Loan"};
+    private static final List<Column> COLUMNS = List.of(
+            new Column("loan_id", Type.INT64_DELTA),
+            new Column("mobile_number", Type.STRING),
+            new Column("loan_number", Type.STRING),
+            new Column("loan_type", Type.DICTIONARY),
+            new Column("total_loan", Type.INT32),
+            new Column("amount_paid", Type.INT32),
+            new Column("outstanding_amount", Type.INT32),
+            new Column("interest_rate", Type.FLOAT64),
+            new Column("tenure_months", Type.INT32),
+            new Column("rate_type", Type.DICTIONARY),
+            new Column("rate_spread", Type.FLOAT64),
+            new Column("emi_amount", Type.INT64),
+            new Column("accrued_interest", Type.INT64),
+            new Column("last_accrued_on", Type.DATE),
+            new Column("created_at", Type.DATE));
+
+    @Param({"100000"})
+    int rowGroupSize;
+
+    private String[] mobileNumbers;
+    private String[] loanNumbers;
+    private int[] loanTypes;
+    private int[] totalLoans;
+    private int[] amountsPaid;
+    private double[] interestRates;
+    private int[] tenures;
+    private boolean[] floating;
+    private long[] emis;
+    private long[] accruedInterest;
+    private LocalDate[] createdAt;
+    private LocalDate lastAccruedOn;
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        SplittableRandom random = new SplittableRandom(42);
+        mobileNumbers = new String[LOANS];
+        loanNumbers = new String[LOANS];
+        loanTypes = new int[LOANS];
+        totalLoans = new int[LOANS];
+        amountsPaid = new int[LOANS];
+        interestRates = new double[LOANS];
+        tenures = new int[LOANS];
+        floating = new boolean[LOANS];
+        emis = new long[LOANS];
+        accruedInterest = new long[LOANS];
+        createdAt = new LocalDate[LOANS];
+        lastAccruedOn = LocalDate.of(2026, 10, 18);
+        LocalDate firstLoan = LocalDate.of(2015, 1, 1);
+        for (int i = 0; i < LOANS; i++) {
+            mobileNumbers[i] = Long.toString(6_000_000_000L + random.nextLong(4_000_000_000L));
+            loanNumbers[i] = Long.toString(100_000_000_000L + random.nextLong(900_000_000_000L));
+            loanTypes[i] = random.nextInt(LOAN_TYPES.length);
+            totalLoans[i] = 10_000 + random.nextInt(9_990_000);
+            amountsPaid[i] = random.nextInt(totalLoans[i]);
+            interestRates[i] = 6 + random.nextInt(800) / 100d;
+            tenures[i] = 12 + random.nextInt(349);
+            floating[i] = random.nextInt(4) == 0;
+            emis[i] = random.nextLong(10_000_000L);
+            accruedInterest[i] = random.nextLong(100_000L);
+            createdAt[i] = firstLoan.plusDays(random.nextInt(4000));
+        }
+        directory = Files.createTempDirectory("loan-export-benchmark");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        for (String name : new String[]{"loans.parquet", "loans.csv", "loans.csv.gz"}) {
+            Path file = directory.resolve(name);
+            if (Files.exists(file)) {
+                System.out.printf("%n%s: %,d bytes%n", name, Files.size(file));
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public long parquet() throws IOException {
+        ParquetFileWriter writer = new ParquetFileWriter(new BufferedOutputStream(
+                Files.newOutputStream(directory.resolve("loans.parquet")), 1 << 16), COLUMNS, rowGroupSize);
+        for (int i = 0; i < LOANS; i++) {
+            writer.setLong(0, i + 1);
+            writer.setString(1, mobileNumbers[i]);
+            writer.setString(2, loanNumbers[i]);
+            writer.setString(3, LOAN_TYPES[loanTypes[i]]);
+            writer.setInt(4, totalLoans[i]);
+            writer.setInt(5, amountsPaid[i]);
+            writer.setInt(6, totalLoans[i] - amountsPaid[i]);
+            writer.setDouble(7, interestRates[i]);
+            writer.setInt(8, tenures[i]);
+            writer.setString(9, floating[i] ? "FLOATING" : "FIXED");
+            writer.setDouble(10, floating[i] ? 2.5 : 0);
+            writer.setLong(11, emis[i]);
+            writer.setLong(12, accruedInterest[i]);
+            writer.setDate(13, lastAccruedOn);
+            writer.setDate(14, createdAt[i]);
+            writer.endRow();
+        }
+        writer.close();
+        return writer.bytesWritten();
+    }
+
+    @Benchmark
+    public void csv() throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                Files.newOutputStream(directory.resolve("loans.csv")), StandardCharsets.UTF_8), 1 << 16)) {
+            writeCsv(writer);
+        }
+    }
+
+    @Benchmark
+    public void gzipCsv() throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(
+                Files.newOutputStream(directory.resolve("loans.csv.gz")), 1 << 16), StandardCharsets.UTF_8), 1 << 16)) {
+            writeCsv(writer);
+        }
+    }
+
+    private void writeCsv(Writer writer) throws IOException {
+        writer.write("loan_id,mobile_number,loan_number,loan_type,total_loan,amount_paid,outstanding_amount,"
+                + "interest_rate,tenure_months,rate_type,rate_spread,emi_amount,accrued_interest,last_accrued_on,created_at\n");
+        StringBuilder line = new StringBuilder(160);
+        for (int i = 0; i < LOANS; i++) {
+            line.setLength(0);
+            line.append(i + 1).append(',').append(mobileNumbers[i]).append(',').append(loanNumbers[i]).append(',')
+                    .append(LOAN_TYPES[loanTypes[i]]).append(',').append(totalLoans[i]).append(',')
+                    .append(amountsPaid[i]).append(',').append(totalLoans[i] - amountsPaid[i]).append(',')
+                    .append(interestRates[i]).append(',').append(tenures[i]).append(',')
+                    .append(floating[i] ? "FLOATING" : "FIXED").append(',').append(floating[i] ? 2.5 : 0.0).append(',')
+                    .append(emis[i]).append(',').append(accruedInterest[i]).append(',')
+                    .append(lastAccruedOn).append(',').append(createdAt[i]).append('\n');
+            writer.append(line);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(LoanExportBenchmark.class.getSimpleName()).build()).run();
+    }
+}
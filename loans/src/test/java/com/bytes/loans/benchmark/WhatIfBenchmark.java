@@ -0,0 +1,109 @@
+package com.bytes.loans.benchmark;
+
+import com.bytes.loans.engine.AmortizationEngine;
+import com.bytes.loans.engine.ScenarioBatch;
+import com.bytes.loans.engine.ScenarioResults;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A batch of what-if scenarios evaluated in lockstep over primitive arrays, against a naive scalar
+ * calculator that walks each scenario's schedule month by month on its own.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.bytes.loans.benchmark.WhatIfBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WhatIfBenchmark {
+
+    @Param({"1000", "10000"})
+    int scenarios;
+
+    private List<Scenario> scenarioList;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        scenarioList = new ArrayList<>(scenarios);
+        for (int i = 0; i < scenarios; i++) {
+            // 10k to 1Cr, 6% to 14% a year, 1 to 30 years, a third of them prepaying
+            long principal = 1_000_000L + random.nextLong(999_000_000L);
+            int months = 12 + random.nextInt(349);
+            boolean prepays = random.nextInt(3) == 0;
+            scenarioList.add(new Scenario(principal, 6 + random.nextInt(800) / 100d, months,
+                    prepays ? random.nextLong(principal) : 0, prepays ? 1 + random.nextInt(months) : 0));
+        }
+    }
+
+    @Benchmark
+    public ScenarioResults lockstep() {
+        // copying the request into the batch is part of the cost the service pays
+        ScenarioBatch batch = new ScenarioBatch(scenarioList.size());
+        for (Scenario scenario : scenarioList) {
+            batch.add(scenario.principal(), scenario.annualRate(), scenario.months(), scenario.prepayment(),
+                    scenario.prepaymentMonth());
+        }
+        return AmortizationEngine.evaluateScenarios(batch);
+    }
+
+    @Benchmark
+    public List<Outcome> naiveScalar() {
+        List<Outcome> outcomes = new ArrayList<>(scenarioList.size());
+        for (Scenario scenario : scenarioList) {
+            outcomes.add(naive(scenario));
+        }
+        return outcomes;
+    }
+
+    private static Outcome naive(Scenario scenario) {
+        double rate = AmortizationEngine.monthlyRate(scenario.annualRate());
+        long instalment = AmortizationEngine.monthlyInstalment(scenario.principal(), rate, scenario.months());
+        long balance = scenario.principal();
+        long interest = 0;
+        int month = 0;
+        while (balance > 0 && month < scenario.months()) {
+            month++;
+            long charged = Math.round(balance * rate);
+            long repaid = month == scenario.months() ? balance : Math.min(instalment - charged, balance);
+            balance -= repaid;
+            interest += charged;
+            if (month == scenario.prepaymentMonth()) {
+                balance -= Math.min(scenario.prepayment(), balance);
+            }
+        }
+        return new Outcome(instalment, interest, month);
+    }
+
+    record Scenario(long principal, double annualRate, int months, long prepayment, int prepaymentMonth) {
+    }
+
+    record Outcome(long monthlyInstalment, long totalInterest, int monthsToPayoff) {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(WhatIfBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -1,9 +1,19 @@
 package com.bytes.loans.controller;
 
 import com.bytes.loans.constants.LoansConstants;
+import com.bytes.loans.dto.AmortizationScheduleDto;
+import com.bytes.loans.dto.EligibilityDecisionDto;
+import com.bytes.loans.dto.LoanApplicationDto;
 import com.bytes.loans.dto.LoansDto;
 import com.bytes.loans.dto.ResponseDto;
+import com.bytes.loans.dto.WhatIfRequestDto;
+import com.bytes.loans.dto.WhatIfResponseDto;
+import com.bytes.loans.dto.WhatIfScenarioDto;
+import com.bytes.loans.service.AmortizationService;
+import com.bytes.loans.service.EligibilityService;
 import com.bytes.loans.service.LoansService;
+import com.bytes.loans.service.PortfolioSummaryService;
+import com.bytes.loans.service.WhatIfService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,6 +23,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -22,6 +35,18 @@ class LoansControllerTest {
     @Mock
     private LoansService loansService;
 
+    @Mock
+    private AmortizationService amortizationService;
+
+    @Mock
+    private PortfolioSummaryService portfolioSummaryService;
+
+    @Mock
+    private EligibilityService eligibilityService;
+
+    @Mock
+    private WhatIfService whatIfService;
+
     @InjectMocks
     private LoansController loansController;
 
@@ -44,30 +69,104 @@ class LoansControllerTest {
     @Test
     void createLoan_ShouldReturnCreatedStatus() {
         // Arrange
-        doNothing().when(loansService).createLoan(mobileNumber);
+        doNothing().when(loansService).createLoan(mobileNumber, LoansConstants.HOME_LOAN, LoansConstants.RATE_TYPE_FIXED, 0);
 
         // Act
-        ResponseEntity<ResponseDto> response = loansController.createLoan(mobileNumber);
+        ResponseEntity<ResponseDto> response = loansController.createLoan(mobileNumber, LoansConstants.HOME_LOAN, LoansConstants.RATE_TYPE_FIXED, 0);
 
         // Assert
-        verify(loansService, times(1)).createLoan(mobileNumber);
+        verify(loansService, times(1)).createLoan(mobileNumber, LoansConstants.HOME_LOAN, LoansConstants.RATE_TYPE_FIXED, 0);
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
         assertEquals(LoansConstants.STATUS_201, response.getBody().getStatusCode());
         assertEquals(LoansConstants.MESSAGE_201, response.getBody().getStatusMessage());
     }
 
     @Test
-    void fetchLoanDetails_ShouldReturnLoanDetails() {
+    void checkEligibility_ShouldReturnDecision() {
+        // Arrange
+        LoanApplicationDto application = LoanApplicationDto.builder()
+                .mobileNumber(mobileNumber)
+                .loanType(LoansConstants.HOME_LOAN)
+                .creditScore(780)
+                .build();
+        EligibilityDecisionDto decision = EligibilityDecisionDto.builder()
+                .eligible(true)
+                .ruleId("prime-home")
+                .build();
+        when(eligibilityService.evaluate(application)).thenReturn(decision);
+
+        // Act
+        ResponseEntity<EligibilityDecisionDto> response = loansController.checkEligibility(application);
+
+        // Assert
+        verify(eligibilityService, times(1)).evaluate(application);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(decision, response.getBody());
+    }
+
+    @Test
+    void evaluateWhatIf_ShouldReturnOutcomes() {
         // Arrange
-        when(loansService.fetchLoanDetails(mobileNumber)).thenReturn(loansDto);
+        WhatIfRequestDto request = new WhatIfRequestDto(List.of(WhatIfScenarioDto.builder()
+                .principal(100000).interestRate(8.5).tenureMonths(240).build()));
+        WhatIfResponseDto outcomes = WhatIfResponseDto.builder().outcomes(List.of()).build();
+        when(whatIfService.evaluate(request)).thenReturn(outcomes);
+
+        // Act
+        ResponseEntity<WhatIfResponseDto> response = loansController.evaluateWhatIf(request);
+
+        // Assert
+        verify(whatIfService, times(1)).evaluate(request);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(outcomes, response.getBody());
+    }
+
+    @Test
+    void fetchLoanDetails_ShouldReturnAllLoans() {
+        // Arrange
+        when(loansService.fetchLoans(mobileNumber)).thenReturn(List.of(loansDto));
+
+        // Act
+        ResponseEntity<List<LoansDto>> response = loansController.fetchLoanDetails(mobileNumber);
+
+        // Assert
+        verify(loansService, times(1)).fetchLoans(mobileNumber);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(loansDto), response.getBody());
+    }
+
+    @Test
+    void fetchLoansForCustomers_ShouldReturnLoansKeyedByMobileNumber() {
+        // Arrange
+        List<String> mobileNumbers = List.of(mobileNumber, "9876543210");
+        Map<String, List<LoansDto>> loansByMobileNumber = Map.of(mobileNumber, List.of(loansDto));
+        when(loansService.fetchLoansForCustomers(mobileNumbers)).thenReturn(loansByMobileNumber);
+
+        // Act
+        ResponseEntity<Map<String, List<LoansDto>>> response = loansController.fetchLoansForCustomers(mobileNumbers);
+
+        // Assert
+        verify(loansService, times(1)).fetchLoansForCustomers(mobileNumbers);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(loansByMobileNumber, response.getBody());
+    }
+
+    @Test
+    void fetchSchedule_ShouldReturnSchedule() {
+        // Arrange
+        AmortizationScheduleDto scheduleDto = AmortizationScheduleDto.builder()
+                .loanNumber("123456789012")
+                .tenureMonths(240)
+                .build();
+        when(amortizationService.fetchSchedule(mobileNumber, "123456789012")).thenReturn(scheduleDto);
 
         // Act
-        ResponseEntity<LoansDto> response = loansController.fetchLoanDetails(mobileNumber);
+        ResponseEntity<AmortizationScheduleDto> response = loansController.fetchSchedule(mobileNumber, "123456789012");
 
         // Assert
-        verify(loansService, times(1)).fetchLoanDetails(mobileNumber);
+        verify(amortizationService, times(1)).fetchSchedule(mobileNumber, "123456789012");
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(loansDto, response.getBody());
+        assertEquals(scheduleDto, response.getBody());
     }
 
     @Test
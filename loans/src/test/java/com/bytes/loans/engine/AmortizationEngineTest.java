@@ -0,0 +1,147 @@
+package com.bytes.loans.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AmortizationEngineTest {
+
+    @Test
+    void schedule_WhenRateIsPositive_ShouldMatchStandardEmiAndEndAtZero() {
+        // Act
+        AmortizationSchedule schedule = AmortizationEngine.schedule(10_000_000L, 12, 12);
+
+        // Assert
+        assertEquals(888_488L, schedule.getMonthlyInstalment());
+        assertEquals(12, schedule.getMonths());
+        assertEquals(100_000L, schedule.getInterest()[0]);
+        assertEquals(0L, schedule.getBalance()[11]);
+        assertEquals(10_000_000L, Arrays.stream(schedule.getPrincipal()).sum());
+        assertEquals(Arrays.stream(schedule.getInterest()).sum(), schedule.getTotalInterest());
+    }
+
+    @Test
+    void schedule_WhenRateIsZero_ShouldSplitPrincipalEvenly() {
+        // Act
+        AmortizationSchedule schedule = AmortizationEngine.schedule(10_000_000L, 0, 7);
+
+        // Assert
+        assertEquals(1_428_572L, schedule.getMonthlyInstalment());
+        assertEquals(0L, schedule.getTotalInterest());
+        assertEquals(0L, schedule.getBalance()[6]);
+        assertEquals(10_000_000L, Arrays.stream(schedule.getInstalment()).sum());
+    }
+
+    @Test
+    void schedule_WhenTenureIsNotPositive_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> AmortizationEngine.schedule(10_000_000L, 8.5, 0));
+    }
+
+    @Test
+    void remainingMonths_ShouldSubtractTheInstalmentsFallenDueSinceTheLoanWasOpened() {
+        // Act & Assert
+        assertEquals(240, AmortizationEngine.remainingMonths(240, LocalDate.of(2026, 3, 15), LocalDate.of(2026, 3, 31)));
+        assertEquals(239, AmortizationEngine.remainingMonths(240, LocalDate.of(2026, 3, 15), LocalDate.of(2026, 4, 15)));
+        assertEquals(180, AmortizationEngine.remainingMonths(240, LocalDate.of(2021, 3, 15), LocalDate.of(2026, 3, 20)));
+    }
+
+    @Test
+    void remainingMonths_WhenTenureHasRunOut_ShouldLeaveOneInstalment() {
+        // Act & Assert
+        assertEquals(1, AmortizationEngine.remainingMonths(12, LocalDate.of(2024, 1, 1), LocalDate.of(2026, 1, 1)));
+    }
+
+    @Test
+    void projectPortfolio_ShouldEqualSumOfIndividualSchedules() {
+        // Arrange
+        SplittableRandom random = new SplittableRandom(42);
+        LoanBook book = new LoanBook(16);
+        long[] expectedInterest = new long[360];
+        long[] expectedPrincipal = new long[360];
+        // more loans than one fork-join leaf so the split and merge are exercised
+        for (int i = 0; i < AmortizationEngine.PORTFOLIO_CHUNK * 3; i++) {
+            long principal = 100_000L + random.nextLong(100_000_000L);
+            double rate = random.nextInt(1500) / 100d;
+            int months = 1 + random.nextInt(360);
+            book.add(principal, rate, months);
+            AmortizationSchedule schedule = AmortizationEngine.schedule(principal, rate, months);
+            for (int m = 0; m < months; m++) {
+                expectedInterest[m] += schedule.getInterest()[m];
+                expectedPrincipal[m] += schedule.getPrincipal()[m];
+            }
+        }
+
+        // Act
+        PortfolioCashFlow cashFlow = AmortizationEngine.projectPortfolio(book);
+
+        // Assert
+        assertEquals(book.size(), cashFlow.getLoans());
+        assertArrayEquals(Arrays.copyOf(expectedInterest, book.maxMonths()), cashFlow.getInterest());
+        assertArrayEquals(Arrays.copyOf(expectedPrincipal, book.maxMonths()), cashFlow.getPrincipal());
+    }
+
+    @Test
+    void evaluateScenarios_WithoutPrepayment_ShouldMatchSchedules() {
+        // Arrange
+        SplittableRandom random = new SplittableRandom(7);
+        // more scenarios than one block so consecutive blocks are exercised
+        int scenarios = AmortizationEngine.SCENARIO_BLOCK * 2 + 17;
+        ScenarioBatch batch = new ScenarioBatch(scenarios);
+        AmortizationSchedule[] schedules = new AmortizationSchedule[scenarios];
+        for (int i = 0; i < scenarios; i++) {
+            long principal = 1_000_000L + random.nextLong(999_000_000L);
+            double rate = random.nextInt(1500) / 100d;
+            int months = 1 + random.nextInt(360);
+            batch.add(principal, rate, months, 0, 0);
+            schedules[i] = AmortizationEngine.schedule(principal, rate, months);
+        }
+
+        // Act
+        ScenarioResults results = AmortizationEngine.evaluateScenarios(batch);
+
+        // Assert
+        assertEquals(scenarios, results.size());
+        for (int i = 0; i < scenarios; i++) {
+            assertEquals(schedules[i].getMonthlyInstalment(), results.getMonthlyInstalment()[i]);
+            assertEquals(schedules[i].getMonths(), results.getMonthsToPayoff()[i]);
+            // interest is not rounded month by month, a few rupees apart over 30 years at most
+            assertEquals(schedules[i].getTotalInterest(), results.getTotalInterest()[i], 500);
+            assertTrue(results.getInterestSaved()[i] <= 100);
+        }
+    }
+
+    @Test
+    void evaluateScenarios_WithPrepayment_ShouldKeepEmiAndShortenTenure() {
+        // Arrange
+        ScenarioBatch batch = new ScenarioBatch(3);
+        batch.add(10_000_000L, 12, 12, 0, 0);
+        batch.add(10_000_000L, 12, 12, 5_000_000L, 3);
+        batch.add(10_000_000L, 12, 12, 10_000_000L, 3);
+
+        // Act
+        ScenarioResults results = AmortizationEngine.evaluateScenarios(batch);
+
+        // Assert
+        assertEquals(888_488L, results.getMonthlyInstalment()[1]);
+        assertTrue(results.getMonthsToPayoff()[1] < 12);
+        assertTrue(results.getInterestSaved()[1] > 0);
+        assertEquals(results.getTotalInterest()[0],
+                results.getTotalInterest()[1] + results.getInterestSaved()[1], 100);
+        assertEquals(3, results.getMonthsToPayoff()[2]);
+        assertTrue(results.getTotalInterest()[2] < results.getTotalInterest()[1]);
+    }
+
+    @Test
+    void scenarioBatch_WhenPrepaymentMonthIsAfterTenure_ShouldThrowException() {
+        // Arrange
+        ScenarioBatch batch = new ScenarioBatch(1);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> batch.add(10_000_000L, 12, 12, 1_000_000L, 13));
+    }
+}
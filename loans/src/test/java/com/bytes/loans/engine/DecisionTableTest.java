@@ -0,0 +1,98 @@
+package com.bytes.loans.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecisionTableTest {
+
+    private static final long UNKNOWN = DecisionTable.UNKNOWN;
+
+    @Test
+    void match_ShouldReturnFirstMatchingRuleInTableOrder() {
+        // Arrange
+        DecisionTable table = DecisionTable.compile(List.of(
+                rule("sub-prime", null, null, 549, null),
+                rule("prime-home", List.of("Home Loan"), 750, null, 50000),
+                rule("default", null, null, null, null)));
+
+        // Act & Assert
+        assertEquals(0, table.match("Home Loan", 500, 90000, 30, UNKNOWN));
+        assertEquals(1, table.match("Home Loan", 750, 50000, 30, UNKNOWN));
+        assertEquals(2, table.match("Home Loan", 749, 90000, 30, UNKNOWN));
+        assertEquals(2, table.match("Car Loan", 800, 90000, 30, UNKNOWN));
+    }
+
+    @Test
+    void match_WhenInputIsUnknown_ShouldOnlyMatchRulesIgnoringIt() {
+        // Arrange
+        DecisionTable table = DecisionTable.compile(List.of(
+                rule("sub-prime", null, null, 549, null),
+                rule("default", null, null, null, null)));
+
+        // Act & Assert
+        assertEquals(1, table.match("Home Loan", UNKNOWN, UNKNOWN, UNKNOWN, UNKNOWN));
+    }
+
+    @Test
+    void match_WhenNoRuleMatches_ShouldReturnMinusOne() {
+        // Arrange
+        DecisionTable table = DecisionTable.compile(List.of(rule("prime-home", List.of("Home Loan"), 750, null, null)));
+
+        // Act & Assert
+        assertEquals(-1, table.match("Home Loan", 700, UNKNOWN, UNKNOWN, UNKNOWN));
+        assertEquals(-1, table.match("Car Loan", 800, UNKNOWN, UNKNOWN, UNKNOWN));
+    }
+
+    @Test
+    void match_WithHundredsOfRules_ShouldAgreeWithRuleByRuleEvaluation() {
+        // Arrange
+        SplittableRandom random = new SplittableRandom(7);
+        String[] loanTypes = {"Home Loan", "Car Loan", "Personal Loan"};
+        List<EligibilityRule> rules = new ArrayList<>();
+        for (int r = 0; r < 300; r++) {
+            int minScore = 300 + random.nextInt(500);
+            rules.add(rule("rule-" + r, random.nextBoolean() ? List.of(loanTypes[random.nextInt(3)]) : null,
+                    minScore, minScore + random.nextInt(200), random.nextInt(100_000)));
+        }
+        DecisionTable table = DecisionTable.compile(rules);
+
+        for (int i = 0; i < 10_000; i++) {
+            String loanType = loanTypes[random.nextInt(3)];
+            int score = 300 + random.nextInt(600);
+            int income = random.nextInt(150_000);
+
+            // Act
+            int match = table.match(loanType, score, income, UNKNOWN, UNKNOWN);
+
+            // Assert
+            int expected = -1;
+            for (int r = 0; r < rules.size() && expected < 0; r++) {
+                EligibilityRule rule = rules.get(r);
+                if ((rule.loanTypes() == null || rule.loanTypes().contains(loanType))
+                        && score >= rule.minCreditScore() && score <= rule.maxCreditScore()
+                        && income >= rule.minMonthlyIncome()) {
+                    expected = r;
+                }
+            }
+            assertEquals(expected, match);
+        }
+    }
+
+    @Test
+    void compile_WhenLowerBoundAboveUpperBound_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> DecisionTable.compile(List.of(rule("broken", null, 800, 700, null))));
+    }
+
+    private static EligibilityRule rule(String id, List<String> loanTypes, Integer minCreditScore,
+                                        Integer maxCreditScore, Integer minMonthlyIncome) {
+        return new EligibilityRule(id, loanTypes, minCreditScore, maxCreditScore, minMonthlyIncome, null,
+                null, null, null, null, null, 100000, 8.5, 240);
+    }
+}
@@ -0,0 +1,190 @@
+package com.bytes.loans.engine;
+
+import com.bytes.loans.engine.ParquetFileWriter.Column;
+import com.bytes.loans.engine.ParquetFileWriter.Type;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParquetFileWriterTest {
+
+    private static final List<Column> COLUMNS = List.of(
+            new Column("loan_id", Type.INT64_DELTA),
+            new Column("loan_number", Type.STRING),
+            new Column("loan_type", Type.DICTIONARY),
+            new Column("total_loan", Type.INT32),
+            new Column("interest_rate", Type.FLOAT64),
+            new Column("emi_amount", Type.INT64),
+            new Column("created_at", Type.DATE));
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void close_ShouldWriteRowsThatReadBackInOrder() throws IOException {
+        // Arrange
+        Path file = directory.resolve("loans.parquet");
+        ParquetFileWriter writer = new ParquetFileWriter(Files.newOutputStream(file), COLUMNS, 4);
+        List<Object[]> expected = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Object[] row = {1000L + i * 3, "LN" + i, i % 3 == 0 ? "Home Loan" : "Car Loan", 100000 * i,
+                    8.5d + i / 10d, 87_000_00L * i, LocalDate.of(2026, 1, 1).plusDays(i)};
+            writer.setLong(0, (Long) row[0]);
+            writer.setString(1, (String) row[1]);
+            writer.setString(2, (String) row[2]);
+            writer.setInt(3, (Integer) row[3]);
+            writer.setDouble(4, (Double) row[4]);
+            writer.setLong(5, (Long) row[5]);
+            writer.setDate(6, (LocalDate) row[6]);
+            writer.endRow();
+            expected.add(row);
+        }
+
+        // Act
+        writer.close();
+        ParquetFileReader reader = ParquetFileReader.open(file);
+
+        // Assert
+        assertEquals(10, writer.rows());
+        assertEquals(3, writer.rowGroups());
+        assertEquals(Files.size(file), writer.bytesWritten());
+        assertEquals(COLUMNS, reader.columns());
+        assertEquals(10, reader.rows());
+        assertEquals(3, reader.rowGroups());
+        List<Object[]> actual = new ArrayList<>();
+        for (int g = 0; g < reader.rowGroups(); g++) {
+            actual.addAll(reader.readRowGroup(g));
+        }
+        assertEquals(2, reader.readRowGroup(2).size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i), actual.get(i));
+        }
+    }
+
+    @Test
+    void close_WhenValuesAreNull_ShouldReadThemBackAsNull() throws IOException {
+        // Arrange
+        Path file = directory.resolve("nulls.parquet");
+        ParquetFileWriter writer = new ParquetFileWriter(Files.newOutputStream(file), COLUMNS, 100);
+        writer.setLong(0, 1L);
+        writer.setString(1, null);
+        writer.setString(2, null);
+        writer.setDate(6, null);
+        writer.endRow();
+
+        // Act
+        writer.close();
+        Object[] row = ParquetFileReader.open(file).readRowGroup(0).get(0);
+
+        // Assert
+        assertNull(row[1]);
+        assertNull(row[2]);
+        assertNull(row[6]);
+        assertEquals(0, row[3]);
+    }
+
+    @Test
+    void close_WhenNoRowsWritten_ShouldWriteAnEmptyFile() throws IOException {
+        // Arrange
+        Path file = directory.resolve("empty.parquet");
+        ParquetFileWriter writer = new ParquetFileWriter(Files.newOutputStream(file), COLUMNS, 100);
+
+        // Act
+        writer.close();
+        ParquetFileReader reader = ParquetFileReader.open(file);
+
+        // Assert
+        assertEquals(0, reader.rows());
+        assertEquals(0, reader.rowGroups());
+        // without a chunk to show the encoding, delta and dictionary columns read back as their plain type
+        assertEquals(COLUMNS.stream().map(Column::name).toList(), reader.columns().stream().map(Column::name).toList());
+    }
+
+    @Test
+    void close_ShouldFrameTheFileAsParquet() throws IOException {
+        // Arrange
+        Path file = directory.resolve("framed.parquet");
+        ParquetFileWriter writer = new ParquetFileWriter(Files.newOutputStream(file), COLUMNS, 100);
+        writer.setLong(0, 1L);
+        writer.endRow();
+
+        // Act
+        writer.close();
+
+        // Assert
+        byte[] bytes = Files.readAllBytes(file);
+        int footerLength = ByteBuffer.wrap(bytes, bytes.length - 8, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
+        assertEquals("PAR1", new String(bytes, 0, 4, StandardCharsets.US_ASCII));
+        assertEquals("PAR1", new String(bytes, bytes.length - 4, 4, StandardCharsets.US_ASCII));
+        String footer = new String(bytes, bytes.length - 8 - footerLength, footerLength, StandardCharsets.ISO_8859_1);
+        assertTrue(footer.contains("loan_number"));
+        assertTrue(footer.contains("EazyBank loans export"));
+    }
+
+    @Test
+    void close_WhenRowGroupsMixValuesAndNulls_ShouldReadEveryValueBack() throws IOException {
+        // Arrange
+        Path file = directory.resolve("mixed.parquet");
+        ParquetFileWriter writer = new ParquetFileWriter(Files.newOutputStream(file), COLUMNS, 300);
+        List<Object[]> expected = new ArrayList<>();
+        for (int i = 0; i < 700; i++) {
+            // ids jump back and forth, 40 loan types need a six bit dictionary index
+            Object[] row = {i % 7 == 0 ? -5_000_000_000L * i : 3L * i, i % 5 == 0 ? null : "LN" + i,
+                    i % 11 == 0 ? null : "Type " + i % 40, i, -i / 3d, Long.MIN_VALUE + i,
+                    i % 3 == 0 ? null : LocalDate.of(1999, 12, 31).plusDays(i)};
+            writer.setLong(0, (Long) row[0]);
+            writer.setString(1, (String) row[1]);
+            writer.setString(2, (String) row[2]);
+            writer.setInt(3, (Integer) row[3]);
+            writer.setDouble(4, (Double) row[4]);
+            writer.setLong(5, (Long) row[5]);
+            writer.setDate(6, (LocalDate) row[6]);
+            writer.endRow();
+            expected.add(row);
+        }
+
+        // Act
+        writer.close();
+        ParquetFileReader reader = ParquetFileReader.open(file);
+
+        // Assert
+        assertEquals(COLUMNS, reader.columns());
+        List<Object[]> actual = new ArrayList<>();
+        for (int g = 0; g < reader.rowGroups(); g++) {
+            actual.addAll(reader.readRowGroup(g));
+        }
+        assertEquals(700, actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i), actual.get(i), "row " + i);
+        }
+    }
+
+    @Test
+    void open_WhenFileIsNotParquet_ShouldThrow() throws IOException {
+        // Arrange
+        Path file = directory.resolve("loans.csv");
+        Files.writeString(file, "loan_id,loan_number\n1,LN1\n");
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> ParquetFileReader.open(file));
+    }
+
+    @Test
+    void constructor_WhenRowGroupSizeIsNotPositive_ShouldThrow() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> new ParquetFileWriter(new ByteArrayOutputStream(), COLUMNS, 0));
+    }
+}
@@ -0,0 +1,259 @@
+package com.bytes.loans.engine;
+
+import com.bytes.loans.engine.ParquetFileWriter.Column;
+import com.bytes.loans.engine.ParquetFileWriter.Type;
+import org.apache.parquet.column.ParquetProperties;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.format.FileMetaData;
+import org.apache.parquet.format.PageHeader;
+import org.apache.parquet.format.Util;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.api.ReadSupport;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.example.GroupReadSupport;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.io.LocalInputFile;
+import org.apache.parquet.io.LocalOutputFile;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Types;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks {@link ParquetFileWriter} and {@link ParquetFileReader} against parquet-java, the reference
+ * implementation of the format: it must read what the writer produces, re-encode the writer's Thrift structures
+ * byte for byte, and write files the reader decodes.
+ */
+class ParquetJavaInteropTest {
+
+    private static final List<Column> COLUMNS = List.of(
+            new Column("loan_id", Type.INT64_DELTA),
+            new Column("loan_number", Type.STRING),
+            new Column("loan_type", Type.DICTIONARY),
+            new Column("total_loan", Type.INT32),
+            new Column("interest_rate", Type.FLOAT64),
+            new Column("emi_amount", Type.INT64),
+            new Column("created_at", Type.DATE));
+
+    // the schema the writer declares for COLUMNS, as parquet-java builds it
+    private static final MessageType SCHEMA = Types.buildMessage()
+            .required(PrimitiveTypeName.INT64).named("loan_id")
+            .optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("loan_number")
+            .optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("loan_type")
+            .required(PrimitiveTypeName.INT32).named("total_loan")
+            .required(PrimitiveTypeName.DOUBLE).named("interest_rate")
+            .required(PrimitiveTypeName.INT64).named("emi_amount")
+            .optional(PrimitiveTypeName.INT32).as(LogicalTypeAnnotation.dateType()).named("created_at")
+            .named("schema");
+
+    private static final String[] LOAN_TYPES = {"Home Loan", "Car Loan", "Personal Loan", "Education Loan"};
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void parquetJava_ShouldReadTheSchemaAndRowsTheWriterWrote() throws IOException {
+        // Arrange
+        Path file = directory.resolve("loans.parquet");
+        List<Object[]> expected = rows(300);
+        write(file, expected, 128);
+
+        // Act
+        ParquetMetadata footer;
+        try (org.apache.parquet.hadoop.ParquetFileReader reader =
+                     org.apache.parquet.hadoop.ParquetFileReader.open(new LocalInputFile(file))) {
+            footer = reader.getFooter();
+        }
+        List<Object[]> actual = new ArrayList<>();
+        try (ParquetReader<Group> reader = groupReader(file)) {
+            for (Group group = reader.read(); group != null; group = reader.read()) {
+                actual.add(values(group));
+            }
+        }
+
+        // Assert
+        assertEquals(SCHEMA, footer.getFileMetaData().getSchema());
+        assertEquals(3, footer.getBlocks().size());
+        assertEquals(List.of(128L, 128L, 44L), footer.getBlocks().stream().map(BlockMetaData::getRowCount).toList());
+        for (BlockMetaData block : footer.getBlocks()) {
+            for (ColumnChunkMetaData chunk : block.getColumns()) {
+                assertEquals(CompressionCodecName.GZIP, chunk.getCodec());
+                assertEquals(block.getRowCount(), chunk.getValueCount());
+            }
+        }
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i), actual.get(i), "row " + i);
+        }
+    }
+
+    @Test
+    void thriftStructures_ShouldMatchTheReferenceEncodingByteForByte() throws IOException {
+        // Arrange
+        Path file = directory.resolve("loans.parquet");
+        write(file, rows(300), 128);
+        byte[] bytes = Files.readAllBytes(file);
+        int footerLength = ByteBuffer.wrap(bytes, bytes.length - 8, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
+        byte[] footer = Arrays.copyOfRange(bytes, bytes.length - 8 - footerLength, bytes.length - 8);
+
+        // Act
+        FileMetaData metadata = Util.readFileMetaData(new ByteArrayInputStream(footer));
+        ByteArrayOutputStream reencoded = new ByteArrayOutputStream();
+        Util.writeFileMetaData(metadata, reencoded);
+
+        // Assert
+        assertArrayEquals(footer, reencoded.toByteArray());
+        assertEquals(300, metadata.getNum_rows());
+        int pages = 0;
+        for (org.apache.parquet.format.RowGroup rowGroup : metadata.getRow_groups()) {
+            for (org.apache.parquet.format.ColumnChunk chunk : rowGroup.getColumns()) {
+                long position = chunk.getMeta_data().isSetDictionary_page_offset()
+                        ? chunk.getMeta_data().getDictionary_page_offset()
+                        : chunk.getMeta_data().getData_page_offset();
+                long end = position + chunk.getMeta_data().getTotal_compressed_size();
+                while (position < end) {
+                    ByteArrayInputStream in = new ByteArrayInputStream(bytes, (int) position, (int) (end - position));
+                    PageHeader header = Util.readPageHeader(in);
+                    int headerLength = (int) (end - position) - in.available();
+                    ByteArrayOutputStream page = new ByteArrayOutputStream();
+                    Util.writePageHeader(header, page);
+                    assertArrayEquals(Arrays.copyOfRange(bytes, (int) position, (int) position + headerLength),
+                            page.toByteArray());
+                    position += headerLength + header.getCompressed_page_size();
+                    pages++;
+                }
+                assertEquals(end, position);
+            }
+        }
+        // a data page per column and row group, and a dictionary page for loan_type
+        assertEquals(3 * COLUMNS.size() + 3, pages);
+    }
+
+    @Test
+    void reader_ShouldDecodeAFileWrittenByParquetJava() throws IOException {
+        // Arrange
+        Path file = directory.resolve("parquet-java.parquet");
+        List<Object[]> expected = rows(300);
+        SimpleGroupFactory groups = new SimpleGroupFactory(SCHEMA);
+        try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(new LocalOutputFile(file))
+                .withType(SCHEMA)
+                .withCompressionCodec(CompressionCodecName.GZIP)
+                .withWriterVersion(ParquetProperties.WriterVersion.PARQUET_1_0)
+                .withDictionaryEncoding(false)
+                .withDictionaryEncoding("loan_type", true)
+                .withPageRowCountLimit(100)
+                .build()) {
+            for (Object[] row : expected) {
+                Group group = groups.newGroup()
+                        .append("loan_id", (Long) row[0]);
+                if (row[1] != null) {
+                    group.append("loan_number", (String) row[1]);
+                }
+                if (row[2] != null) {
+                    group.append("loan_type", (String) row[2]);
+                }
+                group.append("total_loan", (Integer) row[3])
+                        .append("interest_rate", (Double) row[4])
+                        .append("emi_amount", (Long) row[5]);
+                if (row[6] != null) {
+                    group.append("created_at", (int) ((LocalDate) row[6]).toEpochDay());
+                }
+                writer.write(group);
+            }
+        }
+
+        // Act
+        ParquetFileReader reader = ParquetFileReader.open(file);
+        List<Object[]> actual = new ArrayList<>();
+        for (int g = 0; g < reader.rowGroups(); g++) {
+            actual.addAll(reader.readRowGroup(g));
+        }
+
+        // Assert
+        // parquet-java's version 1 writer has no DELTA_BINARY_PACKED, so loan_id comes back as plain INT64
+        assertEquals(Type.INT64, reader.columns().get(0).type());
+        assertEquals(COLUMNS.subList(1, COLUMNS.size()), reader.columns().subList(1, COLUMNS.size()));
+        assertEquals(expected.size(), reader.rows());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i), actual.get(i), "row " + i);
+        }
+    }
+
+    /**
+     * Rows with ascending ids in irregular steps, so delta blocks need several bit widths, and nulls and repeats
+     * in the optional columns, so definition levels take both RLE and bit packed runs.
+     */
+    private static List<Object[]> rows(int count) {
+        List<Object[]> rows = new ArrayList<>(count);
+        long loanId = 1;
+        for (int i = 0; i < count; i++) {
+            loanId += i % 50 == 0 ? 1_000_000 : 1 + i % 7;
+            rows.add(new Object[]{
+                    loanId,
+                    i % 11 == 0 ? null : "LN" + (100000 + i),
+                    i % 13 == 0 ? null : LOAN_TYPES[(i / 3) % LOAN_TYPES.length],
+                    (i % 9 - 4) * 25_000,
+                    7.25d + (i % 20) / 8d,
+                    1_250_000L * i - 40_000,
+                    i < 40 || i % 17 == 0 ? null : LocalDate.of(2026, 1, 1).plusDays(i)});
+        }
+        return rows;
+    }
+
+    private static void write(Path file, List<Object[]> rows, int rowGroupSize) throws IOException {
+        ParquetFileWriter writer = new ParquetFileWriter(Files.newOutputStream(file), COLUMNS, rowGroupSize);
+        for (Object[] row : rows) {
+            writer.setLong(0, (Long) row[0]);
+            writer.setString(1, (String) row[1]);
+            writer.setString(2, (String) row[2]);
+            writer.setInt(3, (Integer) row[3]);
+            writer.setDouble(4, (Double) row[4]);
+            writer.setLong(5, (Long) row[5]);
+            writer.setDate(6, (LocalDate) row[6]);
+            writer.endRow();
+        }
+        writer.close();
+    }
+
+    private static ParquetReader<Group> groupReader(Path file) throws IOException {
+        return new ParquetReader.Builder<Group>(new LocalInputFile(file)) {
+            @Override
+            protected ReadSupport<Group> getReadSupport() {
+                return new GroupReadSupport();
+            }
+        }.build();
+    }
+
+    private static Object[] values(Group group) {
+        return new Object[]{
+                group.getLong("loan_id", 0),
+                group.getFieldRepetitionCount("loan_number") == 0 ? null : group.getString("loan_number", 0),
+                group.getFieldRepetitionCount("loan_type") == 0 ? null : group.getString("loan_type", 0),
+                group.getInteger("total_loan", 0),
+                group.getDouble("interest_rate", 0),
+                group.getLong("emi_amount", 0),
+                group.getFieldRepetitionCount("created_at") == 0
+                        ? null : LocalDate.ofEpochDay(group.getInteger("created_at", 0))};
+    }
+}
@@ -0,0 +1,94 @@
+package com.bytes.loans.service.impl;
+
+import com.bytes.loans.constants.LoansConstants;
+import com.bytes.loans.dto.EligibilityDecisionDto;
+import com.bytes.loans.dto.LoanApplicationDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EligibilityServiceImplTest {
+
+    private MockEnvironment environment;
+    private EligibilityServiceImpl eligibilityService;
+
+    @BeforeEach
+    void setUp() {
+        environment = new MockEnvironment()
+                .withProperty("loans.eligibility.rules[0].id", "prime-home")
+                .withProperty("loans.eligibility.rules[0].loan-types[0]", LoansConstants.HOME_LOAN)
+                .withProperty("loans.eligibility.rules[0].min-credit-score", "750")
+                .withProperty("loans.eligibility.rules[0].max-amount", "5000000")
+                .withProperty("loans.eligibility.rules[0].interest-rate", "8.25")
+                .withProperty("loans.eligibility.rules[0].tenure-months", "240")
+                .withProperty("loans.eligibility.rules[1].id", "default")
+                .withProperty("loans.eligibility.rules[1].max-amount", "100000")
+                .withProperty("loans.eligibility.rules[1].interest-rate", "8.5")
+                .withProperty("loans.eligibility.rules[1].tenure-months", "240");
+        eligibilityService = new EligibilityServiceImpl(environment);
+        eligibilityService.compileRules();
+    }
+
+    @Test
+    void evaluate_WhenRuleMatches_ShouldCapRequestedAmountAndPrice() {
+        // Act
+        EligibilityDecisionDto decision = eligibilityService.evaluate(application(780, 9_000_000));
+
+        // Assert
+        assertTrue(decision.isEligible());
+        assertEquals("prime-home", decision.getRuleId());
+        assertEquals(5_000_000, decision.getApprovedAmount());
+        assertEquals(8.25, decision.getInterestRate());
+        assertTrue(decision.getMonthlyInstalment() > 0);
+    }
+
+    @Test
+    void evaluate_WhenDetailsAreMissing_ShouldFallBackToRulesIgnoringThem() {
+        // Act
+        EligibilityDecisionDto decision = eligibilityService.evaluate(application(null, null));
+
+        // Assert
+        assertEquals("default", decision.getRuleId());
+        assertEquals(100000, decision.getApprovedAmount());
+    }
+
+    @Test
+    void onEnvironmentChange_WhenRulesChange_ShouldRecompile() {
+        // Arrange
+        environment.setProperty("loans.eligibility.rules[1].eligible", "false");
+
+        // Act
+        eligibilityService.onEnvironmentChange(new EnvironmentChangeEvent(Set.of("loans.eligibility.rules[1].eligible")));
+
+        // Assert
+        EligibilityDecisionDto decision = eligibilityService.evaluate(application(null, null));
+        assertFalse(decision.isEligible());
+        assertEquals("default", decision.getRuleId());
+    }
+
+    @Test
+    void onEnvironmentChange_WhenRulesAreInvalid_ShouldKeepPreviousTable() {
+        // Arrange
+        environment.setProperty("loans.eligibility.rules[0].max-credit-score", "700");
+
+        // Act
+        eligibilityService.onEnvironmentChange(new EnvironmentChangeEvent(Set.of("loans.eligibility.rules[0].max-credit-score")));
+
+        // Assert
+        assertEquals("prime-home", eligibilityService.evaluate(application(780, null)).getRuleId());
+    }
+
+    private static LoanApplicationDto application(Integer creditScore, Integer requestedAmount) {
+        return LoanApplicationDto.builder()
+                .mobileNumber("1234567890")
+                .loanType(LoansConstants.HOME_LOAN)
+                .creditScore(creditScore)
+                .requestedAmount(requestedAmount)
+                .build();
+    }
+}
@@ -0,0 +1,194 @@
+package com.bytes.loans.service.impl;
+
+import com.bytes.loans.dto.AccrualRunResultDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InterestAccrualServiceImplTest {
+
+    private static final LocalDate ACCRUAL_DATE = LocalDate.of(2026, 10, 18);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private InterestAccrualServiceImpl interestAccrualService;
+
+    @BeforeEach
+    void setUp() {
+        interestAccrualService = new InterestAccrualServiceImpl(jdbcTemplate, transactionManager, 2, 2, 1000, 120);
+    }
+
+    @Test
+    void accrueInterest_WhenAllPartitionsCompleted_ShouldSkipThem() {
+        // Arrange
+        when(jdbcTemplate.queryForList(anyString(), any(Object[].class))).thenReturn(List.of(
+                checkpoint(0, 10L, 10L, true),
+                checkpoint(1, 20L, 20L, true)));
+
+        // Act
+        AccrualRunResultDto result = interestAccrualService.accrueInterest(ACCRUAL_DATE);
+
+        // Assert
+        assertEquals(2, result.getPartitions());
+        assertEquals(2, result.getSkippedPartitions());
+        assertEquals(0, result.getLoansAccrued());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void accrueInterest_WhenPartitionIsLeasedByAnotherInstance_ShouldSkipIt() {
+        // Arrange
+        when(jdbcTemplate.queryForList(anyString(), any(Object[].class))).thenReturn(List.of(
+                checkpoint(0, 10L, 10L, true),
+                checkpoint(1, 14L, 20L, false)));
+        when(jdbcTemplate.update(contains("SET lease_owner = ?"), any(Object[].class))).thenReturn(0);
+
+        // Act
+        AccrualRunResultDto result = interestAccrualService.accrueInterest(ACCRUAL_DATE);
+
+        // Assert
+        assertEquals(2, result.getSkippedPartitions());
+        assertEquals(0, result.getLoansAccrued());
+
+        // Verify
+        verify(jdbcTemplate, never()).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+    }
+
+    @Test
+    void accrueInterest_WhenCheckpointsAreCreatedByAnotherInstance_ShouldUseTheirs() {
+        // Arrange
+        when(jdbcTemplate.queryForList(anyString(), any(Object[].class)))
+                .thenReturn(List.of())
+                .thenReturn(List.of(
+                        checkpoint(0, 10L, 10L, true),
+                        checkpoint(1, 20L, 20L, true)));
+        when(jdbcTemplate.queryForObject(anyString(), ArgumentMatchers.<RowMapper<long[]>>any()))
+                .thenReturn(new long[]{1, 30});
+        when(jdbcTemplate.batchUpdate(contains("INSERT INTO loan_accrual_checkpoints"), anyList()))
+                .thenThrow(new DuplicateKeyException("Duplicate entry for key PRIMARY"));
+
+        // Act
+        AccrualRunResultDto result = interestAccrualService.accrueInterest(ACCRUAL_DATE);
+
+        // Assert
+        assertEquals(2, result.getPartitions());
+        assertEquals(2, result.getSkippedPartitions());
+    }
+
+    @Test
+    void accrueInterest_WhenResumed_ShouldContinueAfterCheckpoint() throws Exception {
+        // Arrange
+        when(jdbcTemplate.queryForList(anyString(), any(Object[].class))).thenReturn(List.of(
+                checkpoint(0, 10L, 10L, true),
+                checkpoint(1, 14L, 20L, false)));
+        ResultSet row = mock(ResultSet.class, withSettings().strictness(Strictness.LENIENT));
+        when(row.getLong(1)).thenReturn(15L);
+        when(row.getInt(2)).thenReturn(36500);
+        when(row.getDouble(3)).thenReturn(10d);
+        when(row.getDate(4)).thenReturn(java.sql.Date.valueOf(ACCRUAL_DATE.minusDays(3)));
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(row);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1});
+        claimPartition(14L, 20L);
+        when(jdbcTemplate.update(contains("SET last_loan_id = ?"), any(Object[].class))).thenReturn(1);
+
+        // Act
+        AccrualRunResultDto result = interestAccrualService.accrueInterest(ACCRUAL_DATE);
+
+        // Assert
+        assertEquals(1, result.getSkippedPartitions());
+        assertEquals(1, result.getLoansAccrued());
+
+        // Verify
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowCallbackHandler.class), eq(14L), eq(20L), eq(1000));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> updates = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(contains("UPDATE loans"), updates.capture());
+        // three missed days of 1000 paise each
+        assertEquals(3000L, updates.getValue().get(0)[0]);
+        verify(jdbcTemplate, times(1)).update(contains("SET last_loan_id = ?"), eq(15L), eq(1L), eq(true),
+                any(), eq(120), any(), eq(1), anyString());
+    }
+
+    @Test
+    void accrueInterest_WhenLeaseIsLost_ShouldRollBackTheChunkAndLeaveThePartition() throws Exception {
+        // Arrange
+        when(jdbcTemplate.queryForList(anyString(), any(Object[].class))).thenReturn(List.of(
+                checkpoint(0, 14L, 20L, false)));
+        ResultSet row = mock(ResultSet.class, withSettings().strictness(Strictness.LENIENT));
+        when(row.getLong(1)).thenReturn(15L);
+        when(row.getInt(2)).thenReturn(36500);
+        when(row.getDouble(3)).thenReturn(10d);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(row);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1});
+        claimPartition(14L, 20L);
+        when(jdbcTemplate.update(contains("SET last_loan_id = ?"), any(Object[].class))).thenReturn(0);
+        SimpleTransactionStatus status = new SimpleTransactionStatus();
+        when(transactionManager.getTransaction(any())).thenReturn(status);
+
+        // Act
+        AccrualRunResultDto result = interestAccrualService.accrueInterest(ACCRUAL_DATE);
+
+        // Assert
+        assertEquals(1, result.getSkippedPartitions());
+        assertEquals(0, result.getLoansAccrued());
+        assertTrue(status.isRollbackOnly());
+
+        // Verify
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+    }
+
+    @Test
+    void dailyInterest_ShouldUseActualBy365() {
+        // 36500 rupees at 10% a year earn 10 rupees a day
+        assertEquals(1000L, InterestAccrualServiceImpl.dailyInterest(36500, 10));
+    }
+
+    private void claimPartition(long lastLoanId, long upperLoanId) {
+        when(jdbcTemplate.update(contains("SET lease_owner = ?"), any(Object[].class))).thenReturn(1);
+        when(jdbcTemplate.queryForObject(anyString(), ArgumentMatchers.<RowMapper<long[]>>any(), any(Object[].class)))
+                .thenReturn(new long[]{lastLoanId, upperLoanId});
+    }
+
+    private static Map<String, Object> checkpoint(int partition, long lastLoanId, long upperLoanId, boolean completed) {
+        return Map.of("partition_no", partition, "last_loan_id", lastLoanId, "upper_loan_id", upperLoanId,
+                "completed", completed);
+    }
+}
@@ -0,0 +1,74 @@
+package com.bytes.loans.service.impl;
+
+import com.bytes.loans.dto.CompactionResultDto;
+import com.bytes.loans.service.PortfolioSummaryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoanCompactionServiceImplTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Mock
+    private PortfolioSummaryService portfolioSummaryService;
+
+    private LoanCompactionServiceImpl loanCompactionService;
+
+    @BeforeEach
+    void setUp() {
+        loanCompactionService = new LoanCompactionServiceImpl(jdbcTemplate, namedParameterJdbcTemplate, portfolioSummaryService, 2);
+    }
+
+    @Test
+    void compactDuplicates_WhenDuplicatesExist_ShouldDeleteInBatchesAfterLastId() {
+        // Arrange
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(0L), eq(2))).thenReturn(List.of(1L, 3L));
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(3L), eq(2))).thenReturn(List.of(5L));
+        when(namedParameterJdbcTemplate.update(anyString(), anyMap())).thenReturn(2, 1);
+
+        // Act
+        CompactionResultDto result = loanCompactionService.compactDuplicates();
+
+        // Assert
+        assertEquals(3, result.getRowsDeleted());
+        assertEquals(2, result.getBatches());
+
+        // Verify
+        verify(namedParameterJdbcTemplate, times(1)).update(anyString(), eq(Map.of("loanIds", List.of(1L, 3L))));
+        verify(namedParameterJdbcTemplate, times(1)).update(anyString(), eq(Map.of("loanIds", List.of(5L))));
+        verify(portfolioSummaryService, times(1)).rebuild();
+    }
+
+    @Test
+    void compactDuplicates_WhenNoDuplicates_ShouldNotDelete() {
+        // Arrange
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(0L), eq(2))).thenReturn(List.of());
+
+        // Act
+        CompactionResultDto result = loanCompactionService.compactDuplicates();
+
+        // Assert
+        assertEquals(0, result.getRowsDeleted());
+        verify(namedParameterJdbcTemplate, never()).update(anyString(), anyMap());
+        verify(portfolioSummaryService, never()).rebuild();
+    }
+}
@@ -0,0 +1,123 @@
+package com.bytes.loans.service.impl;
+
+import com.bytes.loans.dto.ExportResultDto;
+import com.bytes.loans.engine.ParquetFileReader;
+import com.bytes.loans.exception.ExportFailedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoanExportServiceImplTest {
+
+    private static final LocalDate EXPORT_DATE = LocalDate.of(2026, 10, 18);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path directory;
+
+    private LoanExportServiceImpl loanExportService;
+
+    @BeforeEach
+    void setUp() {
+        loanExportService = new LoanExportServiceImpl(jdbcTemplate, directory.toString(), 2);
+    }
+
+    @Test
+    void exportLoanBook_ShouldWriteEveryLoanToTheDatedFile() throws Exception {
+        // Arrange
+        ResultSet first = loan(1L, "Home Loan");
+        ResultSet second = loan(2L, "Car Loan");
+        ResultSet third = loan(3L, "Home Loan");
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(first);
+            handler.processRow(second);
+            handler.processRow(third);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        // Act
+        ExportResultDto result = loanExportService.exportLoanBook(EXPORT_DATE);
+
+        // Assert
+        Path file = directory.resolve("loans-2026-10-18.parquet");
+        assertEquals(file.toAbsolutePath().toString(), result.getFile());
+        assertEquals(3, result.getRows());
+        assertEquals(2, result.getRowGroups());
+        assertEquals(Files.size(file), result.getBytes());
+        assertFalse(Files.exists(directory.resolve("loans-2026-10-18.parquet.partial")));
+
+        ParquetFileReader reader = ParquetFileReader.open(file);
+        assertEquals(LoanExportServiceImpl.COLUMNS, reader.columns());
+        List<Object[]> lastGroup = reader.readRowGroup(1);
+        assertEquals(1, lastGroup.size());
+        assertEquals(3L, lastGroup.get(0)[0]);
+        assertEquals("Home Loan", lastGroup.get(0)[3]);
+        assertEquals(EXPORT_DATE, lastGroup.get(0)[14]);
+        assertNull(lastGroup.get(0)[13]);
+    }
+
+    @Test
+    void exportLoanBook_WhenQueryFails_ShouldRemoveThePartialFile() throws Exception {
+        // Arrange
+        ResultSet first = loan(1L, "Home Loan");
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(first);
+            throw new DataAccessResourceFailureException("Connection reset");
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        // Act & Assert
+        assertThrows(DataAccessResourceFailureException.class, () -> loanExportService.exportLoanBook(EXPORT_DATE));
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void exportLoanBook_WhenDirectoryCannotBeCreated_ShouldThrowExportFailed() throws Exception {
+        // Arrange
+        Path blocker = Files.createFile(directory.resolve("blocker"));
+        LoanExportServiceImpl service = new LoanExportServiceImpl(jdbcTemplate, blocker.resolve("exports").toString(), 2);
+
+        // Act & Assert
+        assertThrows(ExportFailedException.class, () -> service.exportLoanBook(EXPORT_DATE));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private static ResultSet loan(long loanId, String loanType) throws Exception {
+        ResultSet row = mock(ResultSet.class, withSettings().strictness(Strictness.LENIENT));
+        when(row.getLong(1)).thenReturn(loanId);
+        when(row.getString(2)).thenReturn("9876543210");
+        when(row.getString(3)).thenReturn("10000000000" + loanId);
+        when(row.getString(4)).thenReturn(loanType);
+        when(row.getInt(5)).thenReturn(100000);
+        when(row.getDouble(8)).thenReturn(8.5d);
+        when(row.getInt(9)).thenReturn(240);
+        when(row.getString(10)).thenReturn("FIXED");
+        when(row.getDate(15)).thenReturn(Date.valueOf(EXPORT_DATE));
+        return row;
+    }
+}
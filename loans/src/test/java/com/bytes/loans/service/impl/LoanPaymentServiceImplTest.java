@@ -0,0 +1,240 @@
+package com.bytes.loans.service.impl;
+
+import com.bytes.loans.constants.LoansConstants;
+import com.bytes.loans.dto.LoanBalanceDto;
+import com.bytes.loans.dto.PaymentRequestDto;
+import com.bytes.loans.dto.PaymentResponseDto;
+import com.bytes.loans.exception.PaymentRejectedException;
+import com.bytes.loans.exception.ResourceNotFoundException;
+import com.bytes.loans.service.PortfolioSummaryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoanPaymentServiceImplTest {
+
+    private static final String LOAN_NUMBER = "548732457654";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private PortfolioSummaryService portfolioSummaryService;
+
+    private LoanPaymentServiceImpl loanPaymentService;
+
+    @BeforeEach
+    void setUp() {
+        loanPaymentService = new LoanPaymentServiceImpl(jdbcTemplate, namedParameterJdbcTemplate, transactionManager,
+                portfolioSummaryService, 100, 16, 5000, Duration.ofMinutes(10));
+        loanPaymentService.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        loanPaymentService.stop();
+    }
+
+    @Test
+    void postPayment_WhenKeyIsNew_ShouldPostAndUpdateBalance() throws Exception {
+        // Arrange
+        rows("FROM loan_payments");
+        rows("FROM loans", loan(LOAN_NUMBER, 25000, 75000));
+
+        // Act
+        PaymentResponseDto payment = loanPaymentService.postPayment("key-1", new PaymentRequestDto(LOAN_NUMBER, 5000));
+
+        // Assert
+        assertFalse(payment.isReplayed());
+        assertEquals(30000, payment.getAmountPaid());
+        assertEquals(70000, payment.getOutstandingAmount());
+
+        // Verify
+        verify(jdbcTemplate, times(1)).batchUpdate(contains("INSERT INTO loan_payments"), anyList());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> updates = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(contains("UPDATE loans"), updates.capture());
+        assertArrayEquals(new Object[]{30000, 70000, LOAN_NUMBER}, updates.getValue().get(0));
+        verify(portfolioSummaryService, times(1)).record(LoansConstants.HOME_LOAN, 0, 0, 5000, -5000);
+    }
+
+    @Test
+    void postPayment_WhenKeyWasPosted_ShouldReplayWithoutWriting() throws Exception {
+        // Arrange
+        LocalDateTime postedAt = LocalDateTime.of(2026, 10, 18, 10, 0);
+        rows("FROM loan_payments", posted("key-1", LOAN_NUMBER, 5000, postedAt));
+        rows("FROM loans", loan(LOAN_NUMBER, 30000, 70000));
+
+        // Act
+        PaymentResponseDto payment = loanPaymentService.postPayment("key-1", new PaymentRequestDto(LOAN_NUMBER, 5000));
+
+        // Assert
+        assertTrue(payment.isReplayed());
+        assertEquals(postedAt, payment.getPostedAt());
+        assertEquals(70000, payment.getOutstandingAmount());
+
+        // Verify
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        verify(portfolioSummaryService, never()).record(any(), anyLong(), anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void postPayment_WhenKeyWasUsedForAnotherPayment_ShouldReject() throws Exception {
+        // Arrange
+        rows("FROM loan_payments", posted("key-1", LOAN_NUMBER, 5000, LocalDateTime.now()));
+        rows("FROM loans", loan(LOAN_NUMBER, 30000, 70000));
+        PaymentRequestDto request = new PaymentRequestDto(LOAN_NUMBER, 6000);
+
+        // Act & Assert
+        assertThrows(PaymentRejectedException.class, () -> loanPaymentService.postPayment("key-1", request));
+
+        // Verify
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void postPayment_WhenAmountExceedsOutstanding_ShouldReject() throws Exception {
+        // Arrange
+        rows("FROM loan_payments");
+        rows("FROM loans", loan(LOAN_NUMBER, 95000, 5000));
+        PaymentRequestDto request = new PaymentRequestDto(LOAN_NUMBER, 6000);
+
+        // Act & Assert
+        assertThrows(PaymentRejectedException.class, () -> loanPaymentService.postPayment("key-2", request));
+
+        // Verify
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void fetchBalance_WhenNoSnapshotPrecedesDate_ShouldReturnOpeningBalance() {
+        // Arrange
+        when(jdbcTemplate.query(contains("FROM loan_balance_snapshots"), ArgumentMatchers.<RowMapper<LoanBalanceDto>>any(),
+                any(Object[].class))).thenReturn(List.of());
+        when(jdbcTemplate.query(contains("LEFT JOIN loan_payments"), ArgumentMatchers.<RowMapper<LoanBalanceDto>>any(),
+                any(Object[].class))).thenReturn(List.of(new LoanBalanceDto(LOAN_NUMBER, 0, 100000, "2026-01-05")));
+
+        // Act
+        LoanBalanceDto balance = loanPaymentService.fetchBalance(LOAN_NUMBER, LocalDate.of(2026, 3, 1));
+
+        // Assert
+        assertEquals(0, balance.getAmountPaid());
+        assertEquals(100000, balance.getOutstandingAmount());
+        assertEquals("2026-01-05", balance.getAsOf());
+    }
+
+    @Test
+    void fetchBalance_WhenDateIsBeforeLoanWasOpened_ShouldThrowException() {
+        // Arrange
+        when(jdbcTemplate.query(contains("FROM loan_balance_snapshots"), ArgumentMatchers.<RowMapper<LoanBalanceDto>>any(),
+                any(Object[].class))).thenReturn(List.of());
+        when(jdbcTemplate.query(contains("LEFT JOIN loan_payments"), ArgumentMatchers.<RowMapper<LoanBalanceDto>>any(),
+                any(Object[].class))).thenReturn(List.of(new LoanBalanceDto(LOAN_NUMBER, 0, 100000, "2026-01-05")));
+        LocalDate asOf = LocalDate.of(2025, 12, 31);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> loanPaymentService.fetchBalance(LOAN_NUMBER, asOf));
+    }
+
+    @Test
+    void snapshotBalances_ShouldStopBeforePaymentsInsideTheSafetyMargin() {
+        // Arrange
+        when(jdbcTemplate.queryForObject(contains("FROM loan_balance_snapshots"), eq(Long.class))).thenReturn(10L);
+        when(jdbcTemplate.queryForList(contains("WHERE posted_at < ?"), eq(Long.class), any(Object[].class)))
+                .thenReturn(List.of(42L));
+        when(jdbcTemplate.update(contains("INSERT INTO loan_balance_snapshots"), any(Object[].class))).thenReturn(3);
+        LocalDateTime startedAt = LocalDateTime.now();
+
+        // Act
+        int rows = loanPaymentService.snapshotBalances();
+
+        // Assert
+        assertEquals(3, rows);
+
+        // Verify
+        ArgumentCaptor<Timestamp> settledBefore = ArgumentCaptor.forClass(Timestamp.class);
+        verify(jdbcTemplate).queryForList(contains("WHERE posted_at < ?"), eq(Long.class), settledBefore.capture());
+        assertFalse(settledBefore.getValue().toLocalDateTime().isAfter(startedAt.minusMinutes(10).plusSeconds(5)));
+        verify(jdbcTemplate).update(contains("INSERT INTO loan_balance_snapshots"), any(), eq(42L), eq(10L), eq(42L));
+    }
+
+    @Test
+    void snapshotBalances_WhenNoPaymentSettledSinceWatermark_ShouldSkip() {
+        // Arrange
+        when(jdbcTemplate.queryForObject(contains("FROM loan_balance_snapshots"), eq(Long.class))).thenReturn(42L);
+        when(jdbcTemplate.queryForList(contains("WHERE posted_at < ?"), eq(Long.class), any(Object[].class)))
+                .thenReturn(List.of(42L));
+
+        // Act
+        int rows = loanPaymentService.snapshotBalances();
+
+        // Assert
+        assertEquals(0, rows);
+
+        // Verify
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    private void rows(String table, ResultSet... rows) {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            for (ResultSet row : rows) {
+                handler.processRow(row);
+            }
+            return null;
+        }).when(namedParameterJdbcTemplate).query(contains(table + " WHERE"), anyMap(), any(RowCallbackHandler.class));
+    }
+
+    private static ResultSet loan(String loanNumber, int amountPaid, int outstandingAmount) throws Exception {
+        ResultSet row = mock(ResultSet.class, withSettings().strictness(Strictness.LENIENT));
+        when(row.getString(1)).thenReturn(loanNumber);
+        when(row.getString(2)).thenReturn(LoansConstants.HOME_LOAN);
+        when(row.getInt(3)).thenReturn(amountPaid);
+        when(row.getInt(4)).thenReturn(outstandingAmount);
+        return row;
+    }
+
+    private static ResultSet posted(String idempotencyKey, String loanNumber, int amount, LocalDateTime postedAt) throws Exception {
+        ResultSet row = mock(ResultSet.class, withSettings().strictness(Strictness.LENIENT));
+        when(row.getString(1)).thenReturn(idempotencyKey);
+        when(row.getString(2)).thenReturn(loanNumber);
+        when(row.getInt(3)).thenReturn(amount);
+        when(row.getTimestamp(4)).thenReturn(Timestamp.valueOf(postedAt));
+        return row;
+    }
+}
@@ -0,0 +1,130 @@
+package com.bytes.loans.service.impl;
+
+import com.bytes.loans.constants.LoansConstants;
+import com.bytes.loans.dto.RepricingResultDto;
+import com.bytes.loans.engine.AmortizationEngine;
+import com.bytes.loans.exception.RepricingFailedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoanRepricingServiceImplTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private LoanRepricingServiceImpl loanRepricingService;
+
+    @BeforeEach
+    void setUp() {
+        loanRepricingService = new LoanRepricingServiceImpl(jdbcTemplate, transactionManager, 2, 1000, 0);
+    }
+
+    @Test
+    void repriceFloatingLoans_ShouldRecalculateRateAndEmiOfEveryFloatingLoan() throws Exception {
+        // Arrange
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq(LoansConstants.RATE_TYPE_FLOATING)))
+                .thenReturn(List.of(LoansConstants.HOME_LOAN));
+        ResultSet row = mock(ResultSet.class, withSettings().strictness(Strictness.LENIENT));
+        when(row.getLong(1)).thenReturn(7L);
+        when(row.getInt(2)).thenReturn(100000);
+        when(row.getDouble(3)).thenReturn(1.5d);
+        when(row.getInt(4)).thenReturn(14);
+        when(row.getDate(5)).thenReturn(Date.valueOf(LocalDate.now().minusMonths(2)));
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(row);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1});
+
+        // Act
+        RepricingResultDto result = loanRepricingService.repriceFloatingLoans(10.5d);
+
+        // Assert
+        assertEquals(1, result.getLoanTypes());
+        assertEquals(1, result.getLoansRepriced());
+        assertEquals(1, result.getChunks());
+
+        // Verify
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> updates = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), updates.capture());
+        Object[] update = updates.getValue().get(0);
+        // base rate plus the loan's spread, EMI of 1 lakh at 12% over the 12 of 14 months left
+        assertEquals(12d, update[0]);
+        assertEquals(AmortizationEngine.monthlyInstalment(10_000_000L, AmortizationEngine.monthlyRate(12d), 12), update[1]);
+        assertEquals(7L, update[2]);
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void repriceFloatingLoans_WhenBatchUpdateFails_ShouldRollBackTheChunk() throws Exception {
+        // Arrange
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq(LoansConstants.RATE_TYPE_FLOATING)))
+                .thenReturn(List.of(LoansConstants.HOME_LOAN));
+        ResultSet row = mock(ResultSet.class, withSettings().strictness(Strictness.LENIENT));
+        when(row.getLong(1)).thenReturn(7L);
+        when(row.getDouble(3)).thenReturn(1.5d);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(row);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+        TransactionStatus status = mock(TransactionStatus.class);
+        when(transactionManager.getTransaction(any())).thenReturn(status);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"));
+
+        // Act
+        RepricingFailedException exception = assertThrows(RepricingFailedException.class,
+                () -> loanRepricingService.repriceFloatingLoans(10.5d));
+
+        // Assert
+        assertInstanceOf(DataAccessResourceFailureException.class, exception.getCause());
+
+        // Verify
+        verify(transactionManager).rollback(status);
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    void throttle_ShouldSpaceRowsToTheBudget() throws Exception {
+        // Arrange
+        LoanRepricingServiceImpl.Throttle throttle = new LoanRepricingServiceImpl.Throttle(1000);
+
+        // Act
+        long first = throttle.acquire(100);
+        long second = throttle.acquire(100);
+
+        // Assert
+        assertEquals(0, first);
+        // the second chunk waits for the 100 ms the first one used up
+        assertTrue(second > 50_000_000L, "waited " + second);
+    }
+}
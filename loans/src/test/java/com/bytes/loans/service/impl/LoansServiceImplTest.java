@@ -1,22 +1,31 @@
 package com.bytes.loans.service.impl;
 
 import com.bytes.loans.constants.LoansConstants;
+import com.bytes.loans.dto.EligibilityDecisionDto;
 import com.bytes.loans.dto.LoansDto;
 import com.bytes.loans.entity.Loans;
 import com.bytes.loans.exception.LoanAlreadyExistException;
+import com.bytes.loans.exception.LoanNotEligibleException;
 import com.bytes.loans.exception.ResourceNotFoundException;
 import com.bytes.loans.repository.LoansRepository;
+import com.bytes.loans.service.EligibilityService;
+import com.bytes.loans.service.PortfolioSummaryService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,6 +34,12 @@ class LoansServiceImplTest {
     @Mock
     private LoansRepository loansRepository;
 
+    @Mock
+    private PortfolioSummaryService portfolioSummaryService;
+
+    @Mock
+    private EligibilityService eligibilityService;
+
     @InjectMocks
     private LoansServiceImpl loansService;
 
@@ -43,6 +58,7 @@ class LoansServiceImplTest {
                 .totalLoan(100000)
                 .amountPaid(20000)
                 .outstandingAmount(80000)
+                .rateType(LoansConstants.RATE_TYPE_FIXED)
                 .build();
 
         loansDto = LoansDto.builder()
@@ -52,111 +68,341 @@ class LoansServiceImplTest {
                 .totalLoan(100000)
                 .amountPaid(20000)
                 .outstandingAmount(80000)
+                .rateType(LoansConstants.RATE_TYPE_FIXED)
+                .rateSpread(0d)
                 .build();
     }
 
     @Test
     void createLoan_WhenLoanDoesNotExist_ShouldCreateLoan() {
         // Arrange
-        when(loansRepository.findByMobileNumber(mobileNumber)).thenReturn(Optional.empty());
+        when(loansRepository.findByMobileNumber(mobileNumber)).thenReturn(List.of());
+        when(eligibilityService.evaluate(any())).thenReturn(EligibilityDecisionDto.builder()
+                .eligible(true).ruleId("default").approvedAmount(100000).interestRate(8.5).tenureMonths(240).build());
         when(loansRepository.save(any(Loans.class))).thenReturn(loans);
 
         // Act
-        loansService.createLoan(mobileNumber);
+        loansService.createLoan(mobileNumber, LoansConstants.HOME_LOAN, LoansConstants.RATE_TYPE_FIXED, 0);
 
         // Assert
         verify(loansRepository, times(1)).findByMobileNumber(mobileNumber);
-        verify(loansRepository, times(1)).save(any(Loans.class));
+        verify(loansRepository, times(1)).save(argThat(loan -> loan.getTotalLoan() == 100000
+                && loan.getOutstandingAmount() == 100000 && loan.getInterestRate() == 8.5));
+        verify(portfolioSummaryService, times(1)).record(LoansConstants.HOME_LOAN, 1, 100000, 20000, 80000);
+    }
+
+    @Test
+    void createLoan_WhenNotEligible_ShouldThrowException() {
+        // Arrange
+        when(loansRepository.findByMobileNumber(mobileNumber)).thenReturn(List.of());
+        when(eligibilityService.evaluate(any())).thenReturn(EligibilityDecisionDto.builder()
+                .eligible(false).ruleId("sub-prime").build());
+
+        // Act & Assert
+        assertThrows(LoanNotEligibleException.class, () -> loansService.createLoan(mobileNumber, LoansConstants.HOME_LOAN, LoansConstants.RATE_TYPE_FIXED, 0));
+        verify(loansRepository, never()).save(any(Loans.class));
+        verify(portfolioSummaryService, never()).record(any(), anyLong(), anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void createLoan_WhenCustomerHoldsOtherLoanType_ShouldCreateLoan() {
+        // Arrange
+        when(loansRepository.findByMobileNumber(mobileNumber)).thenReturn(List.of(loans));
+        when(eligibilityService.evaluate(any())).thenReturn(EligibilityDecisionDto.builder()
+                .eligible(true).ruleId("default").approvedAmount(100000).interestRate(8.5).tenureMonths(240).build());
+        when(loansRepository.save(any(Loans.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        loansService.createLoan(mobileNumber, "Car Loan", LoansConstants.RATE_TYPE_FIXED, 0);
+
+        // Assert
+        verify(eligibilityService, times(1)).evaluate(argThat(application -> "Car Loan".equals(application.getLoanType())));
+        verify(loansRepository, times(1)).save(argThat(loan -> "Car Loan".equals(loan.getLoanType())));
+        verify(portfolioSummaryService, times(1)).record("Car Loan", 1, 100000, 0, 100000);
     }
 
     @Test
-    void createLoan_WhenLoanExists_ShouldThrowException() {
+    void createLoan_WhenLoanTypeExists_ShouldThrowException() {
         // Arrange
-        when(loansRepository.findByMobileNumber(mobileNumber)).thenReturn(Optional.of(loans));
+        when(loansRepository.findByMobileNumber(mobileNumber)).thenReturn(List.of(loans));
 
         // Act & Assert
-        assertThrows(LoanAlreadyExistException.class, () -> loansService.createLoan(mobileNumber));
+        assertThrows(LoanAlreadyExistException.class, () -> loansService.createLoan(mobileNumber, LoansConstants.HOME_LOAN, LoansConstants.RATE_TYPE_FIXED, 0));
         verify(loansRepository, times(1)).findByMobileNumber(mobileNumber);
         verify(loansRepository, never()).save(any(Loans.class));
     }
 
     @Test
-    void fetchLoanDetails_WhenLoanExists_ShouldReturnLoanDetails() {
+    void createLoan_WhenMaximumLoansReached_ShouldThrowException() {
+        // Arrange
+        when(loansRepository.findByMobileNumber(mobileNumber))
+                .thenReturn(Collections.nCopies(LoansConstants.MAX_LOANS_PER_CUSTOMER, loans));
+
+        // Act & Assert
+        assertThrows(LoanAlreadyExistException.class, () -> loansService.createLoan(mobileNumber, "Car Loan", LoansConstants.RATE_TYPE_FIXED, 0));
+        verifyNoInteractions(eligibilityService);
+        verify(loansRepository, never()).save(any(Loans.class));
+    }
+
+    @Test
+    void createLoan_WhenLoanTypeIsCreatedConcurrently_ShouldThrowException() {
         // Arrange
-        when(loansRepository.findByMobileNumber(mobileNumber)).thenReturn(Optional.of(loans));
+        when(loansRepository.findByMobileNumber(mobileNumber)).thenReturn(List.of());
+        when(eligibilityService.evaluate(any())).thenReturn(EligibilityDecisionDto.builder()
+                .eligible(true).ruleId("default").approvedAmount(100000).interestRate(8.5).tenureMonths(240).build());
+        when(loansRepository.save(any(Loans.class))).thenThrow(new DataIntegrityViolationException("uk_loans_mobile_number_loan_type"));
+
+        // Act & Assert
+        assertThrows(LoanAlreadyExistException.class, () -> loansService.createLoan(mobileNumber, LoansConstants.HOME_LOAN, LoansConstants.RATE_TYPE_FIXED, 0));
+        verifyNoInteractions(portfolioSummaryService);
+    }
+
+    @Test
+    void createLoan_WhenFloating_ShouldStoreRateTypeAndSpread() {
+        // Arrange
+        when(loansRepository.findByMobileNumber(mobileNumber)).thenReturn(List.of());
+        when(eligibilityService.evaluate(any())).thenReturn(EligibilityDecisionDto.builder()
+                .eligible(true).ruleId("default").approvedAmount(100000).interestRate(8.5).tenureMonths(240).build());
+        when(loansRepository.save(any(Loans.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act
-        LoansDto result = loansService.fetchLoanDetails(mobileNumber);
+        loansService.createLoan(mobileNumber, LoansConstants.HOME_LOAN, LoansConstants.RATE_TYPE_FLOATING, 1.75);
+
+        // Assert
+        verify(loansRepository, times(1)).save(argThat(loan -> LoansConstants.RATE_TYPE_FLOATING.equals(loan.getRateType())
+                && loan.getRateSpread() == 1.75 && loan.getInterestRate() == 8.5));
+    }
+
+    @Test
+    void createLoan_WhenFixedWithSpread_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> loansService.createLoan(mobileNumber, LoansConstants.HOME_LOAN, LoansConstants.RATE_TYPE_FIXED, 1.75));
+        verifyNoInteractions(loansRepository, eligibilityService);
+    }
+
+    @Test
+    void fetchLoans_WhenLoansExist_ShouldReturnAllLoans() {
+        // Arrange
+        Loans carLoan = Loans.builder()
+                .loanId(2L)
+                .mobileNumber(mobileNumber)
+                .loanNumber("223456789012")
+                .loanType("Car Loan")
+                .totalLoan(500000)
+                .amountPaid(0)
+                .outstandingAmount(500000)
+                .build();
+        when(loansRepository.findByMobileNumber(mobileNumber)).thenReturn(List.of(loans, carLoan));
+
+        // Act
+        List<LoansDto> result = loansService.fetchLoans(mobileNumber);
 
         // Assert
         verify(loansRepository, times(1)).findByMobileNumber(mobileNumber);
-        assertEquals(mobileNumber, result.getMobileNumber());
-        assertEquals(loans.getLoanNumber(), result.getLoanNumber());
-        assertEquals(loans.getLoanType(), result.getLoanType());
-        assertEquals(loans.getTotalLoan(), result.getTotalLoan());
-        assertEquals(loans.getAmountPaid(), result.getAmountPaid());
-        assertEquals(loans.getOutstandingAmount(), result.getOutstandingAmount());
+        assertEquals(2, result.size());
+        assertEquals(loansDto, result.get(0));
+        assertEquals("Car Loan", result.get(1).getLoanType());
+        assertEquals(500000, result.get(1).getOutstandingAmount());
     }
 
     @Test
-    void fetchLoanDetails_WhenLoanDoesNotExist_ShouldThrowException() {
+    void fetchLoans_WhenLoanDoesNotExist_ShouldThrowException() {
         // Arrange
-        when(loansRepository.findByMobileNumber(mobileNumber)).thenReturn(Optional.empty());
+        when(loansRepository.findByMobileNumber(mobileNumber)).thenReturn(List.of());
 
         // Act & Assert
-        assertThrows(ResourceNotFoundException.class, () -> loansService.fetchLoanDetails(mobileNumber));
+        assertThrows(ResourceNotFoundException.class, () -> loansService.fetchLoans(mobileNumber));
         verify(loansRepository, times(1)).findByMobileNumber(mobileNumber);
     }
 
     @Test
-    void updateLoanDetails_WhenLoanExists_ShouldUpdateAndReturnTrue() {
+    void fetchLoansForCustomers_ShouldGroupLoansByMobileNumber() {
         // Arrange
-        when(loansRepository.findByMobileNumber(mobileNumber)).thenReturn(Optional.of(loans));
-        when(loansRepository.save(any(Loans.class))).thenReturn(loans);
+        Loans otherCustomerLoan = Loans.builder()
+                .mobileNumber("9876543210")
+                .loanNumber("323456789012")
+                .loanType(LoansConstants.HOME_LOAN)
+                .build();
+        List<String> mobileNumbers = List.of(mobileNumber, "9876543210", "5555555555");
+        when(loansRepository.findByMobileNumberIn(mobileNumbers)).thenReturn(List.of(loans, otherCustomerLoan));
+
+        // Act
+        Map<String, List<LoansDto>> result = loansService.fetchLoansForCustomers(mobileNumbers);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals(List.of(loansDto), result.get(mobileNumber));
+        assertEquals("323456789012", result.get("9876543210").get(0).getLoanNumber());
+        assertFalse(result.containsKey("5555555555"));
+
+        // Verify
+        verify(loansRepository, times(1)).findByMobileNumberIn(mobileNumbers);
+    }
+
+    @Test
+    void fetchLoansForCustomers_WhenNoMobileNumbers_ShouldNotQuery() {
+        // Act
+        Map<String, List<LoansDto>> result = loansService.fetchLoansForCustomers(List.of());
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(loansRepository);
+    }
+
+    @Test
+    void updateLoanDetails_WhenLoanExists_ShouldUpdateInPlaceAndReturnTrue() {
+        // Arrange
+        loansDto.setAmountPaid(30000);
+        loansDto.setOutstandingAmount(70000);
+        when(loansRepository.findFirstByMobileNumberAndLoanNumberOrderByLoanIdDesc(mobileNumber, loansDto.getLoanNumber()))
+                .thenReturn(Optional.of(loans));
 
         // Act
         boolean result = loansService.updateLoanDetails(loansDto);
 
         // Assert
-        verify(loansRepository, times(1)).findByMobileNumber(mobileNumber);
-        verify(loansRepository, times(1)).save(any(Loans.class));
         assertTrue(result);
+        assertEquals(1L, loans.getLoanId());
+        assertEquals(30000, loans.getAmountPaid());
+        assertEquals(70000, loans.getOutstandingAmount());
+        verify(loansRepository, never()).save(any(Loans.class));
+        verify(portfolioSummaryService, times(1)).record(LoansConstants.HOME_LOAN, -1, -100000, -20000, -80000);
+        verify(portfolioSummaryService, times(1)).record(LoansConstants.HOME_LOAN, 1, 100000, 30000, 70000);
+    }
+
+    @Test
+    void updateLoanDetails_WhenRateTypeAndSpreadGiven_ShouldSwitchTheLoanToFloating() {
+        // Arrange
+        loans.setRateType(LoansConstants.RATE_TYPE_FIXED);
+        loansDto.setRateType(LoansConstants.RATE_TYPE_FLOATING);
+        loansDto.setRateSpread(2.0);
+        when(loansRepository.findFirstByMobileNumberAndLoanNumberOrderByLoanIdDesc(mobileNumber, loansDto.getLoanNumber()))
+                .thenReturn(Optional.of(loans));
+
+        // Act
+        loansService.updateLoanDetails(loansDto);
+
+        // Assert
+        assertEquals(LoansConstants.RATE_TYPE_FLOATING, loans.getRateType());
+        assertEquals(2.0, loans.getRateSpread());
+    }
+
+    @Test
+    void updateLoanDetails_WhenSwitchedToFixed_ShouldDropTheSpread() {
+        // Arrange
+        loans.setRateType(LoansConstants.RATE_TYPE_FLOATING);
+        loans.setRateSpread(2.0);
+        loansDto.setRateType(LoansConstants.RATE_TYPE_FIXED);
+        when(loansRepository.findFirstByMobileNumberAndLoanNumberOrderByLoanIdDesc(mobileNumber, loansDto.getLoanNumber()))
+                .thenReturn(Optional.of(loans));
+
+        // Act
+        loansService.updateLoanDetails(loansDto);
+
+        // Assert
+        assertEquals(LoansConstants.RATE_TYPE_FIXED, loans.getRateType());
+        assertEquals(0d, loans.getRateSpread());
+    }
+
+    @Test
+    void updateLoanDetails_WhenFixedWithSpread_ShouldThrowException() {
+        // Arrange
+        loans.setRateType(LoansConstants.RATE_TYPE_FIXED);
+        loansDto.setRateSpread(2.0);
+        when(loansRepository.findFirstByMobileNumberAndLoanNumberOrderByLoanIdDesc(mobileNumber, loansDto.getLoanNumber()))
+                .thenReturn(Optional.of(loans));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> loansService.updateLoanDetails(loansDto));
+        assertEquals(0d, loans.getRateSpread());
+        verifyNoInteractions(portfolioSummaryService);
+    }
+
+    @Test
+    void updateLoanDetails_WhenCustomerHoldsTheNewLoanType_ShouldThrowException() {
+        // Arrange
+        loansDto.setLoanType("Car Loan");
+        when(loansRepository.findFirstByMobileNumberAndLoanNumberOrderByLoanIdDesc(mobileNumber, loansDto.getLoanNumber()))
+                .thenReturn(Optional.of(loans));
+        doThrow(new DataIntegrityViolationException("uk_loans_mobile_number_loan_type")).when(loansRepository).flush();
+
+        // Act & Assert
+        assertThrows(LoanAlreadyExistException.class, () -> loansService.updateLoanDetails(loansDto));
+        verify(portfolioSummaryService, never()).record("Car Loan", 1, 100000, 20000, 80000);
+    }
+
+    @Test
+    void updateLoanDetails_WhenLoanTypeIsUnknown_ShouldThrowException() {
+        // Arrange
+        loansDto.setLoanType("Boat Loan");
+        when(loansRepository.findFirstByMobileNumberAndLoanNumberOrderByLoanIdDesc(mobileNumber, loansDto.getLoanNumber()))
+                .thenReturn(Optional.of(loans));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> loansService.updateLoanDetails(loansDto));
+        assertEquals(LoansConstants.HOME_LOAN, loans.getLoanType());
+        verifyNoInteractions(portfolioSummaryService);
+    }
+
+    @Test
+    void updateLoanDetails_WhenRateTypeIsUnknown_ShouldThrowException() {
+        // Arrange
+        loansDto.setRateType("VARIABLE");
+        when(loansRepository.findFirstByMobileNumberAndLoanNumberOrderByLoanIdDesc(mobileNumber, loansDto.getLoanNumber()))
+                .thenReturn(Optional.of(loans));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> loansService.updateLoanDetails(loansDto));
+        assertEquals(LoansConstants.RATE_TYPE_FIXED, loans.getRateType());
+        verifyNoInteractions(portfolioSummaryService);
     }
 
     @Test
     void updateLoanDetails_WhenLoanDoesNotExist_ShouldThrowException() {
         // Arrange
-        when(loansRepository.findByMobileNumber(mobileNumber)).thenReturn(Optional.empty());
+        when(loansRepository.findFirstByMobileNumberAndLoanNumberOrderByLoanIdDesc(mobileNumber, loansDto.getLoanNumber()))
+                .thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> loansService.updateLoanDetails(loansDto));
-        verify(loansRepository, times(1)).findByMobileNumber(mobileNumber);
         verify(loansRepository, never()).save(any(Loans.class));
+        verifyNoInteractions(portfolioSummaryService);
     }
 
     @Test
-    void deleteLoan_WhenLoanExists_ShouldDeleteAndReturnTrue() {
+    void deleteLoan_WhenLoansExist_ShouldDeleteAllAndReturnTrue() {
         // Arrange
-        when(loansRepository.findByMobileNumber(mobileNumber)).thenReturn(Optional.of(loans));
-        doNothing().when(loansRepository).deleteById(loans.getLoanId());
+        Loans carLoan = Loans.builder()
+                .loanId(2L)
+                .mobileNumber(mobileNumber)
+                .loanNumber("223456789012")
+                .loanType("Car Loan")
+                .totalLoan(500000)
+                .amountPaid(0)
+                .outstandingAmount(500000)
+                .build();
+        when(loansRepository.findByMobileNumber(mobileNumber)).thenReturn(List.of(loans, carLoan));
 
         // Act
         boolean result = loansService.deleteLoan(mobileNumber);
 
         // Assert
         verify(loansRepository, times(1)).findByMobileNumber(mobileNumber);
-        verify(loansRepository, times(1)).deleteById(loans.getLoanId());
+        verify(loansRepository, times(1)).deleteAllInBatch(List.of(loans, carLoan));
+        verify(portfolioSummaryService, times(1)).record(LoansConstants.HOME_LOAN, -1, -100000, -20000, -80000);
+        verify(portfolioSummaryService, times(1)).record("Car Loan", -1, -500000, 0, -500000);
         assertTrue(result);
     }
 
     @Test
     void deleteLoan_WhenLoanDoesNotExist_ShouldThrowException() {
         // Arrange
-        when(loansRepository.findByMobileNumber(mobileNumber)).thenReturn(Optional.empty());
+        when(loansRepository.findByMobileNumber(mobileNumber)).thenReturn(List.of());
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> loansService.deleteLoan(mobileNumber));
         verify(loansRepository, times(1)).findByMobileNumber(mobileNumber);
-        verify(loansRepository, never()).deleteById(any());
+        verify(loansRepository, never()).deleteAllInBatch(any());
     }
-}
\ No newline at end of file
+}
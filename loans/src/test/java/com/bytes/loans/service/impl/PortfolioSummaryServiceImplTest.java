@@ -0,0 +1,278 @@
+package com.bytes.loans.service.impl;
+
+import com.bytes.loans.constants.LoansConstants;
+import com.bytes.loans.dto.LoanTypeSummaryDto;
+import com.bytes.loans.dto.PortfolioSummaryDto;
+import com.bytes.loans.event.PortfolioDeltaRemoteEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.quality.Strictness;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.bus.ServiceMatcher;
+import org.springframework.cloud.bus.event.PathDestinationFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.sql.ResultSet;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PortfolioSummaryServiceImplTest {
+
+    private static final String PERSONAL_LOAN = "Personal Loan";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher publisher;
+
+    @Mock
+    private ObjectProvider<ServiceMatcher> serviceMatcherProvider;
+
+    @Mock
+    private ServiceMatcher serviceMatcher;
+
+    private PortfolioSummaryServiceImpl portfolioSummaryService;
+
+    @BeforeEach
+    void setUp() {
+        portfolioSummaryService = new PortfolioSummaryServiceImpl(jdbcTemplate, transactionManager, publisher,
+                serviceMatcherProvider, "loans");
+    }
+
+    @Test
+    void fetchSummary_WhenChangesRecorded_ShouldSumPerLoanTypeAndOverall() {
+        // Arrange
+        portfolioSummaryService.record(LoansConstants.HOME_LOAN, 1, 100000, 0, 100000);
+        portfolioSummaryService.record(LoansConstants.HOME_LOAN, 0, 0, 5000, -5000);
+        portfolioSummaryService.record(PERSONAL_LOAN, 1, 50000, 10000, 40000);
+
+        // Act
+        PortfolioSummaryDto summary = portfolioSummaryService.fetchSummary();
+
+        // Assert
+        assertEquals(2, summary.getLoans());
+        assertEquals(150000, summary.getTotalLoan());
+        assertEquals(15000, summary.getAmountPaid());
+        assertEquals(135000, summary.getOutstandingAmount());
+        LoanTypeSummaryDto homeLoans = summary.getLoanTypes().get(0);
+        assertEquals(LoansConstants.HOME_LOAN, homeLoans.getLoanType());
+        assertEquals(95000, homeLoans.getOutstandingAmount());
+    }
+
+    @Test
+    void rebuild_ShouldReplaceTotalsWithScannedLoans() throws Exception {
+        // Arrange
+        portfolioSummaryService.record(PERSONAL_LOAN, 5, 500000, 0, 500000);
+        scan(homeLoan(), homeLoan());
+
+        // Act
+        portfolioSummaryService.rebuild();
+        PortfolioSummaryDto summary = portfolioSummaryService.fetchSummary();
+
+        // Assert
+        assertEquals(1, summary.getLoanTypes().size());
+        assertEquals(2, summary.getLoans());
+        assertEquals(160000, summary.getOutstandingAmount());
+        assertNotNull(summary.getRebuiltAt());
+    }
+
+    @Test
+    void rebuild_ShouldKeepChangesRecordedWhileScanning() throws Exception {
+        // Arrange
+        ResultSet row = homeLoan();
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(row);
+            // committed after the snapshot, so missing from the scan
+            portfolioSummaryService.record(PERSONAL_LOAN, 1, 50000, 0, 50000);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        // Act
+        portfolioSummaryService.rebuild();
+        PortfolioSummaryDto summary = portfolioSummaryService.fetchSummary();
+
+        // Assert
+        assertEquals(2, summary.getLoans());
+        assertEquals(130000, summary.getOutstandingAmount());
+
+        // Verify
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).queryForObject(anyString(), eq(Long.class));
+        inOrder.verify(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void rebuild_WhenCommitIsInFlight_ShouldOpenSnapshotAfterItsDeltaIsApplied() throws Exception {
+        // Arrange
+        scan(homeLoan());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch committing = new CountDownLatch(1);
+        CountDownLatch finishCommit = new CountDownLatch(1);
+        Future<?> transaction = executor.submit(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                // the loan the scan returns, created by a transaction committing while the rebuild starts
+                portfolioSummaryService.record(LoansConstants.HOME_LOAN, 1, 100000, 20000, 80000);
+                TransactionSynchronizationUtils.triggerBeforeCommit(false);
+                committing.countDown();
+                finishCommit.await();
+                TransactionSynchronizationUtils.triggerAfterCommit();
+                TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+            return null;
+        });
+        committing.await();
+
+        // Act
+        Thread rebuild = new Thread(portfolioSummaryService::rebuild);
+        rebuild.start();
+        Thread.sleep(200);
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Long.class));
+        finishCommit.countDown();
+        transaction.get(5, TimeUnit.SECONDS);
+        rebuild.join(5000);
+        executor.shutdown();
+
+        // Assert
+        PortfolioSummaryDto summary = portfolioSummaryService.fetchSummary();
+        assertEquals(1, summary.getLoans());
+        assertEquals(80000, summary.getOutstandingAmount());
+    }
+
+    @Test
+    void publish_WhenChangesCommitted_ShouldSendTheirSumToTheOtherInstances() {
+        // Arrange
+        when(serviceMatcherProvider.getIfAvailable()).thenReturn(serviceMatcher);
+        when(serviceMatcher.getBusId()).thenReturn("loans:8090:a");
+        portfolioSummaryService.record(LoansConstants.HOME_LOAN, 1, 100000, 0, 100000);
+        portfolioSummaryService.record(LoansConstants.HOME_LOAN, 0, 0, 5000, -5000);
+
+        // Act
+        int published = portfolioSummaryService.publish();
+        int republished = portfolioSummaryService.publish();
+
+        // Assert
+        assertEquals(1, published);
+        assertEquals(0, republished);
+
+        // Verify
+        ArgumentCaptor<PortfolioDeltaRemoteEvent> event = ArgumentCaptor.forClass(PortfolioDeltaRemoteEvent.class);
+        verify(publisher).publishEvent(event.capture());
+        assertEquals("loans:8090:a", event.getValue().getOriginService());
+        assertEquals("loans:**", event.getValue().getDestinationService());
+        assertArrayEquals(new long[]{1, 100000, 5000, 95000}, event.getValue().getDeltas().get(LoansConstants.HOME_LOAN));
+    }
+
+    @Test
+    void publish_WhenSendingFails_ShouldKeepTheDeltasForTheNextPublish() {
+        // Arrange
+        when(serviceMatcherProvider.getIfAvailable()).thenReturn(serviceMatcher);
+        when(serviceMatcher.getBusId()).thenReturn("loans:8090:a");
+        portfolioSummaryService.record(PERSONAL_LOAN, 1, 50000, 0, 50000);
+        doThrow(new IllegalStateException("broker unavailable")).doNothing()
+                .when(publisher).publishEvent(any(PortfolioDeltaRemoteEvent.class));
+
+        // Act
+        int failed = portfolioSummaryService.publish();
+        int retried = portfolioSummaryService.publish();
+
+        // Assert
+        assertEquals(0, failed);
+        assertEquals(1, retried);
+
+        // Verify
+        ArgumentCaptor<PortfolioDeltaRemoteEvent> event = ArgumentCaptor.forClass(PortfolioDeltaRemoteEvent.class);
+        verify(publisher, times(2)).publishEvent(event.capture());
+        assertArrayEquals(new long[]{1, 50000, 0, 50000}, event.getAllValues().get(1).getDeltas().get(PERSONAL_LOAN));
+    }
+
+    @Test
+    void onPortfolioDelta_WhenSentByAnotherInstance_ShouldAddItToTheTotals() {
+        // Arrange
+        PortfolioDeltaRemoteEvent fromPeer = delta("loans:8091:b");
+        PortfolioDeltaRemoteEvent fromSelf = delta("loans:8090:a");
+        when(serviceMatcherProvider.getIfAvailable()).thenReturn(serviceMatcher);
+        when(serviceMatcher.isFromSelf(fromPeer)).thenReturn(false);
+        when(serviceMatcher.isFromSelf(fromSelf)).thenReturn(true);
+
+        // Act
+        portfolioSummaryService.onPortfolioDelta(fromPeer);
+        portfolioSummaryService.onPortfolioDelta(fromSelf);
+        PortfolioSummaryDto summary = portfolioSummaryService.fetchSummary();
+
+        // Assert
+        assertEquals(1, summary.getLoans());
+        assertEquals(80000, summary.getOutstandingAmount());
+        assertEquals(0, portfolioSummaryService.publish());
+    }
+
+    @Test
+    void publish_WhenNoBusIsConfigured_ShouldSendNothing() {
+        // Arrange
+        portfolioSummaryService.record(PERSONAL_LOAN, 1, 50000, 0, 50000);
+
+        // Act
+        int published = portfolioSummaryService.publish();
+
+        // Assert
+        assertEquals(0, published);
+
+        // Verify
+        verifyNoInteractions(publisher);
+    }
+
+    private static PortfolioDeltaRemoteEvent delta(String originService) {
+        return new PortfolioDeltaRemoteEvent(new Object(), originService,
+                new PathDestinationFactory().getDestination("loans:**"),
+                Map.of(LoansConstants.HOME_LOAN, new long[]{1, 100000, 20000, 80000}));
+    }
+
+    private void scan(ResultSet... rows) {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (ResultSet row : rows) {
+                handler.processRow(row);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    private static ResultSet homeLoan() throws Exception {
+        ResultSet row = mock(ResultSet.class, withSettings().strictness(Strictness.LENIENT));
+        when(row.getString(1)).thenReturn(LoansConstants.HOME_LOAN);
+        when(row.getInt(2)).thenReturn(100000);
+        when(row.getInt(3)).thenReturn(20000);
+        when(row.getInt(4)).thenReturn(80000);
+        return row;
+    }
+}
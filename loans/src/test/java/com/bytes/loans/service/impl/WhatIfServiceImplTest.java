@@ -0,0 +1,115 @@
+package com.bytes.loans.service.impl;
+
+import com.bytes.loans.dto.WhatIfOutcomeDto;
+import com.bytes.loans.dto.WhatIfRequestDto;
+import com.bytes.loans.dto.WhatIfResponseDto;
+import com.bytes.loans.dto.WhatIfScenarioDto;
+import com.bytes.loans.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WhatIfServiceImplTest {
+
+    private static final String LOAN_NUMBER = "548732457654";
+
+    @Mock
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @InjectMocks
+    private WhatIfServiceImpl whatIfService;
+
+    @Test
+    void evaluate_WhenScenariosAreComplete_ShouldNotLoadLoans() {
+        // Arrange
+        WhatIfRequestDto request = new WhatIfRequestDto(List.of(
+                WhatIfScenarioDto.builder().principal(100000).interestRate(12d).tenureMonths(12).build(),
+                WhatIfScenarioDto.builder().principal(100000).interestRate(12d).tenureMonths(12)
+                        .prepaymentAmount(50000).prepaymentMonth(3).build()));
+
+        // Act
+        WhatIfResponseDto response = whatIfService.evaluate(request);
+
+        // Assert
+        List<WhatIfOutcomeDto> outcomes = response.getOutcomes();
+        assertEquals(2, outcomes.size());
+        assertEquals(8884.88, outcomes.get(0).getMonthlyInstalment());
+        assertEquals(12, outcomes.get(0).getMonthsToPayoff());
+        assertEquals(8884.88, outcomes.get(1).getMonthlyInstalment());
+        assertTrue(outcomes.get(1).getMonthsToPayoff() < 12);
+        assertTrue(outcomes.get(1).getInterestSaved() > 0);
+
+        // Verify
+        verifyNoInteractions(namedParameterJdbcTemplate);
+    }
+
+    @Test
+    void evaluate_WhenScenarioRefersToLoan_ShouldStartFromLoanTerms() throws Exception {
+        // Arrange
+        ResultSet row = mock(ResultSet.class, withSettings().strictness(Strictness.LENIENT));
+        when(row.getString(1)).thenReturn(LOAN_NUMBER);
+        when(row.getInt(2)).thenReturn(80000);
+        when(row.getDouble(3)).thenReturn(8.5);
+        when(row.getInt(4)).thenReturn(240);
+        when(row.getDate(5)).thenReturn(Date.valueOf(LocalDate.now().minusMonths(60)));
+        doAnswer(invocation -> {
+            ((RowCallbackHandler) invocation.getArgument(2)).processRow(row);
+            return null;
+        }).when(namedParameterJdbcTemplate).query(anyString(), anyMap(), any(RowCallbackHandler.class));
+        WhatIfRequestDto request = new WhatIfRequestDto(List.of(
+                WhatIfScenarioDto.builder().loanNumber(LOAN_NUMBER).build(),
+                WhatIfScenarioDto.builder().loanNumber(LOAN_NUMBER).interestRate(7.5).tenureMonths(120).build()));
+
+        // Act
+        WhatIfResponseDto response = whatIfService.evaluate(request);
+
+        // Assert
+        WhatIfOutcomeDto current = response.getOutcomes().get(0);
+        assertEquals(80000, current.getPrincipal());
+        assertEquals(8.5, current.getInterestRate());
+        assertEquals(180, current.getTenureMonths());
+        WhatIfOutcomeDto refinanced = response.getOutcomes().get(1);
+        assertEquals(80000, refinanced.getPrincipal());
+        assertEquals(7.5, refinanced.getInterestRate());
+        assertTrue(refinanced.getTotalInterest() < current.getTotalInterest());
+
+        // Verify
+        verify(namedParameterJdbcTemplate, times(1)).query(anyString(), anyMap(), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void evaluate_WhenLoanDoesNotExist_ShouldThrowException() {
+        // Arrange
+        WhatIfRequestDto request = new WhatIfRequestDto(List.of(WhatIfScenarioDto.builder().loanNumber(LOAN_NUMBER).build()));
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> whatIfService.evaluate(request));
+    }
+
+    @Test
+    void evaluate_WhenPrepaymentIsAfterTenure_ShouldThrowException() {
+        // Arrange
+        WhatIfRequestDto request = new WhatIfRequestDto(List.of(WhatIfScenarioDto.builder()
+                .principal(100000).interestRate(12d).tenureMonths(12).prepaymentAmount(1000).prepaymentMonth(24).build()));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> whatIfService.evaluate(request));
+    }
+}
@@ -0,0 +1,61 @@
+package com.bytes.loans.validation;
+
+import com.bytes.loans.dto.LoansDto;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoanTypeValidatorTest {
+
+    private static ValidatorFactory validatorFactory;
+    private static Validator validator;
+
+    @BeforeAll
+    static void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void validate_WhenLoanTypeIsAKnownLabel_ShouldAcceptIt() {
+        // Act
+        Set<ConstraintViolation<LoansDto>> violations = validator.validate(loan("Car Loan"));
+
+        // Assert
+        assertTrue(violations.isEmpty());
+    }
+
+    @Test
+    void validate_WhenLoanTypeIsFreeText_ShouldRejectIt() {
+        // Act
+        Set<ConstraintViolation<LoansDto>> violations = validator.validate(loan("home loan "));
+
+        // Assert
+        assertEquals(1, violations.size());
+        assertEquals("loanType", violations.iterator().next().getPropertyPath().toString());
+    }
+
+    private static LoansDto loan(String loanType) {
+        return LoansDto.builder()
+                .mobileNumber("1234567890")
+                .loanNumber("123456789012")
+                .loanType(loanType)
+                .totalLoan(100000)
+                .amountPaid(20000)
+                .outstandingAmount(80000)
+                .build();
+    }
+}